@@ -0,0 +1,62 @@
+package com.example.stockproject;
+
+import com.example.stockproject.model.dto.ImportResultDTO;
+import com.example.stockproject.service.PriceImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * 命令列歷史價格匯入
+ * 
+ * 以 --import=prices.csv.gz[,more.csv] 啟動時，在應用程式就緒前依序匯入指定的 CSV 檔案；
+ * 另外指定 --import.exit 時匯入後結束程式（關閉時會寫出快照，下次啟動即可還原匯入的資料），
+ * 有任何檔案匯入失敗時結束代碼為 1。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增 CSV 批次匯入
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PriceImportRunner implements ApplicationRunner {
+
+    private final PriceImportService priceImportService;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<String> values = args.getOptionValues("import");
+        if (values == null) {
+            return;
+        }
+        boolean failed = false;
+        for (String value : values) {
+            for (String file : value.split(",")) {
+                if (file.isBlank()) {
+                    continue;
+                }
+                try {
+                    ImportResultDTO result = priceImportService.importFile(Path.of(file.trim()));
+                    log.info("{}: 匯入 {} 筆、拒絕 {} 行，{} 筆/秒", file.trim(), result.getRows(),
+                            result.getRejected(), result.getRowsPerSecond());
+                    result.getRejectSamples().forEach(sample -> log.warn("{}: {}", file.trim(), sample));
+                } catch (Exception e) {
+                    log.error("匯入 {} 失敗", file.trim(), e);
+                    failed = true;
+                }
+            }
+        }
+        if (args.containsOption("import.exit")) {
+            int exitCode = failed ? 1 : 0;
+            System.exit(SpringApplication.exit(context, () -> exitCode));
+        }
+    }
+}
@@ -2,17 +2,20 @@ package com.example.stockproject;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * 股票市場專案主應用程式類別
  * 
  * 這是 Spring Boot 應用程式的入口點，負責啟動整個應用程式。
- * 使用 @SpringBootApplication 註解來啟用自動配置和元件掃描。
+ * 使用 @SpringBootApplication 註解來啟用自動配置和元件掃描，
+ * @EnableScheduling 提供背景報價更新使用的 TaskScheduler。
  * 
  * @author Stock Project Team
  * @version 1.0
  */
 @SpringBootApplication
+@EnableScheduling
 public class StockProjectApplication {
 
     /**
@@ -0,0 +1,91 @@
+package com.example.stockproject.archive;
+
+import com.example.stockproject.model.series.DailyBars;
+import com.example.stockproject.model.series.PriceSeries;
+
+/**
+ * 歸檔K線與資料庫K線的合併視圖（零複製）
+ * 
+ * 前段直接讀取 {@link PriceArchiveFile} 的對映緩衝區，後段為快取中的資料庫序列，
+ * 依 {@link PriceArchiveFile#databaseFrom()} 的合併規則接續。視圖本身只保存兩個參照，
+ * 不論歸檔了幾年，建立與保留視圖都不會增加 heap 用量。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增歷史價格歸檔
+ */
+public final class ArchivedPriceView implements DailyBars {
+
+    private final PriceArchiveFile archive;
+    private final int archiveSize;
+    private final PriceSeries recent;
+
+    private ArchivedPriceView(PriceArchiveFile archive, PriceSeries recent) {
+        this.archive = archive;
+        this.archiveSize = archive.size();
+        this.recent = recent.slice(recent.lowerBound(archive.databaseFrom()), recent.size());
+    }
+
+    /**
+     * 建立完整歷史的視圖
+     * 
+     * @param archive 歸檔檔案，null 或空檔案時直接回傳資料庫序列
+     * @param recent  資料庫中的價格序列
+     * @return 包含歸檔舊K線的完整日線
+     */
+    public static DailyBars of(PriceArchiveFile archive, PriceSeries recent) {
+        if (archive == null || archive.isEmpty()) {
+            return recent;
+        }
+        return new ArchivedPriceView(archive, recent);
+    }
+
+    @Override
+    public Long getStockId() {
+        return recent.getStockId();
+    }
+
+    @Override
+    public String getSymbol() {
+        return recent.getSymbol();
+    }
+
+    @Override
+    public int size() {
+        return archiveSize + recent.size();
+    }
+
+    @Override
+    public long idAt(int i) {
+        return i < archiveSize ? 0 : recent.idAt(i - archiveSize);
+    }
+
+    @Override
+    public int epochDayAt(int i) {
+        return i < archiveSize ? archive.epochDayAt(i) : recent.epochDayAt(i - archiveSize);
+    }
+
+    @Override
+    public double openAt(int i) {
+        return i < archiveSize ? archive.openAt(i) : recent.openAt(i - archiveSize);
+    }
+
+    @Override
+    public double highAt(int i) {
+        return i < archiveSize ? archive.highAt(i) : recent.highAt(i - archiveSize);
+    }
+
+    @Override
+    public double lowAt(int i) {
+        return i < archiveSize ? archive.lowAt(i) : recent.lowAt(i - archiveSize);
+    }
+
+    @Override
+    public double closeAt(int i) {
+        return i < archiveSize ? archive.closeAt(i) : recent.closeAt(i - archiveSize);
+    }
+
+    @Override
+    public long volumeAt(int i) {
+        return i < archiveSize ? archive.volumeAt(i) : recent.volumeAt(i - archiveSize);
+    }
+}
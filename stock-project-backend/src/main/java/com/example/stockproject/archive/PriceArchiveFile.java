@@ -0,0 +1,347 @@
+package com.example.stockproject.archive;
+
+import com.example.stockproject.model.series.PriceSeries;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 日線歸檔檔案（每支股票一個檔案，只能在尾端追加的定長二進位格式）
+ * 
+ * 版面（全部 little-endian）：
+ * <pre>
+ * 檔頭 64 位元組：
+ *   int32  magic "SPA1"
+ *   int32  version
+ *   int32  recordSize (48)
+ *   int32  保留
+ *   int64  stockId
+ *   byte[16] symbol (UTF-8，補零)
+ *   補零至 64 位元組
+ * 每筆記錄 48 位元組，依日期遞增：
+ *   int32  epochDay
+ *   int32  保留（8 位元組對齊）
+ *   float64 open, high, low, close
+ *   int64  volume
+ * </pre>
+ * 
+ * 筆數由檔案大小推得，寫到一半的尾端記錄會被忽略。讀取以唯讀
+ * {@link MappedByteBuffer} 對映整個檔案，閒置的歸檔資料留在作業系統的頁快取中，
+ * 不佔用 JVM heap；逐筆存取（{@link #closeAt} 等）直接讀對映的緩衝區，
+ * {@link #read} 則把範圍複製成 heap 上的 {@link PriceSeries}（不是零複製）。
+ * 所有讀取都以絕對位置進行，可在多執行緒間共用。
+ * 與資料庫K線的合併規則見 {@link #databaseFrom()}。
+ * 單一檔案最多約 4400 萬筆（對映上限 2GB）。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增歷史價格歸檔
+ */
+public final class PriceArchiveFile {
+
+    /**
+     * 檔頭識別字 "SPA1"
+     */
+    public static final int MAGIC = 0x31415053;
+
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 64;
+    public static final int RECORD_SIZE = 48;
+
+    private static final int SYMBOL_OFFSET = 24;
+    private static final int SYMBOL_LENGTH = 16;
+
+    private final Path path;
+    private final long stockId;
+    private final MappedByteBuffer buffer;
+    private final int size;
+
+    private PriceArchiveFile(Path path, long stockId, MappedByteBuffer buffer, int size) {
+        this.path = path;
+        this.stockId = stockId;
+        this.buffer = buffer;
+        this.size = size;
+    }
+
+    /**
+     * 對映既有的歸檔檔案
+     * 
+     * @param path 檔案路徑
+     * @return 歸檔檔案
+     * @throws IOException 讀取失敗或格式不正確時拋出
+     */
+    public static PriceArchiveFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_SIZE) {
+                throw new IOException("歸檔檔案不完整: " + path);
+            }
+            long records = (length - HEADER_SIZE) / RECORD_SIZE;
+            long mapped = HEADER_SIZE + records * RECORD_SIZE;
+            if (mapped > Integer.MAX_VALUE) {
+                throw new IOException("歸檔檔案過大: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, mapped);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(8) != RECORD_SIZE) {
+                throw new IOException("不是有效的歸檔檔案: " + path);
+            }
+            return new PriceArchiveFile(path, buffer.getLong(16), buffer, (int) records);
+        }
+    }
+
+    /**
+     * 在檔案尾端追加K線（檔案不存在時建立並寫入檔頭）
+     * 
+     * @param path    檔案路徑
+     * @param stockId 股票識別碼
+     * @param symbol  股票代碼
+     * @param bars    依日期遞增的K線
+     * @throws IOException 寫入失敗時拋出
+     */
+    public static void append(Path path, long stockId, String symbol, PriceSeries bars) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long length = channel.size();
+            if (length < HEADER_SIZE) {
+                channel.truncate(0);
+                writeFully(channel, header(stockId, symbol), 0);
+                length = HEADER_SIZE;
+            }
+            // 捨棄寫到一半的尾端記錄
+            long position = HEADER_SIZE + (length - HEADER_SIZE) / RECORD_SIZE * RECORD_SIZE;
+            channel.truncate(position);
+
+            ByteBuffer chunk = ByteBuffer.allocateDirect(RECORD_SIZE * 1024).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < bars.size(); i++) {
+                if (chunk.remaining() < RECORD_SIZE) {
+                    chunk.flip();
+                    position += writeFully(channel, chunk, position);
+                    chunk.clear();
+                }
+                chunk.putInt(bars.epochDayAt(i));
+                chunk.putInt(0);
+                chunk.putDouble(bars.openAt(i));
+                chunk.putDouble(bars.highAt(i));
+                chunk.putDouble(bars.lowAt(i));
+                chunk.putDouble(bars.closeAt(i));
+                chunk.putLong(bars.volumeAt(i));
+            }
+            chunk.flip();
+            writeFully(channel, chunk, position);
+            channel.force(false);
+        }
+    }
+
+    /**
+     * 把檔案標記為已刪除（清除檔頭識別字，之後 {@link #open} 與 {@link #isDeleted} 都會認得）
+     * 
+     * 仍有讀取端對映時檔案無法刪除（Windows），先標記使其失效，等不再對映後再刪除；
+     * 已對映的讀取端只讀記錄，不受影響。
+     * 
+     * @param path 檔案路徑
+     * @throws IOException 寫入失敗時拋出
+     */
+    public static void markDeleted(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            writeFully(channel, ByteBuffer.allocate(Integer.BYTES), 0);
+            channel.force(false);
+        }
+    }
+
+    /**
+     * 檔案是否已被 {@link #markDeleted} 標記為刪除
+     * 
+     * @param path 檔案路徑
+     * @return 已標記時為 true
+     * @throws IOException 讀取失敗時拋出
+     */
+    public static boolean isDeleted(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+            while (magic.hasRemaining() && channel.read(magic, magic.position()) > 0) {
+                // 讀滿識別字
+            }
+            return !magic.hasRemaining() && magic.getInt(0) == 0;
+        }
+    }
+
+    /**
+     * 只讀取檔頭中的股票識別碼（不對映檔案，讀取後檔案可以立即改名或刪除）
+     * 
+     * @param path 檔案路徑
+     * @return 股票識別碼
+     * @throws IOException 讀取失敗或格式不正確時拋出
+     */
+    public static long readStockId(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+                // 讀滿檔頭
+            }
+            if (header.hasRemaining() || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("不是有效的歸檔檔案: " + path);
+            }
+            return header.getLong(16);
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getStockId() {
+        return stockId;
+    }
+
+    /**
+     * 檔頭中的股票代碼
+     * 
+     * @return 股票代碼
+     */
+    public String getSymbol() {
+        byte[] bytes = new byte[SYMBOL_LENGTH];
+        buffer.get(SYMBOL_OFFSET, bytes);
+        int length = 0;
+        while (length < SYMBOL_LENGTH && bytes[length] != 0) {
+            length++;
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int epochDayAt(int i) {
+        return buffer.getInt(offset(i));
+    }
+
+    public double openAt(int i) {
+        return buffer.getDouble(offset(i) + 8);
+    }
+
+    public double highAt(int i) {
+        return buffer.getDouble(offset(i) + 16);
+    }
+
+    public double lowAt(int i) {
+        return buffer.getDouble(offset(i) + 24);
+    }
+
+    public double closeAt(int i) {
+        return buffer.getDouble(offset(i) + 32);
+    }
+
+    public long volumeAt(int i) {
+        return buffer.getLong(offset(i) + 40);
+    }
+
+    /**
+     * 最後一筆的日期
+     * 
+     * @return epoch-day，空檔案為 Integer.MIN_VALUE
+     */
+    public int lastEpochDay() {
+        return size == 0 ? Integer.MIN_VALUE : epochDayAt(size - 1);
+    }
+
+    /**
+     * 資料庫K線的起始日期（歸檔與資料庫K線的合併規則）
+     * 
+     * 歸檔最後一天（含）之前的日期一律以歸檔為準，資料庫中同一期間的記錄
+     * （例如之後重新匯入或同步的舊日期）不輸出，下一次歸檔時也只會刪除而不追加。
+     * 完整序列、時間範圍查詢、串流輸出、分頁與匯出都以此決定資料庫從哪一天接續。
+     * 
+     * @return epoch-day，空檔案為 Long.MIN_VALUE
+     */
+    public long databaseFrom() {
+        return size == 0 ? Long.MIN_VALUE : lastEpochDay() + 1L;
+    }
+
+    /**
+     * 找出第一個日期大於或等於指定 epoch-day 的索引（二分搜尋）
+     * 
+     * @param epochDay 日期 (epoch-day)
+     * @return 索引，若全部小於該日期則為 size()
+     */
+    public int lowerBound(long epochDay) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (epochDayAt(mid) < epochDay) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * 把索引範圍 [from, to) 的記錄讀成價格序列（歸檔記錄沒有識別碼，id 欄位為 0）
+     * 
+     * 每次呼叫都會把記錄複製到新的 heap 陣列，只需逐筆輸出時應改用 {@link #closeAt} 等存取方法。
+     * 
+     * @param from   起始索引（含）
+     * @param to     結束索引（不含）
+     * @param symbol 股票代碼
+     * @return 價格序列
+     */
+    public PriceSeries read(int from, int to, String symbol) {
+        int count = Math.max(0, to - from);
+        long[] ids = new long[count];
+        int[] epochDays = new int[count];
+        double[] open = new double[count];
+        double[] high = new double[count];
+        double[] low = new double[count];
+        double[] close = new double[count];
+        long[] volume = new long[count];
+        for (int k = 0; k < count; k++) {
+            int at = offset(from + k);
+            epochDays[k] = buffer.getInt(at);
+            open[k] = buffer.getDouble(at + 8);
+            high[k] = buffer.getDouble(at + 16);
+            low[k] = buffer.getDouble(at + 24);
+            close[k] = buffer.getDouble(at + 32);
+            volume[k] = buffer.getLong(at + 40);
+        }
+        return new PriceSeries(stockId, symbol, ids, epochDays, open, high, low, close, volume, count);
+    }
+
+    private static int offset(int i) {
+        return HEADER_SIZE + i * RECORD_SIZE;
+    }
+
+    private static ByteBuffer header(long stockId, String symbol) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.putInt(RECORD_SIZE);
+        header.putInt(0);
+        header.putLong(stockId);
+        byte[] bytes = symbol == null ? new byte[0] : symbol.getBytes(StandardCharsets.UTF_8);
+        header.put(SYMBOL_OFFSET, bytes, 0, Math.min(bytes.length, SYMBOL_LENGTH));
+        header.clear();
+        return header;
+    }
+
+    private static int writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+        return written;
+    }
+}
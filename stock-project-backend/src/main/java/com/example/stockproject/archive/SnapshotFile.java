@@ -0,0 +1,364 @@
+package com.example.stockproject.archive;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * 資料庫狀態快照檔案（股票、日線、觀察清單）
+ * 
+ * 版面（全部 little-endian）：
+ * <pre>
+ * 檔頭 16 位元組：
+ *   int32  magic "SPD1"
+ *   int32  version
+ *   int64  建立時間 (epoch millis)
+ * 之後是一連串以 1 位元組標記開頭的記錄：
+ *   1 股票：     int64 id, str symbol, str name, float64 price, int32 lastSyncedDate (無則 Integer.MIN_VALUE)
+ *   2 日線序列： int64 stockId, int32 size, 接著是欄式陣列
+ *                int32[size] epochDay, float64[size] open, high, low, close, int64[size] volume
+ *   3 觀察清單： int64 id, str userId, int64 stockId
+ *   0 結束：     int64 之前所有位元組的 CRC32
+ * str 為 uint16 長度加 UTF-8 位元組。
+ * </pre>
+ * 
+ * 寫入先寫到同目錄的暫存檔，{@link Writer#commit()} 時才以原子搬移取代舊快照，
+ * 因此寫到一半當機不會破壞上一份快照；讀取時驗證 CRC，檔案損毀會拋出例外。
+ * 日線以欄式區塊寫出，讀取時每個序列一次讀入，不逐筆解析。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增快照與啟動還原
+ */
+public final class SnapshotFile {
+
+    /**
+     * 檔頭識別字 "SPD1"（"SPS1" 已用於 {@link com.example.stockproject.model.series.PriceSeriesCodec} 的二進位序列）
+     */
+    public static final int MAGIC = 0x31445053;
+
+    public static final int VERSION = 1;
+
+    private static final byte TAG_END = 0;
+    private static final byte TAG_STOCK = 1;
+    private static final byte TAG_SERIES = 2;
+    private static final byte TAG_WATCHLIST = 3;
+
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 每筆日線在序列區塊中的位元組數
+     */
+    private static final int BAR_BYTES = 4 + 8 * 5;
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * 開始寫出新的快照
+     * 
+     * @param path 快照檔案路徑（commit 前不會被修改）
+     * @return 寫出器
+     * @throws IOException 建立暫存檔失敗時拋出
+     */
+    public static Writer create(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        return new Writer(path, temp);
+    }
+
+    /**
+     * 讀取快照，依檔案順序把記錄交給處理器
+     * 
+     * @param path    快照檔案路徑
+     * @param handler 記錄處理器
+     * @return 快照建立時間
+     * @throws IOException 讀取失敗、格式不正確或 CRC 不符時拋出
+     */
+    public static Instant read(Path path, Handler handler) throws IOException {
+        try (InputStream file = Files.newInputStream(path)) {
+            Reader reader = new Reader(file);
+            return reader.readAll(handler);
+        }
+    }
+
+    /**
+     * 快照記錄處理器
+     */
+    public interface Handler {
+
+        void stock(long id, String symbol, String name, double price, LocalDate lastSyncedDate);
+
+        /**
+         * 日線序列（陣列在回呼後會被重複使用，需要保留時請自行複製）
+         */
+        void series(long stockId, int[] epochDays, double[] open, double[] high, double[] low,
+                double[] close, long[] volume, int size);
+
+        void watchlist(long id, String userId, long stockId);
+    }
+
+    /**
+     * 快照寫出器
+     */
+    public static final class Writer implements Closeable {
+
+        private final Path path;
+        private final Path temp;
+        private final CRC32 crc = new CRC32();
+        private final OutputStream out;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        private long bytes;
+        private int stocks;
+        private long prices;
+        private int watchlist;
+        private boolean committed;
+
+        private Writer(Path path, Path temp) throws IOException {
+            this.path = path;
+            this.temp = temp;
+            this.out = new CheckedOutputStream(Files.newOutputStream(temp), crc);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(System.currentTimeMillis());
+        }
+
+        public void writeStock(long id, String symbol, String name, double price, LocalDate lastSyncedDate)
+                throws IOException {
+            byte[] symbolBytes = utf8(symbol);
+            byte[] nameBytes = utf8(name);
+            ensure(1 + 8 + 2 + symbolBytes.length + 2 + nameBytes.length + 8 + 4);
+            buffer.put(TAG_STOCK).putLong(id);
+            putString(symbolBytes);
+            putString(nameBytes);
+            buffer.putDouble(price);
+            buffer.putInt(lastSyncedDate == null ? NO_DATE : (int) lastSyncedDate.toEpochDay());
+            stocks++;
+        }
+
+        public void writeSeries(long stockId, int[] epochDays, double[] open, double[] high, double[] low,
+                double[] close, long[] volume, int size) throws IOException {
+            ensure(1 + 8 + 4);
+            buffer.put(TAG_SERIES).putLong(stockId).putInt(size);
+            for (int i = 0; i < size; i++) {
+                ensure(4);
+                buffer.putInt(epochDays[i]);
+            }
+            putDoubles(open, size);
+            putDoubles(high, size);
+            putDoubles(low, size);
+            putDoubles(close, size);
+            for (int i = 0; i < size; i++) {
+                ensure(8);
+                buffer.putLong(volume[i]);
+            }
+            prices += size;
+        }
+
+        public void writeWatchlist(long id, String userId, long stockId) throws IOException {
+            byte[] userBytes = utf8(userId);
+            ensure(1 + 8 + 2 + userBytes.length + 8);
+            buffer.put(TAG_WATCHLIST).putLong(id);
+            putString(userBytes);
+            buffer.putLong(stockId);
+            watchlist++;
+        }
+
+        public int getStocks() {
+            return stocks;
+        }
+
+        public long getPrices() {
+            return prices;
+        }
+
+        public int getWatchlist() {
+            return watchlist;
+        }
+
+        /**
+         * 寫出結束標記與 CRC，並以原子搬移取代舊快照
+         * 
+         * @return 快照檔案大小（位元組）
+         * @throws IOException 寫出或搬移失敗時拋出
+         */
+        public long commit() throws IOException {
+            ensure(1);
+            buffer.put(TAG_END);
+            drain();
+            long checksum = crc.getValue();
+            buffer.putLong(checksum);
+            drain();
+            out.close();
+            committed = true;
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return bytes;
+        }
+
+        /**
+         * 關閉寫出器；未 commit 時刪除暫存檔，舊快照保持不變
+         */
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                out.close();
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        private void putDoubles(double[] values, int size) throws IOException {
+            for (int i = 0; i < size; i++) {
+                ensure(8);
+                buffer.putDouble(values[i]);
+            }
+        }
+
+        private void putString(byte[] value) {
+            buffer.putShort((short) value.length);
+            buffer.put(value);
+        }
+
+        private void ensure(int length) throws IOException {
+            if (buffer.remaining() < length) {
+                drain();
+            }
+        }
+
+        private void drain() throws IOException {
+            out.write(buffer.array(), 0, buffer.position());
+            bytes += buffer.position();
+            buffer.clear();
+        }
+
+        private static byte[] utf8(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > 0xFFFF) {
+                throw new IllegalArgumentException("字串過長: " + bytes.length + " 位元組");
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * 快照讀取器（序列區塊一次讀入，陣列依最大序列重複使用）
+     */
+    private static final class Reader {
+
+        private final CRC32 crc = new CRC32();
+        private final DataInputStream in;
+        private ByteBuffer block = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        private int[] epochDays = new int[0];
+        private double[] open = new double[0];
+        private double[] high = new double[0];
+        private double[] low = new double[0];
+        private double[] close = new double[0];
+        private long[] volume = new long[0];
+
+        private Reader(InputStream file) {
+            this.in = new DataInputStream(new CheckedInputStream(new BufferedInputStream(file, BUFFER_SIZE), crc));
+        }
+
+        private Instant readAll(Handler handler) throws IOException {
+            ByteBuffer header = read(16);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("不是快照檔案");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("不支援的快照版本: " + version);
+            }
+            Instant createdAt = Instant.ofEpochMilli(header.getLong());
+
+            while (true) {
+                byte tag = in.readByte();
+                switch (tag) {
+                    case TAG_STOCK -> {
+                        long id = read(8).getLong();
+                        String symbol = readString();
+                        String name = readString();
+                        ByteBuffer rest = read(12);
+                        double price = rest.getDouble();
+                        int lastSynced = rest.getInt();
+                        handler.stock(id, symbol, name, price,
+                                lastSynced == NO_DATE ? null : LocalDate.ofEpochDay(lastSynced));
+                    }
+                    case TAG_SERIES -> readSeries(handler);
+                    case TAG_WATCHLIST -> {
+                        long id = read(8).getLong();
+                        String userId = readString();
+                        handler.watchlist(id, userId, read(8).getLong());
+                    }
+                    case TAG_END -> {
+                        long expected = crc.getValue();
+                        if (read(8).getLong() != expected) {
+                            throw new IOException("快照 CRC 不符，檔案可能已損毀");
+                        }
+                        return createdAt;
+                    }
+                    default -> throw new IOException("未知的快照記錄類型: " + tag);
+                }
+            }
+        }
+
+        private void readSeries(Handler handler) throws IOException {
+            ByteBuffer header = read(12);
+            long stockId = header.getLong();
+            int size = header.getInt();
+            if (size < 0) {
+                throw new IOException("序列筆數不正確: " + size);
+            }
+            if (epochDays.length < size) {
+                epochDays = new int[size];
+                open = new double[size];
+                high = new double[size];
+                low = new double[size];
+                close = new double[size];
+                volume = new long[size];
+            }
+            ByteBuffer data = read(size * BAR_BYTES);
+            data.asIntBuffer().get(epochDays, 0, size);
+            int offset = size * 4;
+            data.slice(offset, size * 8).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(open, 0, size);
+            offset += size * 8;
+            data.slice(offset, size * 8).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(high, 0, size);
+            offset += size * 8;
+            data.slice(offset, size * 8).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(low, 0, size);
+            offset += size * 8;
+            data.slice(offset, size * 8).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(close, 0, size);
+            offset += size * 8;
+            data.slice(offset, size * 8).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(volume, 0, size);
+            handler.series(stockId, epochDays, open, high, low, close, volume, size);
+        }
+
+        private String readString() throws IOException {
+            int length = read(2).getShort() & 0xFFFF;
+            ByteBuffer bytes = read(length);
+            return new String(bytes.array(), 0, length, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * 讀入 length 位元組到重複使用的區塊緩衝
+         */
+        private ByteBuffer read(int length) throws IOException {
+            if (block.capacity() < length) {
+                block = ByteBuffer.allocate(Math.max(length, block.capacity() * 2)).order(ByteOrder.LITTLE_ENDIAN);
+            }
+            in.readFully(block.array(), 0, length);
+            block.clear().limit(length);
+            return block;
+        }
+    }
+}
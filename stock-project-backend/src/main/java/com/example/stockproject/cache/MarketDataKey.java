@@ -0,0 +1,42 @@
+package com.example.stockproject.cache;
+
+import lombok.Value;
+
+import java.util.Locale;
+
+/**
+ * 外部市場數據快取鍵：(資料來源, 股票代碼, 時間範圍)
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增外部數據快取
+ */
+@Value
+public class MarketDataKey {
+
+    /**
+     * 資料來源（如 yahoo、alphavantage）
+     */
+    String provider;
+
+    /**
+     * 股票代碼（大寫）
+     */
+    String symbol;
+
+    /**
+     * 時間範圍（小寫，如 1y、daily）
+     */
+    String range;
+
+    /**
+     * 建立正規化後的快取鍵
+     * 
+     * @param provider 資料來源
+     * @param symbol   股票代碼
+     * @param range    時間範圍
+     * @return 快取鍵
+     */
+    public static MarketDataKey of(String provider, String symbol, String range) {
+        return new MarketDataKey(provider, symbol.trim().toUpperCase(Locale.ROOT), range.trim().toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.stockproject.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * 具存活時間 (TTL) 與容量上限的快取，並合併同一鍵的並行載入
+ * 
+ * <ul>
+ * <li>每筆資料在寫入後 ttl 內有效，過期後下一次讀取會重新載入</li>
+ * <li>超過容量上限時淘汰最久未使用的資料 (LRU)</li>
+ * <li>同一鍵同時有多個未命中時只執行一次載入 (single-flight)，其他呼叫端等待並共用結果</li>
+ * </ul>
+ * 
+ * @param <K> 鍵型別
+ * @param <V> 值型別
+ * @author Stock Project Team
+ * @version 1.2 - 新增外部數據快取
+ */
+public class TtlCache<K, V> {
+
+    private final long ttlNanos;
+    private final int maxSize;
+    private final Predicate<V> cacheable;
+
+    private final Map<K, Entry<V>> entries;
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * 建構函數
+     * 
+     * @param ttlMillis 資料存活時間（毫秒）
+     * @param maxSize   最多保存的資料筆數
+     * @param cacheable 判斷載入結果是否應該快取（例如不快取空結果）
+     */
+    public TtlCache(long ttlMillis, int maxSize, Predicate<V> cacheable) {
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.maxSize = maxSize;
+        this.cacheable = cacheable;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > TtlCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * 取得快取值，未命中或過期時載入
+     * 
+     * @param key    鍵
+     * @param loader 載入函式（同一鍵同時只會執行一次）
+     * @return 值
+     */
+    public V get(K key, Supplier<V> loader) {
+        V cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.increment();
+            return await(running);
+        }
+
+        try {
+            // 取得載入權之前可能剛有其他執行緒完成載入
+            V value = lookup(key);
+            if (value == null) {
+                loads.increment();
+                value = loader.get();
+                if (value != null && cacheable.test(value)) {
+                    store(key, value);
+                }
+            }
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * 取得未過期的快取值，不觸發載入
+     * 
+     * @param key 鍵
+     * @return 值，未命中或已過期時為 null
+     */
+    public V getIfPresent(K key) {
+        V cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+        }
+        return cached;
+    }
+
+    /**
+     * 移除指定鍵
+     * 
+     * @param key 鍵
+     */
+    public void invalidate(K key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * 清除所有資料
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * 實際執行載入的次數
+     * 
+     * @return 載入次數
+     */
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    /**
+     * 因合併到進行中的載入而未重複載入的次數
+     * 
+     * @return 合併次數
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    private V lookup(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (System.nanoTime() - entry.loadedAt > ttlNanos) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    private void store(K key, V value) {
+        synchronized (entries) {
+            entries.put(key, new Entry<>(value, System.nanoTime()));
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    private record Entry<V>(V value, long loadedAt) {
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.stockproject.client;
+
+import com.example.stockproject.model.series.PriceSeries;
+import com.example.stockproject.model.series.PriceSeriesBuilder;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Alpha Vantage TIME_SERIES_DAILY 回應串流解析器
+ * 
+ * 以 {@link JsonParser} 逐日讀取 "Time Series (Daily)" 物件，數字字串直接由
+ * 解析器的字元緩衝區轉換，不建立 JSON 樹，也沒有筆數上限（支援 outputsize=full）。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增串流解析外部數據
+ */
+@Slf4j
+public final class AlphaVantageParser {
+
+    private static final String TIME_SERIES_FIELD = "Time Series (Daily)";
+
+    private AlphaVantageParser() {
+    }
+
+    /**
+     * 解析回應
+     * 
+     * @param p       位於回應開頭的解析器
+     * @param stockId 寫入序列的股票識別碼
+     * @param symbol  股票代碼
+     * @return 依日期遞增的價格序列；錯誤訊息時為空序列
+     * @throws MarketDataRateLimitException 回應為呼叫次數限制提示（每分鐘或每日）
+     * @throws MarketDataException          回應為需付費方案或示範金鑰等無法重試的提示
+     * @throws IOException                 JSON 格式錯誤或讀取失敗
+     */
+    public static PriceSeries parse(JsonParser p, Long stockId, String symbol) throws IOException {
+        if (p.nextToken() != JsonToken.START_OBJECT) {
+            log.error("Alpha Vantage 回應格式異常: 不是 JSON 物件");
+            return PriceSeries.empty(stockId, symbol);
+        }
+        PriceSeriesBuilder builder = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if (TIME_SERIES_FIELD.equals(field) && value == JsonToken.START_OBJECT) {
+                builder = readTimeSeries(p);
+            } else if ("Error Message".equals(field)) {
+                log.error("Alpha Vantage API 錯誤: {}", p.getValueAsString());
+                return PriceSeries.empty(stockId, symbol);
+            } else if ("Note".equals(field) || "Information".equals(field)) {
+                log.warn("Alpha Vantage API 限制: {}", p.getValueAsString());
+                throw notice(field, p.getValueAsString());
+            } else {
+                p.skipChildren();
+            }
+        }
+        if (builder == null) {
+            log.error("Alpha Vantage 回應格式異常: 找不到 Time Series (Daily) 節點");
+            return PriceSeries.empty(stockId, symbol);
+        }
+        return builder.build(stockId, symbol);
+    }
+
+    /**
+     * 依提示內容分類：每分鐘（或每秒）限制可重試，每日限制需等配額重置，
+     * 其他 "Information"（需付費方案、示範金鑰）重試也不會成功
+     */
+    static MarketDataException notice(String field, String message) {
+        String text = message == null ? "" : message.toLowerCase(Locale.ROOT);
+        String detail = "Alpha Vantage API 限制: " + message;
+        if (text.contains("per minute") || text.contains("per second")) {
+            return new MarketDataRateLimitException(detail);
+        }
+        if (text.contains("per day") || text.contains("daily")) {
+            return new MarketDataRateLimitException(detail, true);
+        }
+        // 舊版以 "Note" 回報每分鐘限制
+        return "Note".equals(field) ? new MarketDataRateLimitException(detail) : new MarketDataException(detail);
+    }
+
+    private static PriceSeriesBuilder readTimeSeries(JsonParser p) throws IOException {
+        PriceSeriesBuilder builder = new PriceSeriesBuilder();
+        int row = 0;
+        int previousDay = Integer.MAX_VALUE;
+        boolean descending = true;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            int day = ProviderJson.epochDay(p.currentName());
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                p.skipChildren();
+                continue;
+            }
+            double open = Double.NaN;
+            double high = Double.NaN;
+            double low = Double.NaN;
+            double close = Double.NaN;
+            long volume = -1;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                // 欄位名稱為 "1. open"、"2. high"、"3. low"、"4. close"、"5. volume"
+                char key = p.currentName().charAt(0);
+                p.nextToken();
+                switch (key) {
+                    case '1' -> open = ProviderJson.readDouble(p);
+                    case '2' -> high = ProviderJson.readDouble(p);
+                    case '3' -> low = ProviderJson.readDouble(p);
+                    case '4' -> close = ProviderJson.readDouble(p);
+                    case '5' -> volume = ProviderJson.readLong(p);
+                    default -> p.skipChildren();
+                }
+            }
+            if (Double.isNaN(open) || Double.isNaN(high) || Double.isNaN(low) || Double.isNaN(close) || volume < 0) {
+                log.warn("略過 {} 不完整的數據", LocalDate.ofEpochDay(day));
+                continue;
+            }
+            descending &= day < previousDay;
+            previousDay = day;
+            builder.add(row++, day, open, high, low, close, volume);
+        }
+        // Alpha Vantage 由新到舊輸出
+        return descending ? builder.reverse() : builder;
+    }
+}
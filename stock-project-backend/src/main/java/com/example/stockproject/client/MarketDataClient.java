@@ -0,0 +1,223 @@
+package com.example.stockproject.client;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 外部市場數據 HTTP 客戶端
+ * 
+ * 所有對 Yahoo Finance / Alpha Vantage 的呼叫共用同一個 {@link HttpClient}，
+ * 以重用 keep-alive 連線，並提供：
+ * <ul>
+ * <li>連線、回應標頭與整個回應的逾時，避免慢速回應無限期佔用 Tomcat 工作執行緒</li>
+ * <li>每個主機的同時請求數上限</li>
+ * <li>以有界執行緒池執行的非同步 API，呼叫端可同時發出多個請求</li>
+ * </ul>
+ * 回應本文以串流交給解析器，不會先整段讀成字串。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增共用市場數據 HTTP 客戶端
+ */
+@Component
+@Slf4j
+public class MarketDataClient {
+
+    /**
+     * 回應本文解析器
+     * 
+     * @param <T> 解析結果型別
+     */
+    @FunctionalInterface
+    public interface ResponseParser<T> {
+        T parse(InputStream body) throws IOException;
+    }
+
+    private final HttpClient httpClient;
+    private final Duration readTimeout;
+    private final Duration responseTimeout;
+    private final int maxConnectionsPerHost;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService deadlines;
+
+    /**
+     * 建構函數
+     * 
+     * @param connectTimeout        建立連線逾時
+     * @param readTimeout           送出請求到收到回應標頭的逾時，也是等待主機連線名額的上限
+     * @param responseTimeout       送出請求到讀完回應本文的總時限
+     * @param maxConnectionsPerHost 每個主機同時進行的請求數上限
+     * @param asyncThreads          非同步 API 的執行緒數
+     * @param asyncQueueSize        非同步 API 的等待佇列長度
+     */
+    public MarketDataClient(
+            @Value("${stock.market-data.http.connect-timeout:3s}") Duration connectTimeout,
+            @Value("${stock.market-data.http.read-timeout:10s}") Duration readTimeout,
+            @Value("${stock.market-data.http.response-timeout:30s}") Duration responseTimeout,
+            @Value("${stock.market-data.http.max-connections-per-host:8}") int maxConnectionsPerHost,
+            @Value("${stock.market-data.http.async-threads:8}") int asyncThreads,
+            @Value("${stock.market-data.http.async-queue-size:256}") int asyncQueueSize) {
+        this.readTimeout = readTimeout;
+        this.responseTimeout = responseTimeout;
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(asyncThreads, asyncThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(asyncQueueSize),
+                r -> {
+                    Thread thread = new Thread(r, "market-data-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+        this.deadlines = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "market-data-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 同步送出 GET 請求並以串流解析回應
+     * 
+     * {@link HttpRequest#timeout} 只限制等待回應標頭的時間；標頭之後若主機停止傳送本文，
+     * 解析器會一直阻塞在讀取上。因此另外排程一個截止時間，到期時關閉回應串流，
+     * 讓阻塞中的讀取立即返回，並回報為逾時。
+     * 
+     * @param uri    請求網址（呼叫端以已編碼的元件組成）
+     * @param parser 回應本文解析器
+     * @param <T>    解析結果型別
+     * @return 解析結果
+     * @throws MarketDataException 非 2xx 回應、逾時、連線失敗或解析失敗
+     */
+    public <T> T get(URI uri, ResponseParser<T> parser) {
+        long deadline = System.nanoTime() + responseTimeout.toNanos();
+        Semaphore permits = hostPermits.computeIfAbsent(uri.getHost(),
+                host -> new Semaphore(maxConnectionsPerHost));
+        try {
+            if (!permits.tryAcquire(readTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new MarketDataException("等待主機 " + uri.getHost() + " 的連線名額逾時");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MarketDataException("等待連線名額時被中斷", e);
+        }
+
+        AtomicBoolean expired = new AtomicBoolean();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .timeout(readTimeout)
+                    .header("Accept", "application/json")
+                    .GET()
+                    .build();
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                if (response.statusCode() / 100 != 2) {
+                    throw new MarketDataException("HTTP " + response.statusCode() + " from " + uri.getHost());
+                }
+                ScheduledFuture<?> watchdog = deadlines.schedule(() -> {
+                    expired.set(true);
+                    closeQuietly(body);
+                }, deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                try {
+                    return parser.parse(body);
+                } catch (IOException | RuntimeException e) {
+                    if (expired.get()) {
+                        throw new HttpTimeoutException("讀取回應本文超過 " + responseTimeout);
+                    }
+                    throw e;
+                } finally {
+                    watchdog.cancel(false);
+                }
+            }
+        } catch (HttpTimeoutException e) {
+            throw new MarketDataException("請求 " + uri.getHost() + " 逾時", e);
+        } catch (IOException e) {
+            throw new MarketDataException("請求 " + uri.getHost() + " 失敗: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MarketDataException("請求 " + uri.getHost() + " 時被中斷", e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * 非同步送出 GET 請求並以串流解析回應
+     * 
+     * @param uri    請求網址（呼叫端以已編碼的元件組成）
+     * @param parser 回應本文解析器
+     * @param <T>    解析結果型別
+     * @return 解析結果
+     */
+    public <T> CompletableFuture<T> getAsync(URI uri, ResponseParser<T> parser) {
+        return supplyAsync(() -> get(uri, parser));
+    }
+
+    /**
+     * 在市場數據執行緒池中執行工作（佇列已滿時回傳失敗的 future）
+     * 
+     * @param task 工作
+     * @param <T>  結果型別
+     * @return 工作結果
+     */
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(new MarketDataException("市場數據請求佇列已滿", e));
+        }
+    }
+
+    /**
+     * 市場數據執行緒池（有界佇列，已滿時拒絕）
+     * 
+     * @return 執行器
+     */
+    public Executor executor() {
+        return executor;
+    }
+
+    private static void closeQuietly(InputStream body) {
+        try {
+            body.close();
+        } catch (IOException e) {
+            log.debug("關閉逾時的回應串流失敗: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+        deadlines.shutdownNow();
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.stockproject.client;
+
+/**
+ * 外部市場數據來源呼叫失敗（HTTP 錯誤、逾時或連線數已滿）
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增共用市場數據 HTTP 客戶端
+ */
+public class MarketDataException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public MarketDataException(String message) {
+        super(message);
+    }
+
+    public MarketDataException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
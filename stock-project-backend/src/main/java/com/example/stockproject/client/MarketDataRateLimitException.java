@@ -0,0 +1,34 @@
+package com.example.stockproject.client;
+
+/**
+ * 外部數據來源回報已達呼叫次數限制
+ * 
+ * 每分鐘（或每秒）的限制稍後重試即可；每日限制在配額重置前重試都不會成功。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增外部 API 配額排程
+ */
+public class MarketDataRateLimitException extends MarketDataException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean daily;
+
+    public MarketDataRateLimitException(String message) {
+        this(message, false);
+    }
+
+    public MarketDataRateLimitException(String message, boolean daily) {
+        super(message);
+        this.daily = daily;
+    }
+
+    /**
+     * 是否為每日配額已用盡
+     * 
+     * @return 每日限制時為 true，每分鐘限制時為 false
+     */
+    public boolean isDaily() {
+        return daily;
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.stockproject.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.doubleparser.JavaDoubleParser;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * 外部數據來源串流解析共用工具
+ * 
+ * 直接由 {@link JsonParser} 的字元緩衝區解析數值與日期，不為每個欄位建立字串。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增串流解析外部數據
+ */
+final class ProviderJson {
+
+    /**
+     * 可由 long 尾數精確轉換的最大值 (2^53)
+     */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+    private ProviderJson() {
+    }
+
+    /**
+     * 讀取目前的數值或數字字串，null 回傳 NaN
+     * 
+     * @param p 位於數值上的解析器
+     * @return 數值
+     */
+    static double readDouble(JsonParser p) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return p.getLongValue();
+        }
+        if (token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_STRING) {
+            return parseDecimal(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return Double.NaN;
+        }
+        p.skipChildren();
+        return Double.NaN;
+    }
+
+    /**
+     * 讀取目前的整數或整數字串，null 回傳 -1
+     * 
+     * @param p 位於數值上的解析器
+     * @return 整數
+     */
+    static long readLong(JsonParser p) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return p.getLongValue();
+        }
+        if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return (long) readDouble(p);
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            return parseLong(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+        }
+        if (token != JsonToken.VALUE_NULL) {
+            p.skipChildren();
+        }
+        return -1;
+    }
+
+    /**
+     * 解析十進位小數
+     * 
+     * 尾數不超過 2^53 且小數位數不超過 22 時，尾數除以 10 的次方即為正確捨入的結果；
+     * 其他情況（指數表示、Yahoo 常見的 17 位有效數字）交給 Jackson 內附的
+     * FastDoubleParser，同樣直接讀取字元緩衝區且結果與 {@link Double#parseDouble} 一致。
+     * 
+     * @param buf 字元緩衝區
+     * @param off 起始位置
+     * @param len 長度
+     * @return 數值
+     * @throws NumberFormatException 格式錯誤
+     */
+    static double parseDecimal(char[] buf, int off, int len) {
+        int i = off;
+        int end = off + len;
+        boolean negative = false;
+        if (i < end && (buf[i] == '-' || buf[i] == '+')) {
+            negative = buf[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int scale = 0;
+        int digits = 0;
+        boolean seen = false;
+        boolean dot = false;
+        for (; i < end; i++) {
+            char ch = buf[i];
+            if (ch >= '0' && ch <= '9') {
+                if (digits >= 18) {
+                    return JavaDoubleParser.parseDouble(buf, off, len);
+                }
+                seen = true;
+                mantissa = mantissa * 10 + (ch - '0');
+                if (mantissa != 0) {
+                    digits++;
+                }
+                if (dot) {
+                    scale++;
+                }
+            } else if (ch == '.' && !dot) {
+                dot = true;
+            } else {
+                return JavaDoubleParser.parseDouble(buf, off, len);
+            }
+        }
+        if (!seen) {
+            throw new NumberFormatException("不是數值: " + new String(buf, off, len));
+        }
+        if (mantissa > MAX_EXACT_MANTISSA || scale >= POW10.length) {
+            return JavaDoubleParser.parseDouble(buf, off, len);
+        }
+        double value = mantissa / POW10[scale];
+        return negative ? -value : value;
+    }
+
+    /**
+     * 解析十進位整數
+     * 
+     * @param buf 字元緩衝區
+     * @param off 起始位置
+     * @param len 長度
+     * @return 整數
+     * @throws NumberFormatException 格式錯誤
+     */
+    static long parseLong(char[] buf, int off, int len) {
+        if (len == 0 || len > 18) {
+            return Long.parseLong(new String(buf, off, len));
+        }
+        int i = off;
+        boolean negative = buf[i] == '-';
+        if (negative || buf[i] == '+') {
+            i++;
+        }
+        if (i == off + len) {
+            throw new NumberFormatException("不是整數: " + new String(buf, off, len));
+        }
+        long value = 0;
+        for (; i < off + len; i++) {
+            int digit = buf[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("不是整數: " + new String(buf, off, len));
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * 解析 yyyy-MM-dd 格式日期為 epoch-day
+     * 
+     * @param text 日期字串
+     * @return epoch-day
+     * @throws java.time.format.DateTimeParseException 格式錯誤
+     */
+    static int epochDay(String text) {
+        if (text.length() != 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return (int) LocalDate.parse(text).toEpochDay();
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 7);
+        int day = digits(text, 8, 10);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            // 交給 LocalDate 拋出標準的解析錯誤
+            return (int) LocalDate.parse(text).toEpochDay();
+        }
+        return epochDay(year, month, day);
+    }
+
+    /**
+     * 由年月日計算 epoch-day（格里曆）
+     */
+    static int epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        if (month == 2) {
+            boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+            return leap ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    private static int digits(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,282 @@
+package com.example.stockproject.client;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 外部 API 配額排程器
+ * 
+ * 以每分鐘與每日兩個權杖桶限制送出的請求數，超出配額的請求依優先順序排隊
+ * （互動請求優先於背景工作，同優先順序先進先出），由單一排程執行緒在權杖可用時
+ * 交給執行器執行。相同鍵的請求在排隊或執行中時合併為同一個結果。
+ * 來源仍回報已達每分鐘限制時（{@link MarketDataRateLimitException}），清空每分鐘配額
+ * 並將請求放回佇列重試；回報每日限制時清空每日配額，請求直接以失敗結束而不重試。
+ * 
+ * @param <K> 請求鍵型別（如股票代碼）
+ * @param <V> 結果型別
+ * @author Stock Project Team
+ * @version 1.2 - 新增外部 API 配額排程
+ */
+@Slf4j
+public class QuotaScheduler<K, V> {
+
+    private static final long MINUTE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final long DAY_NANOS = TimeUnit.DAYS.toNanos(1);
+    private static final long MAX_WAIT_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * 排隊中或執行中請求的狀態
+     * 
+     * @param result   結果
+     * @param position 佇列位置（0 表示下一個送出；執行中為 -1）
+     * @param eta      預計送出前的等待時間
+     */
+    public record Ticket<V>(CompletableFuture<V> result, int position, Duration eta) {
+    }
+
+    private final class Pending {
+        private final K key;
+        private final long sequence;
+        private final Supplier<V> task;
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private RequestPriority priority;
+        private int attempts;
+        private boolean running;
+
+        private Pending(K key, long sequence, Supplier<V> task, RequestPriority priority) {
+            this.key = key;
+            this.sequence = sequence;
+            this.task = task;
+            this.priority = priority;
+        }
+    }
+
+    private final String name;
+    private final Executor executor;
+    private final int maxRetries;
+    private final LongSupplier clock;
+    private final TokenBucket perMinute;
+    private final TokenBucket perDay;
+
+    private final Object lock = new Object();
+    private final PriorityQueue<Pending> queue = new PriorityQueue<>(
+            Comparator.<Pending, RequestPriority>comparing(p -> p.priority).thenComparingLong(p -> p.sequence));
+    private final Map<K, Pending> pendingByKey = new HashMap<>();
+    private final Thread dispatcher;
+    private long sequence;
+    private long dispatched;
+    private long coalesced;
+    private long rateLimited;
+    private volatile boolean stopped;
+
+    /**
+     * 建構函數（會啟動排程執行緒）
+     * 
+     * @param name              名稱（用於執行緒名稱與日誌）
+     * @param requestsPerMinute 每分鐘請求數上限
+     * @param requestsPerDay    每日請求數上限
+     * @param maxRetries        來源回報限制時的最多重試次數
+     * @param executor          執行請求的執行器
+     */
+    public QuotaScheduler(String name, int requestsPerMinute, int requestsPerDay, int maxRetries, Executor executor) {
+        this(name, requestsPerMinute, requestsPerDay, maxRetries, executor, System::nanoTime);
+    }
+
+    QuotaScheduler(String name, int requestsPerMinute, int requestsPerDay, int maxRetries, Executor executor,
+            LongSupplier clock) {
+        this.name = name;
+        this.executor = executor;
+        this.maxRetries = maxRetries;
+        this.clock = clock;
+        long now = clock.getAsLong();
+        this.perMinute = new TokenBucket(requestsPerMinute, MINUTE_NANOS, now);
+        this.perDay = new TokenBucket(requestsPerDay, DAY_NANOS, now);
+        this.dispatcher = new Thread(this::dispatchLoop, name + "-scheduler");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * 提交請求
+     * 
+     * 相同鍵已在排隊或執行中時不會重複送出，而是共用同一個結果；
+     * 若新請求的優先順序較高，排隊中的請求會提升優先順序。
+     * 
+     * @param key      請求鍵
+     * @param priority 優先順序
+     * @param task     實際呼叫外部 API 的工作
+     * @return 請求狀態
+     */
+    public Ticket<V> submit(K key, RequestPriority priority, Supplier<V> task) {
+        synchronized (lock) {
+            Pending pending = pendingByKey.get(key);
+            if (pending != null) {
+                coalesced++;
+                if (!pending.running && priority.compareTo(pending.priority) < 0 && queue.remove(pending)) {
+                    pending.priority = priority;
+                    queue.add(pending);
+                }
+            } else {
+                pending = new Pending(key, sequence++, task, priority);
+                pendingByKey.put(key, pending);
+                queue.add(pending);
+                lock.notifyAll();
+            }
+            return ticket(pending);
+        }
+    }
+
+    /**
+     * 查詢請求目前的狀態
+     * 
+     * @param key 請求鍵
+     * @return 請求狀態，沒有排隊或執行中時為 null
+     */
+    public Ticket<V> status(K key) {
+        synchronized (lock) {
+            Pending pending = pendingByKey.get(key);
+            return pending == null ? null : ticket(pending);
+        }
+    }
+
+    /**
+     * 取得配額與佇列統計
+     * 
+     * @return 統計值（排隊數、剩餘配額、已送出、合併、遭限制次數）
+     */
+    public Map<String, Object> snapshot() {
+        synchronized (lock) {
+            long now = clock.getAsLong();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("name", name);
+            stats.put("queued", queue.size());
+            stats.put("minuteTokens", Math.floor(perMinute.available(now)));
+            stats.put("dayTokens", Math.floor(perDay.available(now)));
+            stats.put("dispatched", dispatched);
+            stats.put("coalesced", coalesced);
+            stats.put("rateLimited", rateLimited);
+            return stats;
+        }
+    }
+
+    public int queueSize() {
+        synchronized (lock) {
+            return queue.size();
+        }
+    }
+
+    /**
+     * 停止排程執行緒，尚未送出的請求以失敗結束
+     */
+    public void shutdown() {
+        stopped = true;
+        dispatcher.interrupt();
+        synchronized (lock) {
+            for (Pending pending : queue) {
+                pending.future.completeExceptionally(new MarketDataException(name + " 排程器已停止"));
+            }
+            queue.clear();
+            pendingByKey.clear();
+        }
+    }
+
+    private Ticket<V> ticket(Pending pending) {
+        if (pending.running) {
+            return new Ticket<>(pending.future, -1, Duration.ZERO);
+        }
+        int position = 0;
+        for (Pending other : queue) {
+            if (queue.comparator().compare(other, pending) < 0) {
+                position++;
+            }
+        }
+        long now = clock.getAsLong();
+        long waitNanos = Math.max(perMinute.nanosUntil(position + 1, now), perDay.nanosUntil(position + 1, now));
+        return new Ticket<>(pending.future, position, Duration.ofNanos(waitNanos));
+    }
+
+    private void dispatchLoop() {
+        while (!stopped) {
+            Pending next;
+            try {
+                synchronized (lock) {
+                    if (queue.isEmpty()) {
+                        lock.wait();
+                        continue;
+                    }
+                    long now = clock.getAsLong();
+                    long waitNanos = Math.max(perMinute.nanosUntil(1, now), perDay.nanosUntil(1, now));
+                    if (waitNanos > 0) {
+                        // 至少每秒重新檢查一次配額
+                        TimeUnit.NANOSECONDS.timedWait(lock, Math.min(waitNanos, MAX_WAIT_NANOS));
+                        continue;
+                    }
+                    next = queue.poll();
+                    perMinute.take(now);
+                    perDay.take(now);
+                    next.running = true;
+                    dispatched++;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                Pending pending = next;
+                executor.execute(() -> run(pending));
+            } catch (RuntimeException e) {
+                finish(next, null, new MarketDataException(name + " 執行佇列已滿", e));
+            }
+        }
+    }
+
+    private void run(Pending pending) {
+        try {
+            finish(pending, pending.task.get(), null);
+        } catch (MarketDataRateLimitException e) {
+            synchronized (lock) {
+                rateLimited++;
+                if (e.isDaily()) {
+                    perDay.drain(clock.getAsLong());
+                    log.warn("{} 回報已達每日呼叫限制，{} 不重試", name, pending.key);
+                } else {
+                    perMinute.drain(clock.getAsLong());
+                }
+                if (!e.isDaily() && pending.attempts < maxRetries && !stopped) {
+                    pending.attempts++;
+                    pending.running = false;
+                    // 保留原本的序號，重新排隊時仍在同優先順序的最前面
+                    queue.add(pending);
+                    lock.notifyAll();
+                    log.warn("{} 回報已達呼叫限制，{} 稍後重試 ({}/{})", name, pending.key, pending.attempts, maxRetries);
+                    return;
+                }
+            }
+            finish(pending, null, e);
+        } catch (RuntimeException e) {
+            finish(pending, null, e);
+        }
+    }
+
+    private void finish(Pending pending, V value, Throwable failure) {
+        synchronized (lock) {
+            pendingByKey.remove(pending.key, pending);
+        }
+        if (failure != null) {
+            pending.future.completeExceptionally(failure);
+        } else {
+            pending.future.complete(value);
+        }
+    }
+}
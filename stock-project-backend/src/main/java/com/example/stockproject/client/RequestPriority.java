@@ -0,0 +1,33 @@
+package com.example.stockproject.client;
+
+import java.util.Locale;
+
+/**
+ * 外部 API 請求優先順序（宣告順序即優先順序）
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增外部 API 配額排程
+ */
+public enum RequestPriority {
+
+    /**
+     * 使用者正在等待的請求（如開啟圖表）
+     */
+    INTERACTIVE,
+
+    /**
+     * 背景工作（如定時同步、預先載入）
+     */
+    BACKGROUND;
+
+    /**
+     * 由字串解析優先順序（不分大小寫）
+     * 
+     * @param value 字串
+     * @return 優先順序
+     * @throws IllegalArgumentException 不支援的值
+     */
+    public static RequestPriority from(String value) {
+        return RequestPriority.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
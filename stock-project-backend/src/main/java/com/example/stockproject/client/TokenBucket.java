@@ -0,0 +1,72 @@
+package com.example.stockproject.client;
+
+/**
+ * 權杖桶：容量為 capacity，每 periodNanos 平均補充 capacity 個權杖
+ * 
+ * 非執行緒安全，由 {@link QuotaScheduler} 在鎖內使用。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增外部 API 配額排程
+ */
+final class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long refilledAt;
+
+    /**
+     * 建構函數（初始為滿的）
+     * 
+     * @param capacity    容量（每個週期可用的請求數）
+     * @param periodNanos 週期長度（奈秒）
+     * @param now         目前時間（奈秒）
+     */
+    TokenBucket(int capacity, long periodNanos, long now) {
+        this.capacity = capacity;
+        this.tokensPerNano = (double) capacity / periodNanos;
+        this.tokens = capacity;
+        this.refilledAt = now;
+    }
+
+    /**
+     * 目前可用的權杖數
+     */
+    double available(long now) {
+        refill(now);
+        return tokens;
+    }
+
+    /**
+     * 取得 count 個權杖還需等待的時間，0 表示已足夠
+     */
+    long nanosUntil(double count, long now) {
+        refill(now);
+        double deficit = count - tokens;
+        return deficit <= 0 ? 0 : (long) Math.ceil(deficit / tokensPerNano);
+    }
+
+    /**
+     * 取用一個權杖（呼叫前需確認 {@link #nanosUntil} 為 0）
+     */
+    void take(long now) {
+        refill(now);
+        tokens -= 1;
+    }
+
+    /**
+     * 清空權杖（來源回報已達限制時使用）
+     */
+    void drain(long now) {
+        refill(now);
+        tokens = Math.min(tokens, 0);
+    }
+
+    private void refill(long now) {
+        long elapsed = now - refilledAt;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+            refilledAt = now;
+        }
+    }
+}
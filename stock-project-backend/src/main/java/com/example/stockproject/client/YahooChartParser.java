@@ -0,0 +1,202 @@
+package com.example.stockproject.client;
+
+import com.example.stockproject.model.series.PriceSeries;
+import com.example.stockproject.model.series.PriceSeriesBuilder;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Yahoo Finance chart API 回應串流解析器
+ * 
+ * 以 {@link JsonParser} 逐一讀取 chart.result[0] 的 timestamp 與
+ * indicators.quote[0] 各欄位陣列，直接寫入原始型別緩衝區，不建立 JSON 樹。
+ * 任一欄位為 null 的K線會被略過。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增串流解析外部數據
+ */
+@Slf4j
+public final class YahooChartParser {
+
+    private static final int SECONDS_PER_DAY = 86400;
+
+    private long[] timestamps = new long[0];
+    private int count;
+    private double[] open;
+    private double[] high;
+    private double[] low;
+    private double[] close;
+    private long[] volume;
+
+    private YahooChartParser() {
+    }
+
+    /**
+     * 解析回應
+     * 
+     * @param p       位於回應開頭的解析器
+     * @param stockId 寫入序列的股票識別碼
+     * @param symbol  股票代碼
+     * @return 依日期遞增的價格序列；回應格式不符或為錯誤回應時為空序列
+     * @throws IOException JSON 格式錯誤或讀取失敗
+     */
+    public static PriceSeries parse(JsonParser p, Long stockId, String symbol) throws IOException {
+        YahooChartParser chart = new YahooChartParser();
+        if (p.nextToken() != JsonToken.START_OBJECT) {
+            log.error("Yahoo Finance 回應格式異常: 不是 JSON 物件");
+            return PriceSeries.empty(stockId, symbol);
+        }
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if ("chart".equals(field) && value == JsonToken.START_OBJECT) {
+                chart.readChart(p);
+            } else {
+                p.skipChildren();
+            }
+        }
+        return chart.toSeries(stockId, symbol);
+    }
+
+    private void readChart(JsonParser p) throws IOException {
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if ("result".equals(field) && value == JsonToken.START_ARRAY) {
+                if (p.nextToken() == JsonToken.START_OBJECT) {
+                    readResult(p);
+                }
+                // 只使用第一個結果
+                while (p.currentToken() != JsonToken.END_ARRAY) {
+                    p.nextToken();
+                    p.skipChildren();
+                }
+            } else if ("error".equals(field) && value != JsonToken.VALUE_NULL) {
+                log.error("Yahoo Finance API 錯誤回應");
+                p.skipChildren();
+            } else {
+                p.skipChildren();
+            }
+        }
+    }
+
+    private void readResult(JsonParser p) throws IOException {
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if ("timestamp".equals(field) && value == JsonToken.START_ARRAY) {
+                readTimestamps(p);
+            } else if ("indicators".equals(field) && value == JsonToken.START_OBJECT) {
+                readIndicators(p);
+            } else {
+                p.skipChildren();
+            }
+        }
+    }
+
+    private void readIndicators(JsonParser p) throws IOException {
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if ("quote".equals(field) && value == JsonToken.START_ARRAY) {
+                if (p.nextToken() == JsonToken.START_OBJECT) {
+                    readQuote(p);
+                }
+                while (p.currentToken() != JsonToken.END_ARRAY) {
+                    p.nextToken();
+                    p.skipChildren();
+                }
+            } else {
+                p.skipChildren();
+            }
+        }
+    }
+
+    private void readQuote(JsonParser p) throws IOException {
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if (value != JsonToken.START_ARRAY) {
+                p.skipChildren();
+                continue;
+            }
+            switch (field) {
+                case "open" -> open = readDoubles(p);
+                case "high" -> high = readDoubles(p);
+                case "low" -> low = readDoubles(p);
+                case "close" -> close = readDoubles(p);
+                case "volume" -> volume = readLongs(p);
+                default -> p.skipChildren();
+            }
+        }
+    }
+
+    private void readTimestamps(JsonParser p) throws IOException {
+        long[] buffer = new long[256];
+        int n = 0;
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (n == buffer.length) {
+                buffer = Arrays.copyOf(buffer, n + (n >> 1));
+            }
+            buffer[n++] = ProviderJson.readLong(p);
+        }
+        timestamps = buffer;
+        count = n;
+    }
+
+    /**
+     * 讀取數值陣列，容量預設為 timestamp 筆數（timestamp 通常先出現），null 以 NaN 表示
+     */
+    private double[] readDoubles(JsonParser p) throws IOException {
+        double[] buffer = new double[Math.max(count, 16)];
+        int n = 0;
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (n == buffer.length) {
+                buffer = Arrays.copyOf(buffer, n + (n >> 1));
+            }
+            buffer[n++] = ProviderJson.readDouble(p);
+        }
+        return n == buffer.length ? buffer : Arrays.copyOf(buffer, n);
+    }
+
+    private long[] readLongs(JsonParser p) throws IOException {
+        long[] buffer = new long[Math.max(count, 16)];
+        int n = 0;
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (n == buffer.length) {
+                buffer = Arrays.copyOf(buffer, n + (n >> 1));
+            }
+            buffer[n++] = ProviderJson.readLong(p);
+        }
+        return n == buffer.length ? buffer : Arrays.copyOf(buffer, n);
+    }
+
+    private PriceSeries toSeries(Long stockId, String symbol) {
+        if (count == 0 || open == null || high == null || low == null || close == null || volume == null) {
+            log.error("Yahoo Finance 回應格式異常: 找不到 timestamp 或 quote 節點");
+            return PriceSeries.empty(stockId, symbol);
+        }
+        int n = Math.min(count, Math.min(Math.min(open.length, high.length),
+                Math.min(Math.min(low.length, close.length), volume.length)));
+        PriceSeriesBuilder builder = new PriceSeriesBuilder(n);
+        int lastDay = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            if (Double.isNaN(open[i]) || Double.isNaN(high[i]) || Double.isNaN(low[i])
+                    || Double.isNaN(close[i]) || volume[i] < 0) {
+                continue;
+            }
+            int day = (int) Math.floorDiv(timestamps[i], SECONDS_PER_DAY);
+            if (day <= lastDay) {
+                // 同一天重複的K線（如盤中即時報價）只保留第一筆
+                continue;
+            }
+            builder.add(i, day, open[i], high[i], low[i], close[i], volume[i]);
+            lastDay = day;
+        }
+        return builder.build(stockId, symbol);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.stockproject.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Yahoo Finance quote API 回應串流解析器
+ * 
+ * 讀取 quoteResponse.result[] 中每檔股票的 symbol 與 regularMarketPrice，
+ * 其他欄位略過。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增背景報價更新
+ */
+@Slf4j
+public final class YahooQuoteParser {
+
+    private YahooQuoteParser() {
+    }
+
+    /**
+     * 解析回應
+     * 
+     * @param p 位於回應開頭的解析器
+     * @return 股票代碼（大寫）對最新價格，依回應順序
+     * @throws IOException JSON 格式錯誤或讀取失敗
+     */
+    public static Map<String, Double> parse(JsonParser p) throws IOException {
+        Map<String, Double> quotes = new LinkedHashMap<>();
+        if (p.nextToken() != JsonToken.START_OBJECT) {
+            log.error("Yahoo Finance 報價回應格式異常: 不是 JSON 物件");
+            return quotes;
+        }
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if ("quoteResponse".equals(field) && value == JsonToken.START_OBJECT) {
+                readResponse(p, quotes);
+            } else {
+                p.skipChildren();
+            }
+        }
+        return quotes;
+    }
+
+    private static void readResponse(JsonParser p, Map<String, Double> quotes) throws IOException {
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if ("result".equals(field) && value == JsonToken.START_ARRAY) {
+                while (p.nextToken() == JsonToken.START_OBJECT) {
+                    readQuote(p, quotes);
+                }
+            } else if ("error".equals(field) && value != JsonToken.VALUE_NULL) {
+                log.error("Yahoo Finance 報價 API 錯誤回應");
+                p.skipChildren();
+            } else {
+                p.skipChildren();
+            }
+        }
+    }
+
+    private static void readQuote(JsonParser p, Map<String, Double> quotes) throws IOException {
+        String symbol = null;
+        double price = Double.NaN;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            if ("symbol".equals(field)) {
+                symbol = p.getValueAsString();
+            } else if ("regularMarketPrice".equals(field)) {
+                price = ProviderJson.readDouble(p);
+            } else {
+                p.skipChildren();
+            }
+        }
+        if (symbol != null && price > 0) {
+            quotes.put(symbol.toUpperCase(Locale.ROOT), price);
+        }
+    }
+}
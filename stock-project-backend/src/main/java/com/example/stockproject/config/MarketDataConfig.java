@@ -0,0 +1,78 @@
+package com.example.stockproject.config;
+
+import com.example.stockproject.cache.MarketDataKey;
+import com.example.stockproject.cache.TtlCache;
+import com.example.stockproject.client.MarketDataClient;
+import com.example.stockproject.client.QuotaScheduler;
+import com.example.stockproject.model.dto.StockPriceDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 外部市場數據配置類別
+ * 
+ * 建立 Yahoo Finance / Alpha Vantage 回應的共用快取與 Alpha Vantage 配額排程器，
+ * 並將命中率、佇列長度等統計註冊到 Actuator metrics（market.data.*）。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增外部數據快取
+ */
+@Configuration
+public class MarketDataConfig {
+
+    /**
+     * 外部歷史價格回應快取
+     * 
+     * 空結果（錯誤或限流）不會被快取。
+     * 
+     * @param ttl      資料存活時間
+     * @param maxSize  最多保存的 (來源, 代碼, 範圍) 組合數
+     * @param registry 指標註冊器
+     * @return 快取
+     */
+    @Bean
+    public TtlCache<MarketDataKey, List<StockPriceDTO>> marketDataCache(
+            @Value("${stock.market-data.cache.ttl:5m}") Duration ttl,
+            @Value("${stock.market-data.cache.max-size:500}") int maxSize,
+            MeterRegistry registry) {
+        TtlCache<MarketDataKey, List<StockPriceDTO>> cache =
+                new TtlCache<>(ttl.toMillis(), maxSize, prices -> !prices.isEmpty());
+
+        FunctionCounter.builder("market.data.cache.hits", cache, TtlCache::getHits).register(registry);
+        FunctionCounter.builder("market.data.cache.misses", cache, TtlCache::getMisses).register(registry);
+        FunctionCounter.builder("market.data.cache.loads", cache, TtlCache::getLoads).register(registry);
+        FunctionCounter.builder("market.data.cache.coalesced", cache, TtlCache::getCoalesced).register(registry);
+        Gauge.builder("market.data.cache.size", cache, TtlCache::size).register(registry);
+        return cache;
+    }
+
+    /**
+     * Alpha Vantage 請求配額排程器
+     * 
+     * @param requestsPerMinute 每分鐘請求數上限
+     * @param requestsPerDay    每日請求數上限
+     * @param maxRetries        回報已達限制時的最多重試次數
+     * @param marketDataClient  市場數據 HTTP 客戶端（提供執行緒池）
+     * @param registry          指標註冊器
+     * @return 排程器
+     */
+    @Bean(destroyMethod = "shutdown")
+    public QuotaScheduler<MarketDataKey, List<StockPriceDTO>> alphaVantageScheduler(
+            @Value("${stock.market-data.alphavantage.requests-per-minute:5}") int requestsPerMinute,
+            @Value("${stock.market-data.alphavantage.requests-per-day:25}") int requestsPerDay,
+            @Value("${stock.market-data.alphavantage.max-retries:2}") int maxRetries,
+            MarketDataClient marketDataClient,
+            MeterRegistry registry) {
+        QuotaScheduler<MarketDataKey, List<StockPriceDTO>> scheduler = new QuotaScheduler<>(
+                "alphavantage", requestsPerMinute, requestsPerDay, maxRetries, marketDataClient.executor());
+        Gauge.builder("market.data.alphavantage.queue.size", scheduler, QuotaScheduler::queueSize).register(registry);
+        return scheduler;
+    }
+}
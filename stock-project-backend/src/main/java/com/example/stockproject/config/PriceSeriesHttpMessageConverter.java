@@ -0,0 +1,89 @@
+package com.example.stockproject.config;
+
+import com.example.stockproject.model.series.DailyBars;
+import com.example.stockproject.model.series.PriceSeriesCodec;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+
+/**
+ * 欄式價格序列 HTTP 訊息轉換器
+ * 
+ * 依用戶端的 Accept 標頭將日線（{@link DailyBars}）寫成一般 JSON 陣列、
+ * 欄式 JSON ({@value PriceSeriesCodec#COLUMNAR_JSON}) 或 little-endian 二進位
+ * (application/octet-stream)。直接從原始型別陣列或對映的歸檔檔案逐筆輸出，不建立 DTO。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增欄式價格序列
+ */
+public class PriceSeriesHttpMessageConverter extends AbstractHttpMessageConverter<DailyBars> {
+
+    /**
+     * 欄式 JSON 媒體類型
+     */
+    public static final MediaType COLUMNAR_JSON = MediaType.parseMediaType(PriceSeriesCodec.COLUMNAR_JSON);
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 建構函數
+     * 
+     * @param objectMapper 共用的 ObjectMapper
+     */
+    public PriceSeriesHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON, COLUMNAR_JSON, MediaType.APPLICATION_OCTET_STREAM);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return DailyBars.class.isAssignableFrom(clazz);
+    }
+
+    /**
+     * 不提供預設內容類型，避免父類別把協商出的 application/octet-stream 改寫成 JSON
+     */
+    @Override
+    protected MediaType getDefaultContentType(DailyBars series) {
+        return null;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected DailyBars readInternal(Class<? extends DailyBars> clazz, HttpInputMessage inputMessage)
+            throws HttpMessageNotReadableException {
+        throw new HttpMessageNotReadableException("不支援讀取價格序列", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(DailyBars series, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        MediaType contentType = outputMessage.getHeaders().getContentType();
+
+        if (MediaType.APPLICATION_OCTET_STREAM.isCompatibleWith(contentType)) {
+            PriceSeriesCodec.writeBinary(series, outputMessage.getBody());
+            return;
+        }
+
+        try (JsonGenerator gen = objectMapper.getFactory()
+                .createGenerator(outputMessage.getBody(), JsonEncoding.UTF8)) {
+            if (COLUMNAR_JSON.isCompatibleWith(contentType)) {
+                PriceSeriesCodec.writeColumnarJson(series, gen);
+            } else {
+                PriceSeriesCodec.writeJson(series, gen);
+            }
+        }
+    }
+}
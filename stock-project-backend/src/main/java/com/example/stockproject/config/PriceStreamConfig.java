@@ -0,0 +1,74 @@
+package com.example.stockproject.config;
+
+import com.example.stockproject.stream.PriceStreamHub;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+
+/**
+ * 即時價格推播配置類別
+ * 
+ * 建立推播中心與其傳送執行緒池；推播中心以自己的排程執行緒定期 flush 待送更新與派送心跳，
+ * 不佔用 Spring Boot 預設的單執行緒 TaskScheduler（報價更新、快照、歸檔與模擬來源共用）。
+ * 訂閱數與發布 / 合併統計註冊到 Actuator metrics（stock.stream.*）。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增即時價格推播
+ */
+@Configuration
+public class PriceStreamConfig {
+
+    /**
+     * 推播傳送執行緒池
+     * 
+     * @param threads   執行緒數
+     * @param queueSize 等待佇列長度（每個訂閱者最多佔一個位置）
+     * @return 執行緒池
+     */
+    @Bean
+    public ThreadPoolTaskExecutor priceStreamSender(
+            @Value("${stock.stream.sender-threads:4}") int threads,
+            @Value("${stock.stream.max-subscribers:10000}") int queueSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueSize);
+        executor.setThreadNamePrefix("price-stream-");
+        executor.setDaemon(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 即時價格推播中心
+     * 
+     * @param maxSubscribers    最多同時訂閱數
+     * @param flushInterval     合併視窗（每隔多久送出一次待送更新）
+     * @param heartbeatInterval 心跳間隔
+     * @param priceStreamSender 傳送執行緒池
+     * @param registry          指標註冊器
+     * @return 推播中心
+     */
+    @Bean(destroyMethod = "shutdown")
+    public PriceStreamHub priceStreamHub(
+            @Value("${stock.stream.max-subscribers:10000}") int maxSubscribers,
+            @Value("${stock.stream.flush-interval:250ms}") Duration flushInterval,
+            @Value("${stock.stream.heartbeat-interval:15s}") Duration heartbeatInterval,
+            ThreadPoolTaskExecutor priceStreamSender,
+            MeterRegistry registry) {
+        PriceStreamHub hub = new PriceStreamHub(priceStreamSender, maxSubscribers);
+        hub.start(flushInterval, heartbeatInterval);
+
+        Gauge.builder("stock.stream.subscribers", hub, PriceStreamHub::subscriberCount).register(registry);
+        FunctionCounter.builder("stock.stream.published", hub, PriceStreamHub::getPublished).register(registry);
+        FunctionCounter.builder("stock.stream.conflated", hub, PriceStreamHub::getConflated).register(registry);
+        FunctionCounter.builder("stock.stream.batches", hub, PriceStreamHub::getBatchesSent).register(registry);
+        return hub;
+    }
+}
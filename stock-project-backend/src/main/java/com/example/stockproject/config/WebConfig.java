@@ -1,9 +1,16 @@
 package com.example.stockproject.config;
 
+import com.example.stockproject.controller.StockPriceController;
+import com.example.stockproject.model.series.DailyBars;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 /**
  * Web 配置類別
  * 
@@ -14,8 +21,11 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
  * @version 1.0
  */
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
+    private final ObjectMapper objectMapper;
+
     /**
      * 配置 CORS 政策
      * 
@@ -30,7 +40,22 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedOrigins("http://localhost:3000")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders(StockPriceController.NEXT_AFTER_HEADER, StockPriceController.NEXT_AFTER_ID_HEADER,
+                        "Retry-After", "ETag")
                 .allowCredentials(true)
                 .maxAge(3600);
     }
-}
\ No newline at end of file
+
+    /**
+     * 註冊欄式價格序列轉換器
+     * 
+     * 放在最前面，讓 {@link DailyBars} 回應依 Accept 標頭輸出
+     * JSON、欄式 JSON 或二進位格式，而不經過 Jackson 的物件序列化。
+     * 
+     * @param converters 已註冊的訊息轉換器
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new PriceSeriesHttpMessageConverter(objectMapper));
+    }
+}
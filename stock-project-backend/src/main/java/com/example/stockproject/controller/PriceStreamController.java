@@ -0,0 +1,100 @@
+package com.example.stockproject.controller;
+
+import com.example.stockproject.service.PriceStreamService;
+import com.example.stockproject.stream.PriceSink;
+import com.example.stockproject.stream.PriceStreamHub;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 即時價格推播控制器
+ * 
+ * 以 Server-Sent Events 推送訂閱股票的價格更新，取代輪詢 /api/stocks/{id}。
+ * 每個事件（名稱為 prices）包含合併視窗內變動的股票識別碼對最新價格。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增即時價格推播
+ */
+@RestController
+@RequestMapping("/api/stream")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "http://localhost:3000")
+public class PriceStreamController {
+
+    private static final String DEFAULT_USER_ID = "guest";
+    private static final int MAX_STREAM_STOCKS = 500;
+
+    private final PriceStreamService priceStreamService;
+
+    /**
+     * 連線最長存活時間，逾時後用戶端（EventSource）會自動重新連線
+     */
+    @Value("${stock.stream.timeout:30m}")
+    private Duration timeout;
+
+    /**
+     * 訂閱價格更新
+     * 
+     * @param stockIds 股票識別碼列表（如 1,2,3），未指定時使用觀察清單
+     * @return SSE 串流，訂閱數已達上限時返回 503
+     */
+    @GetMapping(value = "/prices", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamPrices(@RequestParam(required = false) List<Long> stockIds) {
+        log.debug("收到價格推播訂閱請求，股票: {}", stockIds);
+        if (stockIds != null && stockIds.size() > MAX_STREAM_STOCKS) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        PriceStreamHub.Subscription subscription;
+        try {
+            subscription = priceStreamService.subscribe(DEFAULT_USER_ID, stockIds, new SsePriceSink(emitter));
+        } catch (IllegalStateException e) {
+            log.warn("拒絕價格推播訂閱: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        emitter.onCompletion(() -> priceStreamService.unsubscribe(subscription));
+        emitter.onTimeout(() -> priceStreamService.unsubscribe(subscription));
+        emitter.onError(e -> priceStreamService.unsubscribe(subscription));
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * 以 SseEmitter 實作的推播接收端
+     */
+    private static final class SsePriceSink implements PriceSink {
+
+        private final SseEmitter emitter;
+
+        private SsePriceSink(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void send(Map<Long, Double> prices) throws IOException {
+            emitter.send(SseEmitter.event().name("prices").data(prices, MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void heartbeat() throws IOException {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        }
+
+        @Override
+        public void close() {
+            emitter.complete();
+        }
+    }
+}
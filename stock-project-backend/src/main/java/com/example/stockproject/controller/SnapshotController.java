@@ -0,0 +1,44 @@
+package com.example.stockproject.controller;
+
+import com.example.stockproject.service.SnapshotService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * 快照控制器
+ * 
+ * 提供立即寫出資料庫快照的 REST API 端點（還原只在啟動時自動進行）。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增快照與啟動還原
+ */
+@RestController
+@RequestMapping("/api/snapshot")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "http://localhost:3000")
+public class SnapshotController {
+
+    private final SnapshotService snapshotService;
+
+    /**
+     * 立即把股票、日線與觀察清單寫出到快照檔案
+     * 
+     * @return 寫出結果
+     */
+    @PostMapping
+    public ResponseEntity<?> save() {
+        log.info("收到寫出快照請求");
+
+        try {
+            return ResponseEntity.ok(snapshotService.save());
+        } catch (Exception e) {
+            log.error("寫出快照時發生錯誤", e);
+            return ResponseEntity.internalServerError().body(Map.of("error", "寫出快照失敗"));
+        }
+    }
+}
@@ -1,9 +1,16 @@
 package com.example.stockproject.controller;
 
+import com.example.stockproject.model.dto.QuoteRefreshResultDTO;
 import com.example.stockproject.model.dto.StockDTO;
+import com.example.stockproject.service.QuoteRefreshService;
+import com.example.stockproject.service.StockCatalog;
 import com.example.stockproject.service.StockService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -25,30 +32,51 @@ import java.util.List;
 @CrossOrigin(origins = "http://localhost:3000")
 public class StockController {
 
+    private static final int MAX_SEARCH_LIMIT = 500;
+
     private final StockService stockService;
+    private final QuoteRefreshService quoteRefreshService;
 
     /**
      * 取得所有股票
      * 
+     * 回傳預先序列化的股票清單快照並附上 ETag，
+     * 用戶端以 If-None-Match 帶回目前版本的 ETag 時回傳 304。
+     * 
+     * @param ifNoneMatch 用戶端持有的 ETag
      * @return 所有股票的列表
      */
     @GetMapping
-    public ResponseEntity<List<StockDTO>> getAllStocks() {
+    public ResponseEntity<byte[]> getAllStocks(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("收到取得所有股票的請求");
-        List<StockDTO> stocks = stockService.getAllStocks();
-        return ResponseEntity.ok(stocks);
+        StockCatalog.Snapshot catalog = stockService.getCatalog();
+        if (matchesEtag(ifNoneMatch, catalog.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(catalog.getEtag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(catalog.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .body(catalog.getJson());
     }
 
     /**
      * 根據關鍵字搜尋股票
      * 
      * @param query 搜尋關鍵字
-     * @return 符合條件的股票列表
+     * @param limit 最多回傳筆數（1 到 500，預設 50）
+     * @return 依相關性排序的股票列表
      */
     @GetMapping("/search")
-    public ResponseEntity<List<StockDTO>> searchStocks(@RequestParam(required = false) String query) {
+    public ResponseEntity<List<StockDTO>> searchStocks(
+            @RequestParam(required = false) String query,
+            @RequestParam(defaultValue = "50") int limit) {
         log.info("收到搜尋股票請求，關鍵字: {}", query);
-        List<StockDTO> stocks = stockService.searchStocks(query);
+        List<StockDTO> stocks = stockService.searchStocks(query, Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT)));
         return ResponseEntity.ok(stocks);
     }
 
@@ -85,4 +113,39 @@ public class StockController {
             return ResponseEntity.notFound().build();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 立即更新所有股票的最新報價（不等待背景排程）
+     * 
+     * @return 更新結果，包含價格有變動的股票
+     */
+    @PostMapping("/refresh-quotes")
+    public ResponseEntity<QuoteRefreshResultDTO> refreshQuotes() {
+        log.info("收到更新股票報價請求");
+        try {
+            return ResponseEntity.ok(quoteRefreshService.refreshQuotes());
+        } catch (Exception e) {
+            log.error("更新股票報價失敗", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * 比對 If-None-Match（可能含多個 ETag、弱 ETag 或 *）
+     */
+    private static boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,13 +1,50 @@
 package com.example.stockproject.controller;
 
+import com.example.stockproject.client.MarketDataException;
+import com.example.stockproject.client.MarketDataRateLimitException;
+import com.example.stockproject.client.QuotaScheduler;
+import com.example.stockproject.client.RequestPriority;
+import com.example.stockproject.exporter.ExportFormat;
+import com.example.stockproject.model.dto.BatchStockPricesDTO;
+import com.example.stockproject.model.dto.IndicatorDTO;
+import com.example.stockproject.model.dto.IntradayBarsDTO;
+import com.example.stockproject.model.dto.QueueStatusDTO;
+import com.example.stockproject.model.dto.StockDTO;
 import com.example.stockproject.model.dto.StockPriceDTO;
+import com.example.stockproject.model.dto.SyncResultDTO;
+import com.example.stockproject.model.indicator.IndicatorSpec;
+import com.example.stockproject.model.series.BarInterval;
+import com.example.stockproject.model.series.DailyBars;
+import com.example.stockproject.model.series.Resolution;
+import com.example.stockproject.service.IndicatorService;
+import com.example.stockproject.service.MarketDataSyncService;
+import com.example.stockproject.service.PriceExportService;
+import com.example.stockproject.service.PriceImportService;
+import com.example.stockproject.service.PriceArchiveService;
 import com.example.stockproject.service.StockPriceService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * 股票歷史價格控制器
@@ -25,22 +62,72 @@ import java.util.List;
 @CrossOrigin(origins = "http://localhost:3000")
 public class StockPriceController {
 
+    private static final int DEFAULT_PAGE_SIZE = 500;
+    public static final String NEXT_AFTER_HEADER = "X-Next-After";
+    public static final String NEXT_AFTER_ID_HEADER = "X-Next-After-Id";
+    private static final int MAX_BATCH_SYMBOLS = 50;
+
     private final StockPriceService stockPriceService;
+    private final IndicatorService indicatorService;
+    private final MarketDataSyncService marketDataSyncService;
+    private final PriceArchiveService priceArchiveService;
+    private final PriceImportService priceImportService;
+    private final PriceExportService priceExportService;
+
+    /**
+     * Alpha Vantage 請求在回傳 202 排隊狀態前的最長等待時間
+     */
+    @Value("${stock.market-data.alphavantage.max-wait:10s}")
+    private Duration alphaVantageMaxWait;
 
     /**
      * 獲取指定股票的歷史價格數據
      * 
-     * @param stockId 股票識別碼
+     * 指定 after 或 limit 時改為鍵集分頁：回傳 (after, afterId) 之後最多 limit 筆，
+     * 若可能還有下一頁，會在 X-Next-After 與 X-Next-After-Id 標頭提供下一頁的游標日期與識別碼
+     * （同一天可能有多筆記錄，兩者都要帶回；只帶日期時略過該日全部記錄）。
+     * 未分頁時依 Accept 標頭回傳 JSON、欄式 JSON 或二進位格式，並可指定K線週期與最多點數。
+     * 
+     * @param stockId    股票識別碼
+     * @param after      游標日期（選填）
+     * @param afterId    游標識別碼（不含，選填）
+     * @param limit      每頁筆數（選填）
+     * @param resolution K線週期 (daily, weekly, monthly，預設 daily)
+     * @param maxPoints  最多點數，以 LTTB 縮減（選填，0 表示不縮減）
      * @return 歷史價格數據列表
      */
     @GetMapping("/{stockId}")
-    public ResponseEntity<List<StockPriceDTO>> getStockPrices(@PathVariable Long stockId) {
+    public ResponseEntity<?> getStockPrices(
+            @PathVariable Long stockId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate after,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String resolution,
+            @RequestParam(defaultValue = "0") int maxPoints) {
         log.info("收到獲取股票 ID: {} 歷史價格數據的請求", stockId);
 
         try {
-            List<StockPriceDTO> stockPrices = stockPriceService.getStockPrices(stockId);
+            if (after != null || limit != null) {
+                int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+                List<StockPriceDTO> page = stockPriceService.getStockPricesPage(stockId, after, afterId, pageSize);
+                log.info("成功分頁獲取股票 ID: {} 的歷史價格數據，共 {} 筆記錄", stockId, page.size());
+
+                ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                if (!page.isEmpty() && page.size() >= Math.min(pageSize, StockPriceService.MAX_PAGE_SIZE)) {
+                    StockPriceDTO last = page.get(page.size() - 1);
+                    response.header(NEXT_AFTER_HEADER, last.getDate().toString());
+                    response.header(NEXT_AFTER_ID_HEADER, last.getId().toString());
+                }
+                return response.body(page);
+            }
+
+            DailyBars stockPrices = stockPriceService.getStockPriceSeries(
+                    stockId, Resolution.from(resolution), maxPoints);
             log.info("成功獲取股票 ID: {} 的歷史價格數據，共 {} 筆記錄", stockId, stockPrices.size());
             return ResponseEntity.ok(stockPrices);
+        } catch (IllegalArgumentException e) {
+            log.warn("獲取股票 ID: {} 歷史價格數據的參數錯誤: {}", stockId, e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("獲取股票 ID: {} 歷史價格數據時發生錯誤", stockId, e);
             return ResponseEntity.internalServerError().build();
@@ -50,42 +137,144 @@ public class StockPriceController {
     /**
      * 根據時間範圍獲取指定股票的歷史價格數據
      * 
-     * @param stockId 股票識別碼
-     * @param period  時間範圍 (3M, 1Y, 2Y, 3Y, 5Y)
-     * @return 歷史價格數據列表
+     * 指定 interval（或時間範圍為 1D、5D）時回傳分K線；否則依 Accept 標頭回傳 JSON、
+     * 欄式 JSON 或二進位格式的日線，並可指定K線週期與最多點數。
+     * 
+     * @param stockId    股票識別碼
+     * @param period     時間範圍 (1D, 5D, 3M, 1Y, 2Y, 3Y, 5Y)
+     * @param interval   分K線週期 (1m, 5m, 15m, 30m, 1h，選填；1D 預設 1m、5D 預設 5m)
+     * @param resolution K線週期 (daily, weekly, monthly，預設 daily)
+     * @param maxPoints  最多點數，以 LTTB 縮減（選填，0 表示不縮減，只適用於日線）
+     * @return 歷史價格數據
      */
     @GetMapping("/{stockId}/period/{period}")
-    public ResponseEntity<List<StockPriceDTO>> getStockPricesByPeriod(
+    public ResponseEntity<?> getStockPricesByPeriod(
             @PathVariable Long stockId,
-            @PathVariable String period) {
+            @PathVariable String period,
+            @RequestParam(required = false) String interval,
+            @RequestParam(required = false) String resolution,
+            @RequestParam(defaultValue = "0") int maxPoints) {
         log.info("收到獲取股票 ID: {} 在時間範圍 {} 的歷史價格數據請求", stockId, period);
 
         try {
-            List<StockPriceDTO> stockPrices = stockPriceService.getStockPricesByPeriod(stockId, period);
+            BarInterval barInterval = interval != null
+                    ? BarInterval.from(interval)
+                    : stockPriceService.defaultIntradayInterval(period);
+            if (barInterval != null) {
+                IntradayBarsDTO bars = stockPriceService.getIntradayBars(stockId, period, barInterval);
+                log.info("成功獲取股票 ID: {} 在時間範圍 {} 的 {} 分K線，共 {} 筆記錄",
+                        stockId, period, barInterval.getCode(), bars.getTimestamps().length);
+                return ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(bars);
+            }
+
+            DailyBars stockPrices = stockPriceService.getStockPriceSeriesByPeriod(
+                    stockId, period, Resolution.from(resolution), maxPoints);
             log.info("成功獲取股票 ID: {} 在時間範圍 {} 的歷史價格數據，共 {} 筆記錄",
                     stockId, period, stockPrices.size());
             return ResponseEntity.ok(stockPrices);
+        } catch (IllegalArgumentException e) {
+            log.warn("獲取股票 ID: {} 在時間範圍 {} 的歷史價格數據參數錯誤: {}", stockId, period, e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("獲取股票 ID: {} 在時間範圍 {} 的歷史價格數據時發生錯誤", stockId, period, e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    /**
+     * 以串流方式獲取指定股票的全部歷史價格數據
+     * 
+     * 與一般查詢回傳相同的 JSON 格式，但邊讀邊寫，不在記憶體中建立完整列表。
+     * 
+     * @param stockId 股票識別碼
+     * @return 串流輸出的歷史價格數據
+     */
+    @GetMapping(value = "/{stockId}", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamStockPrices(@PathVariable Long stockId) {
+        log.info("收到串流獲取股票 ID: {} 歷史價格數據的請求", stockId);
+        return streamResponse(stockId, null);
+    }
+
+    /**
+     * 以串流方式根據時間範圍獲取指定股票的歷史價格數據
+     * 
+     * @param stockId 股票識別碼
+     * @param period  時間範圍 (1D, 5D, 3M, 1Y, 2Y, 3Y, 5Y)
+     * @return 串流輸出的歷史價格數據
+     */
+    @GetMapping(value = "/{stockId}/period/{period}", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamStockPricesByPeriod(
+            @PathVariable Long stockId,
+            @PathVariable String period) {
+        log.info("收到串流獲取股票 ID: {} 在時間範圍 {} 的歷史價格數據請求", stockId, period);
+        return streamResponse(stockId, period);
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamResponse(Long stockId, String period) {
+        StreamingResponseBody body = out -> {
+            long count = stockPriceService.streamStockPrices(stockId, period, out);
+            log.info("成功串流輸出股票 ID: {} 的歷史價格數據，共 {} 筆記錄", stockId, count);
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /**
+     * 獲取指定股票的技術指標
+     * 
+     * @param stockId 股票識別碼
+     * @param type    指標種類 (sma, ema, rsi, macd, bbands, atr)
+     * @param params  逗號分隔的指標參數（選填，預設如 sma=20、macd=12,26,9、bbands=20,2）
+     * @param period  時間範圍 (3M, 1Y, 2Y, 3Y, 5Y，選填，預設全部)
+     * @return 技術指標數據
+     */
+    @GetMapping("/{stockId}/indicators")
+    public ResponseEntity<IndicatorDTO> getIndicator(
+            @PathVariable Long stockId,
+            @RequestParam String type,
+            @RequestParam(required = false) String params,
+            @RequestParam(required = false) String period) {
+        log.info("收到獲取股票 ID: {} 技術指標 {}({}) 的請求", stockId, type, params);
+
+        try {
+            IndicatorSpec spec = IndicatorSpec.parse(type, params);
+            LocalDate startDate = period == null ? null : stockPriceService.calculateStartDate(period);
+            IndicatorDTO indicator = indicatorService.getIndicator(stockId, spec, startDate);
+            log.info("成功獲取股票 ID: {} 的技術指標 {}，共 {} 筆記錄", stockId, spec, indicator.getDates().size());
+            return ResponseEntity.ok(indicator);
+        } catch (IllegalArgumentException e) {
+            log.warn("獲取股票 ID: {} 技術指標的參數錯誤: {}", stockId, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("獲取股票 ID: {} 技術指標時發生錯誤", stockId, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     /**
      * 為指定股票生成模擬歷史價格數據
      * 
      * @param stockId 股票識別碼
      * @param days    生成的天數 (預設 365 天)
+     * @param bulk    是否使用批次模式（取代原有數據並以 JDBC 批次插入）
      * @return 操作結果
      */
     @PostMapping("/{stockId}/generate-mock-data")
     public ResponseEntity<String> generateMockData(
             @PathVariable Long stockId,
-            @RequestParam(defaultValue = "365") int days) {
+            @RequestParam(defaultValue = "365") int days,
+            @RequestParam(defaultValue = "false") boolean bulk) {
         log.info("收到為股票 ID: {} 生成 {} 天模擬歷史價格數據的請求", stockId, days);
 
         try {
-            stockPriceService.generateMockData(stockId, days);
+            if (bulk) {
+                stockPriceService.generateMockDataBulk(stockId, days);
+            } else {
+                stockPriceService.generateMockData(stockId, days);
+            }
             log.info("成功為股票 ID: {} 生成模擬歷史價格數據", stockId);
             return ResponseEntity.ok("成功生成模擬歷史價格數據");
         } catch (Exception e) {
@@ -94,6 +283,160 @@ public class StockPriceController {
         }
     }
 
+    /**
+     * 從 Yahoo Finance 增量同步指定股票的日線數據到本地資料庫
+     * 
+     * 首次同步取得完整初始範圍，之後只取得上次同步日之後的數據。
+     * 
+     * @param stockId 股票識別碼
+     * @return 同步結果（股票不存在為 404，外部來源失敗為 502）
+     */
+    @PostMapping("/{stockId}/sync")
+    public ResponseEntity<SyncResultDTO> syncFromYahoo(@PathVariable Long stockId) {
+        log.info("收到同步股票 ID: {} 外部歷史價格數據的請求", stockId);
+
+        try {
+            return ResponseEntity.ok(marketDataSyncService.syncFromYahoo(stockId));
+        } catch (IllegalArgumentException e) {
+            log.warn("同步失敗: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        } catch (MarketDataException e) {
+            log.error("同步股票 ID: {} 時外部數據來源失敗", stockId, e);
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).build();
+        } catch (Exception e) {
+            log.error("同步股票 ID: {} 時發生錯誤", stockId, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * 平行地為所有股票（或指定股票）以批次模式生成模擬歷史價格數據
+     * 
+     * @param days     生成的天數 (預設 365 天)
+     * @param stockIds 股票識別碼列表（選填，未指定時為所有股票）
+     * @return 生成結果統計
+     */
+    @PostMapping("/generate-mock-data")
+    public ResponseEntity<Map<String, Object>> generateMockDataBulk(
+            @RequestParam(defaultValue = "365") int days,
+            @RequestParam(required = false) List<Long> stockIds) {
+        log.info("收到批次生成 {} 天模擬歷史價格數據的請求，股票: {}", days, stockIds == null ? "全部" : stockIds);
+
+        try {
+            long start = System.nanoTime();
+            long rows = stockPriceService.generateMockDataBulk(stockIds, days);
+            long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+            log.info("成功批次生成 {} 筆模擬歷史價格數據，耗時 {} ms", rows, elapsedMs);
+            return ResponseEntity.ok(Map.of(
+                    "rows", rows,
+                    "elapsedMs", elapsedMs,
+                    "rowsPerSecond", rows * 1000 / elapsedMs));
+        } catch (Exception e) {
+            log.error("批次生成模擬歷史價格數據時發生錯誤", e);
+            return ResponseEntity.internalServerError().body(Map.of("error", "生成模擬數據失敗"));
+        }
+    }
+
+    /**
+     * 從請求內容批次匯入歷史價格 CSV
+     * 
+     * 每行為 symbol,date,open,high,low,close,volume（可有標題行），內容可以是 gzip 壓縮。
+     * 例如：curl --data-binary @prices.csv.gz -H "Content-Type: application/gzip" .../import
+     * 
+     * @param body 請求內容
+     * @return 匯入結果（含每秒寫入列數與被拒絕行的範例）
+     */
+    @PostMapping(value = "/import", consumes = { "text/csv", "application/gzip",
+            MediaType.APPLICATION_OCTET_STREAM_VALUE })
+    public ResponseEntity<?> importCsv(InputStream body) {
+        log.info("收到歷史價格 CSV 匯入請求");
+
+        try {
+            return ResponseEntity.ok(priceImportService.importCsv(body));
+        } catch (IOException e) {
+            log.warn("讀取匯入內容失敗: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", "讀取匯入內容失敗: " + e.getMessage()));
+        } catch (Exception e) {
+            log.error("匯入歷史價格時發生錯誤", e);
+            return ResponseEntity.internalServerError().body(Map.of("error", "匯入歷史價格失敗"));
+        }
+    }
+
+    /**
+     * 批次匯出歷史價格（包含已歸檔的K線）
+     * 
+     * CSV 與匯入格式相同，可直接再匯入；binary 為連續的二進位價格序列區塊。
+     * 內容在請求執行緒中一邊讀取一邊寫出，不受非同步請求逾時限制，匯出整個資料表也只佔用固定記憶體。
+     * 例如：curl -o prices.csv.gz ".../export?symbols=AAPL,MSFT&from=2020-01-01&gzip=true"
+     * 
+     * @param format   匯出格式 (csv, binary)
+     * @param symbols  股票代碼（逗號分隔），省略表示全部股票
+     * @param from     起始日期（含），省略表示不限
+     * @param to       結束日期（含），省略表示不限
+     * @param gzip     是否以 gzip 壓縮
+     * @param response HTTP 回應
+     * @return 參數錯誤時的錯誤訊息；成功時內容已直接寫入回應，回傳 null
+     */
+    @GetMapping("/export")
+    public ResponseEntity<?> exportPrices(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) List<String> symbols,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response) {
+        log.info("收到歷史價格匯出請求，格式: {}，股票: {}，範圍: {} ~ {}，gzip: {}", format, symbols, from, to, gzip);
+
+        ExportFormat exportFormat;
+        List<StockDTO> stocks;
+        try {
+            exportFormat = ExportFormat.of(format);
+            stocks = priceExportService.resolveStocks(symbols);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "起始日期不可晚於結束日期"));
+        }
+
+        String filename = "prices." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip" : exportFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename).build().toString());
+        try {
+            long rows = priceExportService.export(stocks, from, to, exportFormat, gzip, response.getOutputStream());
+            log.info("成功匯出 {} 支股票的歷史價格數據，共 {} 筆記錄", stocks.size(), rows);
+        } catch (IOException e) {
+            log.warn("寫出匯出內容失敗（用戶端可能已中斷連線）: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("匯出歷史價格時發生錯誤", e);
+            if (response.isCommitted()) {
+                // 已開始輸出時交給容器中斷連線，用戶端才不會把不完整的內容當成完整檔案
+                throw e;
+            }
+            response.reset();
+            return ResponseEntity.internalServerError().body(Map.of("error", "匯出歷史價格失敗"));
+        }
+        return null;
+    }
+
+    /**
+     * 立即把所有股票早於歸檔期限的歷史價格移到歸檔檔案
+     * 
+     * @return 歸檔結果
+     */
+    @PostMapping("/archive")
+    public ResponseEntity<?> archive() {
+        log.info("收到歷史價格歸檔請求");
+
+        try {
+            return ResponseEntity.ok(priceArchiveService.archive());
+        } catch (Exception e) {
+            log.error("歷史價格歸檔時發生錯誤", e);
+            return ResponseEntity.internalServerError().body(Map.of("error", "歷史價格歸檔失敗"));
+        }
+    }
+
     /**
      * 檢查指定股票是否有歷史價格數據
      * 
@@ -143,7 +486,7 @@ public class StockPriceController {
     public ResponseEntity<String[]> getSupportedPeriods() {
         log.info("收到獲取支援時間範圍的請求");
 
-        String[] periods = { "3M", "1Y", "2Y", "3Y", "5Y" };
+        String[] periods = { "1D", "5D", "3M", "1Y", "2Y", "3Y", "5Y" };
         return ResponseEntity.ok(periods);
     }
 
@@ -155,43 +498,118 @@ public class StockPriceController {
      * @return 歷史價格數據列表
      */
     @GetMapping("/yahoo/{symbol}/period/{period}")
-    public ResponseEntity<List<StockPriceDTO>> getRealStockPricesFromYahoo(
+    public CompletableFuture<ResponseEntity<List<StockPriceDTO>>> getRealStockPricesFromYahoo(
             @PathVariable String symbol,
             @PathVariable String period) {
         log.info("收到從 Yahoo Finance 取得股票 {} 在時間範圍 {} 的真實歷史價格數據請求", symbol, period);
 
-        try {
-            List<StockPriceDTO> stockPrices = stockPriceService.getRealStockPricesFromYahoo(symbol, period);
-            log.info("成功從 Yahoo Finance 取得股票 {} 的真實歷史價格數據，共 {} 筆記錄",
-                    symbol, stockPrices.size());
-            return ResponseEntity.ok(stockPrices);
-        } catch (Exception e) {
-            log.error("從 Yahoo Finance 取得股票 {} 的真實歷史價格數據時發生錯誤", symbol, e);
-            return ResponseEntity.internalServerError().build();
+        // 外部呼叫在市場數據執行緒池進行，不佔用 Tomcat 工作執行緒
+        return stockPriceService.getRealStockPricesFromYahooAsync(symbol, period)
+                .thenApply(stockPrices -> {
+                    log.info("成功從 Yahoo Finance 取得股票 {} 的真實歷史價格數據，共 {} 筆記錄",
+                            symbol, stockPrices.size());
+                    return ResponseEntity.ok(stockPrices);
+                })
+                .exceptionally(e -> {
+                    log.error("從 Yahoo Finance 取得股票 {} 的真實歷史價格數據時發生錯誤", symbol, e);
+                    return ResponseEntity.internalServerError().build();
+                });
+    }
+
+    /**
+     * 同時從 Yahoo Finance 取得多檔股票的真實歷史股價數據
+     * 
+     * @param symbols 股票代碼（逗號分隔，最多 50 檔）
+     * @param period  時間範圍 (1d, 5d, 1mo, 3mo, 6mo, 1y, 2y, 5y, 10y, ytd, max)
+     * @return 各股票的歷史價格與失敗原因
+     */
+    @GetMapping("/yahoo/batch")
+    public CompletableFuture<ResponseEntity<BatchStockPricesDTO>> getRealStockPricesFromYahooBatch(
+            @RequestParam List<String> symbols,
+            @RequestParam(defaultValue = "1y") String period) {
+        log.info("收到從 Yahoo Finance 批次取得 {} 檔股票在時間範圍 {} 的真實歷史價格數據請求", symbols.size(), period);
+
+        if (symbols.isEmpty() || symbols.size() > MAX_BATCH_SYMBOLS) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
+        return stockPriceService.getRealStockPricesFromYahooBatch(symbols, period)
+                .thenApply(result -> {
+                    log.info("批次取得完成：成功 {} 檔、失敗 {} 檔，耗時 {} ms",
+                            result.getPrices().size(), result.getErrors().size(), result.getElapsedMs());
+                    return ResponseEntity.ok(result);
+                });
     }
 
     /**
      * 從 Alpha Vantage 取得真實歷史股價數據
      * 
-     * @param symbol 股票代碼
-     * @param apiKey Alpha Vantage API Key
-     * @return 歷史價格數據列表
+     * 請求經過配額排程器：在 stock.market-data.alphavantage.max-wait 內完成時回傳 200 與數據；
+     * 仍在排隊時回傳 202、佇列位置與預計等待時間（並附 Retry-After 標頭），
+     * 請求會繼續排隊，稍後重試即可由快取取得結果。
+     * 
+     * @param symbol   股票代碼
+     * @param apiKey   Alpha Vantage API Key
+     * @param full     是否取得完整歷史 (預設只取最近約 100 個交易日)
+     * @param priority 優先順序 (interactive 或 background)
+     * @return 歷史價格數據列表，或排隊狀態
      */
     @GetMapping("/alphavantage/{symbol}")
-    public ResponseEntity<List<StockPriceDTO>> getRealStockPricesFromAlphaVantage(
+    public CompletableFuture<ResponseEntity<?>> getRealStockPricesFromAlphaVantage(
             @PathVariable String symbol,
-            @RequestParam String apiKey) {
+            @RequestParam String apiKey,
+            @RequestParam(defaultValue = "false") boolean full,
+            @RequestParam(defaultValue = "interactive") String priority) {
         log.info("收到從 Alpha Vantage 取得股票 {} 的真實歷史價格數據請求", symbol);
 
+        QuotaScheduler.Ticket<List<StockPriceDTO>> ticket;
         try {
-            List<StockPriceDTO> stockPrices = stockPriceService.getRealStockPricesFromAlphaVantage(symbol, apiKey);
-            log.info("成功從 Alpha Vantage 取得股票 {} 的真實歷史價格數據，共 {} 筆記錄",
-                    symbol, stockPrices.size());
-            return ResponseEntity.ok(stockPrices);
-        } catch (Exception e) {
-            log.error("從 Alpha Vantage 取得股票 {} 的真實歷史價格數據時發生錯誤", symbol, e);
-            return ResponseEntity.internalServerError().build();
+            ticket = stockPriceService.requestAlphaVantage(symbol, apiKey, full, RequestPriority.from(priority));
+        } catch (IllegalArgumentException e) {
+            log.warn("無效的優先順序: {}", priority);
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
+
+        return ticket.result()
+                .<ResponseEntity<?>>thenApply(stockPrices -> {
+                    log.info("成功從 Alpha Vantage 取得股票 {} 的真實歷史價格數據，共 {} 筆記錄",
+                            symbol, stockPrices.size());
+                    return ResponseEntity.ok(stockPrices);
+                })
+                .orTimeout(alphaVantageMaxWait.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof TimeoutException) {
+                        return queued(symbol, full);
+                    }
+                    if (cause instanceof MarketDataRateLimitException) {
+                        log.warn("Alpha Vantage 配額已用盡，股票 {} 的請求失敗", symbol);
+                        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+                    }
+                    log.error("從 Alpha Vantage 取得股票 {} 的真實歷史價格數據時發生錯誤", symbol, cause);
+                    return ResponseEntity.status(HttpStatus.BAD_GATEWAY).build();
+                });
+    }
+
+    /**
+     * 取得 Alpha Vantage 配額與佇列統計
+     * 
+     * @return 剩餘配額、佇列長度等統計值
+     */
+    @GetMapping("/alphavantage/quota")
+    public ResponseEntity<Map<String, Object>> getAlphaVantageQuota() {
+        return ResponseEntity.ok(stockPriceService.getAlphaVantageQuota());
+    }
+
+    /**
+     * 建立 202 排隊狀態回應
+     */
+    private ResponseEntity<?> queued(String symbol, boolean full) {
+        QuotaScheduler.Ticket<List<StockPriceDTO>> status = stockPriceService.getAlphaVantageStatus(symbol, full);
+        int position = status != null ? status.position() : -1;
+        long etaSeconds = status != null ? (status.eta().toMillis() + 999) / 1000 : 0;
+        log.info("股票 {} 的 Alpha Vantage 請求排隊中，位置 {}，預計 {} 秒後送出", symbol, position, etaSeconds);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, etaSeconds)))
+                .body(new QueueStatusDTO(symbol, position, etaSeconds));
     }
 }
\ No newline at end of file
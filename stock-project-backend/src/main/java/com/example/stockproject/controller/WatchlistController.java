@@ -1,5 +1,6 @@
 package com.example.stockproject.controller;
 
+import com.example.stockproject.model.dto.WatchlistBulkRequestDTO;
 import com.example.stockproject.model.dto.WatchlistDTO;
 import com.example.stockproject.service.WatchlistService;
 import lombok.RequiredArgsConstructor;
@@ -28,16 +29,25 @@ public class WatchlistController {
 
     private final WatchlistService watchlistService;
     private static final String DEFAULT_USER_ID = "guest";
+    private static final int MAX_BULK_SIZE = 500;
+    private static final int MAX_SPARKLINE_POINTS = 250;
 
     /**
      * 取得用戶的觀察清單
      * 
+     * @param trend     是否附上每檔股票的最新收盤價、漲跌與走勢線
+     * @param sparkline 走勢線的收盤價筆數（1 到 250，預設 30）
      * @return 觀察清單項目列表
      */
     @GetMapping
-    public ResponseEntity<List<WatchlistDTO>> getWatchlist() {
+    public ResponseEntity<List<WatchlistDTO>> getWatchlist(
+            @RequestParam(defaultValue = "false") boolean trend,
+            @RequestParam(defaultValue = "30") int sparkline) {
         log.info("收到取得觀察清單請求，用戶: {}", DEFAULT_USER_ID);
-        List<WatchlistDTO> watchlist = watchlistService.getWatchlist(DEFAULT_USER_ID);
+        int points = Math.max(1, Math.min(sparkline, MAX_SPARKLINE_POINTS));
+        List<WatchlistDTO> watchlist = trend
+                ? watchlistService.getWatchlistWithTrends(DEFAULT_USER_ID, points)
+                : watchlistService.getWatchlist(DEFAULT_USER_ID);
         return ResponseEntity.ok(watchlist);
     }
 
@@ -82,6 +92,45 @@ public class WatchlistController {
         }
     }
 
+    /**
+     * 批次新增股票到觀察清單
+     * 
+     * @param request 包含股票識別碼列表的請求物件
+     * @return 新增與略過的股票識別碼
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<?> addAllToWatchlist(@RequestBody WatchlistBulkRequestDTO request) {
+        List<Long> stockIds = request.getStockIds();
+        log.info("收到批次新增股票到觀察清單請求，用戶: {}, 股票: {}", DEFAULT_USER_ID, stockIds);
+
+        if (stockIds == null || stockIds.isEmpty() || stockIds.contains(null)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "股票識別碼列表不能為空"));
+        }
+        if (stockIds.size() > MAX_BULK_SIZE) {
+            return ResponseEntity.badRequest().body(Map.of("error", "一次最多 " + MAX_BULK_SIZE + " 檔股票"));
+        }
+        return ResponseEntity.ok(watchlistService.addAllToWatchlist(DEFAULT_USER_ID, stockIds));
+    }
+
+    /**
+     * 批次從觀察清單移除股票
+     * 
+     * @param stockIds 股票識別碼列表（如 1,2,3）
+     * @return 移除與略過的股票識別碼
+     */
+    @DeleteMapping("/bulk")
+    public ResponseEntity<?> removeAllFromWatchlist(@RequestParam List<Long> stockIds) {
+        log.info("收到批次從觀察清單移除股票請求，用戶: {}, 股票: {}", DEFAULT_USER_ID, stockIds);
+
+        if (stockIds.isEmpty() || stockIds.contains(null)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "股票識別碼列表不能為空"));
+        }
+        if (stockIds.size() > MAX_BULK_SIZE) {
+            return ResponseEntity.badRequest().body(Map.of("error", "一次最多 " + MAX_BULK_SIZE + " 檔股票"));
+        }
+        return ResponseEntity.ok(watchlistService.removeAllFromWatchlist(DEFAULT_USER_ID, stockIds));
+    }
+
     /**
      * 檢查股票是否在觀察清單中
      * 
@@ -0,0 +1,29 @@
+package com.example.stockproject.event;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * 股票報價更新事件
+ * 
+ * 背景報價更新寫入資料庫（交易提交）後發布，只包含價格實際變動的股票，
+ * 讓快取只需失效受影響的項目。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增背景報價更新
+ */
+@Value
+public class StockQuotesUpdatedEvent {
+
+    /**
+     * 價格有變動的股票識別碼對新價格
+     */
+    Map<Long, Double> changedPrices;
+
+    /**
+     * 報價更新時間
+     */
+    Instant refreshedAt;
+}
@@ -0,0 +1,81 @@
+package com.example.stockproject.exporter;
+
+import com.example.stockproject.model.series.PriceSeries;
+import com.example.stockproject.model.series.PriceSeriesBuilder;
+import com.example.stockproject.model.series.PriceSeriesCodec;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 日線二進位寫出器
+ * 
+ * 輸出為連續的 {@link PriceSeriesCodec#writeBinary} 區塊（與單一股票的二進位回應相同的版面），
+ * 每支有資料的股票至少一個區塊，超過 {@link #MAX_FRAME_ROWS} 筆或日期沒有遞增
+ * （資料表中同一天有多筆）時分成多個區塊，因此記憶體用量與匯出筆數無關。
+ * 讀取端重複讀取區塊直到串流結束即可。
+ * 價格以 {@link PriceSeriesCodec#PRICE_SCALE} 量化（精確到小數點後四位），不包含記錄識別碼。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增批次匯出
+ */
+public final class BinaryPriceWriter implements PriceRowWriter {
+
+    /**
+     * 每個區塊最多的K線筆數
+     */
+    public static final int MAX_FRAME_ROWS = 64 * 1024;
+
+    private final OutputStream out;
+    private long stockId;
+    private String symbol;
+    private PriceSeriesBuilder builder;
+    private int lastEpochDay;
+
+    /**
+     * 建構函數
+     * 
+     * @param out 輸出串流
+     */
+    public BinaryPriceWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void beginStock(long stockId, String symbol) {
+        this.stockId = stockId;
+        this.symbol = symbol;
+    }
+
+    @Override
+    public void row(int epochDay, double open, double high, double low, double close, long volume)
+            throws IOException {
+        if (builder == null) {
+            builder = new PriceSeriesBuilder(4096);
+        } else if (builder.size() == MAX_FRAME_ROWS || epochDay <= lastEpochDay) {
+            writeFrame();
+            builder = new PriceSeriesBuilder(MAX_FRAME_ROWS);
+        }
+        builder.add(0L, epochDay, open, high, low, close, volume);
+        lastEpochDay = epochDay;
+    }
+
+    @Override
+    public void endStock() throws IOException {
+        if (builder != null) {
+            writeFrame();
+            builder = null;
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        endStock();
+        out.flush();
+    }
+
+    private void writeFrame() throws IOException {
+        PriceSeries series = builder.build(stockId, symbol);
+        PriceSeriesCodec.writeBinary(series, out);
+    }
+}
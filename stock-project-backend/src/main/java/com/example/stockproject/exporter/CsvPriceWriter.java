@@ -0,0 +1,172 @@
+package com.example.stockproject.exporter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * 日線 CSV 寫出器（直接寫入可重用的位元組緩衝，不為每行建立字串）
+ * 
+ * 輸出格式與 {@link com.example.stockproject.importer.PriceCsvParser} 相同：
+ * 第一行為標題 {@code symbol,date,open,high,low,close,volume}，日期為 yyyy-MM-dd，行尾為 \n。
+ * 價格以 {@link Double#toString} 的最短表示輸出（整數值省略小數部分），
+ * 再匯入時可得到完全相同的 double。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增批次匯出
+ */
+public final class CsvPriceWriter implements PriceRowWriter {
+
+    public static final byte[] HEADER =
+            "symbol,date,open,high,low,close,volume\n".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * 一行除代碼外的最大長度：日期 16（含超過四位數的年份）+ 四個價格各 24 + 成交量 20 + 分隔與行尾 7
+     */
+    private static final int MAX_ROW_WITHOUT_SYMBOL = 16 + 4 * 24 + 20 + 7;
+
+    /**
+     * 此範圍內的整數值以整數輸出
+     */
+    private static final double MAX_PLAIN_INTEGER = 1e15;
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int position;
+    private boolean headerWritten;
+    private byte[] symbol = new byte[0];
+
+    /**
+     * 建構函數
+     * 
+     * @param out        輸出串流
+     * @param bufferSize 緩衝大小（位元組）
+     */
+    public CsvPriceWriter(OutputStream out, int bufferSize) {
+        this.out = out;
+        this.buffer = new byte[Math.max(bufferSize, 1024)];
+    }
+
+    @Override
+    public void beginStock(long stockId, String symbol) throws IOException {
+        writeHeader();
+        this.symbol = symbol.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void row(int epochDay, double open, double high, double low, double close, long volume)
+            throws IOException {
+        if (position + symbol.length + MAX_ROW_WITHOUT_SYMBOL > buffer.length) {
+            flush();
+        }
+        System.arraycopy(symbol, 0, buffer, position, symbol.length);
+        position += symbol.length;
+        buffer[position++] = ',';
+        putDate(epochDay);
+        buffer[position++] = ',';
+        putDecimal(open);
+        buffer[position++] = ',';
+        putDecimal(high);
+        buffer[position++] = ',';
+        putDecimal(low);
+        buffer[position++] = ',';
+        putDecimal(close);
+        buffer[position++] = ',';
+        putLong(volume);
+        buffer[position++] = '\n';
+    }
+
+    @Override
+    public void endStock() {
+        // 同一個緩衝跨股票共用，不需要在股票之間寫出
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writeHeader();
+        flush();
+        out.flush();
+    }
+
+    private void writeHeader() {
+        if (!headerWritten) {
+            System.arraycopy(HEADER, 0, buffer, position, HEADER.length);
+            position += HEADER.length;
+            headerWritten = true;
+        }
+    }
+
+    private void flush() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    /**
+     * 以 yyyy-MM-dd 寫出日期（與 PriceCsvParser.epochDay 相反的換算，不建立物件）
+     */
+    private void putDate(int epochDay) {
+        int z = epochDay + 719468;
+        int era = (z >= 0 ? z : z - 146096) / 146097;
+        int dayOfEra = z - era * 146097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 0 || year > 9999) {
+            putAscii(LocalDate.ofEpochDay(epochDay).toString());
+            return;
+        }
+        putDigits(year, 4);
+        buffer[position++] = '-';
+        putDigits(month, 2);
+        buffer[position++] = '-';
+        putDigits(day, 2);
+    }
+
+    private void putDigits(int value, int count) {
+        for (int i = position + count - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position += count;
+    }
+
+    private void putDecimal(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < MAX_PLAIN_INTEGER) {
+            putLong((long) value);
+        } else {
+            putAscii(Double.toString(value));
+        }
+    }
+
+    private void putLong(long value) {
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                putAscii(Long.toString(value));
+                return;
+            }
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value / 10; v > 0; v /= 10) {
+            digits++;
+        }
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position += digits;
+    }
+
+    private void putAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            buffer[position++] = (byte) text.charAt(i);
+        }
+    }
+}
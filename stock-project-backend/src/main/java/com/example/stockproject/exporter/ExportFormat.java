@@ -0,0 +1,53 @@
+package com.example.stockproject.exporter;
+
+import java.util.Locale;
+
+/**
+ * 歷史價格匯出格式
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增批次匯出
+ */
+public enum ExportFormat {
+
+    /**
+     * symbol,date,open,high,low,close,volume（含標題行，可直接再匯入）
+     */
+    CSV("text/csv", "csv"),
+
+    /**
+     * 連續的 {@link com.example.stockproject.model.series.PriceSeriesCodec#writeBinary} 區塊
+     */
+    BINARY("application/octet-stream", "bin");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * 解析格式名稱（不分大小寫）
+     * 
+     * @param name 格式名稱 (csv, binary)
+     * @return 匯出格式
+     * @throws IllegalArgumentException 不支援的格式
+     */
+    public static ExportFormat of(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("不支援的匯出格式: " + name);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.stockproject.exporter;
+
+import java.io.IOException;
+
+/**
+ * 匯出K線的寫出器
+ * 
+ * 呼叫順序為每支股票一次 {@link #beginStock}、依日期遞增的多次 {@link #row}、
+ * 一次 {@link #endStock}，全部股票結束後呼叫 {@link #finish}。非執行緒安全。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增批次匯出
+ */
+public interface PriceRowWriter {
+
+    /**
+     * 開始輸出一支股票
+     * 
+     * @param stockId 股票識別碼
+     * @param symbol  股票代碼
+     * @throws IOException 寫出失敗時拋出
+     */
+    void beginStock(long stockId, String symbol) throws IOException;
+
+    /**
+     * 輸出一根K線
+     * 
+     * @param epochDay 交易日期 (epoch-day)
+     * @param open     開盤價
+     * @param high     最高價
+     * @param low      最低價
+     * @param close    收盤價
+     * @param volume   成交量
+     * @throws IOException 寫出失敗時拋出
+     */
+    void row(int epochDay, double open, double high, double low, double close, long volume) throws IOException;
+
+    /**
+     * 結束目前股票
+     * 
+     * @throws IOException 寫出失敗時拋出
+     */
+    void endStock() throws IOException;
+
+    /**
+     * 寫出所有緩衝中的資料（不關閉輸出串流）
+     * 
+     * @throws IOException 寫出失敗時拋出
+     */
+    void finish() throws IOException;
+}
@@ -0,0 +1,163 @@
+package com.example.stockproject.importer;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 把輸入切成以完整行結尾的區塊
+ * 
+ * 區塊緩衝預先配置並重複使用：{@link #next()} 在沒有空閒緩衝時等待，
+ * 處理完的區塊以 {@link #release(Block)} 歸還，因此讀取速度不會超過解析與寫入，
+ * 記憶體用量固定為 (緩衝數 + 1) × 區塊大小。每個區塊尾端不完整的行會搬到下一個區塊開頭。
+ * 比區塊還長的行會被切開，各段都會因格式不符被拒絕。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增 CSV 批次匯入
+ */
+public final class CsvBlockReader {
+
+    private final InputStream in;
+    private final BlockingQueue<Block> free;
+    private final byte[] carry;
+    private int carryLength;
+    private long offset;
+    private int sequence;
+    private boolean eof;
+
+    /**
+     * 建構函數
+     * 
+     * @param in        輸入（已解壓縮）
+     * @param blockSize 區塊大小（位元組）
+     * @param buffers   區塊緩衝數
+     */
+    public CsvBlockReader(InputStream in, int blockSize, int buffers) {
+        this.in = in;
+        this.free = new ArrayBlockingQueue<>(buffers);
+        for (int i = 0; i < buffers; i++) {
+            free.add(new Block(new byte[blockSize]));
+        }
+        this.carry = new byte[blockSize];
+    }
+
+    /**
+     * 開頭是 gzip 標記時自動解壓縮
+     * 
+     * @param in 原始輸入
+     * @return 可直接讀取 CSV 的輸入
+     * @throws IOException 讀取失敗時拋出
+     */
+    public static InputStream decompressIfGzip(InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in, 64 * 1024);
+        buffered.mark(2);
+        int b1 = buffered.read();
+        int b2 = buffered.read();
+        buffered.reset();
+        if (b1 == 0x1F && b2 == 0x8B) {
+            return new GZIPInputStream(buffered, 64 * 1024);
+        }
+        return buffered;
+    }
+
+    /**
+     * 讀取下一個區塊
+     * 
+     * @return 區塊，輸入結束時為 null
+     * @throws IOException          讀取失敗時拋出
+     * @throws InterruptedException 等待空閒緩衝時被中斷
+     */
+    public Block next() throws IOException, InterruptedException {
+        if (eof && carryLength == 0) {
+            return null;
+        }
+        Block block = free.take();
+        byte[] data = block.data;
+        System.arraycopy(carry, 0, data, 0, carryLength);
+        int length = carryLength;
+        carryLength = 0;
+        while (!eof && length < data.length) {
+            int n = in.read(data, length, data.length - length);
+            if (n < 0) {
+                eof = true;
+            } else {
+                length += n;
+            }
+        }
+
+        int end = length;
+        if (!eof) {
+            int newline = length - 1;
+            while (newline >= 0 && data[newline] != '\n') {
+                newline--;
+            }
+            if (newline >= 0) {
+                end = newline + 1;
+            }
+        }
+        carryLength = length - end;
+        System.arraycopy(data, end, carry, 0, carryLength);
+
+        block.length = end;
+        block.offset = offset;
+        block.sequence = ++sequence;
+        offset += end;
+        return block;
+    }
+
+    /**
+     * 歸還處理完的區塊
+     * 
+     * @param block 區塊
+     */
+    public void release(Block block) {
+        free.add(block);
+    }
+
+    /**
+     * 已讀取的位元組數（解壓縮後）
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * 輸入區塊：data[0, length) 為完整的行
+     */
+    public static final class Block {
+
+        private final byte[] data;
+        private int length;
+        private long offset;
+        private int sequence;
+
+        private Block(byte[] data) {
+            this.data = data;
+        }
+
+        public byte[] data() {
+            return data;
+        }
+
+        public int length() {
+            return length;
+        }
+
+        /**
+         * 區塊第一個位元組在輸入中的位置（解壓縮後）
+         */
+        public long offset() {
+            return offset;
+        }
+
+        /**
+         * 區塊序號（依輸入順序，從 1 開始）
+         */
+        public int sequence() {
+            return sequence;
+        }
+    }
+}
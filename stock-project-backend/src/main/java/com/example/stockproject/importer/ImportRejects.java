@@ -0,0 +1,64 @@
+package com.example.stockproject.importer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 匯入時被拒絕的行（執行緒安全）
+ * 
+ * 所有被拒絕的行都會計數，但只保留前幾筆的內容作為範例，
+ * 避免大量錯誤資料佔用記憶體。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增 CSV 批次匯入
+ */
+public final class ImportRejects {
+
+    private static final int MAX_LINE_LENGTH = 120;
+
+    private final int maxSamples;
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicInteger sampled = new AtomicInteger();
+    private final ConcurrentLinkedQueue<String> samples = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 建構函數
+     * 
+     * @param maxSamples 最多保留的範例筆數
+     */
+    public ImportRejects(int maxSamples) {
+        this.maxSamples = maxSamples;
+    }
+
+    /**
+     * 記錄被拒絕的行
+     * 
+     * @param offset 該行在輸入中的位元組位置（解壓縮後）
+     * @param reason 拒絕原因
+     * @param data   輸入緩衝
+     * @param from   行起始位置
+     * @param to     行結束位置（不含）
+     */
+    void reject(long offset, String reason, byte[] data, int from, int to) {
+        count.incrementAndGet();
+        if (sampled.get() < maxSamples && sampled.getAndIncrement() < maxSamples) {
+            String line = new String(data, from, Math.min(to - from, MAX_LINE_LENGTH), StandardCharsets.UTF_8);
+            samples.add("位元組 " + offset + "：" + reason + "：" + line);
+        }
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * 被拒絕行的範例（依記錄順序，平行解析時不一定依檔案順序）
+     */
+    public List<String> getSamples() {
+        return new ArrayList<>(samples);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.stockproject.importer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 一次匯入中每個 (股票, 日期) 最後出現的區塊（執行緒安全）
+ * 
+ * 區塊由多個執行緒平行寫入，同一個 (股票, 日期) 若在檔案中出現多次，
+ * 依資料庫最後交易日分類會讓每一次都被插入。解析器以 {@link #mark} 記錄每一列：
+ * 第一次出現的列照常寫入，之後出現的列另外收集，等所有區塊寫入後再以
+ * {@link #retainLatest} 只保留最後出現在該區塊的列補寫，因此以檔案中最後一行為準。
+ * 
+ * 以股票與 256 天為一段延遲配置 {@link AtomicIntegerArray}，
+ * 每個出現過的日曆日佔 4 位元組（每支股票每年約 1.5 KB）。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增 CSV 批次匯入
+ */
+public final class ImportedDays {
+
+    private static final int SEGMENT_SHIFT = 8;
+    private static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+
+    private final Map<Long, AtomicIntegerArray> segments = new ConcurrentHashMap<>();
+
+    /**
+     * 記錄 (股票, 日期) 出現在指定區塊
+     * 
+     * @param stockId  股票識別碼
+     * @param epochDay 日期 (epoch-day)
+     * @param block    區塊序號（從 1 開始）
+     * @return 先前記錄的最大區塊序號，0 表示本次匯入第一次出現
+     */
+    public int mark(long stockId, int epochDay, int block) {
+        return segment(stockId, epochDay).getAndAccumulate(epochDay & SEGMENT_MASK, block, Math::max);
+    }
+
+    /**
+     * 從區塊的重複列中挑出 (股票, 日期) 最後出現在此區塊的列（所有區塊都標記完後呼叫）
+     * 
+     * @param rows   區塊中重複出現的列
+     * @param block  區塊序號
+     * @param target 保留的列
+     */
+    public void retainLatest(PriceRowBatch rows, int block, PriceRowBatch target) {
+        for (int i = 0; i < rows.size(); i++) {
+            long stockId = rows.stockId(i);
+            int epochDay = rows.epochDay(i);
+            if (segment(stockId, epochDay).get(epochDay & SEGMENT_MASK) == block) {
+                target.add(stockId, epochDay, rows.open(i), rows.high(i), rows.low(i), rows.close(i),
+                        rows.volume(i));
+            }
+        }
+    }
+
+    private AtomicIntegerArray segment(long stockId, int epochDay) {
+        // 可解析的日期 (0000-01-01 ~ 9999-12-31) 共約 1.4 萬段，16 位元足以區分
+        long key = stockId << 16 | (epochDay >> SEGMENT_SHIFT) & 0xFFFF;
+        return segments.computeIfAbsent(key, k -> new AtomicIntegerArray(1 << SEGMENT_SHIFT));
+    }
+}
@@ -0,0 +1,308 @@
+package com.example.stockproject.importer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 日線 CSV 解析器（直接在位元組緩衝上解析，不建立字串）
+ * 
+ * 每行格式為 {@code symbol,date,open,high,low,close,volume}，日期為 yyyy-MM-dd，
+ * 行尾可以是 \n 或 \r\n，空行略過，代碼為 "symbol" 的標題行略過。
+ * 代碼以 {@link StockSymbolTable} 直接比對位元組，日期直接換算成 epoch-day，
+ * 一般的十進位價格以整數尾數除以 10 的次方取得（與 Double.parseDouble 結果相同），
+ * 只有指數表示法或尾數超過 2^53 時才退回 Double.parseDouble。
+ * 格式不正確、未知代碼、價格不合理或日期已歸檔的行交給 {@link ImportRejects}，不會中斷解析。
+ * 已歸檔的日期以歸檔檔案為準（只能在尾端追加），寫入資料庫也不會被讀取，因此直接拒絕。
+ * 
+ * 解析結果依日期是否晚於股票在資料庫中的最後交易日，分別放到新資料與既有資料兩個批次；
+ * 同一次匯入中已出現過的 (股票, 日期) 放到重複資料批次（見 {@link ImportedDays}）。
+ * 每個執行緒使用自己的解析器。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增 CSV 批次匯入
+ */
+public final class PriceCsvParser {
+
+    private static final int FIELDS = 7;
+    private static final byte[] HEADER_SYMBOL = "SYMBOL".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * 尾數不超過此值時 (double) 轉換沒有誤差
+     */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    private static final int[] DAYS_IN_MONTH = { 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31 };
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final StockSymbolTable symbols;
+    private final ImportedDays importedDays;
+    private final ImportRejects rejects;
+
+    /**
+     * 欄位起點；starts[FIELDS] 為最後一個欄位結束位置 + 1
+     */
+    private final int[] starts = new int[FIELDS + 1];
+
+    /**
+     * 建構函數
+     * 
+     * @param symbols      股票代碼表
+     * @param importedDays 本次匯入已出現的 (股票, 日期)
+     * @param rejects      被拒絕行的收集器
+     */
+    public PriceCsvParser(StockSymbolTable symbols, ImportedDays importedDays, ImportRejects rejects) {
+        this.symbols = symbols;
+        this.importedDays = importedDays;
+        this.rejects = rejects;
+    }
+
+    /**
+     * 解析 data[from, to) 中的所有行
+     * 
+     * @param data       輸入緩衝
+     * @param from       起始位置
+     * @param to         結束位置（不含）
+     * @param baseOffset data[0] 在輸入中的位元組位置
+     * @param block      區塊序號（從 1 開始，依輸入順序）
+     * @param fresh      日期晚於資料庫最後交易日的列
+     * @param existing   日期不晚於資料庫最後交易日的列（需要 upsert）
+     * @param duplicates 本次匯入中已出現過的 (股票, 日期)
+     * @return 解析成功的列數
+     */
+    public int parse(byte[] data, int from, int to, long baseOffset, int block,
+            PriceRowBatch fresh, PriceRowBatch existing, PriceRowBatch duplicates) {
+        int parsed = 0;
+        int lineStart = from;
+        while (lineStart < to) {
+            // 一次掃描同時找出欄位分隔與行尾
+            int fields = 1;
+            starts[0] = lineStart;
+            int i = lineStart;
+            while (i < to && data[i] != '\n') {
+                if (data[i] == ',' && fields <= FIELDS) {
+                    if (fields < FIELDS) {
+                        starts[fields] = i + 1;
+                    }
+                    fields++;
+                }
+                i++;
+            }
+            int lineEnd = i;
+            int contentEnd = lineEnd > lineStart && data[lineEnd - 1] == '\r' ? lineEnd - 1 : lineEnd;
+            if (contentEnd > lineStart) {
+                if (fields == FIELDS) {
+                    starts[FIELDS] = contentEnd + 1;
+                    if (parseLine(data, lineStart, contentEnd, baseOffset, block, fresh, existing, duplicates)) {
+                        parsed++;
+                    }
+                } else if (!isHeader(data, lineStart, contentEnd)) {
+                    rejects.reject(baseOffset + lineStart, "欄位數不正確", data, lineStart, contentEnd);
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+        return parsed;
+    }
+
+    private boolean parseLine(byte[] data, int lineStart, int lineEnd, long baseOffset, int block,
+            PriceRowBatch fresh, PriceRowBatch existing, PriceRowBatch duplicates) {
+        int slot = symbols.find(data, starts[0], fieldEnd(0) - starts[0]);
+        if (slot == StockSymbolTable.NOT_FOUND) {
+            if (!isHeader(data, lineStart, lineEnd)) {
+                rejects.reject(baseOffset + lineStart, "未知的股票代碼", data, lineStart, lineEnd);
+            }
+            return false;
+        }
+        int epochDay = parseDate(data, starts[1], fieldEnd(1));
+        if (epochDay == Integer.MIN_VALUE) {
+            rejects.reject(baseOffset + lineStart, "日期格式不正確", data, lineStart, lineEnd);
+            return false;
+        }
+        double open = parseDecimal(data, starts[2], fieldEnd(2));
+        double high = parseDecimal(data, starts[3], fieldEnd(3));
+        double low = parseDecimal(data, starts[4], fieldEnd(4));
+        double close = parseDecimal(data, starts[5], fieldEnd(5));
+        if (!(open > 0 && high > 0 && low > 0 && close > 0)
+                || Double.isInfinite(open + high + low + close)) {
+            rejects.reject(baseOffset + lineStart, "價格格式不正確", data, lineStart, lineEnd);
+            return false;
+        }
+        if (low > high) {
+            rejects.reject(baseOffset + lineStart, "最低價高於最高價", data, lineStart, lineEnd);
+            return false;
+        }
+        long volume = parseVolume(data, starts[6], fieldEnd(6));
+        if (volume < 0) {
+            rejects.reject(baseOffset + lineStart, "成交量格式不正確", data, lineStart, lineEnd);
+            return false;
+        }
+
+        if (epochDay < symbols.databaseFrom(slot)) {
+            rejects.reject(baseOffset + lineStart, "日期已歸檔", data, lineStart, lineEnd);
+            return false;
+        }
+
+        long stockId = symbols.stockId(slot);
+        PriceRowBatch target;
+        if (importedDays.mark(stockId, epochDay, block) != 0) {
+            target = duplicates;
+        } else {
+            target = epochDay > symbols.lastEpochDay(slot) ? fresh : existing;
+        }
+        target.add(stockId, epochDay, open, high, low, close, volume);
+        return true;
+    }
+
+    private int fieldEnd(int field) {
+        return starts[field + 1] - 1;
+    }
+
+    private boolean isHeader(byte[] data, int lineStart, int lineEnd) {
+        if (lineEnd - lineStart < HEADER_SYMBOL.length) {
+            return false;
+        }
+        for (int i = 0; i < HEADER_SYMBOL.length; i++) {
+            byte b = data[lineStart + i];
+            if ((b >= 'a' && b <= 'z' ? b - 32 : b) != HEADER_SYMBOL[i]) {
+                return false;
+            }
+        }
+        int next = lineStart + HEADER_SYMBOL.length;
+        return next == lineEnd || data[next] == ',';
+    }
+
+    /**
+     * 解析 yyyy-MM-dd 日期
+     * 
+     * @return epoch-day，格式不正確時為 Integer.MIN_VALUE
+     */
+    static int parseDate(byte[] data, int from, int to) {
+        if (to - from != 10 || data[from + 4] != '-' || data[from + 7] != '-') {
+            return Integer.MIN_VALUE;
+        }
+        int year = digits(data, from, 4);
+        int month = digits(data, from + 5, 2);
+        int day = digits(data, from + 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1) {
+            return Integer.MIN_VALUE;
+        }
+        boolean leap = (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+        int monthLength = month == 2 && leap ? 29 : DAYS_IN_MONTH[month - 1];
+        if (day > monthLength) {
+            return Integer.MIN_VALUE;
+        }
+        return epochDay(year, month, day);
+    }
+
+    /**
+     * 公曆日期轉 epoch-day（與 LocalDate.toEpochDay 相同，不建立物件）
+     */
+    static int epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static int digits(byte[] data, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = data[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * 解析十進位數字
+     * 
+     * @return 數值，格式不正確時為 NaN
+     */
+    static double parseDecimal(byte[] data, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (data[i] == '-' || data[i] == '+')) {
+            negative = data[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digitCount = 0;
+        int fractionDigits = -1;
+        for (; i < to; i++) {
+            byte b = data[i];
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digitCount++;
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+                if (mantissa >= MAX_EXACT_MANTISSA) {
+                    return parseSlow(data, from, to);
+                }
+            } else if (b == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else if (b == 'e' || b == 'E') {
+                return parseSlow(data, from, to);
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (digitCount == 0) {
+            return Double.NaN;
+        }
+        if (fractionDigits >= POWERS_OF_TEN.length) {
+            return parseSlow(data, from, to);
+        }
+        double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+        return negative ? -value : value;
+    }
+
+    private static double parseSlow(byte[] data, int from, int to) {
+        try {
+            return Double.parseDouble(new String(data, from, to - from, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * 解析成交量（非負整數，允許 ".0" 這類全為零的小數部分）
+     * 
+     * @return 成交量，格式不正確時為 -1
+     */
+    static long parseVolume(byte[] data, int from, int to) {
+        if (from >= to) {
+            return -1;
+        }
+        long value = 0;
+        int i = from;
+        for (; i < to && data[i] != '.'; i++) {
+            int digit = data[i] - '0';
+            if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        if (i == from) {
+            return -1;
+        }
+        for (i++; i < to; i++) {
+            if (data[i] != '0') {
+                return -1;
+            }
+        }
+        return value;
+    }
+}
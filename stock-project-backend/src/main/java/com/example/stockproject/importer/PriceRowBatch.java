@@ -0,0 +1,104 @@
+package com.example.stockproject.importer;
+
+import java.util.Arrays;
+
+/**
+ * 日線列批次（欄位式、可重用，容量不足時自動擴充）
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增 CSV 批次匯入
+ */
+public final class PriceRowBatch {
+
+    private long[] stockIds;
+    private int[] epochDays;
+    private double[] open;
+    private double[] high;
+    private double[] low;
+    private double[] close;
+    private long[] volume;
+    private int size;
+
+    /**
+     * 建構函數
+     * 
+     * @param capacity 初始容量
+     */
+    public PriceRowBatch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("批次容量必須大於 0: " + capacity);
+        }
+        stockIds = new long[capacity];
+        epochDays = new int[capacity];
+        open = new double[capacity];
+        high = new double[capacity];
+        low = new double[capacity];
+        close = new double[capacity];
+        volume = new long[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    void add(long stockId, int epochDay, double o, double h, double l, double c, long v) {
+        if (size == stockIds.length) {
+            grow();
+        }
+        stockIds[size] = stockId;
+        epochDays[size] = epochDay;
+        open[size] = o;
+        high[size] = h;
+        low[size] = l;
+        close[size] = c;
+        volume[size] = v;
+        size++;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public long stockId(int i) {
+        return stockIds[i];
+    }
+
+    public int epochDay(int i) {
+        return epochDays[i];
+    }
+
+    public double open(int i) {
+        return open[i];
+    }
+
+    public double high(int i) {
+        return high[i];
+    }
+
+    public double low(int i) {
+        return low[i];
+    }
+
+    public double close(int i) {
+        return close[i];
+    }
+
+    public long volume(int i) {
+        return volume[i];
+    }
+
+    private void grow() {
+        int capacity = stockIds.length * 2;
+        stockIds = Arrays.copyOf(stockIds, capacity);
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        open = Arrays.copyOf(open, capacity);
+        high = Arrays.copyOf(high, capacity);
+        low = Arrays.copyOf(low, capacity);
+        close = Arrays.copyOf(close, capacity);
+        volume = Arrays.copyOf(volume, capacity);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.stockproject.importer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 以位元組查詢的股票代碼表（不可變，可在多執行緒間共用）
+ * 
+ * 以開放定址雜湊表直接比對輸入緩衝中的位元組（ASCII 不區分大小寫），
+ * 查詢時不建立字串。每個代碼另外記錄股票在資料庫中的最後交易日，
+ * 讓解析器把新日期與需要 upsert 的既有日期分開；以及歸檔檔案之後資料庫接續的日期
+ * （{@link com.example.stockproject.archive.PriceArchiveFile#databaseFrom()}），
+ * 讓解析器拒絕已歸檔的日期。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增 CSV 批次匯入
+ */
+public final class StockSymbolTable {
+
+    /**
+     * 查無代碼時回傳的位置
+     */
+    public static final int NOT_FOUND = -1;
+
+    private final byte[][] symbols;
+    private final long[] stockIds;
+    private final int[] lastEpochDays;
+    private final long[] databaseFrom;
+    private final int mask;
+
+    /**
+     * 建構函數
+     * 
+     * @param stockIdsBySymbol 股票代碼對股票識別碼
+     * @param lastEpochDays    股票識別碼對資料庫中的最後交易日 (epoch-day)，沒有資料的股票不包含在內
+     * @param databaseFrom     股票識別碼對歸檔之後資料庫接續的日期 (epoch-day)，沒有歸檔的股票不包含在內
+     */
+    public StockSymbolTable(Map<String, Long> stockIdsBySymbol, Map<Long, Integer> lastEpochDays,
+            Map<Long, Long> databaseFrom) {
+        int capacity = Integer.highestOneBit(Math.max(4, stockIdsBySymbol.size() * 4) - 1) << 1;
+        this.symbols = new byte[capacity][];
+        this.stockIds = new long[capacity];
+        this.lastEpochDays = new int[capacity];
+        this.databaseFrom = new long[capacity];
+        this.mask = capacity - 1;
+        stockIdsBySymbol.forEach((symbol, stockId) -> {
+            byte[] key = symbol.toUpperCase(Locale.ROOT).getBytes(StandardCharsets.US_ASCII);
+            int slot = hash(key, 0, key.length) & mask;
+            while (symbols[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            symbols[slot] = key;
+            stockIds[slot] = stockId;
+            this.lastEpochDays[slot] = lastEpochDays.getOrDefault(stockId, Integer.MIN_VALUE);
+            this.databaseFrom[slot] = databaseFrom.getOrDefault(stockId, Long.MIN_VALUE);
+        });
+    }
+
+    /**
+     * 查詢代碼
+     * 
+     * @param data   輸入緩衝
+     * @param from   代碼起始位置
+     * @param length 代碼長度
+     * @return 代碼所在位置，查無時為 {@link #NOT_FOUND}
+     */
+    public int find(byte[] data, int from, int length) {
+        int slot = hash(data, from, length) & mask;
+        byte[] key;
+        while ((key = symbols[slot]) != null) {
+            if (matches(key, data, from, length)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NOT_FOUND;
+    }
+
+    public long stockId(int slot) {
+        return stockIds[slot];
+    }
+
+    /**
+     * 股票在資料庫中的最後交易日 (epoch-day)，沒有資料時為 Integer.MIN_VALUE
+     */
+    public int lastEpochDay(int slot) {
+        return lastEpochDays[slot];
+    }
+
+    /**
+     * 歸檔之後資料庫接續的日期 (epoch-day)，更早的日期已歸檔；沒有歸檔時為 Long.MIN_VALUE
+     */
+    public long databaseFrom(int slot) {
+        return databaseFrom[slot];
+    }
+
+    private static boolean matches(byte[] key, byte[] data, int from, int length) {
+        if (key.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (key[i] != upper(data[from + i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(byte[] data, int from, int length) {
+        int h = 0x811C9DC5;
+        for (int i = from; i < from + length; i++) {
+            h = (h ^ upper(data[i])) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static byte upper(byte b) {
+        return b >= 'a' && b <= 'z' ? (byte) (b - 32) : b;
+    }
+}
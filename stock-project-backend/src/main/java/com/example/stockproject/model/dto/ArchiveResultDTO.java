@@ -0,0 +1,44 @@
+package com.example.stockproject.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 歷史價格歸檔結果 (DTO)
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增歷史價格歸檔
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchiveResultDTO {
+
+    /**
+     * 歸檔期限：早於此日期的K線移到歸檔檔案
+     */
+    private LocalDate cutoff;
+
+    /**
+     * 有K線被歸檔的股票數
+     */
+    private int stocks;
+
+    /**
+     * 追加到歸檔檔案的K線筆數
+     */
+    private long archived;
+
+    /**
+     * 從資料庫刪除的K線筆數
+     */
+    private long deleted;
+
+    /**
+     * 歸檔耗時（毫秒）
+     */
+    private long elapsedMs;
+}
@@ -0,0 +1,43 @@
+package com.example.stockproject.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 多檔股票歷史價格批次查詢結果 (DTO)
+ * 
+ * 成功的股票放在 prices，失敗的股票放在 errors（值為錯誤原因），
+ * 單一股票失敗不影響其他股票的結果。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增多檔股票批次查詢
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchStockPricesDTO {
+
+    /**
+     * 時間範圍
+     */
+    private String period;
+
+    /**
+     * 各股票代碼的歷史價格（依請求順序）
+     */
+    private Map<String, List<StockPriceDTO>> prices;
+
+    /**
+     * 取得失敗的股票代碼與錯誤原因
+     */
+    private Map<String, String> errors;
+
+    /**
+     * 整批查詢耗時（毫秒）
+     */
+    private long elapsedMs;
+}
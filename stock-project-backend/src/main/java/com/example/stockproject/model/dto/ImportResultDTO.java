@@ -0,0 +1,64 @@
+package com.example.stockproject.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 歷史價格 CSV 匯入結果 (DTO)
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增 CSV 批次匯入
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResultDTO {
+
+    /**
+     * 解析成功並寫入的列數
+     */
+    private long rows;
+
+    /**
+     * 日期晚於資料庫最後交易日、直接插入的列數
+     */
+    private long inserted;
+
+    /**
+     * 日期已在資料庫範圍內、以 upsert 寫入的列數
+     */
+    private long upserted;
+
+    /**
+     * 被拒絕的行數
+     */
+    private long rejected;
+
+    /**
+     * 有資料寫入的股票數
+     */
+    private int stocks;
+
+    /**
+     * 讀取的位元組數（解壓縮後）
+     */
+    private long bytes;
+
+    /**
+     * 匯入耗時（毫秒）
+     */
+    private long elapsedMs;
+
+    /**
+     * 每秒寫入列數
+     */
+    private long rowsPerSecond;
+
+    /**
+     * 被拒絕行的範例（位元組位置、原因與內容）
+     */
+    private List<String> rejectSamples;
+}
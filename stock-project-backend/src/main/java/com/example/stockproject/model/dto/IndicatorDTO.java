@@ -0,0 +1,54 @@
+package com.example.stockproject.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 技術指標資料傳輸物件 (DTO)
+ * 
+ * 以平行陣列傳輸指標結果：dates 與每個輸出欄位的值逐筆對齊，
+ * 暖機期間（資料不足）的K線不包含在內。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增技術指標
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IndicatorDTO {
+
+    /**
+     * 股票識別碼
+     */
+    private Long stockId;
+
+    /**
+     * 股票代碼
+     */
+    private String symbol;
+
+    /**
+     * 指標名稱（如 SMA、MACD）
+     */
+    private String indicator;
+
+    /**
+     * 指標參數
+     */
+    private double[] params;
+
+    /**
+     * 交易日期
+     */
+    private List<LocalDate> dates;
+
+    /**
+     * 各輸出欄位的值（如 macd、signal、histogram）
+     */
+    private Map<String, double[]> values;
+}
@@ -0,0 +1,64 @@
+package com.example.stockproject.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 分K線數據 (DTO)
+ * 
+ * 以平行陣列表示，第 i 根K線由各陣列的第 i 個元素組成。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增分K線
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IntradayBarsDTO {
+
+    /**
+     * 股票識別碼
+     */
+    private Long stockId;
+
+    /**
+     * 股票代碼
+     */
+    private String symbol;
+
+    /**
+     * K線週期 (1m, 5m, 15m, 30m, 1h)
+     */
+    private String interval;
+
+    /**
+     * K線起始時間 (epoch 秒)
+     */
+    private long[] timestamps;
+
+    /**
+     * 開盤價
+     */
+    private double[] open;
+
+    /**
+     * 最高價
+     */
+    private double[] high;
+
+    /**
+     * 最低價
+     */
+    private double[] low;
+
+    /**
+     * 收盤價
+     */
+    private double[] close;
+
+    /**
+     * 成交量
+     */
+    private long[] volume;
+}
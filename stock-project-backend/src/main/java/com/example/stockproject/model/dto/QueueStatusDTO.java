@@ -0,0 +1,34 @@
+package com.example.stockproject.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 外部 API 請求排隊狀態 (DTO)
+ * 
+ * 請求因配額限制尚未完成時回傳，呼叫端可在 etaSeconds 後重試取得結果。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增外部 API 配額排程
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueueStatusDTO {
+
+    /**
+     * 股票代碼
+     */
+    private String symbol;
+
+    /**
+     * 佇列位置（0 表示下一個送出，-1 表示執行中）
+     */
+    private int position;
+
+    /**
+     * 預計送出前的等待秒數
+     */
+    private long etaSeconds;
+}
@@ -0,0 +1,44 @@
+package com.example.stockproject.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * 報價更新結果 (DTO)
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增背景報價更新
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuoteRefreshResultDTO {
+
+    /**
+     * 請求報價的股票數
+     */
+    private int requested;
+
+    /**
+     * 取得報價的股票數
+     */
+    private int quoted;
+
+    /**
+     * 價格有變動的股票識別碼對新價格
+     */
+    private Map<Long, Double> changed;
+
+    /**
+     * 失敗的批次數
+     */
+    private int failedBatches;
+
+    /**
+     * 更新耗時（毫秒）
+     */
+    private long elapsedMs;
+}
@@ -0,0 +1,54 @@
+package com.example.stockproject.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * 快照寫出或還原結果 (DTO)
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增快照與啟動還原
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SnapshotResultDTO {
+
+    /**
+     * 快照檔案路徑
+     */
+    private String file;
+
+    /**
+     * 快照建立時間
+     */
+    private Instant createdAt;
+
+    /**
+     * 股票數
+     */
+    private int stocks;
+
+    /**
+     * 日線筆數
+     */
+    private long prices;
+
+    /**
+     * 觀察清單項目數
+     */
+    private int watchlist;
+
+    /**
+     * 快照檔案大小（位元組）
+     */
+    private long bytes;
+
+    /**
+     * 耗時（毫秒）
+     */
+    private long elapsedMs;
+}
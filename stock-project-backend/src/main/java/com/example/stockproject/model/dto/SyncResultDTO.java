@@ -0,0 +1,54 @@
+package com.example.stockproject.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 外部數據同步結果 (DTO)
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增外部數據增量同步
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncResultDTO {
+
+    /**
+     * 股票識別碼
+     */
+    private Long stockId;
+
+    /**
+     * 股票代碼
+     */
+    private String symbol;
+
+    /**
+     * 本次向外部來源請求的起始日期（首次同步為 null，表示取得完整初始範圍）
+     */
+    private LocalDate requestedFrom;
+
+    /**
+     * 同步後的最後交易日
+     */
+    private LocalDate lastSyncedDate;
+
+    /**
+     * 本地最後一筆之後、直接插入的K線筆數
+     */
+    private int inserted;
+
+    /**
+     * 落在本地已有範圍內、以 upsert 寫入（更新或補入）的K線筆數
+     */
+    private int upserted;
+
+    /**
+     * 同步耗時（毫秒）
+     */
+    private long elapsedMs;
+}
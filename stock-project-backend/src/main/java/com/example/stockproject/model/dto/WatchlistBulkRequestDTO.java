@@ -0,0 +1,24 @@
+package com.example.stockproject.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 觀察清單批次新增請求 (DTO)
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增觀察清單批次操作
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WatchlistBulkRequestDTO {
+
+    /**
+     * 股票識別碼列表
+     */
+    private List<Long> stockIds;
+}
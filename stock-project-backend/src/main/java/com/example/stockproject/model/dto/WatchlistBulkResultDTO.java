@@ -0,0 +1,29 @@
+package com.example.stockproject.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 觀察清單批次新增 / 移除結果 (DTO)
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增觀察清單批次操作
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WatchlistBulkResultDTO {
+
+    /**
+     * 實際新增或移除的股票識別碼
+     */
+    private List<Long> applied;
+
+    /**
+     * 略過的股票識別碼（新增時為已存在或股票不存在，移除時為不在觀察清單中）
+     */
+    private List<Long> skipped;
+}
@@ -1,5 +1,6 @@
 package com.example.stockproject.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -32,4 +33,23 @@ public class WatchlistDTO {
      * 關聯的股票資訊
      */
     private StockDTO stock;
+
+    /**
+     * 走勢摘要（只在請求時提供，沒有歷史價格時為 null）
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private WatchlistTrendDTO trend;
+
+    /**
+     * 建構函數（不含走勢摘要）
+     * 
+     * @param id      觀察清單項目識別碼
+     * @param stockId 股票識別碼
+     * @param stock   股票資訊
+     */
+    public WatchlistDTO(Long id, Long stockId, StockDTO stock) {
+        this.id = id;
+        this.stockId = stockId;
+        this.stock = stock;
+    }
 }
\ No newline at end of file
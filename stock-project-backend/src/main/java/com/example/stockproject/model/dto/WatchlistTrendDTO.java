@@ -0,0 +1,46 @@
+package com.example.stockproject.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 觀察清單項目走勢摘要 (DTO)
+ * 
+ * 由股票的日線序列計算最新收盤價、與前一交易日的漲跌，以及最近 N 筆收盤價的走勢線。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增觀察清單走勢摘要
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WatchlistTrendDTO {
+
+    /**
+     * 最新交易日
+     */
+    private LocalDate date;
+
+    /**
+     * 最新收盤價
+     */
+    private double close;
+
+    /**
+     * 與前一交易日收盤價的差（只有一筆數據時為 null）
+     */
+    private Double change;
+
+    /**
+     * 漲跌幅百分比（只有一筆數據時為 null）
+     */
+    private Double changePercent;
+
+    /**
+     * 最近 N 筆收盤價，依日期遞增
+     */
+    private double[] sparkline;
+}
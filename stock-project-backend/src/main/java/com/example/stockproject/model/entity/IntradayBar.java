@@ -0,0 +1,100 @@
+package com.example.stockproject.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 分K線實體類別
+ * 
+ * 以 (stock_id, bar_interval, bar_time) 為鍵保存，不另外配置識別碼：
+ * 週期以秒數、K線起始時間以 epoch 秒的整數欄位表示。
+ * Hibernate 產生的複合主鍵欄位依屬性名稱排序，因此另以唯一索引固定
+ * (stock_id, bar_interval, bar_time) 的順序，同一股票與週期的K線依時間連續排列，
+ * 範圍查詢只需掃描一段索引。
+ * 讀寫由 {@link com.example.stockproject.repository.IntradayBarRepository} 以 JDBC 進行，
+ * 本實體只用於描述資料表結構。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增分K線
+ */
+@Entity
+@Table(name = "intraday_bar", indexes = {
+        @Index(name = "idx_intraday_bar_stock_interval_time", columnList = "stock_id, bar_interval, bar_time",
+                unique = true)
+})
+@IdClass(IntradayBar.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IntradayBar {
+
+    /**
+     * 股票識別碼
+     */
+    @Id
+    @Column(name = "stock_id", nullable = false)
+    private Long stockId;
+
+    /**
+     * K線週期（秒）
+     */
+    @Id
+    @Column(name = "bar_interval", nullable = false)
+    private Integer barInterval;
+
+    /**
+     * K線起始時間 (epoch 秒)
+     */
+    @Id
+    @Column(name = "bar_time", nullable = false)
+    private Long barTime;
+
+    /**
+     * 開盤價
+     */
+    @Column(nullable = false)
+    private Double openPrice;
+
+    /**
+     * 最高價
+     */
+    @Column(nullable = false)
+    private Double highPrice;
+
+    /**
+     * 最低價
+     */
+    @Column(nullable = false)
+    private Double lowPrice;
+
+    /**
+     * 收盤價
+     */
+    @Column(nullable = false)
+    private Double closePrice;
+
+    /**
+     * 成交量
+     */
+    @Column(nullable = false)
+    private Long volume;
+
+    /**
+     * 複合主鍵
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long stockId;
+        private Integer barInterval;
+        private Long barTime;
+    }
+}
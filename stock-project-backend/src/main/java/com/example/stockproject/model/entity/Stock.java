@@ -1,10 +1,13 @@
 package com.example.stockproject.model.entity;
 
+import com.example.stockproject.service.StockChangeListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
+
 /**
  * 股票實體類別
  * 
@@ -16,6 +19,7 @@ import lombok.NoArgsConstructor;
  */
 @Entity
 @Table(name = "stock")
+@EntityListeners(StockChangeListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -46,6 +50,12 @@ public class Stock {
     @Column(nullable = false)
     private Double price;
 
+    /**
+     * 已從外部數據來源同步到 stock_price 的最後交易日（尚未同步為 null）
+     */
+    @Column(name = "last_synced_date")
+    private LocalDate lastSyncedDate;
+
     /**
      * 建構函數
      * 
@@ -17,17 +17,33 @@ import java.time.LocalDate;
  * @version 1.1 - 新增歷史股價功能
  */
 @Entity
-@Table(name = "stock_price")
+@Table(name = "stock_price", indexes = {
+        @Index(name = "idx_stock_price_stock_date", columnList = "stock_id, date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class StockPrice {
 
+    /**
+     * 序列每次配置的識別碼區塊大小
+     * 
+     * 使用 pooled-lo 最佳化：取得序列值 V 即擁有 [V, V + ID_ALLOCATION_SIZE) 的識別碼，
+     * Hibernate 與 JDBC 批次寫入共用同一序列，因此插入可以批次執行。
+     */
+    public static final int ID_ALLOCATION_SIZE = 1000;
+
+    /**
+     * 識別碼序列名稱
+     */
+    public static final String ID_SEQUENCE = "stock_price_seq";
+
     /**
      * 歷史價格記錄唯一識別碼
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_price_id")
+    @SequenceGenerator(name = "stock_price_id", sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     /**
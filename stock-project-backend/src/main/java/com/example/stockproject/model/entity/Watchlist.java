@@ -15,7 +15,8 @@ import lombok.NoArgsConstructor;
  * @version 1.0
  */
 @Entity
-@Table(name = "watchlist")
+@Table(name = "watchlist", uniqueConstraints = @UniqueConstraint(
+        name = "uk_watchlist_user_stock", columnNames = { "user_id", "stock_id" }))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,379 @@
+package com.example.stockproject.model.indicator;
+
+/**
+ * 技術指標計算器
+ * 
+ * 每個計算器保存計算到目前為止所需的狀態，逐根K線呼叫 {@link #next} 即可在單次掃描中
+ * 以 O(1) 的成本產生下一筆輸出；需要延續計算時以 {@link #copy()} 複製狀態。
+ * 暖機期間（資料不足）輸出 NaN。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增技術指標
+ */
+public abstract class IndicatorCalculator {
+
+    /**
+     * 處理下一根K線
+     * 
+     * @param high  最高價
+     * @param low   最低價
+     * @param close 收盤價
+     * @param out   輸出值，長度為輸出欄位數
+     */
+    public abstract void next(double high, double low, double close, double[] out);
+
+    /**
+     * 第一筆所有輸出皆有效的索引
+     * 
+     * @return 暖機長度
+     */
+    public abstract int warmup();
+
+    /**
+     * 複製目前狀態
+     * 
+     * @return 狀態相同的新計算器
+     */
+    public abstract IndicatorCalculator copy();
+
+    /**
+     * 簡單移動平均 (SMA)
+     */
+    static final class Sma extends IndicatorCalculator {
+
+        private final int period;
+        private final double[] window;
+        private double sum;
+        private long count;
+
+        Sma(int period) {
+            this.period = period;
+            this.window = new double[period];
+        }
+
+        private Sma(Sma other) {
+            this.period = other.period;
+            this.window = other.window.clone();
+            this.sum = other.sum;
+            this.count = other.count;
+        }
+
+        /**
+         * 加入一個值並回傳目前的平均，資料不足時為 NaN
+         */
+        double add(double value) {
+            int slot = (int) (count % period);
+            if (count >= period) {
+                sum -= window[slot];
+            }
+            window[slot] = value;
+            sum += value;
+            count++;
+            return count >= period ? sum / period : Double.NaN;
+        }
+
+        @Override
+        public void next(double high, double low, double close, double[] out) {
+            out[0] = add(close);
+        }
+
+        @Override
+        public int warmup() {
+            return period - 1;
+        }
+
+        @Override
+        public IndicatorCalculator copy() {
+            return new Sma(this);
+        }
+    }
+
+    /**
+     * 指數移動平均 (EMA)，以前 period 筆的 SMA 作為起始值
+     */
+    static final class Ema extends IndicatorCalculator {
+
+        private final int period;
+        private final double alpha;
+        private double sum;
+        private double value = Double.NaN;
+        private long count;
+
+        Ema(int period) {
+            this.period = period;
+            this.alpha = 2.0 / (period + 1);
+        }
+
+        private Ema(Ema other) {
+            this.period = other.period;
+            this.alpha = other.alpha;
+            this.sum = other.sum;
+            this.value = other.value;
+            this.count = other.count;
+        }
+
+        /**
+         * 加入一個值並回傳目前的 EMA，資料不足時為 NaN
+         */
+        double add(double input) {
+            count++;
+            if (count < period) {
+                sum += input;
+            } else if (count == period) {
+                value = (sum + input) / period;
+            } else {
+                value += alpha * (input - value);
+            }
+            return value;
+        }
+
+        @Override
+        public void next(double high, double low, double close, double[] out) {
+            out[0] = add(close);
+        }
+
+        @Override
+        public int warmup() {
+            return period - 1;
+        }
+
+        @Override
+        public IndicatorCalculator copy() {
+            return new Ema(this);
+        }
+    }
+
+    /**
+     * 相對強弱指標 (RSI)，使用 Wilder 平滑
+     */
+    static final class Rsi extends IndicatorCalculator {
+
+        private final int period;
+        private double prevClose = Double.NaN;
+        private double avgGain;
+        private double avgLoss;
+        private long count;
+
+        Rsi(int period) {
+            this.period = period;
+        }
+
+        private Rsi(Rsi other) {
+            this.period = other.period;
+            this.prevClose = other.prevClose;
+            this.avgGain = other.avgGain;
+            this.avgLoss = other.avgLoss;
+            this.count = other.count;
+        }
+
+        @Override
+        public void next(double high, double low, double close, double[] out) {
+            if (Double.isNaN(prevClose)) {
+                prevClose = close;
+                out[0] = Double.NaN;
+                return;
+            }
+            double change = close - prevClose;
+            prevClose = close;
+            double gain = Math.max(change, 0);
+            double loss = Math.max(-change, 0);
+            count++;
+
+            // 前 period 次變動取簡單平均，之後以 Wilder 平滑
+            if (count <= period) {
+                avgGain += gain / period;
+                avgLoss += loss / period;
+            } else {
+                avgGain = (avgGain * (period - 1) + gain) / period;
+                avgLoss = (avgLoss * (period - 1) + loss) / period;
+            }
+
+            if (count < period) {
+                out[0] = Double.NaN;
+            } else if (avgLoss == 0) {
+                out[0] = 100;
+            } else {
+                out[0] = 100 - 100 / (1 + avgGain / avgLoss);
+            }
+        }
+
+        @Override
+        public int warmup() {
+            return period;
+        }
+
+        @Override
+        public IndicatorCalculator copy() {
+            return new Rsi(this);
+        }
+    }
+
+    /**
+     * 指數平滑異同移動平均 (MACD)：輸出 macd、signal、histogram
+     */
+    static final class Macd extends IndicatorCalculator {
+
+        private final Ema fast;
+        private final Ema slow;
+        private final Ema signal;
+        private final int slowPeriod;
+        private final int signalPeriod;
+
+        Macd(int fastPeriod, int slowPeriod, int signalPeriod) {
+            this.fast = new Ema(fastPeriod);
+            this.slow = new Ema(slowPeriod);
+            this.signal = new Ema(signalPeriod);
+            this.slowPeriod = slowPeriod;
+            this.signalPeriod = signalPeriod;
+        }
+
+        private Macd(Macd other) {
+            this.fast = (Ema) other.fast.copy();
+            this.slow = (Ema) other.slow.copy();
+            this.signal = (Ema) other.signal.copy();
+            this.slowPeriod = other.slowPeriod;
+            this.signalPeriod = other.signalPeriod;
+        }
+
+        @Override
+        public void next(double high, double low, double close, double[] out) {
+            double f = fast.add(close);
+            double s = slow.add(close);
+            if (Double.isNaN(s)) {
+                out[0] = Double.NaN;
+                out[1] = Double.NaN;
+                out[2] = Double.NaN;
+                return;
+            }
+            double macd = f - s;
+            double sig = signal.add(macd);
+            out[0] = macd;
+            out[1] = sig;
+            out[2] = macd - sig;
+        }
+
+        @Override
+        public int warmup() {
+            return slowPeriod + signalPeriod - 2;
+        }
+
+        @Override
+        public IndicatorCalculator copy() {
+            return new Macd(this);
+        }
+    }
+
+    /**
+     * 布林通道 (Bollinger Bands)：輸出 middle、upper、lower
+     */
+    static final class Bollinger extends IndicatorCalculator {
+
+        private final int period;
+        private final double width;
+        private final double[] window;
+        private double sum;
+        private double sumSquares;
+        private long count;
+
+        Bollinger(int period, double width) {
+            this.period = period;
+            this.width = width;
+            this.window = new double[period];
+        }
+
+        private Bollinger(Bollinger other) {
+            this.period = other.period;
+            this.width = other.width;
+            this.window = other.window.clone();
+            this.sum = other.sum;
+            this.sumSquares = other.sumSquares;
+            this.count = other.count;
+        }
+
+        @Override
+        public void next(double high, double low, double close, double[] out) {
+            int slot = (int) (count % period);
+            if (count >= period) {
+                double old = window[slot];
+                sum -= old;
+                sumSquares -= old * old;
+            }
+            window[slot] = close;
+            sum += close;
+            sumSquares += close * close;
+            count++;
+
+            if (count < period) {
+                out[0] = Double.NaN;
+                out[1] = Double.NaN;
+                out[2] = Double.NaN;
+                return;
+            }
+            double mean = sum / period;
+            double deviation = Math.sqrt(Math.max(sumSquares / period - mean * mean, 0));
+            out[0] = mean;
+            out[1] = mean + width * deviation;
+            out[2] = mean - width * deviation;
+        }
+
+        @Override
+        public int warmup() {
+            return period - 1;
+        }
+
+        @Override
+        public IndicatorCalculator copy() {
+            return new Bollinger(this);
+        }
+    }
+
+    /**
+     * 平均真實區間 (ATR)，使用 Wilder 平滑
+     */
+    static final class Atr extends IndicatorCalculator {
+
+        private final int period;
+        private double prevClose = Double.NaN;
+        private double value;
+        private long count;
+
+        Atr(int period) {
+            this.period = period;
+        }
+
+        private Atr(Atr other) {
+            this.period = other.period;
+            this.prevClose = other.prevClose;
+            this.value = other.value;
+            this.count = other.count;
+        }
+
+        @Override
+        public void next(double high, double low, double close, double[] out) {
+            double trueRange = high - low;
+            if (!Double.isNaN(prevClose)) {
+                trueRange = Math.max(trueRange, Math.max(Math.abs(high - prevClose), Math.abs(low - prevClose)));
+            }
+            prevClose = close;
+            count++;
+
+            if (count <= period) {
+                value += trueRange / period;
+                out[0] = count == period ? value : Double.NaN;
+            } else {
+                value = (value * (period - 1) + trueRange) / period;
+                out[0] = value;
+            }
+        }
+
+        @Override
+        public int warmup() {
+            return period - 1;
+        }
+
+        @Override
+        public IndicatorCalculator copy() {
+            return new Atr(this);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.stockproject.model.indicator;
+
+import com.example.stockproject.model.series.DailyBars;
+import com.example.stockproject.model.series.IncrementalDerived;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 技術指標計算結果
+ * 
+ * 每個輸出欄位是一個與價格序列逐筆對齊的 double 陣列（暖機期間為 NaN），
+ * 連同對應的日期，並保存計算到最後一筆時的計算器狀態。結果不保留輸入的日線，
+ * 因此可以在對映歸檔檔案的視圖上計算而不把舊K線留在 heap。價格序列追加K線時，{@link #extend}
+ * 只計算新增的部分，不重算整段歷史；陣列容量足夠時直接寫在目前版本的有效範圍之後。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增技術指標
+ */
+public final class IndicatorSeries implements IncrementalDerived<IndicatorSeries> {
+
+    private final IndicatorSpec spec;
+    private final String symbol;
+    private final IndicatorCalculator calculator;
+    private final int[] epochDays;
+    private final double[][] values;
+    private final int size;
+
+    /**
+     * 是否已有新版本在本結果的陣列尾端寫入過（每個版本只允許原地延續一次）
+     */
+    private final AtomicBoolean extended = new AtomicBoolean();
+
+    private IndicatorSeries(IndicatorSpec spec, String symbol, IndicatorCalculator calculator,
+            int[] epochDays, double[][] values, int size) {
+        this.spec = spec;
+        this.symbol = symbol;
+        this.calculator = calculator;
+        this.epochDays = epochDays;
+        this.values = values;
+        this.size = size;
+    }
+
+    /**
+     * 在價格序列上單次掃描計算指標
+     * 
+     * @param spec   指標規格
+     * @param series 日線
+     * @return 計算結果
+     */
+    public static IndicatorSeries compute(IndicatorSpec spec, DailyBars series) {
+        IndicatorCalculator calculator = spec.getType().createCalculator(spec.getParams());
+        double[][] values = new double[spec.getType().getOutputs().length][series.size()];
+        return new IndicatorSeries(spec, series.getSymbol(), calculator, new int[series.size()], values, 0)
+                .run(series, 0);
+    }
+
+    @Override
+    public IndicatorSeries extend(DailyBars series) {
+        if (series.size() <= size) {
+            return this;
+        }
+        int[] targetDays = epochDays;
+        double[][] target = values;
+        if (series.size() > epochDays.length || !extended.compareAndSet(false, true)) {
+            int capacity = Math.max(series.size(), size + (size >> 1));
+            targetDays = Arrays.copyOf(epochDays, capacity);
+            target = new double[values.length][];
+            for (int k = 0; k < values.length; k++) {
+                target[k] = Arrays.copyOf(values[k], capacity);
+            }
+        }
+        return new IndicatorSeries(spec, symbol, calculator.copy(), targetDays, target, size).run(series, size);
+    }
+
+    private IndicatorSeries run(DailyBars series, int from) {
+        double[] out = new double[values.length];
+        for (int i = from; i < series.size(); i++) {
+            calculator.next(series.highAt(i), series.lowAt(i), series.closeAt(i), out);
+            epochDays[i] = series.epochDayAt(i);
+            for (int k = 0; k < out.length; k++) {
+                values[k][i] = out[k];
+            }
+        }
+        return new IndicatorSeries(spec, symbol, calculator, epochDays, values, series.size());
+    }
+
+    public IndicatorSpec getSpec() {
+        return spec;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * 第 i 筆輸出對應的日期
+     * 
+     * @param i 索引
+     * @return epoch-day
+     */
+    public int epochDayAt(int i) {
+        return epochDays[i];
+    }
+
+    /**
+     * 找出第一個日期大於或等於指定 epoch-day 的索引（二分搜尋）
+     * 
+     * @param epochDay 日期 (epoch-day)
+     * @return 索引，若全部小於該日期則為 size()
+     */
+    public int lowerBound(long epochDay) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (epochDays[mid] < epochDay) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 第一筆所有輸出皆有效的索引
+     * 
+     * @return 暖機長度
+     */
+    public int warmup() {
+        return calculator.warmup();
+    }
+
+    /**
+     * 取得指定輸出欄位在 [from, to) 範圍內的值
+     * 
+     * @param output 輸出欄位索引
+     * @param from   起始索引（含）
+     * @param to     結束索引（不含）
+     * @return 值的複本
+     */
+    public double[] values(int output, int from, int to) {
+        return Arrays.copyOfRange(values[output], from, to);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.stockproject.model.indicator;
+
+import lombok.Value;
+
+import java.util.Arrays;
+
+/**
+ * 技術指標規格：指標種類與參數
+ * 
+ * 作為快取鍵使用，相同種類與參數的指標共用同一份計算結果。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增技術指標
+ */
+@Value
+public class IndicatorSpec {
+
+    /**
+     * 指標種類
+     */
+    IndicatorType type;
+
+    /**
+     * 指標參數
+     */
+    double[] params;
+
+    /**
+     * 解析指標規格
+     * 
+     * @param type   指標名稱
+     * @param params 逗號分隔的參數，null 或空白時使用預設值；可只提供前幾個
+     * @return 指標規格
+     * @throws IllegalArgumentException 指標或參數不合法
+     */
+    public static IndicatorSpec parse(String type, String params) {
+        IndicatorType indicatorType = IndicatorType.from(type);
+        double[] values = indicatorType.getDefaultParams();
+        if (params != null && !params.isBlank()) {
+            String[] parts = params.split(",");
+            if (parts.length > values.length) {
+                throw new IllegalArgumentException(indicatorType + " 最多只有 " + values.length + " 個參數");
+            }
+            for (int i = 0; i < parts.length; i++) {
+                values[i] = Double.parseDouble(parts[i].trim());
+            }
+        }
+        indicatorType.createCalculator(values); // 驗證參數
+        return new IndicatorSpec(indicatorType, values);
+    }
+
+    @Override
+    public String toString() {
+        return type + Arrays.toString(params);
+    }
+}
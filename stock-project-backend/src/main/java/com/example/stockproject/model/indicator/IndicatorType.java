@@ -0,0 +1,121 @@
+package com.example.stockproject.model.indicator;
+
+import java.util.Locale;
+
+/**
+ * 技術指標種類
+ * 
+ * 定義每種指標的預設參數、輸出欄位名稱與計算器建立方式。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增技術指標
+ */
+public enum IndicatorType {
+
+    /**
+     * 簡單移動平均，參數：期間
+     */
+    SMA(new double[] { 20 }, "sma"),
+
+    /**
+     * 指數移動平均，參數：期間
+     */
+    EMA(new double[] { 20 }, "ema"),
+
+    /**
+     * 相對強弱指標，參數：期間
+     */
+    RSI(new double[] { 14 }, "rsi"),
+
+    /**
+     * MACD，參數：快線期間、慢線期間、訊號線期間
+     */
+    MACD(new double[] { 12, 26, 9 }, "macd", "signal", "histogram"),
+
+    /**
+     * 布林通道，參數：期間、標準差倍數
+     */
+    BBANDS(new double[] { 20, 2 }, "middle", "upper", "lower"),
+
+    /**
+     * 平均真實區間，參數：期間
+     */
+    ATR(new double[] { 14 }, "atr");
+
+    private final double[] defaultParams;
+    private final String[] outputs;
+
+    IndicatorType(double[] defaultParams, String... outputs) {
+        this.defaultParams = defaultParams;
+        this.outputs = outputs;
+    }
+
+    /**
+     * 取得預設參數（複本）
+     * 
+     * @return 預設參數
+     */
+    public double[] getDefaultParams() {
+        return defaultParams.clone();
+    }
+
+    /**
+     * 取得輸出欄位名稱（複本）
+     * 
+     * @return 輸出欄位名稱
+     */
+    public String[] getOutputs() {
+        return outputs.clone();
+    }
+
+    /**
+     * 依參數建立新的計算器
+     * 
+     * @param params 參數，長度與預設參數相同
+     * @return 初始狀態的計算器
+     */
+    public IndicatorCalculator createCalculator(double[] params) {
+        return switch (this) {
+            case SMA -> new IndicatorCalculator.Sma(period(params[0]));
+            case EMA -> new IndicatorCalculator.Ema(period(params[0]));
+            case RSI -> new IndicatorCalculator.Rsi(period(params[0]));
+            case MACD -> new IndicatorCalculator.Macd(period(params[0]), period(params[1]), period(params[2]));
+            case BBANDS -> new IndicatorCalculator.Bollinger(period(params[0]), width(params[1]));
+            case ATR -> new IndicatorCalculator.Atr(period(params[0]));
+        };
+    }
+
+    /**
+     * 解析指標名稱（不區分大小寫）
+     * 
+     * @param value 指標名稱
+     * @return 指標種類
+     * @throws IllegalArgumentException 不支援的指標
+     */
+    public static IndicatorType from(String value) {
+        String name = value == null ? "" : value.trim().toUpperCase(Locale.ROOT);
+        if (name.equals("BOLLINGER")) {
+            return BBANDS;
+        }
+        for (IndicatorType type : values()) {
+            if (type.name().equals(name)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("不支援的技術指標: " + value);
+    }
+
+    private static int period(double value) {
+        if (value < 1 || value > 10_000 || value != Math.rint(value)) {
+            throw new IllegalArgumentException("指標期間必須是 1 到 10000 的整數: " + value);
+        }
+        return (int) value;
+    }
+
+    private static double width(double value) {
+        if (!Double.isFinite(value) || value <= 0 || value > 100) {
+            throw new IllegalArgumentException("標準差倍數必須是大於 0 且不超過 100 的數值: " + value);
+        }
+        return value;
+    }
+}
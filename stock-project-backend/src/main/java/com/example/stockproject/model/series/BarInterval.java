@@ -0,0 +1,94 @@
+package com.example.stockproject.model.series;
+
+import java.util.Locale;
+
+/**
+ * 分K線週期
+ * 
+ * 區間以 UTC epoch 秒對齊（例如 1 小時K線從每個整點開始），
+ * 較長的週期一定是較短週期的整數倍，可由較短週期彙總而成。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增分K線
+ */
+public enum BarInterval {
+
+    ONE_MINUTE(60, "1m"),
+    FIVE_MINUTES(5 * 60, "5m"),
+    FIFTEEN_MINUTES(15 * 60, "15m"),
+    THIRTY_MINUTES(30 * 60, "30m"),
+    ONE_HOUR(60 * 60, "1h");
+
+    private final int seconds;
+    private final String code;
+
+    BarInterval(int seconds, String code) {
+        this.seconds = seconds;
+        this.code = code;
+    }
+
+    public int getSeconds() {
+        return seconds;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * 取得時間所屬K線的起始時間
+     * 
+     * @param epochSecond 時間 (epoch 秒)
+     * @return K線起始時間 (epoch 秒)
+     */
+    public long bucketStart(long epochSecond) {
+        return Math.floorDiv(epochSecond, seconds) * seconds;
+    }
+
+    /**
+     * 本週期是否可由指定的較短週期彙總而成
+     * 
+     * @param finer 較短的週期
+     * @return 可彙總時為 true
+     */
+    public boolean isMultipleOf(BarInterval finer) {
+        return seconds % finer.seconds == 0;
+    }
+
+    /**
+     * 依秒數取得週期
+     * 
+     * @param seconds 週期秒數
+     * @return 週期
+     * @throws IllegalArgumentException 不支援的秒數
+     */
+    public static BarInterval ofSeconds(int seconds) {
+        for (BarInterval interval : values()) {
+            if (interval.seconds == seconds) {
+                return interval;
+            }
+        }
+        throw new IllegalArgumentException("不支援的分K線週期秒數: " + seconds);
+    }
+
+    /**
+     * 解析週期字串（1m、5m、15m、30m、1h，亦接受 5min、60m 等寫法）
+     * 
+     * @param value 週期字串
+     * @return 週期
+     * @throws IllegalArgumentException 不支援的週期
+     */
+    public static BarInterval from(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("未指定分K線週期");
+        }
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "1m", "1min" -> ONE_MINUTE;
+            case "5m", "5min" -> FIVE_MINUTES;
+            case "15m", "15min" -> FIFTEEN_MINUTES;
+            case "30m", "30min" -> THIRTY_MINUTES;
+            case "1h", "60m", "60min" -> ONE_HOUR;
+            default -> throw new IllegalArgumentException("不支援的分K線週期: " + value);
+        };
+    }
+}
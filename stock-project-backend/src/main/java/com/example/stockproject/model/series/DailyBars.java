@@ -0,0 +1,80 @@
+package com.example.stockproject.model.series;
+
+import com.example.stockproject.model.dto.StockPriceDTO;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 依日期遞增、可逐筆讀取的日線（唯讀）
+ * 
+ * 由 heap 上的 {@link PriceSeries} 與直接讀取對映歸檔檔案的視圖共同實作，
+ * 讓彙總、技術指標與輸出編碼不需要先把歸檔的舊K線複製到 heap。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增歷史價格歸檔
+ */
+public interface DailyBars {
+
+    Long getStockId();
+
+    String getSymbol();
+
+    int size();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * 歷史價格記錄識別碼（歸檔的K線沒有識別碼，為 0）
+     */
+    long idAt(int i);
+
+    int epochDayAt(int i);
+
+    double openAt(int i);
+
+    double highAt(int i);
+
+    double lowAt(int i);
+
+    double closeAt(int i);
+
+    long volumeAt(int i);
+
+    /**
+     * 找出第一個日期大於或等於指定 epoch-day 的索引（二分搜尋）
+     * 
+     * @param epochDay 日期 (epoch-day)
+     * @return 索引，若全部小於該日期則為 size()
+     */
+    default int lowerBound(long epochDay) {
+        int lo = 0;
+        int hi = size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (epochDayAt(mid) < epochDay) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * 轉換為 DTO 列表（僅在 API 輸出時使用）
+     * 
+     * @return 歷史價格 DTO 列表
+     */
+    default List<StockPriceDTO> toDTOs() {
+        List<StockPriceDTO> result = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            result.add(new StockPriceDTO(idAt(i), getStockId(), getSymbol(), LocalDate.ofEpochDay(epochDayAt(i)),
+                    openAt(i), closeAt(i), highAt(i), lowAt(i), volumeAt(i)));
+        }
+        return result;
+    }
+}
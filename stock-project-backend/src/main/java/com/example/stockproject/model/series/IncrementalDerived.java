@@ -0,0 +1,22 @@
+package com.example.stockproject.model.series;
+
+/**
+ * 可增量更新的價格序列衍生值
+ * 
+ * 在 {@link com.example.stockproject.service.PriceSeriesStore} 中快取的衍生值若實作此介面，
+ * 序列尾端追加K線時會以 {@link #extend} 延續計算，而不是整個丟棄後重算。
+ * 
+ * @param <T> 衍生值型別
+ * @author Stock Project Team
+ * @version 1.2 - 新增技術指標
+ */
+public interface IncrementalDerived<T extends IncrementalDerived<T>> {
+
+    /**
+     * 依追加後的序列延續計算，回傳新版本（原版本保持不變）
+     * 
+     * @param series 追加後的完整日線，前段與計算原版本時的日線相同
+     * @return 新版本的衍生值
+     */
+    T extend(DailyBars series);
+}
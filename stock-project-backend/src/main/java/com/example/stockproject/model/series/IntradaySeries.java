@@ -0,0 +1,238 @@
+package com.example.stockproject.model.series;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 分K線欄式序列
+ * 
+ * 以排序後的原始型別陣列保存單一股票、單一週期的 OHLCV 數據（依 epoch 秒遞增），
+ * 與 {@link PriceSeries} 相同，實例建立後不可變，子序列與追加共用陣列。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增分K線
+ */
+public final class IntradaySeries {
+
+    private final Long stockId;
+    private final String symbol;
+    private final BarInterval interval;
+    private final long[] timestamps;
+    private final double[] open;
+    private final double[] high;
+    private final double[] low;
+    private final double[] close;
+    private final long[] volume;
+    private final int offset;
+    private final int size;
+
+    /**
+     * 是否已有新版本在本序列的陣列尾端追加過數據（每個版本只允許原地追加一次）
+     */
+    private final AtomicBoolean extended = new AtomicBoolean();
+
+    /**
+     * 建構函數（陣列由呼叫端交出所有權，不再修改）
+     * 
+     * @param stockId    股票識別碼
+     * @param symbol     股票代碼
+     * @param interval   K線週期
+     * @param timestamps K線起始時間 (epoch 秒，必須遞增)
+     * @param open       開盤價
+     * @param high       最高價
+     * @param low        最低價
+     * @param close      收盤價
+     * @param volume     成交量
+     * @param size       有效筆數
+     */
+    public IntradaySeries(Long stockId, String symbol, BarInterval interval, long[] timestamps,
+            double[] open, double[] high, double[] low, double[] close, long[] volume, int size) {
+        this(stockId, symbol, interval, timestamps, open, high, low, close, volume, 0, size);
+    }
+
+    private IntradaySeries(Long stockId, String symbol, BarInterval interval, long[] timestamps,
+            double[] open, double[] high, double[] low, double[] close, long[] volume, int offset, int size) {
+        this.stockId = stockId;
+        this.symbol = symbol;
+        this.interval = interval;
+        this.timestamps = timestamps;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    /**
+     * 建立空序列
+     * 
+     * @param stockId  股票識別碼
+     * @param symbol   股票代碼
+     * @param interval K線週期
+     * @return 不含任何數據的序列
+     */
+    public static IntradaySeries empty(Long stockId, String symbol, BarInterval interval) {
+        return new IntradaySeries(stockId, symbol, interval, new long[0],
+                new double[0], new double[0], new double[0], new double[0], new long[0], 0);
+    }
+
+    public Long getStockId() {
+        return stockId;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public BarInterval getInterval() {
+        return interval;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long timestampAt(int i) {
+        return timestamps[offset + i];
+    }
+
+    public double openAt(int i) {
+        return open[offset + i];
+    }
+
+    public double highAt(int i) {
+        return high[offset + i];
+    }
+
+    public double lowAt(int i) {
+        return low[offset + i];
+    }
+
+    public double closeAt(int i) {
+        return close[offset + i];
+    }
+
+    public long volumeAt(int i) {
+        return volume[offset + i];
+    }
+
+    /**
+     * 最後一根K線的起始時間
+     * 
+     * @return epoch 秒，空序列為 Long.MIN_VALUE
+     */
+    public long lastTimestamp() {
+        return size == 0 ? Long.MIN_VALUE : timestamps[offset + size - 1];
+    }
+
+    /**
+     * 找出第一根起始時間大於或等於指定時間的索引（二分搜尋）
+     * 
+     * @param epochSecond 時間 (epoch 秒)
+     * @return 索引，若全部小於該時間則為 size()
+     */
+    public int lowerBound(long epochSecond) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (timestamps[offset + mid] < epochSecond) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * 取得起始時間在 [fromEpochSecond, toEpochSecond) 的子序列（零複製視圖）
+     * 
+     * @param fromEpochSecond 起始時間（含）
+     * @param toEpochSecond   結束時間（不含）
+     * @return 範圍內的序列
+     */
+    public IntradaySeries slice(long fromEpochSecond, long toEpochSecond) {
+        return slice(lowerBound(fromEpochSecond), lowerBound(toEpochSecond));
+    }
+
+    /**
+     * 取得索引範圍 [from, to) 的子序列（零複製視圖）
+     * 
+     * @param from 起始索引（含）
+     * @param to   結束索引（不含）
+     * @return 範圍內的序列
+     */
+    public IntradaySeries slice(int from, int to) {
+        if (from == 0 && to == size) {
+            return this;
+        }
+        if (from >= to) {
+            return empty(stockId, symbol, interval);
+        }
+        return new IntradaySeries(stockId, symbol, interval, timestamps, open, high, low, close, volume,
+                offset + from, to - from);
+    }
+
+    /**
+     * 在序列尾端追加K線，回傳新版本
+     * 
+     * 與 {@link PriceSeries#append} 相同：有剩餘容量時原地寫在有效範圍之後，
+     * 否則以 1.5 倍容量複製（只複製目前的有效範圍，已切掉的前段不會保留）。
+     * 
+     * @param bars 要追加的K線，起始時間必須晚於目前最後一筆
+     * @return 追加後的新序列
+     * @throws IllegalArgumentException 週期不同或起始時間未晚於最後一筆
+     */
+    public IntradaySeries append(IntradaySeries bars) {
+        if (bars.isEmpty()) {
+            return this;
+        }
+        if (bars.interval != interval) {
+            throw new IllegalArgumentException("追加的K線週期不同");
+        }
+        if (bars.timestampAt(0) <= lastTimestamp()) {
+            throw new IllegalArgumentException("追加的K線時間必須晚於最後一筆");
+        }
+
+        int end = offset + size;
+        int newSize = size + bars.size();
+        boolean inPlace = end + bars.size() <= timestamps.length && extended.compareAndSet(false, true);
+
+        long[] newTimestamps = timestamps;
+        double[] newOpen = open;
+        double[] newHigh = high;
+        double[] newLow = low;
+        double[] newClose = close;
+        long[] newVolume = volume;
+        int newOffset = offset;
+        if (!inPlace) {
+            int capacity = Math.max(newSize, size + (size >> 1));
+            newTimestamps = Arrays.copyOfRange(timestamps, offset, offset + capacity);
+            newOpen = Arrays.copyOfRange(open, offset, offset + capacity);
+            newHigh = Arrays.copyOfRange(high, offset, offset + capacity);
+            newLow = Arrays.copyOfRange(low, offset, offset + capacity);
+            newClose = Arrays.copyOfRange(close, offset, offset + capacity);
+            newVolume = Arrays.copyOfRange(volume, offset, offset + capacity);
+            newOffset = 0;
+        }
+
+        int at = newOffset + size;
+        for (int k = 0; k < bars.size(); k++, at++) {
+            newTimestamps[at] = bars.timestampAt(k);
+            newOpen[at] = bars.openAt(k);
+            newHigh[at] = bars.highAt(k);
+            newLow[at] = bars.lowAt(k);
+            newClose[at] = bars.closeAt(k);
+            newVolume[at] = bars.volumeAt(k);
+        }
+        return new IntradaySeries(stockId, symbol, interval, newTimestamps, newOpen, newHigh, newLow, newClose,
+                newVolume, newOffset, newSize);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.stockproject.model.series;
+
+import java.util.Arrays;
+
+/**
+ * 分K線序列建構器
+ * 
+ * 與 {@link PriceSeriesBuilder} 相同，逐筆寫入原始型別欄位緩衝區，完成後一次建立
+ * {@link IntradaySeries}。非執行緒安全。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增分K線
+ */
+public final class IntradaySeriesBuilder {
+
+    private long[] timestamps;
+    private double[] open;
+    private double[] high;
+    private double[] low;
+    private double[] close;
+    private long[] volume;
+    private int size;
+
+    public IntradaySeriesBuilder() {
+        this(256);
+    }
+
+    /**
+     * 建構函數
+     * 
+     * @param capacity 初始容量
+     */
+    public IntradaySeriesBuilder(int capacity) {
+        int initial = Math.max(capacity, 16);
+        timestamps = new long[initial];
+        open = new double[initial];
+        high = new double[initial];
+        low = new double[initial];
+        close = new double[initial];
+        volume = new long[initial];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 寫入一根K線
+     * 
+     * @param epochSecond K線起始時間 (epoch 秒)
+     * @param o           開盤價
+     * @param h           最高價
+     * @param l           最低價
+     * @param c           收盤價
+     * @param v           成交量
+     * @return 本建構器
+     */
+    public IntradaySeriesBuilder add(long epochSecond, double o, double h, double l, double c, long v) {
+        if (size == timestamps.length) {
+            grow();
+        }
+        timestamps[size] = epochSecond;
+        open[size] = o;
+        high[size] = h;
+        low[size] = l;
+        close[size] = c;
+        volume[size] = v;
+        size++;
+        return this;
+    }
+
+    /**
+     * 建立分K線序列，緩衝區所有權移交給序列，之後不可再使用本建構器
+     * 
+     * @param stockId  股票識別碼
+     * @param symbol   股票代碼
+     * @param interval K線週期
+     * @return 分K線序列
+     * @throws IllegalStateException 時間不是嚴格遞增
+     */
+    public IntradaySeries build(Long stockId, String symbol, BarInterval interval) {
+        for (int i = 1; i < size; i++) {
+            if (timestamps[i] <= timestamps[i - 1]) {
+                throw new IllegalStateException("K線時間必須嚴格遞增");
+            }
+        }
+        IntradaySeries series = new IntradaySeries(stockId, symbol, interval, timestamps,
+                open, high, low, close, volume, size);
+        timestamps = null;
+        open = high = low = close = null;
+        volume = null;
+        return series;
+    }
+
+    private void grow() {
+        int capacity = size + (size >> 1);
+        timestamps = Arrays.copyOf(timestamps, capacity);
+        open = Arrays.copyOf(open, capacity);
+        high = Arrays.copyOf(high, capacity);
+        low = Arrays.copyOf(low, capacity);
+        close = Arrays.copyOf(close, capacity);
+        volume = Arrays.copyOf(volume, capacity);
+    }
+}
@@ -0,0 +1,373 @@
+package com.example.stockproject.model.series;
+
+import com.example.stockproject.model.dto.StockPriceDTO;
+import com.example.stockproject.model.entity.StockPrice;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 股票歷史價格欄式序列
+ * 
+ * 以排序後的原始型別陣列保存單一股票的 OHLCV 數據（依 epoch-day 遞增），
+ * 避免每一天都建立一個實體與裝箱的 Double / Long 物件。
+ * 實例建立後不可變，更新時由 {@link com.example.stockproject.service.PriceSeriesStore}
+ * 整個替換或以 {@link #append} 產生新版本，因此可安全地在多執行緒間共用。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增欄式價格序列
+ */
+public final class PriceSeries implements DailyBars {
+
+    private final Long stockId;
+    private final String symbol;
+    private final long[] ids;
+    private final int[] epochDays;
+    private final double[] open;
+    private final double[] high;
+    private final double[] low;
+    private final double[] close;
+    private final long[] volume;
+    private final int offset;
+    private final int size;
+
+    /**
+     * 是否已有新版本在本序列的陣列尾端追加過數據（每個版本只允許原地追加一次）
+     */
+    private final AtomicBoolean extended = new AtomicBoolean();
+
+    /**
+     * 建構函數（陣列由呼叫端交出所有權，不再修改）
+     * 
+     * @param stockId   股票識別碼
+     * @param symbol    股票代碼
+     * @param ids       歷史價格記錄識別碼
+     * @param epochDays 交易日期 (epoch-day，必須遞增)
+     * @param open      開盤價
+     * @param high      最高價
+     * @param low       最低價
+     * @param close     收盤價
+     * @param volume    成交量
+     * @param size      有效筆數
+     */
+    public PriceSeries(Long stockId, String symbol, long[] ids, int[] epochDays,
+            double[] open, double[] high, double[] low, double[] close, long[] volume, int size) {
+        this(stockId, symbol, ids, epochDays, open, high, low, close, volume, 0, size);
+    }
+
+    private PriceSeries(Long stockId, String symbol, long[] ids, int[] epochDays,
+            double[] open, double[] high, double[] low, double[] close, long[] volume,
+            int offset, int size) {
+        this.stockId = stockId;
+        this.symbol = symbol;
+        this.ids = ids;
+        this.epochDays = epochDays;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    /**
+     * 建立空序列
+     * 
+     * @param stockId 股票識別碼
+     * @param symbol  股票代碼
+     * @return 不含任何數據的序列
+     */
+    public static PriceSeries empty(Long stockId, String symbol) {
+        return new PriceSeries(stockId, symbol, new long[0], new int[0],
+                new double[0], new double[0], new double[0], new double[0], new long[0], 0);
+    }
+
+    /**
+     * 由依日期遞增的歷史價格實體建立序列
+     * 
+     * @param stockId 股票識別碼
+     * @param symbol  股票代碼
+     * @param rows    歷史價格實體
+     * @return 價格序列
+     */
+    public static PriceSeries fromEntities(Long stockId, String symbol, List<StockPrice> rows) {
+        int size = rows.size();
+        long[] ids = new long[size];
+        int[] epochDays = new int[size];
+        double[] open = new double[size];
+        double[] high = new double[size];
+        double[] low = new double[size];
+        double[] close = new double[size];
+        long[] volume = new long[size];
+        for (int i = 0; i < size; i++) {
+            StockPrice row = rows.get(i);
+            ids[i] = row.getId();
+            epochDays[i] = (int) row.getDate().toEpochDay();
+            open[i] = row.getOpenPrice();
+            high[i] = row.getHighPrice();
+            low[i] = row.getLowPrice();
+            close[i] = row.getClosePrice();
+            volume[i] = row.getVolume();
+        }
+        return new PriceSeries(stockId, symbol, ids, epochDays, open, high, low, close, volume, size);
+    }
+
+    public Long getStockId() {
+        return stockId;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long idAt(int i) {
+        return ids[offset + i];
+    }
+
+    public int epochDayAt(int i) {
+        return epochDays[offset + i];
+    }
+
+    public double openAt(int i) {
+        return open[offset + i];
+    }
+
+    public double highAt(int i) {
+        return high[offset + i];
+    }
+
+    public double lowAt(int i) {
+        return low[offset + i];
+    }
+
+    public double closeAt(int i) {
+        return close[offset + i];
+    }
+
+    public long volumeAt(int i) {
+        return volume[offset + i];
+    }
+
+    /**
+     * 找出第一個日期大於或等於指定 epoch-day 的索引（二分搜尋）
+     * 
+     * @param epochDay 日期 (epoch-day)
+     * @return 索引，若全部小於該日期則為 size()
+     */
+    public int lowerBound(long epochDay) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (epochDays[offset + mid] < epochDay) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * 找出第一個日期大於指定 epoch-day 的索引（二分搜尋）
+     * 
+     * @param epochDay 日期 (epoch-day)
+     * @return 索引，若全部小於或等於該日期則為 size()
+     */
+    public int upperBound(long epochDay) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (epochDays[offset + mid] <= epochDay) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * 取得指定日期範圍（含首尾）的子序列，與原序列共用陣列不複製
+     * 
+     * @param startDate 開始日期，null 表示不限
+     * @param endDate   結束日期，null 表示不限
+     * @return 範圍內的序列
+     */
+    public PriceSeries slice(LocalDate startDate, LocalDate endDate) {
+        int from = startDate == null ? 0 : lowerBound(startDate.toEpochDay());
+        int to = endDate == null ? size : upperBound(endDate.toEpochDay());
+        return slice(from, to);
+    }
+
+    /**
+     * 取得索引範圍 [from, to) 的子序列（零複製視圖）
+     * 
+     * @param from 起始索引（含）
+     * @param to   結束索引（不含）
+     * @return 範圍內的序列
+     */
+    public PriceSeries slice(int from, int to) {
+        if (from == 0 && to == size) {
+            return this;
+        }
+        if (from >= to) {
+            return empty(stockId, symbol);
+        }
+        return new PriceSeries(stockId, symbol, ids, epochDays, open, high, low, close, volume,
+                offset + from, to - from);
+    }
+
+    /**
+     * 在序列尾端追加K線，回傳新版本
+     * 
+     * 陣列尚有剩餘容量時直接寫在目前版本的有效範圍之後（目前版本的讀者看不到），
+     * 否則以 1.5 倍容量複製，因此連續追加的攤銷成本為 O(追加筆數)。
+     * 每個版本只會原地追加一次，再次追加同一版本時改為複製。
+     * 
+     * @param bars 要追加的K線，日期必須晚於目前最後一筆
+     * @return 追加後的新序列
+     * @throws IllegalArgumentException 追加的日期未晚於目前最後一筆
+     */
+    public PriceSeries append(PriceSeries bars) {
+        if (bars.isEmpty()) {
+            return this;
+        }
+        if (size > 0 && bars.epochDayAt(0) <= epochDayAt(size - 1)) {
+            throw new IllegalArgumentException("追加的K線日期必須晚於最後一筆");
+        }
+
+        int end = offset + size;
+        int newSize = size + bars.size();
+        boolean inPlace = end + bars.size() <= epochDays.length && extended.compareAndSet(false, true);
+
+        long[] newIds = ids;
+        int[] newDays = epochDays;
+        double[] newOpen = open;
+        double[] newHigh = high;
+        double[] newLow = low;
+        double[] newClose = close;
+        long[] newVolume = volume;
+        int newOffset = offset;
+        if (!inPlace) {
+            int capacity = Math.max(newSize, size + (size >> 1));
+            newIds = Arrays.copyOfRange(ids, offset, offset + capacity);
+            newDays = Arrays.copyOfRange(epochDays, offset, offset + capacity);
+            newOpen = Arrays.copyOfRange(open, offset, offset + capacity);
+            newHigh = Arrays.copyOfRange(high, offset, offset + capacity);
+            newLow = Arrays.copyOfRange(low, offset, offset + capacity);
+            newClose = Arrays.copyOfRange(close, offset, offset + capacity);
+            newVolume = Arrays.copyOfRange(volume, offset, offset + capacity);
+            newOffset = 0;
+        }
+
+        int at = newOffset + size;
+        for (int k = 0; k < bars.size(); k++, at++) {
+            newIds[at] = bars.idAt(k);
+            newDays[at] = bars.epochDayAt(k);
+            newOpen[at] = bars.openAt(k);
+            newHigh[at] = bars.highAt(k);
+            newLow[at] = bars.lowAt(k);
+            newClose[at] = bars.closeAt(k);
+            newVolume[at] = bars.volumeAt(k);
+        }
+        return new PriceSeries(stockId, symbol, newIds, newDays, newOpen, newHigh, newLow, newClose, newVolume,
+                newOffset, newSize);
+    }
+
+    /**
+     * 依索引挑選部分K線組成新序列
+     * 
+     * @param indexes 遞增的索引
+     * @param count   有效索引數
+     * @return 新序列
+     */
+    public PriceSeries select(int[] indexes, int count) {
+        long[] selIds = new long[count];
+        int[] selDays = new int[count];
+        double[] selOpen = new double[count];
+        double[] selHigh = new double[count];
+        double[] selLow = new double[count];
+        double[] selClose = new double[count];
+        long[] selVolume = new long[count];
+        for (int k = 0; k < count; k++) {
+            int i = offset + indexes[k];
+            selIds[k] = ids[i];
+            selDays[k] = epochDays[i];
+            selOpen[k] = open[i];
+            selHigh[k] = high[i];
+            selLow[k] = low[i];
+            selClose[k] = close[i];
+            selVolume[k] = volume[i];
+        }
+        return new PriceSeries(stockId, symbol, selIds, selDays, selOpen, selHigh, selLow, selClose, selVolume, count);
+    }
+
+    /**
+     * 依索引從任意日線（例如對映的歸檔視圖）挑選部分K線，複製成新序列
+     * 
+     * @param bars    日線
+     * @param indexes 遞增的索引
+     * @param count   有效索引數
+     * @return 新序列
+     */
+    public static PriceSeries copyOf(DailyBars bars, int[] indexes, int count) {
+        if (bars instanceof PriceSeries series) {
+            return series.select(indexes, count);
+        }
+        long[] selIds = new long[count];
+        int[] selDays = new int[count];
+        double[] selOpen = new double[count];
+        double[] selHigh = new double[count];
+        double[] selLow = new double[count];
+        double[] selClose = new double[count];
+        long[] selVolume = new long[count];
+        for (int k = 0; k < count; k++) {
+            int i = indexes[k];
+            selIds[k] = bars.idAt(i);
+            selDays[k] = bars.epochDayAt(i);
+            selOpen[k] = bars.openAt(i);
+            selHigh[k] = bars.highAt(i);
+            selLow[k] = bars.lowAt(i);
+            selClose[k] = bars.closeAt(i);
+            selVolume[k] = bars.volumeAt(i);
+        }
+        return new PriceSeries(bars.getStockId(), bars.getSymbol(), selIds, selDays, selOpen, selHigh, selLow,
+                selClose, selVolume, count);
+    }
+
+    /**
+     * 轉換為 DTO 列表（僅在 API 輸出時使用）
+     * 
+     * @return 歷史價格 DTO 列表
+     */
+    public List<StockPriceDTO> toDTOs() {
+        List<StockPriceDTO> result = new ArrayList<>(size);
+        for (int i = offset; i < offset + size; i++) {
+            result.add(new StockPriceDTO(
+                    ids[i],
+                    stockId,
+                    symbol,
+                    LocalDate.ofEpochDay(epochDays[i]),
+                    open[i],
+                    close[i],
+                    high[i],
+                    low[i],
+                    volume[i]));
+        }
+        return result;
+    }
+}
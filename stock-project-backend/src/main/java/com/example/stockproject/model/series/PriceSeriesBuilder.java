@@ -0,0 +1,158 @@
+package com.example.stockproject.model.series;
+
+import java.util.Arrays;
+
+/**
+ * 價格序列建構器
+ * 
+ * 逐筆寫入原始型別欄位緩衝區（容量不足時以 1.5 倍成長），完成後一次建立
+ * {@link PriceSeries}，用於解析外部回應或匯入檔案時避免建立每列物件。
+ * 非執行緒安全。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增串流解析外部數據
+ */
+public final class PriceSeriesBuilder {
+
+    private long[] ids;
+    private int[] epochDays;
+    private double[] open;
+    private double[] high;
+    private double[] low;
+    private double[] close;
+    private long[] volume;
+    private int size;
+
+    public PriceSeriesBuilder() {
+        this(256);
+    }
+
+    /**
+     * 建構函數
+     * 
+     * @param capacity 初始容量
+     */
+    public PriceSeriesBuilder(int capacity) {
+        int initial = Math.max(capacity, 16);
+        ids = new long[initial];
+        epochDays = new int[initial];
+        open = new double[initial];
+        high = new double[initial];
+        low = new double[initial];
+        close = new double[initial];
+        volume = new long[initial];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 寫入一根K線
+     * 
+     * @param id       記錄識別碼
+     * @param epochDay 交易日期 (epoch-day)
+     * @param o        開盤價
+     * @param h        最高價
+     * @param l        最低價
+     * @param c        收盤價
+     * @param v        成交量
+     * @return 本建構器
+     */
+    public PriceSeriesBuilder add(long id, int epochDay, double o, double h, double l, double c, long v) {
+        if (size == epochDays.length) {
+            grow();
+        }
+        ids[size] = id;
+        epochDays[size] = epochDay;
+        open[size] = o;
+        high[size] = h;
+        low[size] = l;
+        close[size] = c;
+        volume[size] = v;
+        size++;
+        return this;
+    }
+
+    /**
+     * 寫入一根K線，與上一根同一天時取代上一根（來源依日期遞增、同一天可能有多筆時使用）
+     * 
+     * @param id       記錄識別碼
+     * @param epochDay 交易日期 (epoch-day)
+     * @param o        開盤價
+     * @param h        最高價
+     * @param l        最低價
+     * @param c        收盤價
+     * @param v        成交量
+     * @return 本建構器
+     */
+    public PriceSeriesBuilder addOrReplace(long id, int epochDay, double o, double h, double l, double c, long v) {
+        if (size > 0 && epochDays[size - 1] == epochDay) {
+            size--;
+        }
+        return add(id, epochDay, o, h, l, c, v);
+    }
+
+    /**
+     * 將已寫入的K線反轉順序（用於來源依日期遞減輸出的情況）
+     * 
+     * @return 本建構器
+     */
+    public PriceSeriesBuilder reverse() {
+        for (int i = 0, j = size - 1; i < j; i++, j--) {
+            long id = ids[i];
+            ids[i] = ids[j];
+            ids[j] = id;
+            int day = epochDays[i];
+            epochDays[i] = epochDays[j];
+            epochDays[j] = day;
+            swap(open, i, j);
+            swap(high, i, j);
+            swap(low, i, j);
+            swap(close, i, j);
+            long v = volume[i];
+            volume[i] = volume[j];
+            volume[j] = v;
+        }
+        return this;
+    }
+
+    /**
+     * 建立價格序列，緩衝區所有權移交給序列，之後不可再使用本建構器
+     * 
+     * @param stockId 股票識別碼
+     * @param symbol  股票代碼
+     * @return 價格序列
+     * @throws IllegalStateException 日期不是嚴格遞增
+     */
+    public PriceSeries build(Long stockId, String symbol) {
+        for (int i = 1; i < size; i++) {
+            if (epochDays[i] <= epochDays[i - 1]) {
+                throw new IllegalStateException("K線日期必須嚴格遞增");
+            }
+        }
+        PriceSeries series = new PriceSeries(stockId, symbol, ids, epochDays, open, high, low, close, volume, size);
+        ids = null;
+        epochDays = null;
+        open = high = low = close = null;
+        volume = null;
+        return series;
+    }
+
+    private void grow() {
+        int capacity = size + (size >> 1);
+        ids = Arrays.copyOf(ids, capacity);
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        open = Arrays.copyOf(open, capacity);
+        high = Arrays.copyOf(high, capacity);
+        low = Arrays.copyOf(low, capacity);
+        close = Arrays.copyOf(close, capacity);
+        volume = Arrays.copyOf(volume, capacity);
+    }
+
+    private static void swap(double[] a, int i, int j) {
+        double t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+}
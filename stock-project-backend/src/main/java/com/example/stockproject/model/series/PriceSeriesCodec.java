@@ -0,0 +1,307 @@
+package com.example.stockproject.model.series;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * 欄式價格序列編碼器
+ * 
+ * 提供三種歷史價格輸出格式：
+ * <ul>
+ * <li>JSON 陣列：與 {@link com.example.stockproject.model.dto.StockPriceDTO} 列表相同的格式</li>
+ * <li>欄式 JSON ({@link #COLUMNAR_JSON})：股票代碼只出現一次，日期與價格以差分編碼的平行陣列表示</li>
+ * <li>二進位 ({@link #BINARY_MAGIC})：與欄式 JSON 相同的差分編碼，以 little-endian 定長整數輸出</li>
+ * </ul>
+ * 
+ * 欄式格式中的價格以 {@link #PRICE_SCALE} 量化為整數 tick（精確到小數點後四位），
+ * 不包含歷史價格記錄識別碼。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增欄式價格序列
+ */
+public final class PriceSeriesCodec {
+
+    /**
+     * 欄式 JSON 媒體類型
+     */
+    public static final String COLUMNAR_JSON = "application/vnd.stock.columnar+json";
+
+    /**
+     * 價格量化倍數（1 tick = 0.0001）
+     */
+    public static final int PRICE_SCALE = 10_000;
+
+    /**
+     * 二進位格式檔頭識別字 "SPS1"
+     */
+    public static final int BINARY_MAGIC = 0x31535053;
+
+    /**
+     * 價格差分超出 int32 時使用的二進位格式識別字 "SPS2"（價格差分改為 int64，其餘相同）
+     */
+    public static final int BINARY_MAGIC_WIDE = 0x32535053;
+
+    private PriceSeriesCodec() {
+    }
+
+    /**
+     * 以 DTO 列表相同的 JSON 格式輸出
+     * 
+     * @param series 日線（可為對映歸檔檔案的視圖）
+     * @param gen    JSON 產生器
+     * @throws IOException 寫出失敗時拋出
+     */
+    public static void writeJson(DailyBars series, JsonGenerator gen) throws IOException {
+        gen.writeStartArray();
+        for (int i = 0; i < series.size(); i++) {
+            gen.writeStartObject();
+            gen.writeNumberField("id", series.idAt(i));
+            gen.writeNumberField("stockId", series.getStockId());
+            gen.writeStringField("symbol", series.getSymbol());
+            gen.writeStringField("date", LocalDate.ofEpochDay(series.epochDayAt(i)).toString());
+            gen.writeNumberField("openPrice", series.openAt(i));
+            gen.writeNumberField("closePrice", series.closeAt(i));
+            gen.writeNumberField("highPrice", series.highAt(i));
+            gen.writeNumberField("lowPrice", series.lowAt(i));
+            gen.writeNumberField("volume", series.volumeAt(i));
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+    }
+
+    /**
+     * 以欄式 JSON 格式輸出
+     * 
+     * dates 為相對前一筆的天數差（第一筆為 0，起點見 startDate）；
+     * open/high/low/close 為相對同欄前一筆的 tick 差（第一筆為絕對值）；volume 為原始值。
+     * 
+     * @param series 日線（可為對映歸檔檔案的視圖）
+     * @param gen    JSON 產生器
+     * @throws IOException 寫出失敗時拋出
+     */
+    public static void writeColumnarJson(DailyBars series, JsonGenerator gen) throws IOException {
+        int size = series.size();
+        gen.writeStartObject();
+        gen.writeNumberField("stockId", series.getStockId());
+        gen.writeStringField("symbol", series.getSymbol());
+        gen.writeNumberField("count", size);
+        gen.writeNumberField("priceScale", PRICE_SCALE);
+        if (size > 0) {
+            gen.writeStringField("startDate", LocalDate.ofEpochDay(series.epochDayAt(0)).toString());
+        } else {
+            gen.writeNullField("startDate");
+        }
+
+        gen.writeArrayFieldStart("dates");
+        int prevDay = size > 0 ? series.epochDayAt(0) : 0;
+        for (int i = 0; i < size; i++) {
+            int day = series.epochDayAt(i);
+            gen.writeNumber(day - prevDay);
+            prevDay = day;
+        }
+        gen.writeEndArray();
+
+        writeDeltaTicks(gen, "open", series, Column.OPEN);
+        writeDeltaTicks(gen, "high", series, Column.HIGH);
+        writeDeltaTicks(gen, "low", series, Column.LOW);
+        writeDeltaTicks(gen, "close", series, Column.CLOSE);
+
+        gen.writeArrayFieldStart("volume");
+        for (int i = 0; i < size; i++) {
+            gen.writeNumber(series.volumeAt(i));
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+
+    /**
+     * 以 little-endian 二進位格式輸出
+     * 
+     * 版面（全部 little-endian，欄位區段從 8 位元組對齊處開始）：
+     * <pre>
+     * int32  magic "SPS1"
+     * int32  count
+     * int64  stockId
+     * int32  priceScale
+     * int32  startEpochDay
+     * int64  openBase, highBase, lowBase, closeBase  (第一筆的 tick)
+     * int16  symbol 位元組長度，接 UTF-8 位元組，補零至 8 位元組對齊
+     * int64[count] volume
+     * int32[count] date 差分（第一筆為 0）
+     * int32[count] open、high、low、close 各自的 tick 差分（第一筆為 0）
+     * </pre>
+     * 
+     * 任何一筆價格差分超出 int32 範圍（例如價格劇烈跳動）時，改以 {@link #BINARY_MAGIC_WIDE}
+     * 為檔頭，四個價格欄位的差分寫成 int64[count]，不會在輸出途中失敗。
+     * 
+     * @param series 日線（可為對映歸檔檔案的視圖）
+     * @param out    輸出串流
+     * @throws IOException 寫出失敗時拋出
+     */
+    public static void writeBinary(DailyBars series, OutputStream out) throws IOException {
+        int size = series.size();
+        byte[] symbol = series.getSymbol() == null
+                ? new byte[0]
+                : series.getSymbol().getBytes(StandardCharsets.UTF_8);
+
+        int header = 4 + 4 + 8 + 4 + 4 + 8 * 4 + 2 + symbol.length;
+        int padded = (header + 7) & ~7;
+        boolean wide = needsWideDeltas(series);
+        ByteBuffer buffer = ByteBuffer.allocate(padded).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(wide ? BINARY_MAGIC_WIDE : BINARY_MAGIC);
+        buffer.putInt(size);
+        buffer.putLong(series.getStockId() == null ? 0L : series.getStockId());
+        buffer.putInt(PRICE_SCALE);
+        buffer.putInt(size > 0 ? series.epochDayAt(0) : 0);
+        buffer.putLong(size > 0 ? ticks(series.openAt(0)) : 0L);
+        buffer.putLong(size > 0 ? ticks(series.highAt(0)) : 0L);
+        buffer.putLong(size > 0 ? ticks(series.lowAt(0)) : 0L);
+        buffer.putLong(size > 0 ? ticks(series.closeAt(0)) : 0L);
+        buffer.putShort((short) symbol.length);
+        buffer.put(symbol);
+        out.write(buffer.array());
+
+        ByteBuffer chunk = ByteBuffer.allocate(8 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < size; i++) {
+            ensure(chunk, 8, out);
+            chunk.putLong(series.volumeAt(i));
+        }
+        int prevDay = size > 0 ? series.epochDayAt(0) : 0;
+        for (int i = 0; i < size; i++) {
+            ensure(chunk, 4, out);
+            chunk.putInt(series.epochDayAt(i) - prevDay);
+            prevDay = series.epochDayAt(i);
+        }
+        for (Column column : Column.values()) {
+            long prev = size > 0 ? ticks(column.get(series, 0)) : 0L;
+            for (int i = 0; i < size; i++) {
+                long tick = ticks(column.get(series, i));
+                if (wide) {
+                    ensure(chunk, 8, out);
+                    chunk.putLong(tick - prev);
+                } else {
+                    ensure(chunk, 4, out);
+                    chunk.putInt((int) (tick - prev));
+                }
+                prev = tick;
+            }
+        }
+        out.write(chunk.array(), 0, chunk.position());
+    }
+
+    /**
+     * 從目前位置讀取一個二進位區塊（{@link #writeBinary} 的反向操作），讀取後位置移到區塊結尾，
+     * 因此可以連續讀取批次匯出的多個區塊
+     * 
+     * @param buffer 輸入緩衝（位元組順序會被設為 little-endian）
+     * @return 價格序列（價格為量化後的值，記錄識別碼為 0）
+     * @throws IllegalArgumentException 檔頭識別字不正確
+     */
+    public static PriceSeries readBinary(ByteBuffer buffer) {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        int frameStart = buffer.position();
+        int magic = buffer.getInt();
+        if (magic != BINARY_MAGIC && magic != BINARY_MAGIC_WIDE) {
+            throw new IllegalArgumentException("不是有效的二進位價格序列");
+        }
+        boolean wide = magic == BINARY_MAGIC_WIDE;
+        int size = buffer.getInt();
+        long stockId = buffer.getLong();
+        double scale = buffer.getInt();
+        int startDay = buffer.getInt();
+        long[] bases = new long[4];
+        for (int c = 0; c < bases.length; c++) {
+            bases[c] = buffer.getLong();
+        }
+        byte[] symbol = new byte[buffer.getShort()];
+        buffer.get(symbol);
+        buffer.position(frameStart + ((buffer.position() - frameStart + 7) & ~7));
+
+        long[] volume = new long[size];
+        for (int i = 0; i < size; i++) {
+            volume[i] = buffer.getLong();
+        }
+        int[] epochDays = new int[size];
+        int day = startDay;
+        for (int i = 0; i < size; i++) {
+            day += buffer.getInt();
+            epochDays[i] = day;
+        }
+        double[][] prices = new double[4][size];
+        for (int c = 0; c < prices.length; c++) {
+            long tick = bases[c];
+            for (int i = 0; i < size; i++) {
+                tick += wide ? buffer.getLong() : buffer.getInt();
+                prices[c][i] = tick / scale;
+            }
+        }
+        return new PriceSeries(stockId, new String(symbol, StandardCharsets.UTF_8), new long[size], epochDays,
+                prices[0], prices[1], prices[2], prices[3], volume, size);
+    }
+
+    /**
+     * 將價格量化為 tick
+     * 
+     * @param price 價格
+     * @return tick 數
+     */
+    public static long ticks(double price) {
+        return Math.round(price * PRICE_SCALE);
+    }
+
+    private static void writeDeltaTicks(JsonGenerator gen, String field, DailyBars series, Column column)
+            throws IOException {
+        gen.writeArrayFieldStart(field);
+        long prev = 0;
+        for (int i = 0; i < series.size(); i++) {
+            long tick = ticks(column.get(series, i));
+            gen.writeNumber(tick - prev);
+            prev = tick;
+        }
+        gen.writeEndArray();
+    }
+
+    private static boolean needsWideDeltas(DailyBars series) {
+        for (Column column : Column.values()) {
+            long prev = series.size() > 0 ? ticks(column.get(series, 0)) : 0L;
+            for (int i = 1; i < series.size(); i++) {
+                long tick = ticks(column.get(series, i));
+                long delta = tick - prev;
+                if (delta != (int) delta) {
+                    return true;
+                }
+                prev = tick;
+            }
+        }
+        return false;
+    }
+
+    private static void ensure(ByteBuffer chunk, int bytes, OutputStream out) throws IOException {
+        if (chunk.remaining() < bytes) {
+            out.write(chunk.array(), 0, chunk.position());
+            chunk.clear();
+        }
+    }
+
+    /**
+     * 價格欄位（順序即二進位格式中的欄位順序）
+     */
+    private enum Column {
+        OPEN, HIGH, LOW, CLOSE;
+
+        double get(DailyBars series, int i) {
+            return switch (this) {
+                case OPEN -> series.openAt(i);
+                case HIGH -> series.highAt(i);
+                case LOW -> series.lowAt(i);
+                case CLOSE -> series.closeAt(i);
+            };
+        }
+    }
+}
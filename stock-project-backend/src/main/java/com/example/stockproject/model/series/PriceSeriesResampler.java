@@ -0,0 +1,212 @@
+package com.example.stockproject.model.series;
+
+/**
+ * 價格序列重取樣工具
+ * 
+ * 提供兩種縮減序列長度的方式：
+ * <ul>
+ * <li>{@link #aggregate}：把日線依 {@link Resolution} 彙總為週線或月線（正確的 OHLCV 彙總），
+ * 或把分K線彙總為較長的 {@link BarInterval}</li>
+ * <li>{@link #downsample}：以 LTTB (Largest-Triangle-Three-Buckets) 演算法依收盤價挑選代表點，
+ * 保留圖形的高低點形狀</li>
+ * </ul>
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增K線重取樣
+ */
+public final class PriceSeriesResampler {
+
+    private PriceSeriesResampler() {
+    }
+
+    /**
+     * 依週期彙總K線
+     * 
+     * 每個區間的開盤價取第一筆、收盤價取最後一筆、最高/最低價取極值、成交量加總，
+     * 日期與識別碼取區間內第一筆。輸入可以是對映歸檔檔案的視圖，
+     * 只有彙總結果配置在 heap 上。
+     * 
+     * @param series     日線
+     * @param resolution 目標週期
+     * @return 彙總後的序列
+     */
+    public static PriceSeries aggregate(DailyBars series, Resolution resolution) {
+        int size = series.size();
+        if (series instanceof PriceSeries daily && (resolution == Resolution.DAILY || size == 0)) {
+            return daily;
+        }
+
+        int expected = switch (resolution) {
+            case DAILY -> size;
+            case WEEKLY -> size / 5 + 2;
+            case MONTHLY -> size / 20 + 2;
+        };
+        PriceSeriesBuilder builder = new PriceSeriesBuilder(Math.min(size, expected));
+        long currentBucket = Long.MIN_VALUE;
+        long id = 0;
+        int day = 0;
+        double o = 0;
+        double h = 0;
+        double l = 0;
+        double c = 0;
+        long v = 0;
+        for (int i = 0; i < size; i++) {
+            long bucket = resolution.bucketOf(series.epochDayAt(i));
+            if (bucket != currentBucket) {
+                if (currentBucket != Long.MIN_VALUE) {
+                    builder.add(id, day, o, h, l, c, v);
+                }
+                currentBucket = bucket;
+                id = series.idAt(i);
+                day = series.epochDayAt(i);
+                o = series.openAt(i);
+                h = series.highAt(i);
+                l = series.lowAt(i);
+                v = 0;
+            } else {
+                h = Math.max(h, series.highAt(i));
+                l = Math.min(l, series.lowAt(i));
+            }
+            c = series.closeAt(i);
+            v += series.volumeAt(i);
+        }
+        if (currentBucket != Long.MIN_VALUE) {
+            builder.add(id, day, o, h, l, c, v);
+        }
+        return builder.build(series.getStockId(), series.getSymbol());
+    }
+
+    /**
+     * 把分K線彙總為較長週期
+     * 
+     * 彙總規則與日線相同，K線時間取區間起始時間。
+     * 
+     * @param series 分K線序列
+     * @param target 目標週期，必須是序列週期的整數倍
+     * @return 彙總後的序列
+     * @throws IllegalArgumentException 目標週期不是序列週期的整數倍
+     */
+    public static IntradaySeries aggregate(IntradaySeries series, BarInterval target) {
+        BarInterval source = series.getInterval();
+        if (target == source) {
+            return series;
+        }
+        if (!target.isMultipleOf(source)) {
+            throw new IllegalArgumentException("無法由 " + source.getCode() + " 彙總為 " + target.getCode());
+        }
+
+        int size = series.size();
+        IntradaySeriesBuilder builder = new IntradaySeriesBuilder(
+                (int) Math.min(size, (long) size * source.getSeconds() / target.getSeconds() + 2));
+        long currentBucket = Long.MIN_VALUE;
+        double o = 0;
+        double h = 0;
+        double l = 0;
+        double c = 0;
+        long v = 0;
+        for (int i = 0; i < size; i++) {
+            long bucket = target.bucketStart(series.timestampAt(i));
+            if (bucket != currentBucket) {
+                if (currentBucket != Long.MIN_VALUE) {
+                    builder.add(currentBucket, o, h, l, c, v);
+                }
+                currentBucket = bucket;
+                o = series.openAt(i);
+                h = series.highAt(i);
+                l = series.lowAt(i);
+                v = 0;
+            } else {
+                h = Math.max(h, series.highAt(i));
+                l = Math.min(l, series.lowAt(i));
+            }
+            c = series.closeAt(i);
+            v += series.volumeAt(i);
+        }
+        if (currentBucket != Long.MIN_VALUE) {
+            builder.add(currentBucket, o, h, l, c, v);
+        }
+        return builder.build(series.getStockId(), series.getSymbol(), target);
+    }
+
+    /**
+     * 以 LTTB 演算法將序列縮減為最多 maxPoints 根K線
+     * 
+     * 以日期為 X 軸、收盤價為 Y 軸挑選代表點，一定保留第一筆與最後一筆；
+     * 挑選出的K線保留原始的 OHLCV 值。
+     * 
+     * @param series    價格序列
+     * @param maxPoints 目標點數（小於 3 或不小於序列長度時不縮減）
+     * @return 縮減後的序列
+     */
+    public static PriceSeries downsample(PriceSeries series, int maxPoints) {
+        int[] selected = select(series, maxPoints);
+        return selected == null ? series : series.select(selected, maxPoints);
+    }
+
+    /**
+     * 以 LTTB 演算法將日線（例如包含歸檔舊K線的對映視圖）縮減為最多 maxPoints 根K線
+     * 
+     * 只有挑選出的K線會複製到 heap；不縮減時回傳原本的日線。
+     * 
+     * @param series    日線
+     * @param maxPoints 目標點數（小於 3 或不小於序列長度時不縮減）
+     * @return 縮減後的日線
+     */
+    public static DailyBars downsample(DailyBars series, int maxPoints) {
+        int[] selected = select(series, maxPoints);
+        return selected == null ? series : PriceSeries.copyOf(series, selected, maxPoints);
+    }
+
+    /**
+     * 挑選 LTTB 代表點
+     * 
+     * @return 遞增的 maxPoints 個索引，不需縮減時為 null
+     */
+    private static int[] select(DailyBars series, int maxPoints) {
+        int size = series.size();
+        if (maxPoints < 3 || maxPoints >= size) {
+            return null;
+        }
+
+        int[] selected = new int[maxPoints];
+        int count = 0;
+        selected[count++] = 0;
+
+        double every = (double) (size - 2) / (maxPoints - 2);
+        int a = 0;
+        for (int i = 0; i < maxPoints - 2; i++) {
+            // 下一個區間的平均點
+            int avgStart = (int) Math.floor((i + 1) * every) + 1;
+            int avgEnd = Math.min((int) Math.floor((i + 2) * every) + 1, size);
+            double avgX = 0;
+            double avgY = 0;
+            for (int j = avgStart; j < avgEnd; j++) {
+                avgX += series.epochDayAt(j);
+                avgY += series.closeAt(j);
+            }
+            int avgLength = avgEnd - avgStart;
+            avgX /= avgLength;
+            avgY /= avgLength;
+
+            // 目前區間中與前一個選取點、下一區間平均點構成最大三角形的點
+            int rangeStart = (int) Math.floor(i * every) + 1;
+            int rangeEnd = (int) Math.floor((i + 1) * every) + 1;
+            double ax = series.epochDayAt(a);
+            double ay = series.closeAt(a);
+            double maxArea = -1;
+            int maxIndex = rangeStart;
+            for (int j = rangeStart; j < rangeEnd; j++) {
+                double area = Math.abs((ax - avgX) * (series.closeAt(j) - ay)
+                        - (ax - series.epochDayAt(j)) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxIndex = j;
+                }
+            }
+            selected[count++] = maxIndex;
+            a = maxIndex;
+        }
+        selected[count] = size - 1;
+        return selected;
+    }
+}
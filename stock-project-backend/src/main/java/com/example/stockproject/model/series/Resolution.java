@@ -0,0 +1,68 @@
+package com.example.stockproject.model.series;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * 歷史價格的K線週期
+ * 
+ * 每個週期定義如何把 epoch-day 對應到彙總的區間編號，
+ * 同一區間內的日線會被合併為一根K線。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增K線重取樣
+ */
+public enum Resolution {
+
+    /**
+     * 日線（不彙總）
+     */
+    DAILY,
+
+    /**
+     * 週線（週一至週日）
+     */
+    WEEKLY,
+
+    /**
+     * 月線
+     */
+    MONTHLY;
+
+    /**
+     * 取得 epoch-day 所屬的區間編號
+     * 
+     * @param epochDay 日期 (epoch-day)
+     * @return 區間編號，同一區間內的日期編號相同
+     */
+    public long bucketOf(int epochDay) {
+        return switch (this) {
+            case DAILY -> epochDay;
+            // 1970-01-01 為週四，+3 讓每個區間從週一開始
+            case WEEKLY -> Math.floorDiv(epochDay + 3L, 7L);
+            case MONTHLY -> {
+                LocalDate date = LocalDate.ofEpochDay(epochDay);
+                yield date.getYear() * 12L + date.getMonthValue() - 1;
+            }
+        };
+    }
+
+    /**
+     * 解析週期字串（不區分大小寫，支援 daily/weekly/monthly 與 1D/1W/1M）
+     * 
+     * @param value 週期字串，null 或空白時為日線
+     * @return 週期
+     * @throws IllegalArgumentException 不支援的週期
+     */
+    public static Resolution from(String value) {
+        if (value == null || value.isBlank()) {
+            return DAILY;
+        }
+        return switch (value.trim().toUpperCase(Locale.ROOT)) {
+            case "DAILY", "1D", "D" -> DAILY;
+            case "WEEKLY", "1W", "W" -> WEEKLY;
+            case "MONTHLY", "1M", "M" -> MONTHLY;
+            default -> throw new IllegalArgumentException("不支援的K線週期: " + value);
+        };
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.stockproject.repository;
+
+import com.example.stockproject.model.series.BarInterval;
+import com.example.stockproject.model.series.IntradaySeriesBuilder;
+import com.example.stockproject.tick.MinuteBarBatch;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 分K線儲存庫
+ * 
+ * 以 JDBC 讀寫 intraday_bar 資料表：寫入以 MERGE 批次執行（同一根K線重複寫入時覆蓋），
+ * 讀取以逐列回呼直接填入欄式建構器，不建立實體或 Object[] 列。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增分K線
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class IntradayBarRepository {
+
+    private static final String MERGE_SQL = "MERGE INTO intraday_bar " +
+            "(stock_id, bar_interval, bar_time, open_price, high_price, low_price, close_price, volume) " +
+            "KEY (stock_id, bar_interval, bar_time) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_SQL = "SELECT stock_id, bar_time, open_price, high_price, low_price, " +
+            "close_price, volume FROM intraday_bar WHERE bar_interval = ? AND bar_time >= ? AND stock_id IN (%s) " +
+            "ORDER BY stock_id, bar_time";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 以一次 executeBatch 寫入一批已完成的一分鐘K線
+     * 
+     * @param bars K線批次
+     * @return 寫入的筆數
+     */
+    public int upsertMinuteBars(MinuteBarBatch bars) {
+        int size = bars.size();
+        if (size == 0) {
+            return 0;
+        }
+        int seconds = BarInterval.ONE_MINUTE.getSeconds();
+        jdbcTemplate.execute(MERGE_SQL, (PreparedStatement ps) -> {
+            for (int i = 0; i < size; i++) {
+                ps.setLong(1, bars.stockId(i));
+                ps.setInt(2, seconds);
+                ps.setLong(3, bars.epochMinute(i) * seconds);
+                ps.setDouble(4, bars.open(i));
+                ps.setDouble(5, bars.high(i));
+                ps.setDouble(6, bars.low(i));
+                ps.setDouble(7, bars.close(i));
+                ps.setLong(8, bars.volume(i));
+                ps.addBatch();
+            }
+            return ps.executeBatch();
+        });
+        log.debug("批次寫入 {} 根一分鐘K線", size);
+        return size;
+    }
+
+    /**
+     * 以單一查詢載入多支股票在指定時間之後的K線
+     * 
+     * @param stockIds        股票識別碼
+     * @param interval        K線週期
+     * @param fromEpochSecond 起始時間（含，epoch 秒）
+     * @return 股票識別碼對建構器（沒有K線的股票不包含在內）
+     */
+    public Map<Long, IntradaySeriesBuilder> load(Collection<Long> stockIds, BarInterval interval,
+            long fromEpochSecond) {
+        if (stockIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, IntradaySeriesBuilder> builders = new HashMap<>();
+        Object[] args = new Object[stockIds.size() + 2];
+        args[0] = interval.getSeconds();
+        args[1] = fromEpochSecond;
+        int i = 2;
+        for (Long stockId : stockIds) {
+            args[i++] = stockId;
+        }
+        String placeholders = String.join(",", Collections.nCopies(stockIds.size(), "?"));
+        long[] current = { Long.MIN_VALUE };
+        IntradaySeriesBuilder[] builder = new IntradaySeriesBuilder[1];
+        jdbcTemplate.query(String.format(SELECT_SQL, placeholders), rs -> {
+            long stockId = rs.getLong(1);
+            if (stockId != current[0]) {
+                current[0] = stockId;
+                builder[0] = builders.computeIfAbsent(stockId, id -> new IntradaySeriesBuilder(1024));
+            }
+            builder[0].add(rs.getLong(2), rs.getDouble(3), rs.getDouble(4), rs.getDouble(5),
+                    rs.getDouble(6), rs.getLong(7));
+        }, args);
+        return builders;
+    }
+
+    /**
+     * 刪除股票的所有分K線
+     * 
+     * @param stockId 股票識別碼
+     * @return 刪除的筆數
+     */
+    public int deleteByStockId(long stockId) {
+        return jdbcTemplate.update("DELETE FROM intraday_bar WHERE stock_id = ?", stockId);
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.stockproject.repository;
+
+import com.example.stockproject.archive.PriceArchiveFile;
+import com.example.stockproject.model.series.PriceSeries;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 歷史價格歸檔儲存庫
+ * 
+ * 每支股票在歸檔目錄中有一個 {@link PriceArchiveFile}，檔名為「股票識別碼.世代.spa」，
+ * 不同代碼不會對應到同一個檔案；開啟時也會確認檔頭的股票識別碼。
+ * 開啟後的唯讀對映依股票識別碼快取（沒有歸檔的股票也會快取，避免每次查詢都檢查檔案），
+ * 追加或刪除時重新對映。所有寫入都經過本儲存庫，因此快取不會過期。
+ * 
+ * 刪除時可能仍有讀取端在使用舊的對映，而 Windows 無法刪除對映中的檔案：
+ * 因此先把檔案標記為已刪除，刪除失敗時留待之後重試（最晚在下次啟動時），
+ * 之後的追加寫到下一個世代的新檔案，不會寫進仍被對映的舊檔案。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增歷史價格歸檔
+ */
+@Repository
+@Slf4j
+public class PriceArchiveRepository {
+
+    private static final String EXTENSION = ".spa";
+
+    /**
+     * 檔名：股票識別碼.世代.spa
+     */
+    private static final Pattern FILE_NAME = Pattern.compile("(\\d+)\\.(\\d+)\\.spa");
+
+    /**
+     * 股票的目前世代
+     * 
+     * @param generation 世代
+     * @param live       檔案是否有效（刪除後為 false，下次追加使用下一個世代）
+     */
+    private record Slot(long generation, boolean live) {
+    }
+
+    private final Path directory;
+    private final Map<Long, Optional<PriceArchiveFile>> files = new ConcurrentHashMap<>();
+    private final Map<Long, Slot> slots = new ConcurrentHashMap<>();
+    private final List<Path> pendingDeletes = new ArrayList<>();
+    private volatile boolean scanned;
+
+    /**
+     * 建構函數
+     * 
+     * @param directory 歸檔目錄
+     */
+    public PriceArchiveRepository(@Value("${stock.archive.dir:data/archive}") String directory) {
+        this.directory = Path.of(directory);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * 取得股票的歸檔檔案
+     * 
+     * @param stockId 股票識別碼
+     * @param symbol  股票代碼
+     * @return 歸檔檔案，沒有歸檔時為 null
+     */
+    public PriceArchiveFile find(Long stockId, String symbol) {
+        if (stockId == null || symbol == null) {
+            return null;
+        }
+        scan();
+        return files.computeIfAbsent(stockId, this::open).orElse(null);
+    }
+
+    /**
+     * 把K線追加到股票的歸檔檔案尾端（日期不晚於歸檔最後一筆的K線略過）
+     * 
+     * @param stockId 股票識別碼
+     * @param symbol  股票代碼（寫入新檔案的檔頭）
+     * @param bars    依日期遞增的K線
+     * @return 實際追加的筆數
+     */
+    public synchronized int append(Long stockId, String symbol, PriceSeries bars) {
+        PriceArchiveFile current = find(stockId, symbol);
+        int from = current == null ? 0 : bars.upperBound(current.lastEpochDay());
+        PriceSeries fresh = bars.slice(from, bars.size());
+        if (fresh.isEmpty()) {
+            return 0;
+        }
+        retryPendingDeletes();
+        Slot slot = slots.get(stockId);
+        Slot target = slot == null ? new Slot(0, true)
+                : slot.live() ? slot : new Slot(slot.generation() + 1, true);
+        try {
+            Files.createDirectories(directory);
+            PriceArchiveFile.append(pathOf(stockId, target.generation()), stockId, symbol, fresh);
+        } catch (IOException e) {
+            files.remove(stockId);
+            throw new UncheckedIOException("寫入股票 " + symbol + " 的歸檔檔案失敗", e);
+        }
+        slots.put(stockId, target);
+        files.put(stockId, open(stockId));
+        log.debug("股票 {} 追加 {} 筆歸檔K線", symbol, fresh.size());
+        return fresh.size();
+    }
+
+    /**
+     * 刪除股票的歸檔檔案
+     * 
+     * 檔案仍被讀取端對映而無法立即刪除時，標記為已刪除並留待之後重試。
+     * 
+     * @param stockId 股票識別碼
+     * @param symbol  股票代碼
+     */
+    public synchronized void delete(Long stockId, String symbol) {
+        scan();
+        retryPendingDeletes();
+        Slot slot = slots.get(stockId);
+        try {
+            if (slot != null && slot.live()) {
+                Path path = pathOf(stockId, slot.generation());
+                if (Files.exists(path)) {
+                    PriceArchiveFile.markDeleted(path);
+                    deleteOrDefer(path);
+                }
+                slots.put(stockId, new Slot(slot.generation(), false));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("刪除股票 " + symbol + " 的歸檔檔案失敗", e);
+        } finally {
+            files.remove(stockId);
+        }
+    }
+
+    /**
+     * 第一次存取時掃描歸檔目錄，記錄每支股票的最新世代並刪除較舊的世代
+     * （啟動時沒有任何對映，上次無法刪除的檔案此時可以刪除）
+     */
+    private void scan() {
+        if (scanned) {
+            return;
+        }
+        synchronized (this) {
+            if (scanned) {
+                return;
+            }
+            if (Files.isDirectory(directory)) {
+                Map<Long, Long> latest = new HashMap<>();
+                List<Path> older = new ArrayList<>();
+                List<Path> legacy = new ArrayList<>();
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+                    for (Path path : stream) {
+                        Matcher matcher = FILE_NAME.matcher(path.getFileName().toString());
+                        if (!matcher.matches()) {
+                            legacy.add(path);
+                            continue;
+                        }
+                        long stockId = Long.parseLong(matcher.group(1));
+                        long generation = Long.parseLong(matcher.group(2));
+                        Long previous = latest.get(stockId);
+                        if (previous == null || generation > previous) {
+                            if (previous != null) {
+                                older.add(pathOf(stockId, previous));
+                            }
+                            latest.put(stockId, generation);
+                        } else {
+                            older.add(path);
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("掃描歸檔目錄失敗: " + directory, e);
+                }
+                for (Path path : legacy) {
+                    migrate(path, latest);
+                }
+                latest.forEach((stockId, generation) -> slots.put(stockId, new Slot(generation, true)));
+                older.forEach(this::deleteOrDefer);
+            }
+            scanned = true;
+        }
+    }
+
+    /**
+     * 把舊版以股票代碼命名的檔案改名為以檔頭中的股票識別碼命名
+     */
+    private void migrate(Path path, Map<Long, Long> latest) {
+        try {
+            if (PriceArchiveFile.isDeleted(path)) {
+                deleteOrDefer(path);
+                return;
+            }
+            long stockId = PriceArchiveFile.readStockId(path);
+            if (latest.containsKey(stockId)) {
+                log.warn("股票識別碼 {} 已有歸檔檔案，略過舊版檔案: {}", stockId, path);
+                return;
+            }
+            Files.move(path, pathOf(stockId, 0));
+            latest.put(stockId, 0L);
+            log.info("舊版歸檔檔案 {} 改名為股票識別碼 {} 的檔案", path.getFileName(), stockId);
+        } catch (IOException e) {
+            log.warn("略過無法辨識的歸檔檔案: {}", path, e);
+        }
+    }
+
+    private Optional<PriceArchiveFile> open(Long stockId) {
+        Slot slot = slots.get(stockId);
+        if (slot == null || !slot.live()) {
+            return Optional.empty();
+        }
+        Path path = pathOf(stockId, slot.generation());
+        try {
+            if (!Files.exists(path) || PriceArchiveFile.isDeleted(path)) {
+                // 上次執行標記刪除後未能刪除的檔案
+                slots.put(stockId, new Slot(slot.generation(), false));
+                deleteOrDefer(path);
+                return Optional.empty();
+            }
+            PriceArchiveFile file = PriceArchiveFile.open(path);
+            if (file.getStockId() != stockId) {
+                throw new IOException("歸檔檔案的股票識別碼 " + file.getStockId() + " 與 " + stockId + " 不符: " + path);
+            }
+            return Optional.of(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("開啟歸檔檔案失敗: " + path, e);
+        }
+    }
+
+    /**
+     * 刪除檔案，失敗時（例如 Windows 上仍被對映）留待之後重試
+     */
+    private void deleteOrDefer(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.debug("歸檔檔案仍在使用中，稍後再刪除: {}", path);
+            synchronized (pendingDeletes) {
+                if (!pendingDeletes.contains(path)) {
+                    pendingDeletes.add(path);
+                }
+            }
+        }
+    }
+
+    private void retryPendingDeletes() {
+        List<Path> retry;
+        synchronized (pendingDeletes) {
+            if (pendingDeletes.isEmpty()) {
+                return;
+            }
+            retry = new ArrayList<>(pendingDeletes);
+            pendingDeletes.clear();
+        }
+        retry.forEach(this::deleteOrDefer);
+    }
+
+    private Path pathOf(long stockId, long generation) {
+        return directory.resolve(stockId + "." + generation + EXTENSION);
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.stockproject.repository;
+
+import com.example.stockproject.archive.SnapshotFile;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * 快照儲存庫
+ * 
+ * 以 JDBC 在股票、日線與觀察清單資料表和 {@link SnapshotFile} 之間搬移資料：
+ * 匯出時日線以單一依 (stock_id, date) 排序的查詢逐列讀取，一次只在記憶體中保留一支股票的欄式陣列；
+ * 匯入時保留原本的股票與觀察清單識別碼（歸檔檔案與前端都以識別碼參照股票），
+ * 之後把識別欄位的下一個值調到最大識別碼之後。日線的識別碼重新配置。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增快照與啟動還原
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class SnapshotRepository {
+
+    private static final String INSERT_STOCK_SQL =
+            "INSERT INTO stock (id, symbol, name, price, last_synced_date) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String INSERT_WATCHLIST_SQL =
+            "INSERT INTO watchlist (id, user_id, stock_id) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StockPriceBatchRepository stockPriceBatchRepository;
+
+    /**
+     * 把目前的股票、日線與觀察清單寫到快照（應在唯讀交易中呼叫以取得一致的狀態）
+     * 
+     * @param writer 快照寫出器
+     */
+    public void export(SnapshotFile.Writer writer) {
+        jdbcTemplate.query("SELECT id, symbol, name, price, last_synced_date FROM stock ORDER BY id",
+                (RowCallbackHandler) rs -> {
+                    long id = rs.getLong(1);
+                    String symbol = rs.getString(2);
+                    String name = rs.getString(3);
+                    double price = rs.getDouble(4);
+                    Date lastSynced = rs.getDate(5);
+                    write(() -> writer.writeStock(id, symbol, name, price,
+                            lastSynced == null ? null : lastSynced.toLocalDate()));
+                });
+
+        SeriesExporter prices = new SeriesExporter(writer);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement("SELECT stock_id, date, open_price, high_price, "
+                    + "low_price, close_price, volume FROM stock_price ORDER BY stock_id, date");
+            ps.setFetchSize(1000);
+            return ps;
+        }, prices);
+        prices.flush();
+        log.debug("快照匯出 {} 支股票、{} 筆日線", writer.getStocks(), writer.getPrices());
+
+        jdbcTemplate.query("SELECT id, user_id, stock_id FROM watchlist ORDER BY id",
+                (RowCallbackHandler) rs -> {
+                    long id = rs.getLong(1);
+                    String userId = rs.getString(2);
+                    long stockId = rs.getLong(3);
+                    write(() -> writer.writeWatchlist(id, userId, stockId));
+                });
+    }
+
+    /**
+     * 刪除所有股票、日線與觀察清單
+     */
+    public void deleteAll() {
+        jdbcTemplate.update("DELETE FROM watchlist");
+        jdbcTemplate.update("DELETE FROM stock_price");
+        jdbcTemplate.update("DELETE FROM stock");
+    }
+
+    public void insertStock(long id, String symbol, String name, double price, LocalDate lastSyncedDate) {
+        jdbcTemplate.update(INSERT_STOCK_SQL, id, symbol, name, price,
+                lastSyncedDate == null ? null : Date.valueOf(lastSyncedDate));
+    }
+
+    public void insertWatchlist(long id, String userId, long stockId) {
+        jdbcTemplate.update(INSERT_WATCHLIST_SQL, id, userId, stockId);
+    }
+
+    /**
+     * 以快照中的日線序列批次寫入資料庫
+     * 
+     * @param stockId   股票識別碼
+     * @param epochDays 交易日期 (epoch-day)
+     * @param open      開盤價
+     * @param high      最高價
+     * @param low       最低價
+     * @param close     收盤價
+     * @param volume    成交量
+     * @param size      筆數
+     */
+    public void insertSeries(long stockId, int[] epochDays, double[] open, double[] high, double[] low,
+            double[] close, long[] volume, int size) {
+        stockPriceBatchRepository.insertColumns(stockId, new long[size], epochDays, open, high, low,
+                close, volume, size);
+    }
+
+    /**
+     * 把股票與觀察清單識別欄位的下一個值調到目前最大識別碼之後
+     */
+    public void restartIdentities() {
+        restartIdentity("stock");
+        restartIdentity("watchlist");
+    }
+
+    private void restartIdentity(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + (max + 1));
+    }
+
+    private static void write(IoAction action) {
+        try {
+            action.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException("寫出快照失敗", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IoAction {
+        void run() throws IOException;
+    }
+
+    /**
+     * 把依 (stock_id, date) 排序的日線列累積成一支股票的欄式陣列，換股票時寫出
+     */
+    private static final class SeriesExporter implements RowCallbackHandler {
+
+        private final SnapshotFile.Writer writer;
+        private long stockId = -1;
+        private int size;
+        private int[] epochDays = new int[1024];
+        private double[] open = new double[1024];
+        private double[] high = new double[1024];
+        private double[] low = new double[1024];
+        private double[] close = new double[1024];
+        private long[] volume = new long[1024];
+
+        private SeriesExporter(SnapshotFile.Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong(1);
+            if (id != stockId) {
+                flush();
+                stockId = id;
+            }
+            if (size == epochDays.length) {
+                int capacity = size * 2;
+                epochDays = Arrays.copyOf(epochDays, capacity);
+                open = Arrays.copyOf(open, capacity);
+                high = Arrays.copyOf(high, capacity);
+                low = Arrays.copyOf(low, capacity);
+                close = Arrays.copyOf(close, capacity);
+                volume = Arrays.copyOf(volume, capacity);
+            }
+            epochDays[size] = (int) rs.getDate(2).toLocalDate().toEpochDay();
+            open[size] = rs.getDouble(3);
+            high[size] = rs.getDouble(4);
+            low[size] = rs.getDouble(5);
+            close[size] = rs.getDouble(6);
+            volume[size] = rs.getLong(7);
+            size++;
+        }
+
+        private void flush() {
+            if (size > 0) {
+                write(() -> writer.writeSeries(stockId, epochDays, open, high, low, close, volume, size));
+                size = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.stockproject.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * 股票批次儲存庫
+ * 
+ * 以 JDBC 批次更新 stock 資料表，供背景報價更新一次寫入所有變動的價格。
+ * 每個方法只更新自己負責的欄位，背景報價與日線同步不會互相覆蓋。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增背景報價更新
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class StockBatchRepository {
+
+    private static final String UPDATE_PRICE_SQL = "UPDATE stock SET price = ? WHERE id = ?";
+    private static final String UPDATE_LAST_SYNCED_SQL = "UPDATE stock SET last_synced_date = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 以一次 executeBatch 更新多檔股票的價格
+     * 
+     * @param prices 股票識別碼對新價格
+     * @return 更新的筆數
+     */
+    public int updatePrices(Map<Long, Double> prices) {
+        if (prices.isEmpty()) {
+            return 0;
+        }
+        int[] counts = jdbcTemplate.execute(UPDATE_PRICE_SQL, (PreparedStatement ps) -> {
+            for (Map.Entry<Long, Double> entry : prices.entrySet()) {
+                ps.setDouble(1, entry.getValue());
+                ps.setLong(2, entry.getKey());
+                ps.addBatch();
+            }
+            return ps.executeBatch();
+        });
+        int updated = 0;
+        if (counts != null) {
+            for (int count : counts) {
+                updated += Math.max(count, 0);
+            }
+        }
+        log.debug("批次更新 {} 檔股票價格", updated);
+        return updated;
+    }
+
+    /**
+     * 只更新股票的同步水位線，不寫回其他欄位
+     * 
+     * @param stockId        股票識別碼
+     * @param lastSyncedDate 最後同步的交易日
+     * @return 更新的筆數
+     */
+    public int updateLastSyncedDate(long stockId, LocalDate lastSyncedDate) {
+        return jdbcTemplate.update(UPDATE_LAST_SYNCED_SQL, Date.valueOf(lastSyncedDate), stockId);
+    }
+}
@@ -0,0 +1,305 @@
+package com.example.stockproject.repository;
+
+import com.example.stockproject.exporter.PriceRowWriter;
+import com.example.stockproject.importer.PriceRowBatch;
+import com.example.stockproject.model.entity.StockPrice;
+import com.example.stockproject.model.series.PriceSeries;
+import com.example.stockproject.model.series.PriceSeriesBuilder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 股票歷史價格批次儲存庫
+ * 
+ * 以 JDBC 批次插入直接寫入 stock_price 資料表，繞過 Hibernate 的逐筆 persist
+ * 與 SQL 日誌。識別碼從 {@link StockPrice#ID_SEQUENCE} 以區塊方式預先配置，
+ * 與 JPA 寫入共用同一序列，不會產生衝突。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增批次寫入
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class StockPriceBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO stock_price " +
+            "(id, stock_id, date, open_price, close_price, high_price, low_price, volume) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * 依 (stock_id, date) 更新已存在的K線，否則以預先配置的識別碼插入
+     */
+    private static final String UPSERT_SQL = "MERGE INTO stock_price t USING (VALUES " +
+            "(CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS DATE), CAST(? AS DOUBLE PRECISION), " +
+            "CAST(? AS DOUBLE PRECISION), CAST(? AS DOUBLE PRECISION), CAST(? AS DOUBLE PRECISION), " +
+            "CAST(? AS BIGINT))) " +
+            "AS s(id, stock_id, date, open_price, close_price, high_price, low_price, volume) " +
+            "ON t.stock_id = s.stock_id AND t.date = s.date " +
+            "WHEN MATCHED THEN UPDATE SET open_price = s.open_price, close_price = s.close_price, " +
+            "high_price = s.high_price, low_price = s.low_price, volume = s.volume " +
+            "WHEN NOT MATCHED THEN INSERT (id, stock_id, date, open_price, close_price, high_price, low_price, volume) " +
+            "VALUES (s.id, s.stock_id, s.date, s.open_price, s.close_price, s.high_price, s.low_price, s.volume)";
+
+    private static final String EXPORT_SQL = "SELECT date, open_price, high_price, low_price, close_price, volume " +
+            "FROM stock_price WHERE stock_id = ? AND date >= ? AND date <= ? ORDER BY date";
+
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    private static final String BEFORE_SQL = "SELECT id, date, open_price, high_price, low_price, close_price, volume " +
+            "FROM stock_price WHERE stock_id = ? AND date < ? ORDER BY date, id";
+
+    private static final String NEXT_ID_SQL = "SELECT NEXT VALUE FOR " + StockPrice.ID_SEQUENCE;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 以欄式陣列批次插入歷史價格數據
+     * 
+     * 每個區塊最多 {@link StockPrice#ID_ALLOCATION_SIZE} 筆，先向序列配置一段識別碼，
+     * 再以一次 executeBatch 寫入。配置的識別碼會回填到 ids 陣列。
+     * 
+     * @param stockId   股票識別碼
+     * @param ids       識別碼輸出陣列
+     * @param epochDays 交易日期 (epoch-day)
+     * @param open      開盤價
+     * @param high      最高價
+     * @param low       最低價
+     * @param close     收盤價
+     * @param volume    成交量
+     * @param size      筆數
+     * @return 寫入的筆數
+     */
+    public int insertColumns(long stockId, long[] ids, int[] epochDays, double[] open, double[] high,
+            double[] low, double[] close, long[] volume, int size) {
+        int chunk = StockPrice.ID_ALLOCATION_SIZE;
+        for (int from = 0; from < size; from += chunk) {
+            int to = Math.min(size, from + chunk);
+            long firstId = nextIdBlock();
+            for (int i = from; i < to; i++) {
+                ids[i] = firstId + (i - from);
+            }
+            int start = from;
+            int end = to;
+            jdbcTemplate.execute(INSERT_SQL, (PreparedStatement ps) -> {
+                for (int i = start; i < end; i++) {
+                    bind(ps, ids[i], stockId, epochDays[i], open[i], close[i], high[i], low[i], volume[i]);
+                    ps.addBatch();
+                }
+                return ps.executeBatch();
+            });
+        }
+        log.debug("股票 ID: {} 批次寫入 {} 筆歷史價格", stockId, size);
+        return size;
+    }
+
+    /**
+     * 以 (stock_id, date) 為鍵批次寫入或更新歷史價格數據
+     * 
+     * 已存在的日期只更新 OHLCV，保留原本的識別碼；新日期使用預先配置的識別碼插入。
+     * 
+     * @param stockId 股票識別碼
+     * @param bars    K線（識別碼欄位不使用）
+     * @return 寫入或更新的筆數
+     */
+    public int upsert(long stockId, PriceSeries bars) {
+        int size = bars.size();
+        int chunk = StockPrice.ID_ALLOCATION_SIZE;
+        for (int from = 0; from < size; from += chunk) {
+            int start = from;
+            int end = Math.min(size, from + chunk);
+            long firstId = nextIdBlock();
+            jdbcTemplate.execute(UPSERT_SQL, (PreparedStatement ps) -> {
+                for (int i = start; i < end; i++) {
+                    bind(ps, firstId + (i - start), stockId, bars.epochDayAt(i), bars.openAt(i),
+                            bars.closeAt(i), bars.highAt(i), bars.lowAt(i), bars.volumeAt(i));
+                    ps.addBatch();
+                }
+                return ps.executeBatch();
+            });
+        }
+        log.debug("股票 ID: {} 批次寫入或更新 {} 筆歷史價格", stockId, size);
+        return size;
+    }
+
+    /**
+     * 批次插入多支股票的日線列（匯入新日期時使用）
+     * 
+     * @param rows 日線列
+     * @return 寫入的筆數
+     */
+    public int insertRows(PriceRowBatch rows) {
+        return writeRows(INSERT_SQL, rows);
+    }
+
+    /**
+     * 以 (stock_id, date) 為鍵批次寫入或更新多支股票的日線列（匯入既有日期時使用）
+     * 
+     * @param rows 日線列
+     * @return 寫入或更新的筆數
+     */
+    public int upsertRows(PriceRowBatch rows) {
+        return writeRows(UPSERT_SQL, rows);
+    }
+
+    /**
+     * 以單一查詢取得每支股票在資料庫中的最後交易日
+     * 
+     * @return 股票識別碼對最後交易日 (epoch-day)，沒有資料的股票不包含在內
+     */
+    public Map<Long, Integer> findLastEpochDays() {
+        Map<Long, Integer> lastEpochDays = new HashMap<>();
+        jdbcTemplate.query("SELECT stock_id, MAX(date) FROM stock_price GROUP BY stock_id", rs -> {
+            lastEpochDays.put(rs.getLong(1), (int) rs.getDate(2).toLocalDate().toEpochDay());
+        });
+        return lastEpochDays;
+    }
+
+    /**
+     * 以單向唯讀游標依日期遞增讀取一支股票在日期範圍內的K線，逐筆交給寫出器
+     * 
+     * 查詢期間對該連線開啟 H2 的 LAZY_QUERY_EXECUTION，結果一邊讀取一邊產生
+     * （沿 (stock_id, date) 索引掃描），不會先把整個結果集放進記憶體或暫存檔，
+     * 第一筆資料立即可用；查詢結束後恢復連線設定再歸還連線池。
+     * 
+     * @param stockId 股票識別碼
+     * @param from    起始日期（含）
+     * @param to      結束日期（含）
+     * @param writer  寫出器
+     * @return 讀取的筆數
+     * @throws UncheckedIOException 寫出器寫出失敗時拋出
+     */
+    public long exportRange(long stockId, LocalDate from, LocalDate to, PriceRowWriter writer) {
+        Long rows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            setLazyQueryExecution(connection, true);
+            try (PreparedStatement ps = connection.prepareStatement(EXPORT_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                ps.setFetchSize(EXPORT_FETCH_SIZE);
+                ps.setLong(1, stockId);
+                ps.setObject(2, from);
+                ps.setObject(3, to);
+                long count = 0;
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        int epochDay = (int) rs.getObject(1, LocalDate.class).toEpochDay();
+                        writer.row(epochDay, rs.getDouble(2), rs.getDouble(3), rs.getDouble(4),
+                                rs.getDouble(5), rs.getLong(6));
+                        count++;
+                    }
+                }
+                return count;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                setLazyQueryExecution(connection, false);
+            }
+        });
+        return rows == null ? 0 : rows;
+    }
+
+    private static void setLazyQueryExecution(Connection connection, boolean lazy) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET LAZY_QUERY_EXECUTION " + (lazy ? "TRUE" : "FALSE"));
+        }
+    }
+
+    private int writeRows(String sql, PriceRowBatch rows) {
+        int size = rows.size();
+        int chunk = StockPrice.ID_ALLOCATION_SIZE;
+        for (int from = 0; from < size; from += chunk) {
+            int start = from;
+            int end = Math.min(size, from + chunk);
+            long firstId = nextIdBlock();
+            jdbcTemplate.execute(sql, (PreparedStatement ps) -> {
+                for (int i = start; i < end; i++) {
+                    bind(ps, firstId + (i - start), rows.stockId(i), rows.epochDay(i), rows.open(i),
+                            rows.close(i), rows.high(i), rows.low(i), rows.volume(i));
+                    ps.addBatch();
+                }
+                return ps.executeBatch();
+            });
+        }
+        return size;
+    }
+
+    /**
+     * 刪除股票的所有歷史價格數據
+     * 
+     * @param stockId 股票識別碼
+     * @return 刪除的筆數
+     */
+    public int deleteByStockId(long stockId) {
+        return jdbcTemplate.update("DELETE FROM stock_price WHERE stock_id = ?", stockId);
+    }
+
+    /**
+     * 讀取股票早於指定日期的歷史價格數據（歸檔時在刪除的同一交易中呼叫）
+     * 
+     * (stock_id, date) 沒有唯一限制，同一天有多筆記錄時保留識別碼最大（最後寫入）的一筆。
+     * 
+     * @param stockId 股票識別碼
+     * @param symbol  股票代碼
+     * @param before  日期（不含）
+     * @return 依日期遞增的價格序列
+     */
+    public PriceSeries findBefore(long stockId, String symbol, LocalDate before) {
+        PriceSeriesBuilder builder = new PriceSeriesBuilder();
+        jdbcTemplate.query(BEFORE_SQL, rs -> {
+            builder.addOrReplace(rs.getLong(1), (int) rs.getObject(2, LocalDate.class).toEpochDay(), rs.getDouble(3),
+                    rs.getDouble(4), rs.getDouble(5), rs.getDouble(6), rs.getLong(7));
+        }, stockId, Date.valueOf(before));
+        return builder.build(stockId, symbol);
+    }
+
+    /**
+     * 刪除股票早於指定日期的歷史價格數據（歸檔後呼叫）
+     * 
+     * @param stockId 股票識別碼
+     * @param before  日期（不含）
+     * @return 刪除的筆數
+     */
+    public int deleteBefore(long stockId, LocalDate before) {
+        return jdbcTemplate.update("DELETE FROM stock_price WHERE stock_id = ? AND date < ?",
+                stockId, Date.valueOf(before));
+    }
+
+    /**
+     * 向序列配置一段識別碼（pooled-lo：回傳值為區塊起點）
+     * 
+     * @return 區塊的第一個識別碼
+     */
+    private long nextIdBlock() {
+        Long value = jdbcTemplate.queryForObject(NEXT_ID_SQL, Long.class);
+        if (value == null) {
+            throw new IllegalStateException("無法取得 " + StockPrice.ID_SEQUENCE + " 序列值");
+        }
+        return value;
+    }
+
+    private static void bind(PreparedStatement ps, long id, long stockId, int epochDay, double open,
+            double close, double high, double low, long volume) throws SQLException {
+        ps.setLong(1, id);
+        ps.setLong(2, stockId);
+        ps.setDate(3, Date.valueOf(LocalDate.ofEpochDay(epochDay)));
+        ps.setDouble(4, open);
+        ps.setDouble(5, close);
+        ps.setDouble(6, high);
+        ps.setDouble(7, low);
+        ps.setLong(8, volume);
+    }
+}
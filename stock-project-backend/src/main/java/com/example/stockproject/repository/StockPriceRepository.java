@@ -1,13 +1,21 @@
 package com.example.stockproject.repository;
 
+import com.example.stockproject.model.dto.StockPriceDTO;
 import com.example.stockproject.model.entity.StockPrice;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * 股票歷史價格儲存庫介面
@@ -45,6 +53,103 @@ public interface StockPriceRepository extends JpaRepository<StockPrice, Long> {
                         @Param("startDate") LocalDate startDate,
                         @Param("endDate") LocalDate endDate);
 
+        /**
+         * 以純欄位投影查詢股票的全部歷史價格（不建立受管實體）
+         * 
+         * 每列依序為 id、date、openPrice、highPrice、lowPrice、closePrice、volume，
+         * 供欄式價格序列載入使用。
+         * 
+         * @param stockId 股票識別碼
+         * @return 依日期遞增排序的欄位陣列列表
+         */
+        @Query("SELECT sp.id, sp.date, sp.openPrice, sp.highPrice, sp.lowPrice, sp.closePrice, sp.volume " +
+                        "FROM StockPrice sp WHERE sp.stock.id = :stockId ORDER BY sp.date ASC")
+        List<Object[]> findColumnsByStockId(@Param("stockId") Long stockId);
+
+        /**
+         * 以單一查詢取得多支股票的全部歷史價格欄位（不建立受管實體）
+         * 
+         * 每列依序為 stockId、symbol、id、date、openPrice、highPrice、lowPrice、closePrice、volume，
+         * 依股票與日期遞增排序；沒有歷史價格的股票會有一列價格欄位皆為 null。
+         * 
+         * @param stockIds 股票識別碼
+         * @return 欄位陣列列表
+         */
+        @Query("SELECT s.id, s.symbol, sp.id, sp.date, sp.openPrice, sp.highPrice, sp.lowPrice, sp.closePrice, sp.volume " +
+                        "FROM Stock s LEFT JOIN StockPrice sp ON sp.stock = s " +
+                        "WHERE s.id IN :stockIds ORDER BY s.id, sp.date ASC")
+        List<Object[]> findColumnsByStockIds(@Param("stockIds") Collection<Long> stockIds);
+
+        /**
+         * 以游標串流方式查詢指定時間範圍內的歷史價格數據
+         * 
+         * 必須在交易中使用並在使用後關閉串流；呼叫端應在處理完每筆後將實體分離，
+         * 以維持固定的記憶體用量。
+         * 
+         * @param stockId   股票識別碼
+         * @param startDate 開始日期
+         * @param endDate   結束日期
+         * @return 依日期遞增排序的歷史價格串流
+         */
+        @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+        @Query("SELECT sp FROM StockPrice sp WHERE sp.stock.id = :stockId " +
+                        "AND sp.date >= :startDate AND sp.date <= :endDate " +
+                        "ORDER BY sp.date ASC")
+        Stream<StockPrice> streamByStockIdAndDateRange(
+                        @Param("stockId") Long stockId,
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate);
+
+        /**
+         * 以游標串流方式查詢股票的全部歷史價格數據
+         * 
+         * @param stockId 股票識別碼
+         * @return 依日期遞增排序的歷史價格串流
+         */
+        @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+        @Query("SELECT sp FROM StockPrice sp WHERE sp.stock.id = :stockId ORDER BY sp.date ASC")
+        Stream<StockPrice> streamByStockId(@Param("stockId") Long stockId);
+
+        /**
+         * 以鍵集分頁 (keyset) 查詢 (date, id) 游標之後的歷史價格數據
+         * 
+         * 同一股票同一天可能有多筆記錄，因此游標由日期與識別碼組成，依 (date, id) 排序；
+         * 依 (stock_id, date) 索引直接定位起點，不使用 OFFSET，也不建立受管實體。
+         * 
+         * @param stockId 股票識別碼
+         * @param after   游標日期
+         * @param afterId 游標識別碼（不含），同一天識別碼較大的記錄仍會回傳
+         * @param limit   最多回傳筆數
+         * @return 依日期、識別碼遞增排序的歷史價格 DTO 列表
+         */
+        @Query("SELECT new com.example.stockproject.model.dto.StockPriceDTO(" +
+                        "sp.id, sp.stock.id, sp.stock.symbol, sp.date, " +
+                        "sp.openPrice, sp.closePrice, sp.highPrice, sp.lowPrice, sp.volume) " +
+                        "FROM StockPrice sp WHERE sp.stock.id = :stockId AND sp.date >= :after " +
+                        "AND (sp.date > :after OR sp.id > :afterId) " +
+                        "ORDER BY sp.date ASC, sp.id ASC")
+        List<StockPriceDTO> findPageAfter(
+                        @Param("stockId") Long stockId,
+                        @Param("after") LocalDate after,
+                        @Param("afterId") Long afterId,
+                        Limit limit);
+
+        /**
+         * 以鍵集分頁查詢第一頁歷史價格數據
+         * 
+         * @param stockId 股票識別碼
+         * @param limit   最多回傳筆數
+         * @return 依日期、識別碼遞增排序的歷史價格 DTO 列表
+         */
+        @Query("SELECT new com.example.stockproject.model.dto.StockPriceDTO(" +
+                        "sp.id, sp.stock.id, sp.stock.symbol, sp.date, " +
+                        "sp.openPrice, sp.closePrice, sp.highPrice, sp.lowPrice, sp.volume) " +
+                        "FROM StockPrice sp WHERE sp.stock.id = :stockId " +
+                        "ORDER BY sp.date ASC, sp.id ASC")
+        List<StockPriceDTO> findFirstPage(
+                        @Param("stockId") Long stockId,
+                        Limit limit);
+
         /**
          * 根據股票識別碼查詢最近的歷史價格數據
          * 
@@ -68,5 +173,6 @@ public interface StockPriceRepository extends JpaRepository<StockPrice, Long> {
          * 
          * @param stockId 股票識別碼
          */
+        @Transactional
         void deleteByStockId(Long stockId);
 }
\ No newline at end of file
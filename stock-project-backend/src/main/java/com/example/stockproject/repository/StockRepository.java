@@ -2,12 +2,8 @@ package com.example.stockproject.repository;
 
 import com.example.stockproject.model.entity.Stock;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
-
 /**
  * 股票儲存庫介面
  * 
@@ -20,16 +16,6 @@ import java.util.List;
 @Repository
 public interface StockRepository extends JpaRepository<Stock, Long> {
 
-    /**
-     * 根據股票代碼或名稱搜尋股票（不區分大小寫）
-     * 
-     * @param query 搜尋關鍵字
-     * @return 符合條件的股票列表
-     */
-    @Query("SELECT s FROM Stock s WHERE LOWER(s.symbol) LIKE LOWER(CONCAT('%', :query, '%')) " +
-            "OR LOWER(s.name) LIKE LOWER(CONCAT('%', :query, '%'))")
-    List<Stock> findBySymbolOrNameContainingIgnoreCase(@Param("query") String query);
-
     /**
      * 根據股票代碼查詢股票
      * 
@@ -0,0 +1,165 @@
+package com.example.stockproject.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.BatchUpdateException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * 觀察清單批次儲存庫
+ * 
+ * 以單一 SQL 敘述完成觀察清單的新增與移除，不先查詢存在與否：
+ * 重複新增由 NOT EXISTS 條件略過（並發時由 (user_id, stock_id) 唯一約束擋下），
+ * 移除直接以刪除筆數判斷是否存在。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增觀察清單批次操作
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class WatchlistBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO watchlist (user_id, stock_id) "
+            + "SELECT CAST(? AS VARCHAR(50)), CAST(? AS BIGINT) WHERE NOT EXISTS "
+            + "(SELECT 1 FROM watchlist WHERE user_id = ? AND stock_id = ?)";
+
+    private static final String DELETE_SQL = "DELETE FROM watchlist WHERE user_id = ? AND stock_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 新增觀察清單項目
+     * 
+     * @param userId  用戶識別碼
+     * @param stockId 股票識別碼
+     * @return 新項目的識別碼，已存在時為 null
+     * @throws org.springframework.dao.DataIntegrityViolationException 股票不存在或並發重複新增
+     */
+    public Long insert(String userId, long stockId) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        int inserted = jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_SQL, new String[] { "id" });
+            bindInsert(ps, userId, stockId);
+            return ps;
+        }, keyHolder);
+        return inserted > 0 ? keyHolder.getKey().longValue() : null;
+    }
+
+    /**
+     * 以一次 executeBatch 新增多個觀察清單項目
+     * 
+     * 批次中個別項目違反唯一或外鍵約束（並發重複新增、股票剛被刪除）時，
+     * 其餘項目照常寫入，違反約束的項目回報為未新增；驅動程式沒有回報的項目逐筆重試。
+     * 
+     * @param userId   用戶識別碼
+     * @param stockIds 股票識別碼（不可重複）
+     * @return 與 stockIds 對齊的結果，true 表示新增、false 表示已存在或違反約束
+     */
+    public boolean[] insertAll(String userId, List<Long> stockIds) {
+        try {
+            return toFlags(jdbcTemplate.execute(INSERT_SQL, (PreparedStatement ps) -> {
+                for (Long stockId : stockIds) {
+                    bindInsert(ps, userId, stockId);
+                    ps.addBatch();
+                }
+                return ps.executeBatch();
+            }));
+        } catch (DataIntegrityViolationException e) {
+            int[] counts = batchUpdateCounts(e);
+            boolean[] flags = new boolean[stockIds.size()];
+            for (int i = 0; i < flags.length; i++) {
+                if (i < counts.length) {
+                    flags[i] = counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO;
+                } else {
+                    flags[i] = insertIgnoringViolation(userId, stockIds.get(i));
+                }
+            }
+            log.warn("批次新增觀察清單項目時部分違反資料完整性 - 用戶: {}, 數量: {}", userId, stockIds.size());
+            return flags;
+        }
+    }
+
+    private boolean insertIgnoringViolation(String userId, long stockId) {
+        try {
+            return insert(userId, stockId) != null;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 取出批次中各敘述的結果（失敗的為 EXECUTE_FAILED），找不到時為空陣列
+     */
+    private static int[] batchUpdateCounts(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof BatchUpdateException batch && batch.getUpdateCounts() != null) {
+                return batch.getUpdateCounts();
+            }
+        }
+        return new int[0];
+    }
+
+    /**
+     * 移除觀察清單項目
+     * 
+     * @param userId  用戶識別碼
+     * @param stockId 股票識別碼
+     * @return 是否有項目被移除
+     */
+    public boolean delete(String userId, long stockId) {
+        return jdbcTemplate.update(DELETE_SQL, userId, stockId) > 0;
+    }
+
+    /**
+     * 以一次 executeBatch 移除多個觀察清單項目
+     * 
+     * @param userId   用戶識別碼
+     * @param stockIds 股票識別碼
+     * @return 與 stockIds 對齊的結果，true 表示移除、false 表示不存在
+     */
+    public boolean[] deleteAll(String userId, List<Long> stockIds) {
+        return toFlags(jdbcTemplate.execute(DELETE_SQL, (PreparedStatement ps) -> {
+            for (Long stockId : stockIds) {
+                ps.setString(1, userId);
+                ps.setLong(2, stockId);
+                ps.addBatch();
+            }
+            return ps.executeBatch();
+        }));
+    }
+
+    /**
+     * 查詢用戶觀察清單中的股票識別碼
+     * 
+     * @param userId 用戶識別碼
+     * @return 股票識別碼列表
+     */
+    public List<Long> findStockIds(String userId) {
+        return jdbcTemplate.queryForList("SELECT stock_id FROM watchlist WHERE user_id = ?", Long.class, userId);
+    }
+
+    private static void bindInsert(PreparedStatement ps, String userId, long stockId) throws SQLException {
+        ps.setString(1, userId);
+        ps.setLong(2, stockId);
+        ps.setString(3, userId);
+        ps.setLong(4, stockId);
+    }
+
+    private static boolean[] toFlags(int[] counts) {
+        boolean[] flags = new boolean[counts == null ? 0 : counts.length];
+        for (int i = 0; i < flags.length; i++) {
+            flags[i] = counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO;
+        }
+        return flags;
+    }
+}
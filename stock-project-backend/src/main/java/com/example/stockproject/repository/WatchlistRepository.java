@@ -38,21 +38,4 @@ public interface WatchlistRepository extends JpaRepository<Watchlist, Long> {
      * @return 觀察清單項目，如果不存在則返回空
      */
     Optional<Watchlist> findByUserIdAndStockId(String userId, Long stockId);
-
-    /**
-     * 檢查用戶是否已將特定股票加入觀察清單
-     * 
-     * @param userId  用戶識別碼
-     * @param stockId 股票識別碼
-     * @return 如果已存在返回 true，否則返回 false
-     */
-    boolean existsByUserIdAndStockId(String userId, Long stockId);
-
-    /**
-     * 根據用戶識別碼和股票識別碼刪除觀察清單項目
-     * 
-     * @param userId  用戶識別碼
-     * @param stockId 股票識別碼
-     */
-    void deleteByUserIdAndStockId(String userId, Long stockId);
-}
\ No newline at end of file
+}
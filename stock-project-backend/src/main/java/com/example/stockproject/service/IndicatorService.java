@@ -0,0 +1,68 @@
+package com.example.stockproject.service;
+
+import com.example.stockproject.model.dto.IndicatorDTO;
+import com.example.stockproject.model.indicator.IndicatorSeries;
+import com.example.stockproject.model.indicator.IndicatorSpec;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 技術指標服務類別
+ * 
+ * 在欄式價格序列上計算 SMA、EMA、RSI、MACD、布林通道與 ATR。
+ * 計算結果以 (股票, 指標, 參數) 為鍵快取在 {@link PriceSeriesStore} 中，
+ * 序列追加新K線時只延續計算新增的部分。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增技術指標
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IndicatorService {
+
+    private final PriceSeriesStore priceSeriesStore;
+
+    /**
+     * 取得技術指標
+     * 
+     * 指標一律在完整歷史（包含歸檔的舊K線）上計算，再截取指定日期之後的部分，
+     * 因此時間範圍不會影響暖機結果。
+     * 
+     * @param stockId   股票識別碼
+     * @param spec      指標規格
+     * @param startDate 開始日期，null 表示全部
+     * @return 指標 DTO
+     */
+    public IndicatorDTO getIndicator(Long stockId, IndicatorSpec spec, LocalDate startDate) {
+        log.info("計算股票 ID: {} 的技術指標 {}，開始日期: {}", stockId, spec, startDate);
+
+        IndicatorSeries indicator = priceSeriesStore.getDerived(
+                stockId, spec, series -> IndicatorSeries.compute(spec, series));
+
+        // 歷史短於暖機期（含沒有資料的股票）時回傳空結果
+        int to = indicator.size();
+        int from = Math.min(to, Math.max(indicator.warmup(),
+                startDate == null ? 0 : indicator.lowerBound(startDate.toEpochDay())));
+
+        List<LocalDate> dates = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            dates.add(LocalDate.ofEpochDay(indicator.epochDayAt(i)));
+        }
+        String[] outputs = spec.getType().getOutputs();
+        Map<String, double[]> values = new LinkedHashMap<>();
+        for (int k = 0; k < outputs.length; k++) {
+            values.put(outputs[k], indicator.values(k, from, to));
+        }
+
+        return new IndicatorDTO(stockId, indicator.getSymbol(), spec.getType().name(),
+                spec.getParams(), dates, values);
+    }
+}
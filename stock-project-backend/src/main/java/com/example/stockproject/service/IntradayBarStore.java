@@ -0,0 +1,248 @@
+package com.example.stockproject.service;
+
+import com.example.stockproject.model.dto.StockDTO;
+import com.example.stockproject.model.series.BarInterval;
+import com.example.stockproject.model.series.IntradaySeries;
+import com.example.stockproject.model.series.IntradaySeriesBuilder;
+import com.example.stockproject.model.series.PriceSeriesResampler;
+import com.example.stockproject.repository.IntradayBarRepository;
+import com.example.stockproject.tick.MinuteBarBatch;
+import com.example.stockproject.tick.MinuteBarSink;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 分K線儲存
+ * 
+ * 持久化只保存一分鐘K線（intraday_bar，bar_interval = 60），
+ * 記憶體中以股票識別碼為鍵保存保留期間內的一分鐘 {@link IntradaySeries}，
+ * 較長的週期在第一次查詢時由已快取的最長可整除週期彙總（例如 1h 由 30m 或 15m），
+ * 並快取到下一次追加新K線為止。
+ * 作為 {@link MinuteBarSink} 接收逐筆成交聚合出的一分鐘K線：先批次寫入資料庫，
+ * 再追加到已載入的序列尾端，超出保留期間的前段同時切除。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增分K線
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IntradayBarStore implements MinuteBarSink {
+
+    private final IntradayBarRepository intradayBarRepository;
+    private final StockCatalog stockCatalog;
+
+    private final Map<Long, Entry> entriesByStockId = new ConcurrentHashMap<>();
+
+    /**
+     * 記憶體中保留的分K線期間，更早的查詢直接讀資料庫
+     */
+    @Value("${stock.intraday.retention:7d}")
+    private Duration retention;
+
+    /**
+     * 應用程式就緒後以單一查詢載入所有股票保留期間內的一分鐘K線
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        List<Long> stockIds = stockCatalog.current().getStocks().stream()
+                .map(StockDTO::getId)
+                .toList();
+        long start = System.nanoTime();
+        getAll(stockIds, BarInterval.ONE_MINUTE, Instant.now());
+        log.info("預先載入 {} 支股票的一分鐘K線，耗時 {} ms", stockIds.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * 取得股票在 [from, to) 期間的分K線
+     * 
+     * 起始時間向下對齊到K線週期，包含 from 所在的那一根K線。
+     * 
+     * @param stockId  股票識別碼
+     * @param interval K線週期
+     * @param from     起始時間（含）
+     * @param to       結束時間（不含）
+     * @return 分K線序列，股票不存在或沒有數據時為空序列
+     */
+    public IntradaySeries get(Long stockId, BarInterval interval, Instant from, Instant to) {
+        long fromSecond = interval.bucketStart(from.getEpochSecond());
+        long toSecond = to.getEpochSecond();
+        Entry entry = entry(stockId);
+        if (fromSecond < entry.loadedFrom) {
+            return loadUncached(stockId, interval, fromSecond).slice(fromSecond, toSecond);
+        }
+        return entry.series(interval).slice(fromSecond, toSecond);
+    }
+
+    /**
+     * 一次取得多支股票自指定時間起的分K線
+     * 
+     * 已快取的直接回傳，其餘以單一查詢載入後放入快取。
+     * 
+     * @param stockIds 股票識別碼
+     * @param interval K線週期
+     * @param from     起始時間（含，向下對齊到K線週期，需在保留期間內）
+     * @return 股票識別碼對分K線序列（依輸入順序）
+     */
+    public Map<Long, IntradaySeries> getAll(Collection<Long> stockIds, BarInterval interval, Instant from) {
+        long fromSecond = interval.bucketStart(from.getEpochSecond());
+        List<Long> missing = new ArrayList<>();
+        for (Long stockId : stockIds) {
+            if (!entriesByStockId.containsKey(stockId)) {
+                missing.add(stockId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            long loadedFrom = retentionStart();
+            Map<Long, IntradaySeriesBuilder> loaded = intradayBarRepository.load(
+                    missing, BarInterval.ONE_MINUTE, loadedFrom);
+            for (Long stockId : missing) {
+                IntradaySeriesBuilder builder = loaded.get(stockId);
+                IntradaySeries series = builder == null
+                        ? IntradaySeries.empty(stockId, symbolOf(stockId), BarInterval.ONE_MINUTE)
+                        : builder.build(stockId, symbolOf(stockId), BarInterval.ONE_MINUTE);
+                entriesByStockId.putIfAbsent(stockId, new Entry(series, loadedFrom));
+            }
+            log.debug("批次載入 {} 支股票的一分鐘K線", missing.size());
+        }
+
+        Map<Long, IntradaySeries> result = new LinkedHashMap<>();
+        for (Long stockId : stockIds) {
+            IntradaySeries series = entry(stockId).series(interval);
+            result.put(stockId, series.slice(series.lowerBound(fromSecond), series.size()));
+        }
+        return result;
+    }
+
+    /**
+     * 接收逐筆成交聚合出的一分鐘K線
+     * 
+     * @param bars K線批次（呼叫返回後會被重用）
+     */
+    @Override
+    public void accept(MinuteBarBatch bars) {
+        intradayBarRepository.upsertMinuteBars(bars);
+
+        Map<Long, IntradaySeriesBuilder> appended = new HashMap<>();
+        for (int i = 0; i < bars.size(); i++) {
+            long stockId = bars.stockId(i);
+            if (entriesByStockId.containsKey(stockId)) {
+                appended.computeIfAbsent(stockId, id -> new IntradaySeriesBuilder(16))
+                        .add(bars.startMillis(i) / 1000, bars.open(i), bars.high(i), bars.low(i),
+                                bars.close(i), bars.volume(i));
+            }
+        }
+        long cutoff = retentionStart();
+        appended.forEach((stockId, builder) -> entriesByStockId.computeIfPresent(stockId,
+                (id, entry) -> entry.append(builder.build(id, entry.base.getSymbol(), BarInterval.ONE_MINUTE),
+                        cutoff)));
+    }
+
+    /**
+     * 使指定股票的快取失效（於刪除分K線後呼叫）
+     * 
+     * @param stockId 股票識別碼
+     */
+    public void invalidate(Long stockId) {
+        entriesByStockId.remove(stockId);
+    }
+
+    private Entry entry(Long stockId) {
+        Entry entry = entriesByStockId.get(stockId);
+        if (entry != null) {
+            return entry;
+        }
+        return entriesByStockId.computeIfAbsent(stockId, id -> {
+            long loadedFrom = retentionStart();
+            return new Entry(loadUncached(id, BarInterval.ONE_MINUTE, loadedFrom), loadedFrom);
+        });
+    }
+
+    private IntradaySeries loadUncached(Long stockId, BarInterval interval, long fromSecond) {
+        IntradaySeriesBuilder builder = intradayBarRepository
+                .load(List.of(stockId), BarInterval.ONE_MINUTE, fromSecond)
+                .get(stockId);
+        IntradaySeries series = builder == null
+                ? IntradaySeries.empty(stockId, symbolOf(stockId), BarInterval.ONE_MINUTE)
+                : builder.build(stockId, symbolOf(stockId), BarInterval.ONE_MINUTE);
+        return PriceSeriesResampler.aggregate(series, interval);
+    }
+
+    private long retentionStart() {
+        return BarInterval.ONE_MINUTE.bucketStart(Instant.now().minus(retention).getEpochSecond());
+    }
+
+    private String symbolOf(Long stockId) {
+        StockDTO stock = stockCatalog.current().getById(stockId);
+        return stock == null ? null : stock.getSymbol();
+    }
+
+    /**
+     * 快取項目：保留期間內的一分鐘K線與彙總出的較長週期
+     */
+    private static final class Entry {
+
+        private final IntradaySeries base;
+        private final long loadedFrom;
+        private final Map<BarInterval, IntradaySeries> derived = new ConcurrentHashMap<>();
+
+        private Entry(IntradaySeries base, long loadedFrom) {
+            this.base = base;
+            this.loadedFrom = loadedFrom;
+        }
+
+        private IntradaySeries series(BarInterval interval) {
+            if (interval == BarInterval.ONE_MINUTE) {
+                return base;
+            }
+            IntradaySeries cached = derived.get(interval);
+            if (cached != null) {
+                return cached;
+            }
+            // 由已快取、可整除目標週期的最長週期彙總
+            IntradaySeries source = base;
+            for (BarInterval candidate : BarInterval.values()) {
+                IntradaySeries finer = derived.get(candidate);
+                if (finer != null && candidate.getSeconds() < interval.getSeconds()
+                        && interval.isMultipleOf(candidate)) {
+                    source = finer;
+                }
+            }
+            IntradaySeries aggregated = PriceSeriesResampler.aggregate(source, interval);
+            IntradaySeries raced = derived.putIfAbsent(interval, aggregated);
+            return raced != null ? raced : aggregated;
+        }
+
+        /**
+         * 產生追加K線並切除保留期間以前數據的新項目（較長週期的快取丟棄）
+         */
+        private Entry append(IntradaySeries bars, long cutoff) {
+            // 載入與寫入同時發生時，新K線可能已在載入的序列中
+            IntradaySeries fresh = bars.slice(bars.lowerBound(base.lastTimestamp() + 1), bars.size());
+            if (fresh.isEmpty()) {
+                return this;
+            }
+            IntradaySeries next = base.append(fresh);
+            long from = loadedFrom;
+            if (cutoff > loadedFrom) {
+                next = next.slice(next.lowerBound(cutoff), next.size());
+                from = cutoff;
+            }
+            return new Entry(next, from);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.stockproject.service;
+
+import com.example.stockproject.model.dto.SyncResultDTO;
+import com.example.stockproject.model.entity.Stock;
+import com.example.stockproject.model.series.DailyBars;
+import com.example.stockproject.model.series.PriceSeries;
+import com.example.stockproject.repository.StockBatchRepository;
+import com.example.stockproject.repository.StockPriceBatchRepository;
+import com.example.stockproject.repository.StockRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 外部市場數據增量同步服務
+ * 
+ * 將 Yahoo Finance 的日線數據寫入 stock_price，之後的歷史價格查詢直接由本地數據提供。
+ * 每支股票以 {@link Stock#getLastSyncedDate()} 作為水位線：
+ * <ul>
+ * <li>首次同步取得完整初始範圍（預設 5 年）</li>
+ * <li>之後只請求水位線當天（可能是盤中的未完成K線）到現在的數據</li>
+ * </ul>
+ * 已存在的日期以 upsert 更新，水位線之後的新日期直接批次插入並追加到記憶體序列。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增外部數據增量同步
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MarketDataSyncService {
+
+    private final StockRepository stockRepository;
+    private final StockPriceService stockPriceService;
+    private final StockPriceBatchRepository stockPriceBatchRepository;
+    private final StockBatchRepository stockBatchRepository;
+    private final PriceSeriesStore priceSeriesStore;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 同一支股票同時只允許一個同步進行
+     */
+    private final Map<Long, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+    /**
+     * 首次同步的時間範圍
+     */
+    @Value("${stock.market-data.sync.initial-range:5y}")
+    private String initialRange;
+
+    /**
+     * 從 Yahoo Finance 增量同步股票的日線數據
+     * 
+     * @param stockId 股票識別碼
+     * @return 同步結果
+     * @throws IllegalArgumentException 股票不存在
+     * @throws com.example.stockproject.client.MarketDataException 外部來源呼叫失敗
+     */
+    public SyncResultDTO syncFromYahoo(Long stockId) {
+        ReentrantLock lock = locks.computeIfAbsent(stockId, id -> new ReentrantLock());
+        lock.lock();
+        try {
+            return doSync(stockId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private SyncResultDTO doSync(Long stockId) {
+        long started = System.nanoTime();
+        Stock stock = stockRepository.findById(stockId)
+                .orElseThrow(() -> new IllegalArgumentException("股票不存在: " + stockId));
+
+        LocalDate watermark = stock.getLastSyncedDate();
+        Map<String, Object> range = new LinkedHashMap<>();
+        if (watermark == null) {
+            range.put("range", initialRange);
+        } else {
+            range.put("period1", watermark.atStartOfDay(ZoneOffset.UTC).toEpochSecond());
+            range.put("period2", Instant.now().getEpochSecond());
+        }
+        log.info("同步股票 {} 的日線數據，水位線: {}", stock.getSymbol(), watermark);
+
+        PriceSeries fetched = stockPriceService.fetchYahooSeries(stockId, stock.getSymbol(), range);
+        if (watermark != null) {
+            // 來源可能回傳水位線之前的數據（時區邊界），只保留水位線當天之後
+            fetched = fetched.slice(watermark, null);
+        }
+        if (fetched.isEmpty()) {
+            long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+            return new SyncResultDTO(stockId, stock.getSymbol(), watermark, watermark, 0, 0, elapsedMs);
+        }
+
+        // 本地最後一筆之後的K線直接插入；其餘（含水位線當天）以 upsert 更新
+        DailyBars local = priceSeriesStore.get(stockId);
+        int split = local.isEmpty() ? 0 : fetched.upperBound(local.epochDayAt(local.size() - 1));
+        PriceSeries overlap = fetched.slice(0, split);
+        PriceSeries fresh = fetched.slice(split, fetched.size());
+        LocalDate lastSyncedDate = LocalDate.ofEpochDay(fetched.epochDayAt(fetched.size() - 1));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!overlap.isEmpty()) {
+                stockPriceBatchRepository.upsert(stockId, overlap);
+                priceSeriesStore.invalidate(stockId);
+            }
+            if (!fresh.isEmpty()) {
+                PriceSeries inserted = insert(stockId, fresh);
+                if (overlap.isEmpty()) {
+                    priceSeriesStore.append(stockId, inserted);
+                }
+            }
+            // 只寫入水位線，避免以讀取時的舊價格覆蓋背景報價更新
+            stockBatchRepository.updateLastSyncedDate(stockId, lastSyncedDate);
+        });
+
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        log.info("股票 {} 同步完成：新增 {} 筆、upsert {} 筆，水位線 {} -> {}，耗時 {} ms",
+                stock.getSymbol(), fresh.size(), overlap.size(), watermark, lastSyncedDate, elapsedMs);
+        return new SyncResultDTO(stockId, stock.getSymbol(), watermark, lastSyncedDate,
+                fresh.size(), overlap.size(), elapsedMs);
+    }
+
+    /**
+     * 批次插入新K線，回傳帶有資料庫識別碼的序列
+     */
+    private PriceSeries insert(Long stockId, PriceSeries bars) {
+        int size = bars.size();
+        long[] ids = new long[size];
+        int[] epochDays = new int[size];
+        double[] open = new double[size];
+        double[] high = new double[size];
+        double[] low = new double[size];
+        double[] close = new double[size];
+        long[] volume = new long[size];
+        for (int i = 0; i < size; i++) {
+            epochDays[i] = bars.epochDayAt(i);
+            open[i] = bars.openAt(i);
+            high[i] = bars.highAt(i);
+            low[i] = bars.lowAt(i);
+            close[i] = bars.closeAt(i);
+            volume[i] = bars.volumeAt(i);
+        }
+        stockPriceBatchRepository.insertColumns(stockId, ids, epochDays, open, high, low, close, volume, size);
+        return new PriceSeries(stockId, bars.getSymbol(), ids, epochDays, open, high, low, close, volume, size);
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.stockproject.service;
+
+import com.example.stockproject.archive.PriceArchiveFile;
+import com.example.stockproject.model.dto.ArchiveResultDTO;
+import com.example.stockproject.model.dto.StockDTO;
+import com.example.stockproject.model.series.PriceSeries;
+import com.example.stockproject.repository.PriceArchiveRepository;
+import com.example.stockproject.repository.StockPriceBatchRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Period;
+
+/**
+ * 歷史價格歸檔服務
+ * 
+ * 定期把早於歸檔期限（預設 2 年前）的日線從 stock_price 移到每支股票的歸檔檔案：
+ * 每支股票在一個交易中從資料庫讀出舊K線並追加到檔案（已歸檔的日期略過），
+ * 再刪除檔案已涵蓋的日期並使快取失效。
+ * 單一股票失敗時記錄錯誤並繼續處理其他股票；重新執行即可，不會重複寫入。之後的查詢由 {@link PriceSeriesStore}
+ * 從對映的檔案讀出舊K線。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增歷史價格歸檔
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PriceArchiveService {
+
+    private final StockCatalog stockCatalog;
+    private final PriceSeriesStore priceSeriesStore;
+    private final PriceArchiveRepository priceArchiveRepository;
+    private final StockPriceBatchRepository stockPriceBatchRepository;
+    private final TaskScheduler taskScheduler;
+    private final TransactionTemplate transactionTemplate;
+    private final PriceHistoryLock priceHistoryLock;
+
+    @Value("${stock.archive.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 早於現在減去此期間的K線會被歸檔
+     */
+    @Value("${stock.archive.cutoff:2y}")
+    private Period cutoff;
+
+    @Value("${stock.archive.initial-delay:5m}")
+    private Duration initialDelay;
+
+    @Value("${stock.archive.interval:1d}")
+    private Duration interval;
+
+    /**
+     * 應用程式就緒後開始定期歸檔
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        log.info("啟用歷史價格歸檔，目錄: {}，期限: {}，間隔: {}",
+                priceArchiveRepository.getDirectory().toAbsolutePath(), cutoff, interval);
+        taskScheduler.scheduleAtFixedRate(this::scheduledArchive, Instant.now().plus(initialDelay), interval);
+    }
+
+    /**
+     * 把所有股票早於歸檔期限的K線移到歸檔檔案
+     * 
+     * 持有 {@link PriceHistoryLock}，不會與 CSV 匯入同時執行。
+     * 
+     * @return 歸檔結果
+     */
+    public ArchiveResultDTO archive() {
+        priceHistoryLock.lock();
+        try {
+            return archiveLocked();
+        } finally {
+            priceHistoryLock.unlock();
+        }
+    }
+
+    private ArchiveResultDTO archiveLocked() {
+        long start = System.nanoTime();
+        LocalDate cutoffDate = LocalDate.now().minus(cutoff);
+        int stocks = 0;
+        long archived = 0;
+        long deleted = 0;
+        for (StockDTO stock : stockCatalog.current().getStocks()) {
+            int[] moved;
+            try {
+                moved = transactionTemplate.execute(status -> archiveStock(stock, cutoffDate));
+            } catch (RuntimeException e) {
+                log.error("歸檔股票 {} 失敗，略過", stock.getSymbol(), e);
+                continue;
+            }
+            if (moved == null) {
+                continue;
+            }
+            archived += moved[0];
+            deleted += moved[1];
+            stocks++;
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("歸檔完成：{} 支股票，追加 {} 筆、刪除 {} 筆早於 {} 的K線，耗時 {} ms",
+                stocks, archived, deleted, cutoffDate, elapsedMs);
+        return new ArchiveResultDTO(cutoffDate, stocks, archived, deleted, elapsedMs);
+    }
+
+    /**
+     * 在一個交易中歸檔一支股票：從資料庫讀出早於期限的K線（不使用可能過期的快取）追加到檔案，
+     * 再只刪除歸檔檔案已涵蓋的日期（早於 {@link PriceArchiveFile#databaseFrom()}）
+     * 
+     * @return {追加筆數, 刪除筆數}，沒有需要歸檔的K線時為 null
+     */
+    private int[] archiveStock(StockDTO stock, LocalDate cutoffDate) {
+        PriceSeries old = stockPriceBatchRepository.findBefore(stock.getId(), stock.getSymbol(), cutoffDate);
+        if (old.isEmpty()) {
+            return null;
+        }
+        int appended = priceArchiveRepository.append(stock.getId(), stock.getSymbol(), old);
+        PriceArchiveFile archive = priceArchiveRepository.find(stock.getId(), stock.getSymbol());
+        int removed = stockPriceBatchRepository.deleteBefore(stock.getId(),
+                LocalDate.ofEpochDay(archive.databaseFrom()));
+        priceSeriesStore.invalidate(stock.getId());
+        return new int[] { appended, removed };
+    }
+
+    private void scheduledArchive() {
+        try {
+            archive();
+        } catch (RuntimeException e) {
+            log.error("歷史價格歸檔失敗", e);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.stockproject.service;
+
+import com.example.stockproject.archive.PriceArchiveFile;
+import com.example.stockproject.exporter.BinaryPriceWriter;
+import com.example.stockproject.exporter.CsvPriceWriter;
+import com.example.stockproject.exporter.ExportFormat;
+import com.example.stockproject.exporter.PriceRowWriter;
+import com.example.stockproject.model.dto.StockDTO;
+import com.example.stockproject.repository.PriceArchiveRepository;
+import com.example.stockproject.repository.StockPriceBatchRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 歷史價格批次匯出服務
+ * 
+ * 依股票識別碼順序逐支輸出：先從對映的歸檔檔案輸出舊K線，再以
+ * {@link StockPriceBatchRepository#exportRange} 的單向延遲游標讀取資料庫，
+ * 每筆直接寫進 CSV 或二進位寫出器的緩衝，因此不論匯出多少筆，記憶體用量都是固定的。
+ * 輸出每支股票期間持有 {@link PriceHistoryLock} 的共用鎖，歸檔不會在讀取歸檔檔案與
+ * 讀取資料庫之間移動該股票的K線。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增批次匯出
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PriceExportService {
+
+    /**
+     * 未指定日期範圍時的下限與上限
+     */
+    private static final LocalDate MIN_DATE = LocalDate.of(1, 1, 1);
+    private static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+
+    private final StockCatalog stockCatalog;
+    private final StockPriceBatchRepository stockPriceBatchRepository;
+    private final PriceArchiveRepository priceArchiveRepository;
+    private final PriceHistoryLock priceHistoryLock;
+
+    @Value("${stock.export.buffer-size:64KB}")
+    private DataSize bufferSize;
+
+    /**
+     * gzip 壓縮等級（1 最快，9 最小）
+     */
+    @Value("${stock.export.gzip-level:1}")
+    private int gzipLevel;
+
+    /**
+     * 解析要匯出的股票
+     * 
+     * @param symbols 股票代碼（不分大小寫），null 或空白表示全部股票
+     * @return 依識別碼排序的股票
+     * @throws IllegalArgumentException 有未知的股票代碼
+     */
+    public List<StockDTO> resolveStocks(List<String> symbols) {
+        StockCatalog.Snapshot catalog = stockCatalog.current();
+        List<StockDTO> stocks = new ArrayList<>();
+        if (symbols == null || symbols.stream().allMatch(String::isBlank)) {
+            stocks.addAll(catalog.getStocks());
+        } else {
+            for (String symbol : symbols) {
+                if (symbol.isBlank()) {
+                    continue;
+                }
+                StockDTO stock = catalog.getBySymbol(symbol.trim().toUpperCase(Locale.ROOT));
+                if (stock == null) {
+                    throw new IllegalArgumentException("未知的股票代碼: " + symbol.trim());
+                }
+                if (!stocks.contains(stock)) {
+                    stocks.add(stock);
+                }
+            }
+        }
+        stocks.sort(Comparator.comparing(StockDTO::getId));
+        return stocks;
+    }
+
+    /**
+     * 把股票在日期範圍內的歷史價格寫到輸出串流
+     * 
+     * @param stocks 股票（見 {@link #resolveStocks}）
+     * @param from   起始日期（含），null 表示不限
+     * @param to     結束日期（含），null 表示不限
+     * @param format 匯出格式
+     * @param gzip   是否以 gzip 壓縮
+     * @param out    輸出串流（不會被關閉）
+     * @return 匯出的筆數
+     * @throws IOException 寫出失敗（例如用戶端中斷連線）時拋出
+     */
+    public long export(List<StockDTO> stocks, LocalDate from, LocalDate to, ExportFormat format, boolean gzip,
+            OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        LocalDate first = from == null ? MIN_DATE : from;
+        LocalDate last = to == null ? MAX_DATE : to;
+        int size = (int) bufferSize.toBytes();
+
+        GZIPOutputStream compressed = gzip ? new LeveledGzipOutputStream(out, size, gzipLevel) : null;
+        OutputStream target = compressed != null ? compressed : out;
+        PriceRowWriter writer = format == ExportFormat.CSV
+                ? new CsvPriceWriter(target, size)
+                : new BinaryPriceWriter(new BufferedOutputStream(target, size));
+
+        long rows = 0;
+        try {
+            for (StockDTO stock : stocks) {
+                writer.beginStock(stock.getId(), stock.getSymbol());
+                priceHistoryLock.lockShared();
+                try {
+                    rows += exportStock(stock, first, last, writer);
+                } finally {
+                    priceHistoryLock.unlockShared();
+                }
+                writer.endStock();
+            }
+            writer.finish();
+            if (compressed != null) {
+                compressed.finish();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        log.info("匯出完成：{} 筆，{} 支股票，格式 {}{}，耗時 {} ms（{} 筆/秒）", rows, stocks.size(),
+                format, gzip ? "（gzip）" : "", elapsedMs, rows * 1000 / elapsedMs);
+        return rows;
+    }
+
+    private long exportStock(StockDTO stock, LocalDate first, LocalDate last, PriceRowWriter writer)
+            throws IOException {
+        long rows = 0;
+        long lastDay = last.toEpochDay();
+        LocalDate databaseFrom = first;
+        PriceArchiveFile archive = priceArchiveRepository.find(stock.getId(), stock.getSymbol());
+        if (archive != null && !archive.isEmpty()) {
+            for (int i = archive.lowerBound(first.toEpochDay()); i < archive.size()
+                    && archive.epochDayAt(i) <= lastDay; i++) {
+                writer.row(archive.epochDayAt(i), archive.openAt(i), archive.highAt(i), archive.lowAt(i),
+                        archive.closeAt(i), archive.volumeAt(i));
+                rows++;
+            }
+            // 歸檔範圍內的日期只從歸檔檔案輸出
+            LocalDate afterArchive = LocalDate.ofEpochDay(archive.databaseFrom());
+            if (afterArchive.isAfter(databaseFrom)) {
+                databaseFrom = afterArchive;
+            }
+        }
+        if (!databaseFrom.isAfter(last)) {
+            rows += stockPriceBatchRepository.exportRange(stock.getId(), databaseFrom, last, writer);
+        }
+        return rows;
+    }
+
+    /**
+     * 可指定壓縮等級的 gzip 串流（預設等級壓縮速度遠低於資料庫讀取速度）
+     */
+    private static final class LeveledGzipOutputStream extends GZIPOutputStream {
+
+        private LeveledGzipOutputStream(OutputStream out, int size, int level) throws IOException {
+            super(out, size);
+            def.setLevel(level);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.stockproject.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 舊日期歷史價格的批次寫入鎖
+ * 
+ * CSV 匯入（{@link PriceImportService}）、批次模擬數據（{@link StockPriceService}）與歸檔
+ * （{@link PriceArchiveService}）都會改寫 stock_price 中早於歸檔期限的日期。同時執行時，
+ * 歸檔可能刪除剛提交、尚未追加到歸檔檔案的列，因此共用這把鎖依序執行（寫入鎖）。
+ * 先讀歸檔檔案、再讀資料庫的讀取端（{@link PriceExportService}）持有共用鎖，
+ * 避免歸檔在兩次讀取之間移動K線而兩邊都讀不到。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增歷史價格歸檔
+ */
+@Component
+public class PriceHistoryLock {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 取得寫入鎖，必要時等待目前的匯入、歸檔或讀取完成
+     */
+    public void lock() {
+        lock.writeLock().lock();
+    }
+
+    /**
+     * 釋放寫入鎖
+     */
+    public void unlock() {
+        lock.writeLock().unlock();
+    }
+
+    /**
+     * 取得共用鎖（讀取歸檔與資料庫期間持有），可與其他讀取端同時持有
+     */
+    public void lockShared() {
+        lock.readLock().lock();
+    }
+
+    /**
+     * 釋放共用鎖
+     */
+    public void unlockShared() {
+        lock.readLock().unlock();
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.stockproject.service;
+
+import com.example.stockproject.archive.PriceArchiveFile;
+import com.example.stockproject.importer.CsvBlockReader;
+import com.example.stockproject.importer.ImportRejects;
+import com.example.stockproject.importer.ImportedDays;
+import com.example.stockproject.importer.PriceCsvParser;
+import com.example.stockproject.importer.PriceRowBatch;
+import com.example.stockproject.importer.StockSymbolTable;
+import com.example.stockproject.model.dto.ImportResultDTO;
+import com.example.stockproject.model.dto.StockDTO;
+import com.example.stockproject.repository.PriceArchiveRepository;
+import com.example.stockproject.repository.StockPriceBatchRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 歷史價格 CSV 批次匯入服務
+ * 
+ * 呼叫端執行緒以 {@link CsvBlockReader} 把輸入（可為 gzip）切成以完整行結尾的區塊，
+ * 工作執行緒各自以 {@link PriceCsvParser} 解析區塊並在一個交易中批次寫入：
+ * 日期晚於該股票在資料庫中最後交易日的列直接插入，其餘以 upsert 寫入，
+ * 因此重複匯入同一份檔案不會產生重複的K線。同一份檔案中重複的 (代碼, 日期)
+ * 只有第一次出現的列在區塊中寫入，其餘等所有區塊寫入後以最後出現的一行 upsert
+ * （{@link ImportedDays}），不會因平行寫入而插入兩次。
+ * 已歸檔的日期（早於 {@link PriceArchiveFile#databaseFrom()}）以被拒絕的行回報，不計入匯入筆數。
+ * 代碼以匯入開始時的股票清單解析，格式不正確的行只計數並保留範例，不中斷匯入；
+ * 資料庫寫入失敗則停止讀取並拋出例外（已寫入的區塊不回滾）。
+ * 匯入與歸檔共用 {@link PriceHistoryLock}，同一時間只執行一個匯入，也不會與歸檔同時執行。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增 CSV 批次匯入
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PriceImportService {
+
+    private final StockCatalog stockCatalog;
+    private final StockPriceBatchRepository stockPriceBatchRepository;
+    private final PriceSeriesStore priceSeriesStore;
+    private final TransactionTemplate transactionTemplate;
+    private final PriceHistoryLock priceHistoryLock;
+    private final PriceArchiveRepository priceArchiveRepository;
+
+    /**
+     * 解析與寫入的執行緒數（0 表示可用處理器數）
+     */
+    @Value("${stock.import.threads:0}")
+    private int threads;
+
+    @Value("${stock.import.block-size:4MB}")
+    private DataSize blockSize;
+
+    @Value("${stock.import.max-reject-samples:100}")
+    private int maxRejectSamples;
+
+    /**
+     * 匯入 CSV 檔案
+     * 
+     * @param path 檔案路徑（.gz 或任何以 gzip 標記開頭的檔案會自動解壓縮）
+     * @return 匯入結果
+     * @throws IOException 讀取失敗時拋出
+     */
+    public ImportResultDTO importFile(Path path) throws IOException {
+        log.info("匯入歷史價格 CSV 檔案: {}", path.toAbsolutePath());
+        try (InputStream in = Files.newInputStream(path)) {
+            return importCsv(in);
+        }
+    }
+
+    /**
+     * 匯入 CSV 串流（每行 symbol,date,open,high,low,close,volume）
+     * 
+     * @param input 輸入（可為 gzip）
+     * @return 匯入結果
+     * @throws IOException 讀取失敗時拋出
+     */
+    public ImportResultDTO importCsv(InputStream input) throws IOException {
+        priceHistoryLock.lock();
+        try {
+            return importLocked(input);
+        } finally {
+            priceHistoryLock.unlock();
+        }
+    }
+
+    private ImportResultDTO importLocked(InputStream input) throws IOException {
+        long start = System.nanoTime();
+        int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        List<StockDTO> stocks = stockCatalog.current().getStocks();
+        StockSymbolTable symbols = new StockSymbolTable(stockIdsBySymbol(stocks),
+                stockPriceBatchRepository.findLastEpochDays(), databaseFrom(stocks));
+        ImportedDays importedDays = new ImportedDays();
+        ImportRejects rejects = new ImportRejects(maxRejectSamples);
+        CsvBlockReader reader = new CsvBlockReader(CsvBlockReader.decompressIfGzip(input),
+                (int) blockSize.toBytes(), workers * 2);
+
+        LongAdder inserted = new LongAdder();
+        LongAdder upserted = new LongAdder();
+        Set<Long> touched = ConcurrentHashMap.newKeySet();
+        Map<Integer, PriceRowBatch> duplicates = new ConcurrentSkipListMap<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        ThreadLocal<Worker> localWorker = ThreadLocal.withInitial(
+                () -> new Worker(symbols, importedDays, rejects, duplicates));
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(workers,
+                r -> new Thread(r, "price-import-" + threadCount.incrementAndGet()));
+        List<Future<?>> pending = new ArrayList<>();
+        try {
+            CsvBlockReader.Block block;
+            while (failure.get() == null && (block = reader.next()) != null) {
+                CsvBlockReader.Block current = block;
+                pending.add(pool.submit(() -> {
+                    try {
+                        localWorker.get().write(current, inserted, upserted, touched);
+                    } catch (RuntimeException | Error e) {
+                        failure.compareAndSet(null, e);
+                        throw e;
+                    } finally {
+                        reader.release(current);
+                    }
+                }));
+            }
+            for (Future<?> future : pending) {
+                future.get();
+            }
+            upserted.add(writeDuplicates(importedDays, duplicates));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("匯入被中斷");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("寫入匯入資料失敗", e.getCause());
+        } finally {
+            pool.shutdownNow();
+            touched.forEach(priceSeriesStore::invalidate);
+        }
+
+        long rows = inserted.sum() + upserted.sum();
+        long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        long rowsPerSecond = rows * 1000 / elapsedMs;
+        log.info("匯入完成：{} 筆（插入 {}、upsert {}），拒絕 {} 行，{} 支股票，{} 位元組，{} 個執行緒，耗時 {} ms（{} 筆/秒）",
+                rows, inserted.sum(), upserted.sum(), rejects.getCount(), touched.size(), reader.getOffset(),
+                workers, elapsedMs, rowsPerSecond);
+        return new ImportResultDTO(rows, inserted.sum(), upserted.sum(), rejects.getCount(), touched.size(),
+                reader.getOffset(), elapsedMs, rowsPerSecond, rejects.getSamples());
+    }
+
+    /**
+     * 所有區塊寫入後，依區塊順序以 upsert 寫入重複的 (代碼, 日期) 中最後出現的列
+     * 
+     * @return 寫入的筆數
+     */
+    private int writeDuplicates(ImportedDays importedDays, Map<Integer, PriceRowBatch> duplicates) {
+        if (duplicates.isEmpty()) {
+            return 0;
+        }
+        PriceRowBatch latest = new PriceRowBatch(1024);
+        duplicates.forEach((block, rows) -> importedDays.retainLatest(rows, block, latest));
+        if (!latest.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> stockPriceBatchRepository.upsertRows(latest));
+        }
+        return latest.size();
+    }
+
+    private Map<String, Long> stockIdsBySymbol(List<StockDTO> stocks) {
+        Map<String, Long> stockIds = new HashMap<>();
+        for (StockDTO stock : stocks) {
+            stockIds.put(stock.getSymbol(), stock.getId());
+        }
+        return stockIds;
+    }
+
+    /**
+     * 有歸檔的股票在歸檔之後資料庫接續的日期，更早的日期在解析時拒絕
+     */
+    private Map<Long, Long> databaseFrom(List<StockDTO> stocks) {
+        Map<Long, Long> databaseFrom = new HashMap<>();
+        for (StockDTO stock : stocks) {
+            PriceArchiveFile archive = priceArchiveRepository.find(stock.getId(), stock.getSymbol());
+            if (archive != null && !archive.isEmpty()) {
+                databaseFrom.put(stock.getId(), archive.databaseFrom());
+            }
+        }
+        return databaseFrom;
+    }
+
+    /**
+     * 工作執行緒的解析器與可重用批次
+     */
+    private final class Worker {
+
+        private final PriceCsvParser parser;
+        private final Map<Integer, PriceRowBatch> duplicates;
+        private final PriceRowBatch fresh = new PriceRowBatch(64 * 1024);
+        private final PriceRowBatch existing = new PriceRowBatch(1024);
+        private PriceRowBatch repeated = new PriceRowBatch(1024);
+
+        private Worker(StockSymbolTable symbols, ImportedDays importedDays, ImportRejects rejects,
+                Map<Integer, PriceRowBatch> duplicates) {
+            this.parser = new PriceCsvParser(symbols, importedDays, rejects);
+            this.duplicates = duplicates;
+        }
+
+        private void write(CsvBlockReader.Block block, LongAdder inserted, LongAdder upserted, Set<Long> touched) {
+            fresh.clear();
+            existing.clear();
+            parser.parse(block.data(), 0, block.length(), block.offset(), block.sequence(),
+                    fresh, existing, repeated);
+            if (!repeated.isEmpty()) {
+                // 交給所有區塊寫入後的補寫，改用新的批次
+                duplicates.put(block.sequence(), repeated);
+                repeated = new PriceRowBatch(1024);
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!fresh.isEmpty()) {
+                    stockPriceBatchRepository.insertRows(fresh);
+                }
+                if (!existing.isEmpty()) {
+                    stockPriceBatchRepository.upsertRows(existing);
+                }
+            });
+            inserted.add(fresh.size());
+            upserted.add(existing.size());
+            collectStockIds(fresh, touched);
+            collectStockIds(existing, touched);
+        }
+
+        private void collectStockIds(PriceRowBatch rows, Set<Long> touched) {
+            long previous = Long.MIN_VALUE;
+            for (int i = 0; i < rows.size(); i++) {
+                if (rows.stockId(i) != previous) {
+                    previous = rows.stockId(i);
+                    touched.add(previous);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,414 @@
+package com.example.stockproject.service;
+
+import com.example.stockproject.archive.ArchivedPriceView;
+import com.example.stockproject.archive.PriceArchiveFile;
+import com.example.stockproject.model.entity.Stock;
+import com.example.stockproject.model.series.DailyBars;
+import com.example.stockproject.model.series.IncrementalDerived;
+import com.example.stockproject.model.series.PriceSeries;
+import com.example.stockproject.model.series.PriceSeriesResampler;
+import com.example.stockproject.model.series.Resolution;
+import com.example.stockproject.repository.PriceArchiveRepository;
+import com.example.stockproject.repository.StockPriceRepository;
+import com.example.stockproject.repository.StockRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 欄式歷史價格序列儲存
+ * 
+ * 以股票識別碼為鍵，在記憶體中保存每支股票的 {@link PriceSeries} 及其衍生值
+ * （例如週線、月線彙總）。
+ * 首次查詢時從 stock_price 資料表載入，寫入歷史價格後由寫入端呼叫
+ * {@link #invalidate(Long)} 使快取失效，下一次查詢會重新載入。
+ * 超過歸檔期限而移到歸檔檔案（{@link PriceArchiveRepository}）的舊K線不放入快取：
+ * 完整歷史以 {@link ArchivedPriceView} 直接讀取對映的檔案，時間範圍查詢只複製範圍內的K線
+ * （合併規則見 {@link PriceArchiveFile#databaseFrom()}）。衍生值（技術指標、週線、月線）
+ * 在視圖上計算一次，快取中只保留計算結果，因此 heap 用量與歸檔保留的年數無關。
+ * 衍生值的種類由查詢參數決定，每支股票只保留最近使用的
+ * {@code stock.series.max-derived} 個（LRU），避免不同參數的請求讓快取與追加成本無限增長。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增欄式價格序列
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PriceSeriesStore {
+
+    private final StockPriceRepository stockPriceRepository;
+    private final StockRepository stockRepository;
+    private final PriceArchiveRepository priceArchiveRepository;
+
+    private final Map<Long, Entry> entriesByStockId = new ConcurrentHashMap<>();
+
+    /**
+     * 每支股票最多保留的衍生值數量
+     */
+    @Value("${stock.series.max-derived:32}")
+    private int maxDerived;
+
+    /**
+     * 取得股票的完整日線（包含歸檔的舊K線）
+     * 
+     * 有歸檔時回傳直接讀取對映檔案的零複製視圖，不把舊K線複製到 heap。
+     * 
+     * @param stockId 股票識別碼
+     * @return 日線，股票不存在時為空序列
+     */
+    public DailyBars get(Long stockId) {
+        return full(entry(stockId).series);
+    }
+
+    /**
+     * 取得股票仍在資料庫中的價格序列（不含歸檔的舊K線）
+     * 
+     * @param stockId 股票識別碼
+     * @return 價格序列，股票不存在時為空序列
+     */
+    public PriceSeries getRecent(Long stockId) {
+        return entry(stockId).series;
+    }
+
+    /**
+     * 取得依週期彙總的完整價格序列（包含歸檔的舊K線）
+     * 
+     * 彙總結果會與日線序列一起快取，日線序列更新或失效時一併丟棄。
+     * 日線不經過彙總，請改用 {@link #get} 或 {@link #getRange}。
+     * 
+     * @param stockId    股票識別碼
+     * @param resolution K線週期（週線或月線）
+     * @return 彙總後的價格序列
+     * @throws IllegalArgumentException 週期為日線
+     */
+    public PriceSeries getAggregated(Long stockId, Resolution resolution) {
+        if (resolution == Resolution.DAILY) {
+            throw new IllegalArgumentException("日線不需要彙總");
+        }
+        return getDerived(stockId, resolution, series -> PriceSeriesResampler.aggregate(series, resolution));
+    }
+
+    /**
+     * 取得由價格序列衍生的快取值
+     * 
+     * 衍生值依附於目前的序列版本，序列被取代或失效時一併丟棄。
+     * 計算函式收到的是包含歸檔舊K線的完整日線（{@link #get} 的視圖），只有計算結果會被快取，
+     * 衍生值不應保留收到的日線。超過每支股票的上限時丟棄最久未使用的衍生值。
+     * 
+     * @param stockId 股票識別碼
+     * @param key     快取鍵（需實作 equals/hashCode）
+     * @param compute 由價格序列計算衍生值的函式
+     * @param <T>     衍生值型別
+     * @return 衍生值
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getDerived(Long stockId, Object key, Function<DailyBars, T> compute) {
+        Entry entry = entry(stockId);
+        synchronized (entry.derived) {
+            Object cached = entry.derived.get(key);
+            if (cached != null) {
+                return (T) cached;
+            }
+        }
+        // 在鎖外計算，同時計算同一個鍵時以先放入的結果為準
+        T value = compute.apply(full(entry.series));
+        synchronized (entry.derived) {
+            Object cached = entry.derived.putIfAbsent(key, value);
+            return cached != null ? (T) cached : value;
+        }
+    }
+
+    /**
+     * 一次取得多支股票仍在資料庫中的價格序列（不含歸檔的舊K線）
+     * 
+     * 已快取的直接回傳，其餘以單一查詢載入後放入快取。
+     * 
+     * @param stockIds 股票識別碼
+     * @return 股票識別碼對價格序列（依輸入順序，不存在的股票不包含在內）
+     */
+    public Map<Long, PriceSeries> getAll(Collection<Long> stockIds) {
+        Map<Long, PriceSeries> result = new LinkedHashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long stockId : stockIds) {
+            Entry entry = entriesByStockId.get(stockId);
+            if (entry != null) {
+                result.put(stockId, entry.series);
+            } else {
+                result.put(stockId, null);
+                missing.add(stockId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            loadAll(missing).forEach((stockId, series) ->
+                    result.put(stockId, entriesByStockId.computeIfAbsent(stockId, id -> new Entry(series)).series));
+        }
+        result.values().removeIf(Objects::isNull);
+        return result;
+    }
+
+    private Entry entry(Long stockId) {
+        Entry entry = entriesByStockId.get(stockId);
+        if (entry != null) {
+            return entry;
+        }
+        return entriesByStockId.computeIfAbsent(stockId, id -> new Entry(load(id)));
+    }
+
+    /**
+     * 取得股票在指定日期範圍（含首尾）內的價格序列
+     * 
+     * 範圍只落在資料庫K線內時回傳快取序列的零複製視圖；涵蓋歸檔時只複製範圍內的歸檔K線。
+     * 
+     * @param stockId   股票識別碼
+     * @param startDate 開始日期
+     * @param endDate   結束日期
+     * @return 範圍內的價格序列
+     */
+    public PriceSeries getRange(Long stockId, LocalDate startDate, LocalDate endDate) {
+        return withArchive(entry(stockId).series, startDate, endDate);
+    }
+
+    /**
+     * 資料庫序列加上歸檔舊K線的完整日線視圖
+     */
+    private DailyBars full(PriceSeries recent) {
+        return ArchivedPriceView.of(archiveOf(recent), recent);
+    }
+
+    private PriceArchiveFile archiveOf(PriceSeries recent) {
+        return priceArchiveRepository.find(recent.getStockId(), recent.getSymbol());
+    }
+
+    /**
+     * 把範圍內的歸檔K線接在資料庫K線之前
+     * 
+     * 歸檔與資料庫的日期重疊時（例如重新同步了舊日期）以歸檔為準，
+     * 與串流輸出、分頁及匯出相同（{@link PriceArchiveFile#databaseFrom()}）。
+     */
+    private PriceSeries withArchive(PriceSeries recent, LocalDate startDate, LocalDate endDate) {
+        PriceArchiveFile archive = archiveOf(recent);
+        if (archive == null || archive.isEmpty()) {
+            return recent.slice(startDate, endDate);
+        }
+        long from = startDate == null ? Long.MIN_VALUE : startDate.toEpochDay();
+        long to = endDate == null ? Long.MAX_VALUE : endDate.toEpochDay() + 1;
+        long databaseFrom = archive.databaseFrom();
+        PriceSeries range = recent.slice(recent.lowerBound(Math.max(from, databaseFrom)),
+                recent.lowerBound(to));
+        int archiveFrom = archive.lowerBound(from);
+        int archiveTo = archive.lowerBound(Math.min(to, databaseFrom));
+        if (archiveFrom >= archiveTo) {
+            return range;
+        }
+        return archive.read(archiveFrom, archiveTo, recent.getSymbol()).append(range);
+    }
+
+    /**
+     * 以已知與資料庫一致的序列取代快取（例如批次寫入後）
+     * 
+     * @param series 價格序列
+     */
+    public void put(PriceSeries series) {
+        entriesByStockId.put(series.getStockId(), new Entry(series));
+    }
+
+    /**
+     * 將新寫入的K線追加到已快取的序列尾端
+     * 
+     * 可增量更新的衍生值（{@link IncrementalDerived}，例如技術指標）會延續計算，
+     * 其他衍生值則丟棄。若序列尚未載入則不需處理；若新K線的日期不在最後一筆之後，
+     * 改為整個失效。在交易中呼叫時會延後到交易提交後才套用。
+     * 
+     * @param stockId 股票識別碼
+     * @param bars    新寫入的K線（依日期遞增）
+     */
+    public void append(Long stockId, PriceSeries bars) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        entriesByStockId.computeIfPresent(stockId, (id, entry) -> append(entry, bars));
+                    } else {
+                        entriesByStockId.remove(stockId);
+                    }
+                }
+            });
+            return;
+        }
+        entriesByStockId.computeIfPresent(stockId, (id, entry) -> append(entry, bars));
+    }
+
+    /**
+     * 產生追加K線後的新項目，無法追加時回傳 null（由呼叫端移除）
+     * 
+     * 新K線必須晚於資料庫序列與歸檔的最後一天；可增量更新的衍生值在新的完整日線視圖上延續計算。
+     */
+    private Entry append(Entry entry, PriceSeries bars) {
+        if (bars.isEmpty()) {
+            return entry;
+        }
+        PriceSeries series = entry.series;
+        if (!series.isEmpty() && bars.epochDayAt(0) <= series.epochDayAt(series.size() - 1)) {
+            return null;
+        }
+        PriceArchiveFile archive = archiveOf(series);
+        if (archive != null && bars.epochDayAt(0) < archive.databaseFrom()) {
+            return null;
+        }
+        Entry next = new Entry(series.append(bars));
+        DailyBars full = ArchivedPriceView.of(archive, next.series);
+        synchronized (entry.derived) {
+            entry.derived.forEach((key, value) -> {
+                if (value instanceof IncrementalDerived<?> incremental) {
+                    next.derived.put(key, incremental.extend(full));
+                }
+            });
+        }
+        return next;
+    }
+
+    /**
+     * 使指定股票的快取失效（於寫入或刪除歷史價格後呼叫）
+     * 
+     * 若目前在交易中，會延後到交易提交後才移除，避免其他執行緒在提交前重新載入舊資料。
+     * 
+     * @param stockId 股票識別碼
+     */
+    public void invalidate(Long stockId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    entriesByStockId.remove(stockId);
+                }
+            });
+            return;
+        }
+        entriesByStockId.remove(stockId);
+    }
+
+    /**
+     * 清除所有快取
+     */
+    public void invalidateAll() {
+        entriesByStockId.clear();
+    }
+
+    /**
+     * 從資料庫載入價格序列
+     * 
+     * @param stockId 股票識別碼
+     * @return 價格序列
+     */
+    private PriceSeries load(Long stockId) {
+        String symbol = stockRepository.findById(stockId)
+                .map(Stock::getSymbol)
+                .orElse(null);
+        if (symbol == null) {
+            return PriceSeries.empty(stockId, null);
+        }
+
+        List<Object[]> rows = stockPriceRepository.findColumnsByStockId(stockId);
+        int size = rows.size();
+        long[] ids = new long[size];
+        int[] epochDays = new int[size];
+        double[] open = new double[size];
+        double[] high = new double[size];
+        double[] low = new double[size];
+        double[] close = new double[size];
+        long[] volume = new long[size];
+
+        for (int i = 0; i < size; i++) {
+            Object[] row = rows.get(i);
+            ids[i] = ((Number) row[0]).longValue();
+            epochDays[i] = (int) ((LocalDate) row[1]).toEpochDay();
+            open[i] = ((Number) row[2]).doubleValue();
+            high[i] = ((Number) row[3]).doubleValue();
+            low[i] = ((Number) row[4]).doubleValue();
+            close[i] = ((Number) row[5]).doubleValue();
+            volume[i] = ((Number) row[6]).longValue();
+        }
+
+        log.debug("載入股票 ID: {} 的欄式價格序列，共 {} 筆", stockId, size);
+        return new PriceSeries(stockId, symbol, ids, epochDays, open, high, low, close, volume, size);
+    }
+
+    /**
+     * 以單一查詢從資料庫載入多支股票的價格序列
+     * 
+     * @param stockIds 股票識別碼
+     * @return 股票識別碼對價格序列（不存在的股票不包含在內）
+     */
+    private Map<Long, PriceSeries> loadAll(List<Long> stockIds) {
+        Map<Long, PriceSeries> loaded = new HashMap<>();
+        List<Object[]> rows = stockPriceRepository.findColumnsByStockIds(stockIds);
+        int start = 0;
+        while (start < rows.size()) {
+            Long stockId = ((Number) rows.get(start)[0]).longValue();
+            String symbol = (String) rows.get(start)[1];
+            int end = start;
+            while (end < rows.size() && ((Number) rows.get(end)[0]).longValue() == stockId) {
+                end++;
+            }
+            // 沒有歷史價格的股票只有一列 null 價格欄位
+            int size = rows.get(start)[2] == null ? 0 : end - start;
+            long[] ids = new long[size];
+            int[] epochDays = new int[size];
+            double[] open = new double[size];
+            double[] high = new double[size];
+            double[] low = new double[size];
+            double[] close = new double[size];
+            long[] volume = new long[size];
+            for (int k = 0; k < size; k++) {
+                Object[] row = rows.get(start + k);
+                ids[k] = ((Number) row[2]).longValue();
+                epochDays[k] = (int) ((LocalDate) row[3]).toEpochDay();
+                open[k] = ((Number) row[4]).doubleValue();
+                high[k] = ((Number) row[5]).doubleValue();
+                low[k] = ((Number) row[6]).doubleValue();
+                close[k] = ((Number) row[7]).doubleValue();
+                volume[k] = ((Number) row[8]).longValue();
+            }
+            loaded.put(stockId, new PriceSeries(stockId, symbol, ids, epochDays, open, high, low, close, volume, size));
+            start = end;
+        }
+        log.debug("批次載入 {} 支股票的欄式價格序列，共 {} 筆", loaded.size(), rows.size());
+        return loaded;
+    }
+
+    /**
+     * 快取項目：資料庫中的價格序列與其衍生值（不保存歸檔的舊K線）
+     * 
+     * 衍生值依存取順序排列，超過上限時移除最久未使用的一個；存取時以該 map 同步。
+     */
+    private final class Entry {
+
+        private final PriceSeries series;
+        private final Map<Object, Object> derived = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+                return size() > maxDerived;
+            }
+        };
+
+        private Entry(PriceSeries series) {
+            this.series = series;
+        }
+    }
+}
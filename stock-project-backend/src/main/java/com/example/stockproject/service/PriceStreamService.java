@@ -0,0 +1,88 @@
+package com.example.stockproject.service;
+
+import com.example.stockproject.event.StockQuotesUpdatedEvent;
+import com.example.stockproject.model.dto.StockDTO;
+import com.example.stockproject.stream.PriceSink;
+import com.example.stockproject.stream.PriceStreamHub;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 即時價格推播服務
+ * 
+ * 建立訂閱（未指定股票時使用觀察清單），訂閱時先送出目前價格，
+ * 之後報價更新與模擬報價都經由 {@link PriceStreamHub} 合併後推播。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增即時價格推播
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PriceStreamService {
+
+    private final PriceStreamHub priceStreamHub;
+    private final StockCatalog stockCatalog;
+    private final WatchlistService watchlistService;
+
+    /**
+     * 訂閱價格更新
+     * 
+     * @param userId   用戶識別碼（未指定股票時使用其觀察清單）
+     * @param stockIds 訂閱的股票識別碼，null 或空白表示觀察清單
+     * @param sink     接收端
+     * @return 訂閱
+     * @throws IllegalStateException 訂閱數已達上限
+     */
+    public PriceStreamHub.Subscription subscribe(String userId, Collection<Long> stockIds, PriceSink sink) {
+        Collection<Long> ids = stockIds == null || stockIds.isEmpty()
+                ? watchlistService.getWatchedStockIds(userId)
+                : stockIds;
+        StockCatalog.Snapshot catalog = stockCatalog.current();
+        Map<Long, Double> initial = new HashMap<>();
+        for (Long stockId : ids) {
+            StockDTO stock = catalog.getById(stockId);
+            if (stock != null) {
+                initial.put(stockId, stock.getPrice());
+            }
+        }
+        PriceStreamHub.Subscription subscription = priceStreamHub.subscribe(ids, initial, sink);
+        log.debug("新增價格推播訂閱: {} 檔股票，目前 {} 個訂閱", ids.size(), priceStreamHub.subscriberCount());
+        return subscription;
+    }
+
+    /**
+     * 取消訂閱
+     * 
+     * @param subscription 訂閱
+     */
+    public void unsubscribe(PriceStreamHub.Subscription subscription) {
+        priceStreamHub.unsubscribe(subscription);
+    }
+
+    /**
+     * 發布單一股票的最新價格
+     * 
+     * @param stockId 股票識別碼
+     * @param price   最新價格
+     */
+    public void publish(long stockId, double price) {
+        priceStreamHub.publish(stockId, price);
+    }
+
+    /**
+     * 報價更新後推播變動的價格
+     * 
+     * @param event 報價更新事件
+     */
+    @EventListener
+    public void onQuotesUpdated(StockQuotesUpdatedEvent event) {
+        event.getChangedPrices().forEach(priceStreamHub::publish);
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.stockproject.service;
+
+import com.example.stockproject.client.MarketDataClient;
+import com.example.stockproject.client.YahooQuoteParser;
+import com.example.stockproject.event.StockQuotesUpdatedEvent;
+import com.example.stockproject.model.dto.QuoteRefreshResultDTO;
+import com.example.stockproject.model.entity.Stock;
+import com.example.stockproject.repository.StockBatchRepository;
+import com.example.stockproject.repository.StockRepository;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.TriggerContext;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * 股票最新報價背景更新服務
+ * 
+ * 定期向 Yahoo Finance 報價 API 取得所有股票的最新價格並寫回 stock.price：
+ * <ul>
+ * <li>股票依批次大小分組，每組一次請求，各組透過 {@link MarketDataClient} 並行呼叫</li>
+ * <li>只有價格實際變動的股票會寫入，且以單一 JDBC 批次更新完成</li>
+ * <li>交易提交後發布 {@link StockQuotesUpdatedEvent}，讓快取只失效變動的股票</li>
+ * <li>開盤時間（預設美東 9:30–16:00，週一至週五）以較短間隔更新，其餘時間拉長間隔，
+ * 且不晚於下一次開盤</li>
+ * </ul>
+ * 排程預設關閉（stock.quotes.refresh.enabled=false），避免一啟動就持續呼叫外部 API；
+ * 關閉時仍可手動觸發 {@link #refreshQuotes()}。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增背景報價更新
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QuoteRefreshService {
+
+    private static final LocalTime MARKET_OPEN = LocalTime.of(9, 30);
+    private static final LocalTime MARKET_CLOSE = LocalTime.of(16, 0);
+
+    private final StockRepository stockRepository;
+    private final StockBatchRepository stockBatchRepository;
+    private final MarketDataClient marketDataClient;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskScheduler taskScheduler;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 排程更新與手動觸發不重疊執行
+     */
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    @Value("${stock.market-data.yahoo.base-url}")
+    private String yahooBaseUrl;
+
+    @Value("${stock.quotes.refresh.enabled:false}")
+    private boolean enabled;
+
+    @Value("${stock.quotes.refresh.initial-delay:30s}")
+    private Duration initialDelay;
+
+    @Value("${stock.quotes.refresh.market-interval:15s}")
+    private Duration marketInterval;
+
+    @Value("${stock.quotes.refresh.off-hours-interval:10m}")
+    private Duration offHoursInterval;
+
+    @Value("${stock.quotes.refresh.batch-size:50}")
+    private int batchSize;
+
+    @Value("${stock.quotes.refresh.zone:America/New_York}")
+    private ZoneId marketZone;
+
+    /**
+     * 應用程式就緒後啟動排程
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("背景報價更新已停用");
+            return;
+        }
+        log.info("啟動背景報價更新，開盤間隔: {}，休市間隔: {}，批次大小: {}",
+                marketInterval, offHoursInterval, batchSize);
+        taskScheduler.schedule(this::scheduledRefresh, this::nextExecution);
+    }
+
+    /**
+     * 取得所有股票的最新報價並寫入有變動的價格
+     * 
+     * @return 更新結果
+     */
+    public QuoteRefreshResultDTO refreshQuotes() {
+        refreshLock.lock();
+        try {
+            return doRefresh();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * 判斷指定時間是否在開盤時間內
+     * 
+     * @param now 時間
+     * @return 是否開盤
+     */
+    boolean isMarketOpen(Instant now) {
+        ZonedDateTime local = now.atZone(marketZone);
+        if (isWeekend(local.getDayOfWeek())) {
+            return false;
+        }
+        LocalTime time = local.toLocalTime();
+        return !time.isBefore(MARKET_OPEN) && time.isBefore(MARKET_CLOSE);
+    }
+
+    /**
+     * 計算下一次更新時間
+     * 
+     * @param now 上一次更新完成的時間
+     * @return 下一次更新時間
+     */
+    Instant nextRefreshAfter(Instant now) {
+        if (isMarketOpen(now)) {
+            return now.plus(marketInterval);
+        }
+        Instant later = now.plus(offHoursInterval);
+        Instant open = nextMarketOpen(now);
+        return open.isBefore(later) ? open : later;
+    }
+
+    private Instant nextExecution(TriggerContext context) {
+        Instant last = context.lastCompletion();
+        if (last == null) {
+            return context.getClock().instant().plus(initialDelay);
+        }
+        return nextRefreshAfter(last);
+    }
+
+    private void scheduledRefresh() {
+        try {
+            refreshQuotes();
+        } catch (Exception e) {
+            // 排程中的例外會讓 Trigger 停止，記錄後等待下一次
+            log.error("背景報價更新失敗", e);
+        }
+    }
+
+    private QuoteRefreshResultDTO doRefresh() {
+        long started = System.nanoTime();
+        List<Stock> stocks = stockRepository.findAll();
+
+        List<CompletableFuture<Map<String, Double>>> batches = new ArrayList<>();
+        for (int from = 0; from < stocks.size(); from += batchSize) {
+            List<Stock> batch = stocks.subList(from, Math.min(from + batchSize, stocks.size()));
+            batches.add(marketDataClient.getAsync(quoteUri(batch), this::parseQuotes));
+        }
+
+        Map<String, Double> quotes = new LinkedHashMap<>();
+        int failedBatches = 0;
+        for (CompletableFuture<Map<String, Double>> batch : batches) {
+            try {
+                quotes.putAll(batch.join());
+            } catch (Exception e) {
+                failedBatches++;
+                log.warn("報價批次取得失敗: {}", e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            }
+        }
+
+        Map<Long, Double> changed = new LinkedHashMap<>();
+        for (Stock stock : stocks) {
+            Double quote = quotes.get(stock.getSymbol().toUpperCase(Locale.ROOT));
+            if (quote != null && !quote.equals(stock.getPrice())) {
+                changed.put(stock.getId(), quote);
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> stockBatchRepository.updatePrices(changed));
+            // executeWithoutResult 返回時交易已提交，監聽者讀到的是新價格
+            eventPublisher.publishEvent(
+                    new StockQuotesUpdatedEvent(Collections.unmodifiableMap(changed), Instant.now()));
+        }
+
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        log.info("報價更新完成: {} 檔股票，取得 {} 筆報價，{} 檔價格變動，{} 個批次失敗，耗時 {} ms",
+                stocks.size(), quotes.size(), changed.size(), failedBatches, elapsedMs);
+        return new QuoteRefreshResultDTO(stocks.size(), quotes.size(), changed, failedBatches, elapsedMs);
+    }
+
+    private URI quoteUri(List<Stock> batch) {
+        String symbols = batch.stream()
+                .map(Stock::getSymbol)
+                .collect(Collectors.joining(","));
+        return UriComponentsBuilder.fromHttpUrl(yahooBaseUrl)
+                .path("/v7/finance/quote")
+                .queryParam("symbols", "{symbols}")
+                .encode()
+                .buildAndExpand(symbols)
+                .toUri();
+    }
+
+    private Map<String, Double> parseQuotes(InputStream body) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            return YahooQuoteParser.parse(parser);
+        }
+    }
+
+    private Instant nextMarketOpen(Instant now) {
+        ZonedDateTime local = now.atZone(marketZone);
+        ZonedDateTime open = local.with(MARKET_OPEN);
+        if (!open.isAfter(local)) {
+            open = open.plusDays(1);
+        }
+        while (isWeekend(open.getDayOfWeek())) {
+            open = open.plusDays(1);
+        }
+        return open.toInstant();
+    }
+
+    private static boolean isWeekend(DayOfWeek day) {
+        return day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY;
+    }
+}
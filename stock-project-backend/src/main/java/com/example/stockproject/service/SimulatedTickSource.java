@@ -0,0 +1,86 @@
+package com.example.stockproject.service;
+
+import com.example.stockproject.model.dto.StockDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 模擬報價來源（本機壓力測試用）
+ * 
+ * 啟用後每個間隔從股票清單中隨機挑選股票，以 Stock.price 為起點做隨機漫步，
+ * 並將新價格發布到即時價格推播，同時寫入逐筆成交匯入（排程不重疊執行，符合單一寫入者）。
+ * 模擬價格不寫入股票資料表。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增即時價格推播
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SimulatedTickSource {
+
+    private final StockCatalog stockCatalog;
+    private final PriceStreamService priceStreamService;
+    private final TickIngestionService tickIngestionService;
+    private final TaskScheduler taskScheduler;
+
+    private final Map<Long, Double> prices = new ConcurrentHashMap<>();
+
+    @Value("${stock.stream.simulator.enabled:false}")
+    private boolean enabled;
+
+    @Value("${stock.stream.simulator.interval:100ms}")
+    private Duration interval;
+
+    @Value("${stock.stream.simulator.ticks-per-interval:100}")
+    private int ticksPerInterval;
+
+    /**
+     * 每筆模擬報價的價格波動（標準差，比例）
+     */
+    @Value("${stock.stream.simulator.volatility:0.001}")
+    private double volatility;
+
+    /**
+     * 應用程式就緒後啟動模擬
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        log.info("啟動模擬報價來源，間隔: {}，每次 {} 筆", interval, ticksPerInterval);
+        taskScheduler.scheduleAtFixedRate(this::tick, interval);
+    }
+
+    /**
+     * 產生一輪模擬報價
+     */
+    void tick() {
+        List<StockDTO> stocks = stockCatalog.current().getStocks();
+        if (stocks.isEmpty()) {
+            return;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < ticksPerInterval; i++) {
+            StockDTO stock = stocks.get(random.nextInt(stocks.size()));
+            double base = prices.getOrDefault(stock.getId(), stock.getPrice());
+            double price = Math.round(base * Math.exp(random.nextGaussian() * volatility) * 100) / 100.0;
+            prices.put(stock.getId(), price);
+            priceStreamService.publish(stock.getId(), price);
+            tickIngestionService.offer(stock.getId(), now, price, random.nextLong(1, 1000));
+        }
+    }
+}
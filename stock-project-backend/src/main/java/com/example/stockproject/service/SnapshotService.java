@@ -0,0 +1,207 @@
+package com.example.stockproject.service;
+
+import com.example.stockproject.archive.SnapshotFile;
+import com.example.stockproject.model.dto.SnapshotResultDTO;
+import com.example.stockproject.repository.SnapshotRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 快照服務
+ * 
+ * 資料庫是 create-drop 的記憶體 H2，重新啟動會遺失所有產生與同步的歷史價格。
+ * 本服務在應用程式關閉時與定期把股票、日線與觀察清單寫成 {@link SnapshotFile}，
+ * 啟動時（網頁伺服器接受請求之前）在單一交易中以批次寫入還原，取代 data.sql 的種子資料。
+ * 快照損毀或還原失敗時交易回滾，保留種子資料繼續啟動。
+ * 分K線與歸檔檔案不在快照中（歸檔檔案本身就在磁碟上）。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增快照與啟動還原
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SnapshotService implements SmartInitializingSingleton {
+
+    private final SnapshotRepository snapshotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final StockCatalog stockCatalog;
+    private final StockSearchIndex stockSearchIndex;
+    private final PriceSeriesStore priceSeriesStore;
+    private final TaskScheduler taskScheduler;
+
+    @Value("${stock.snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${stock.snapshot.file:data/snapshot.sps}")
+    private Path file;
+
+    @Value("${stock.snapshot.interval:15m}")
+    private Duration interval;
+
+    /**
+     * 啟動時從快照還原
+     * 
+     * 在所有單例建立之後、網頁伺服器開始接受請求與 ApplicationReadyEvent 的快取預熱之前執行，
+     * 因此不會有請求看到還原到一半的資料。
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled || !Files.exists(file)) {
+            return;
+        }
+        try {
+            restore();
+        } catch (RuntimeException e) {
+            log.error("從快照 {} 還原失敗，使用初始資料啟動", file.toAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * 應用程式就緒後開始定期寫出快照
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        log.info("啟用快照，檔案: {}，間隔: {}", file.toAbsolutePath(), interval);
+        taskScheduler.scheduleAtFixedRate(this::scheduledSave, Instant.now().plus(interval), interval);
+    }
+
+    /**
+     * 關閉時（資料來源關閉之前）寫出最後一份快照
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void saveOnShutdown() {
+        if (enabled) {
+            scheduledSave();
+        }
+    }
+
+    /**
+     * 立即寫出快照
+     * 
+     * @return 寫出結果
+     */
+    public synchronized SnapshotResultDTO save() {
+        long start = System.nanoTime();
+        Instant createdAt = Instant.now();
+        try (SnapshotFile.Writer writer = SnapshotFile.create(file)) {
+            transactionTemplate.executeWithoutResult(status -> snapshotRepository.export(writer));
+            long bytes = writer.commit();
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            log.info("快照已寫出：{} 支股票、{} 筆日線、{} 筆觀察清單，{} 位元組，耗時 {} ms",
+                    writer.getStocks(), writer.getPrices(), writer.getWatchlist(), bytes, elapsedMs);
+            return new SnapshotResultDTO(file.toString(), createdAt, writer.getStocks(), writer.getPrices(),
+                    writer.getWatchlist(), bytes, elapsedMs);
+        } catch (IOException e) {
+            throw new UncheckedIOException("寫出快照失敗: " + file, e);
+        }
+    }
+
+    /**
+     * 以快照取代資料庫中的股票、日線與觀察清單，並使相關快取失效
+     * 
+     * 只應在啟動時或沒有其他寫入時呼叫；快照中參照不存在股票的日線與觀察清單會被略過。
+     * 
+     * @return 還原結果
+     */
+    public synchronized SnapshotResultDTO restore() {
+        long start = System.nanoTime();
+        SnapshotCounts counts = new SnapshotCounts();
+        Instant createdAt = transactionTemplate.execute(status -> {
+            snapshotRepository.deleteAll();
+            try {
+                return SnapshotFile.read(file, new Loader(counts));
+            } catch (IOException e) {
+                throw new UncheckedIOException("讀取快照失敗: " + file, e);
+            }
+        });
+        snapshotRepository.restartIdentities();
+        stockCatalog.invalidate();
+        stockSearchIndex.invalidate();
+        priceSeriesStore.invalidateAll();
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        long bytes;
+        try {
+            bytes = Files.size(file);
+        } catch (IOException e) {
+            bytes = -1;
+        }
+        log.info("已從 {} 建立的快照還原：{} 支股票、{} 筆日線、{} 筆觀察清單，耗時 {} ms",
+                createdAt, counts.stocks, counts.prices, counts.watchlist, elapsedMs);
+        return new SnapshotResultDTO(file.toString(), createdAt, counts.stocks, counts.prices,
+                counts.watchlist, bytes, elapsedMs);
+    }
+
+    private void scheduledSave() {
+        try {
+            save();
+        } catch (RuntimeException e) {
+            log.error("寫出快照失敗", e);
+        }
+    }
+
+    /**
+     * 把快照記錄寫入資料庫
+     */
+    private final class Loader implements SnapshotFile.Handler {
+
+        private final SnapshotCounts counts;
+        private final Set<Long> stockIds = new HashSet<>();
+
+        private Loader(SnapshotCounts counts) {
+            this.counts = counts;
+        }
+
+        @Override
+        public void stock(long id, String symbol, String name, double price, LocalDate lastSyncedDate) {
+            snapshotRepository.insertStock(id, symbol, name, price, lastSyncedDate);
+            stockIds.add(id);
+            counts.stocks++;
+        }
+
+        @Override
+        public void series(long stockId, int[] epochDays, double[] open, double[] high, double[] low,
+                double[] close, long[] volume, int size) {
+            if (stockIds.contains(stockId)) {
+                snapshotRepository.insertSeries(stockId, epochDays, open, high, low, close, volume, size);
+                counts.prices += size;
+            }
+        }
+
+        @Override
+        public void watchlist(long id, String userId, long stockId) {
+            if (stockIds.contains(stockId)) {
+                snapshotRepository.insertWatchlist(id, userId, stockId);
+                counts.watchlist++;
+            }
+        }
+    }
+
+    private static final class SnapshotCounts {
+        private int stocks;
+        private long prices;
+        private int watchlist;
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.stockproject.service;
+
+import com.example.stockproject.event.StockQuotesUpdatedEvent;
+import com.example.stockproject.model.dto.StockDTO;
+import com.example.stockproject.model.entity.Stock;
+import com.example.stockproject.repository.StockRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 股票清單版本化快照
+ * 
+ * 在記憶體中保存不可變的股票清單快照，每個快照有遞增的版本號與對應的 ETag，
+ * 並在建立時就序列化成 JSON 位元組，讀取清單或單一股票都不存取資料庫。
+ * <ul>
+ * <li>股票經由 JPA 新增、修改或刪除後（交易結束時）快照失效，下一次讀取重新載入</li>
+ * <li>報價更新事件直接以變動的價格產生新版本，不重新查詢資料庫</li>
+ * </ul>
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增股票清單快照
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockCatalog {
+
+    private final StockRepository stockRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 本次啟動的識別碼，避免重新啟動後版本號重複造成 ETag 誤判
+     */
+    private final String instanceId = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong versions = new AtomicLong();
+
+    /**
+     * 每次失效遞增，載入期間若有失效則不保存載入結果
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * 應用程式就緒後預先建立快照
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        current();
+    }
+
+    /**
+     * 取得目前的快照
+     * 
+     * @return 股票清單快照
+     */
+    public Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (current == null) {
+                long invalidation = invalidations.get();
+                current = build(toDTOs(stockRepository.findAll()));
+                if (invalidations.get() == invalidation) {
+                    snapshot = current;
+                }
+                log.info("建立股票清單快照 v{}: {} 檔股票，{} bytes",
+                        current.getVersion(), current.getStocks().size(), current.getJson().length);
+            }
+            return current;
+        }
+    }
+
+    /**
+     * 使快照失效（在交易中呼叫時於交易結束後才生效）
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    clear();
+                }
+            });
+        } else {
+            clear();
+        }
+    }
+
+    /**
+     * 報價更新後以新價格產生新版本
+     * 
+     * @param event 報價更新事件
+     */
+    @EventListener
+    public synchronized void onQuotesUpdated(StockQuotesUpdatedEvent event) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        List<StockDTO> stocks = new ArrayList<>(current.getStocks().size());
+        for (StockDTO stock : current.getStocks()) {
+            Double price = event.getChangedPrices().get(stock.getId());
+            stocks.add(price == null ? stock : new StockDTO(stock.getId(), stock.getSymbol(), stock.getName(), price));
+        }
+        snapshot = build(stocks);
+        log.debug("股票清單快照更新為 v{}（{} 檔價格變動）", snapshot.getVersion(), event.getChangedPrices().size());
+    }
+
+    private synchronized void clear() {
+        invalidations.incrementAndGet();
+        snapshot = null;
+    }
+
+    private Snapshot build(List<StockDTO> stocks) {
+        long version = versions.incrementAndGet();
+        try {
+            return new Snapshot(version, "\"" + instanceId + "-" + version + "\"", stocks,
+                    objectMapper.writeValueAsBytes(stocks));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("股票清單序列化失敗", e);
+        }
+    }
+
+    private static List<StockDTO> toDTOs(List<Stock> stocks) {
+        List<StockDTO> result = new ArrayList<>(stocks.size());
+        for (Stock stock : stocks) {
+            result.add(new StockDTO(stock.getId(), stock.getSymbol(), stock.getName(), stock.getPrice()));
+        }
+        return result;
+    }
+
+    /**
+     * 不可變的股票清單快照
+     * 
+     * 快照中的 DTO 由所有讀者共用，呼叫端不得修改。
+     */
+    public static final class Snapshot {
+
+        private final long version;
+        private final String etag;
+        private final List<StockDTO> stocks;
+        private final Map<Long, StockDTO> byId;
+        private final Map<String, StockDTO> bySymbol;
+        private final byte[] json;
+
+        Snapshot(long version, String etag, List<StockDTO> stocks, byte[] json) {
+            this.version = version;
+            this.etag = etag;
+            this.stocks = Collections.unmodifiableList(stocks);
+            this.json = json;
+            this.byId = new HashMap<>(stocks.size() * 2);
+            this.bySymbol = new HashMap<>(stocks.size() * 2);
+            for (StockDTO stock : stocks) {
+                byId.put(stock.getId(), stock);
+                bySymbol.put(stock.getSymbol(), stock);
+            }
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * 強 ETag（含引號），同一版本的內容完全相同
+         * 
+         * @return ETag
+         */
+        public String getEtag() {
+            return etag;
+        }
+
+        public List<StockDTO> getStocks() {
+            return stocks;
+        }
+
+        /**
+         * 預先序列化的股票清單 JSON（呼叫端不得修改）
+         * 
+         * @return JSON 位元組
+         */
+        public byte[] getJson() {
+            return json;
+        }
+
+        public StockDTO getById(Long id) {
+            return byId.get(id);
+        }
+
+        public StockDTO getBySymbol(String symbol) {
+            return bySymbol.get(symbol);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.stockproject.service;
+
+import com.example.stockproject.model.entity.Stock;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * 股票實體變更監聽器
+ * 
+ * 經由 JPA 新增、修改或刪除股票後使記憶體搜尋索引與股票清單快照失效。
+ * 由 Hibernate 透過 Spring 容器建立，兩者以 ObjectProvider 延遲取得以避免循環依賴。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增記憶體搜尋索引
+ */
+@Component
+public class StockChangeListener {
+
+    private final ObjectProvider<StockSearchIndex> stockSearchIndex;
+    private final ObjectProvider<StockCatalog> stockCatalog;
+
+    public StockChangeListener(ObjectProvider<StockSearchIndex> stockSearchIndex,
+            ObjectProvider<StockCatalog> stockCatalog) {
+        this.stockSearchIndex = stockSearchIndex;
+        this.stockCatalog = stockCatalog;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Stock stock) {
+        stockSearchIndex.ifAvailable(StockSearchIndex::invalidate);
+        stockCatalog.ifAvailable(StockCatalog::invalidate);
+    }
+}
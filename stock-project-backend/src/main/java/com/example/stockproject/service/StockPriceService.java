@@ -1,25 +1,60 @@
 package com.example.stockproject.service;
 
+import com.example.stockproject.archive.PriceArchiveFile;
+import com.example.stockproject.cache.MarketDataKey;
+import com.example.stockproject.client.AlphaVantageParser;
+import com.example.stockproject.client.MarketDataClient;
+import com.example.stockproject.client.QuotaScheduler;
+import com.example.stockproject.client.RequestPriority;
+import com.example.stockproject.client.YahooChartParser;
+import com.example.stockproject.cache.TtlCache;
+import com.example.stockproject.model.dto.BatchStockPricesDTO;
+import com.example.stockproject.model.dto.IntradayBarsDTO;
 import com.example.stockproject.model.dto.StockPriceDTO;
 import com.example.stockproject.model.entity.Stock;
 import com.example.stockproject.model.entity.StockPrice;
+import com.example.stockproject.model.series.BarInterval;
+import com.example.stockproject.model.series.DailyBars;
+import com.example.stockproject.model.series.IntradaySeries;
+import com.example.stockproject.model.series.PriceSeries;
+import com.example.stockproject.model.series.PriceSeriesResampler;
+import com.example.stockproject.model.series.Resolution;
+import com.example.stockproject.repository.IntradayBarRepository;
+import com.example.stockproject.repository.PriceArchiveRepository;
+import com.example.stockproject.repository.StockPriceBatchRepository;
 import com.example.stockproject.repository.StockPriceRepository;
 import com.example.stockproject.repository.StockRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
 
 /**
  * 股票歷史價格服務類別
@@ -35,8 +70,43 @@ import java.util.Iterator;
 @Slf4j
 public class StockPriceService {
 
+    /**
+     * 分頁查詢每頁的最大筆數
+     */
+    public static final int MAX_PAGE_SIZE = 5000;
+
     private final StockPriceRepository stockPriceRepository;
     private final StockRepository stockRepository;
+    private final StockPriceBatchRepository stockPriceBatchRepository;
+    private final PriceSeriesStore priceSeriesStore;
+    private final IntradayBarStore intradayBarStore;
+    private final IntradayBarRepository intradayBarRepository;
+    private final PriceArchiveRepository priceArchiveRepository;
+    private final PriceHistoryLock priceHistoryLock;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TtlCache<MarketDataKey, List<StockPriceDTO>> marketDataCache;
+    private final MarketDataClient marketDataClient;
+    private final QuotaScheduler<MarketDataKey, List<StockPriceDTO>> alphaVantageScheduler;
+
+    /**
+     * Yahoo Finance API 基底網址
+     */
+    @Value("${stock.market-data.yahoo.base-url:https://query1.finance.yahoo.com}")
+    private String yahooBaseUrl;
+
+    /**
+     * Alpha Vantage API 基底網址
+     */
+    @Value("${stock.market-data.alphavantage.base-url:https://www.alphavantage.co}")
+    private String alphaVantageBaseUrl;
+
+    /**
+     * 批次生成模擬數據時同時寫入的股票數
+     */
+    @Value("${stock.mock-data.parallelism:2}")
+    private int mockDataParallelism;
 
     /**
      * 根據股票識別碼獲取歷史價格數據
@@ -47,11 +117,142 @@ public class StockPriceService {
     public List<StockPriceDTO> getStockPrices(Long stockId) {
         log.info("獲取股票 ID: {} 的歷史價格數據", stockId);
 
-        List<StockPrice> stockPrices = stockPriceRepository.findByStockIdOrderByDateAsc(stockId);
+        return getStockPriceSeries(stockId).toDTOs();
+    }
+
+    /**
+     * 根據股票識別碼獲取完整日線（歸檔的舊K線直接讀取對映檔案，不複製）
+     * 
+     * @param stockId 股票識別碼
+     * @return 完整日線
+     */
+    public DailyBars getStockPriceSeries(Long stockId) {
+        return priceSeriesStore.get(stockId);
+    }
+
+    /**
+     * 根據股票識別碼獲取重取樣後的欄式歷史價格序列
+     * 
+     * @param stockId    股票識別碼
+     * @param resolution K線週期（週線、月線由快取的彙總結果提供）
+     * @param maxPoints  最多點數，0 表示不縮減
+     * @return 歷史價格序列（日線且不縮減時為對映歸檔檔案的視圖）
+     */
+    public DailyBars getStockPriceSeries(Long stockId, Resolution resolution, int maxPoints) {
+        DailyBars series = resolution == Resolution.DAILY
+                ? priceSeriesStore.get(stockId)
+                : priceSeriesStore.getAggregated(stockId, resolution);
+        return PriceSeriesResampler.downsample(series, maxPoints);
+    }
+
+    /**
+     * 以串流方式將歷史價格數據直接寫成 JSON 陣列
+     * 
+     * 先從對映的歸檔檔案輸出舊K線，再在唯讀交易中以游標逐筆讀取資料庫，
+     * 每筆寫出後即從持久化上下文分離，因此不論時間範圍多長，每個請求的記憶體用量都是固定的。
+     * 
+     * @param stockId 股票識別碼
+     * @param period  時間範圍 (1D, 5D, 3M, 1Y, 2Y, 3Y, 5Y)，null 表示全部
+     * @param out     輸出串流
+     * @return 寫出的筆數
+     * @throws IOException 寫出失敗時拋出
+     */
+    @Transactional(readOnly = true)
+    public long streamStockPrices(Long stockId, String period, OutputStream out) throws IOException {
+        log.info("串流輸出股票 ID: {} 在時間範圍 {} 的歷史價格數據", stockId, period);
+
+        LocalDate startDate = period == null ? null : calculateStartDate(period);
+        PriceArchiveFile archive = archiveOf(stockId);
+        long databaseFrom = archive == null ? Long.MIN_VALUE : archive.databaseFrom();
+        long count = 0;
+        try (Stream<StockPrice> rows = startDate == null
+                ? stockPriceRepository.streamByStockId(stockId)
+                : stockPriceRepository.streamByStockIdAndDateRange(stockId, startDate, LocalDate.now());
+                JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            String symbol = null;
+            gen.writeStartArray();
+            if (archive != null) {
+                symbol = archive.getSymbol();
+                int from = startDate == null ? 0 : archive.lowerBound(startDate.toEpochDay());
+                for (int i = from; i < archive.size(); i++) {
+                    writePriceRow(gen, 0L, stockId, symbol, LocalDate.ofEpochDay(archive.epochDayAt(i)),
+                            archive.openAt(i), archive.closeAt(i), archive.highAt(i), archive.lowAt(i),
+                            archive.volumeAt(i));
+                    count++;
+                }
+            }
+            for (Iterator<StockPrice> it = rows.iterator(); it.hasNext();) {
+                StockPrice row = it.next();
+                if (symbol == null) {
+                    symbol = row.getStock().getSymbol();
+                }
+                if (row.getDate().toEpochDay() >= databaseFrom) {
+                    writePriceRow(gen, row.getId(), stockId, symbol, row.getDate(), row.getOpenPrice(),
+                            row.getClosePrice(), row.getHighPrice(), row.getLowPrice(), row.getVolume());
+                    count++;
+                }
+                entityManager.detach(row);
+            }
+            gen.writeEndArray();
+        }
+        return count;
+    }
+
+    private static void writePriceRow(JsonGenerator gen, long id, Long stockId, String symbol, LocalDate date,
+            double open, double close, double high, double low, long volume) throws IOException {
+        gen.writeStartObject();
+        gen.writeNumberField("id", id);
+        gen.writeNumberField("stockId", stockId);
+        gen.writeStringField("symbol", symbol);
+        gen.writeStringField("date", date.toString());
+        gen.writeNumberField("openPrice", open);
+        gen.writeNumberField("closePrice", close);
+        gen.writeNumberField("highPrice", high);
+        gen.writeNumberField("lowPrice", low);
+        gen.writeNumberField("volume", volume);
+        gen.writeEndObject();
+    }
+
+    /**
+     * 以鍵集分頁方式獲取歷史價格數據
+     * 
+     * 游標為上一頁最後一筆的 (date, id)；同一天可能有多筆記錄，只給日期時略過該日全部記錄。
+     * 游標落在歸檔範圍內時先從歸檔檔案讀取，不足一頁再以 (stock_id, date) 索引查詢資料庫，
+     * 不載入完整序列。
+     * 
+     * @param stockId 股票識別碼
+     * @param after   游標日期，null 表示從第一筆開始
+     * @param afterId 游標識別碼（不含），null 表示略過游標日期的全部記錄
+     * @param limit   每頁筆數
+     * @return 該頁的歷史價格 DTO 列表
+     */
+    public List<StockPriceDTO> getStockPricesPage(Long stockId, LocalDate after, Long afterId, int limit) {
+        log.info("分頁獲取股票 ID: {} 的歷史價格數據，after: {} / {}，limit: {}", stockId, after, afterId, limit);
+
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        long cursorId = afterId == null ? Long.MAX_VALUE : afterId;
+        PriceArchiveFile archive = archiveOf(stockId);
+        if (archive == null || archive.isEmpty()) {
+            return after == null
+                    ? stockPriceRepository.findFirstPage(stockId, Limit.of(pageSize))
+                    : stockPriceRepository.findPageAfter(stockId, after, cursorId, Limit.of(pageSize));
+        }
 
-        return stockPrices.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        int from = after == null ? 0 : archive.lowerBound(after.toEpochDay() + 1);
+        int to = Math.min(archive.size(), from + pageSize);
+        List<StockPriceDTO> page = new ArrayList<>(archive.read(from, to, archive.getSymbol()).toDTOs());
+        if (page.size() < pageSize) {
+            // 歸檔範圍內的日期只從歸檔檔案輸出，資料庫從歸檔最後一天之後開始
+            LocalDate cursor = LocalDate.ofEpochDay(archive.databaseFrom() - 1);
+            if (after != null && after.isAfter(cursor)) {
+                cursor = after;
+            } else {
+                cursorId = Long.MAX_VALUE;
+            }
+            page.addAll(stockPriceRepository.findPageAfter(stockId, cursor, cursorId,
+                    Limit.of(pageSize - page.size())));
+        }
+        return page;
     }
 
     /**
@@ -67,12 +268,105 @@ public class StockPriceService {
         LocalDate endDate = LocalDate.now();
         LocalDate startDate = calculateStartDate(period);
 
-        List<StockPrice> stockPrices = stockPriceRepository.findByStockIdAndDateRange(
-                stockId, startDate, endDate);
+        return getStockPriceSeries(stockId, startDate, endDate).toDTOs();
+    }
 
-        return stockPrices.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    /**
+     * 根據股票識別碼和時間範圍獲取欄式歷史價格序列
+     * 
+     * @param stockId 股票識別碼
+     * @param period  時間範圍 (3M, 1Y, 2Y, 3Y, 5Y)
+     * @return 歷史價格序列
+     */
+    public PriceSeries getStockPriceSeriesByPeriod(Long stockId, String period) {
+        return getStockPriceSeries(stockId, calculateStartDate(period), LocalDate.now());
+    }
+
+    /**
+     * 根據股票識別碼和時間範圍獲取重取樣後的欄式歷史價格序列
+     * 
+     * @param stockId    股票識別碼
+     * @param period     時間範圍 (3M, 1Y, 2Y, 3Y, 5Y)
+     * @param resolution K線週期（週線、月線由快取的彙總結果提供）
+     * @param maxPoints  最多點數，0 表示不縮減
+     * @return 歷史價格序列
+     */
+    public PriceSeries getStockPriceSeriesByPeriod(Long stockId, String period, Resolution resolution,
+            int maxPoints) {
+        log.info("獲取股票 ID: {} 在時間範圍 {} 的 {} 歷史價格序列，最多 {} 點",
+                stockId, period, resolution, maxPoints);
+
+        LocalDate startDate = calculateStartDate(period);
+        LocalDate endDate = LocalDate.now();
+        PriceSeries series = resolution == Resolution.DAILY
+                ? priceSeriesStore.getRange(stockId, startDate, endDate)
+                : priceSeriesStore.getAggregated(stockId, resolution).slice(startDate, endDate);
+        return PriceSeriesResampler.downsample(series, maxPoints);
+    }
+
+    /**
+     * 根據股票識別碼和時間範圍獲取分K線
+     * 
+     * 1D、5D 為從現在往前 1 天、5 天；其他時間範圍從 {@link #calculateStartDate} 當天開始。
+     * 只包含已完成的K線。
+     * 
+     * @param stockId  股票識別碼
+     * @param period   時間範圍 (1D, 5D, 3M, 1Y, 2Y, 3Y, 5Y)
+     * @param interval K線週期
+     * @return 分K線數據
+     */
+    public IntradayBarsDTO getIntradayBars(Long stockId, String period, BarInterval interval) {
+        log.info("獲取股票 ID: {} 在時間範圍 {} 的 {} 分K線", stockId, period, interval.getCode());
+
+        Instant now = Instant.now();
+        Instant from = switch (period.toUpperCase(Locale.ROOT)) {
+            case "1D" -> now.minus(Duration.ofDays(1));
+            case "5D" -> now.minus(Duration.ofDays(5));
+            default -> calculateStartDate(period).atStartOfDay(ZoneId.systemDefault()).toInstant();
+        };
+        IntradaySeries series = intradayBarStore.get(stockId, interval, from, now);
+
+        int size = series.size();
+        long[] timestamps = new long[size];
+        double[] open = new double[size];
+        double[] high = new double[size];
+        double[] low = new double[size];
+        double[] close = new double[size];
+        long[] volume = new long[size];
+        for (int i = 0; i < size; i++) {
+            timestamps[i] = series.timestampAt(i);
+            open[i] = series.openAt(i);
+            high[i] = series.highAt(i);
+            low[i] = series.lowAt(i);
+            close[i] = series.closeAt(i);
+            volume[i] = series.volumeAt(i);
+        }
+        return new IntradayBarsDTO(stockId, series.getSymbol(), interval.getCode(),
+                timestamps, open, high, low, close, volume);
+    }
+
+    /**
+     * 取得時間範圍未指定K線週期時的預設分K線週期
+     * 
+     * @param period 時間範圍
+     * @return 1D 為 1 分鐘、5D 為 5 分鐘，其他時間範圍為 null（使用日線）
+     */
+    public BarInterval defaultIntradayInterval(String period) {
+        return switch (period.toUpperCase(Locale.ROOT)) {
+            case "1D" -> BarInterval.ONE_MINUTE;
+            case "5D" -> BarInterval.FIVE_MINUTES;
+            default -> null;
+        };
+    }
+
+    private PriceSeries getStockPriceSeries(Long stockId, LocalDate startDate, LocalDate endDate) {
+        return priceSeriesStore.getRange(stockId, startDate, endDate);
+    }
+
+    private PriceArchiveFile archiveOf(Long stockId) {
+        return stockRepository.findById(stockId)
+                .map(stock -> priceArchiveRepository.find(stockId, stock.getSymbol()))
+                .orElse(null);
     }
 
     /**
@@ -81,6 +375,7 @@ public class StockPriceService {
      * @param stockId 股票識別碼
      * @param days    生成的天數
      */
+    @Transactional
     public void generateMockData(Long stockId, int days) {
         log.info("為股票 ID: {} 生成 {} 天的模擬歷史價格數據", stockId, days);
 
@@ -93,6 +388,7 @@ public class StockPriceService {
         Stock stock = stockOpt.get();
         double basePrice = stock.getPrice();
         LocalDate startDate = LocalDate.now().minusDays(days);
+        List<StockPrice> saved = new ArrayList<>();
 
         for (int i = 0; i < days; i++) {
             LocalDate date = startDate.plusDays(i);
@@ -115,42 +411,125 @@ public class StockPriceService {
             StockPrice stockPrice = new StockPrice(
                     stock, date, openPrice, closePrice, highPrice, lowPrice, volume);
 
-            stockPriceRepository.save(stockPrice);
+            saved.add(stockPriceRepository.save(stockPrice));
             basePrice = closePrice; // 更新基準價格
         }
+        priceSeriesStore.append(stockId, PriceSeries.fromEntities(stockId, stock.getSymbol(), saved));
 
         log.info("成功為股票 ID: {} 生成模擬歷史價格數據", stockId);
     }
 
     /**
-     * 將實體轉換為 DTO
+     * 以批次模式生成模擬歷史價格數據
+     * 
+     * 先在記憶體中以欄式陣列建立整段序列，再以 JDBC 批次插入寫入，
+     * 並取代該股票原有的歷史價格（含歸檔檔案）。寫入期間持有 {@link PriceHistoryLock}，
+     * 寫入完成後直接更新欄式序列快取。
+     * 
+     * @param stockId 股票識別碼
+     * @param days    生成的天數
+     * @return 寫入的筆數，股票不存在時為 0
+     */
+    public int generateMockDataBulk(Long stockId, int days) {
+        Optional<Stock> stockOpt = stockRepository.findById(stockId);
+        if (stockOpt.isEmpty()) {
+            log.warn("股票 ID: {} 不存在，無法生成歷史價格數據", stockId);
+            return 0;
+        }
+        return generateMockDataBulk(stockOpt.get(), days);
+    }
+
+    /**
+     * 平行地為多支股票以批次模式生成模擬歷史價格數據
      * 
-     * @param stockPrice 股票價格實體
-     * @return 股票價格 DTO
+     * @param stockIds 股票識別碼列表，null 或空列表表示所有股票
+     * @param days     生成的天數
+     * @return 寫入的總筆數
      */
-    private StockPriceDTO convertToDTO(StockPrice stockPrice) {
-        return new StockPriceDTO(
-                stockPrice.getId(),
-                stockPrice.getStock().getId(),
-                stockPrice.getStock().getSymbol(),
-                stockPrice.getDate(),
-                stockPrice.getOpenPrice(),
-                stockPrice.getClosePrice(),
-                stockPrice.getHighPrice(),
-                stockPrice.getLowPrice(),
-                stockPrice.getVolume());
+    public long generateMockDataBulk(List<Long> stockIds, int days) {
+        List<Stock> stocks = stockIds == null || stockIds.isEmpty()
+                ? stockRepository.findAll()
+                : stockRepository.findAllById(stockIds);
+        log.info("平行為 {} 支股票生成 {} 天的模擬歷史價格數據", stocks.size(), days);
+
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, mockDataParallelism));
+        try {
+            return pool.submit(() -> stocks.parallelStream()
+                    .mapToLong(stock -> generateMockDataBulk(stock, days))
+                    .sum()).join();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private int generateMockDataBulk(Stock stock, int days) {
+        int capacity = Math.max(days, 0);
+        long[] ids = new long[capacity];
+        int[] epochDays = new int[capacity];
+        double[] open = new double[capacity];
+        double[] high = new double[capacity];
+        double[] low = new double[capacity];
+        double[] close = new double[capacity];
+        long[] volume = new long[capacity];
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double basePrice = stock.getPrice();
+        LocalDate startDate = LocalDate.now().minusDays(days);
+        int size = 0;
+
+        for (int i = 0; i < days; i++) {
+            LocalDate date = startDate.plusDays(i);
+
+            // 跳過週末
+            if (date.getDayOfWeek().getValue() > 5) {
+                continue;
+            }
+
+            double closePrice = basePrice * (1 + (random.nextDouble() - 0.5) * 0.02);
+            double openPrice = closePrice * (1 + (random.nextDouble() - 0.5) * 0.01);
+
+            epochDays[size] = (int) date.toEpochDay();
+            open[size] = openPrice;
+            close[size] = closePrice;
+            high[size] = Math.max(openPrice, closePrice) * (1 + random.nextDouble() * 0.005);
+            low[size] = Math.min(openPrice, closePrice) * (1 - random.nextDouble() * 0.005);
+            volume[size] = random.nextLong(100000, 1100000);
+            size++;
+            basePrice = closePrice;
+        }
+
+        int count = size;
+        // 改寫包含歸檔期限之前的日期，與歸檔、匯入依序執行
+        priceHistoryLock.lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                stockPriceBatchRepository.deleteByStockId(stock.getId());
+                stockPriceBatchRepository.insertColumns(
+                        stock.getId(), ids, epochDays, open, high, low, close, volume, count);
+            });
+            priceArchiveRepository.delete(stock.getId(), stock.getSymbol());
+            priceSeriesStore.put(new PriceSeries(stock.getId(), stock.getSymbol(),
+                    ids, epochDays, open, high, low, close, volume, size));
+        } finally {
+            priceHistoryLock.unlock();
+        }
+
+        log.info("成功為股票 ID: {} 批次生成 {} 筆模擬歷史價格數據", stock.getId(), size);
+        return size;
     }
 
     /**
      * 根據時間範圍計算開始日期
      * 
-     * @param period 時間範圍 (3M, 1Y, 2Y, 3Y, 5Y)
+     * @param period 時間範圍 (1D, 5D, 3M, 1Y, 2Y, 3Y, 5Y)
      * @return 開始日期
      */
-    private LocalDate calculateStartDate(String period) {
+    public LocalDate calculateStartDate(String period) {
         LocalDate now = LocalDate.now();
 
-        return switch (period.toUpperCase()) {
+        return switch (period.toUpperCase(Locale.ROOT)) {
+            case "1D" -> now.minusDays(1);
+            case "5D" -> now.minusDays(5);
             case "3M" -> now.minusMonths(3);
             case "1Y" -> now.minusYears(1);
             case "2Y" -> now.minusYears(2);
@@ -167,7 +546,7 @@ public class StockPriceService {
      * @return 如果有數據返回 true，否則返回 false
      */
     public boolean hasHistoricalData(Long stockId) {
-        return stockPriceRepository.existsByStockId(stockId);
+        return stockPriceRepository.existsByStockId(stockId) || archiveOf(stockId) != null;
     }
 
     /**
@@ -178,6 +557,11 @@ public class StockPriceService {
     public void deleteHistoricalData(Long stockId) {
         log.info("刪除股票 ID: {} 的歷史價格數據", stockId);
         stockPriceRepository.deleteByStockId(stockId);
+        stockRepository.findById(stockId)
+                .ifPresent(stock -> priceArchiveRepository.delete(stockId, stock.getSymbol()));
+        priceSeriesStore.invalidate(stockId);
+        intradayBarRepository.deleteByStockId(stockId);
+        intradayBarStore.invalidate(stockId);
     }
 
     /**
@@ -188,24 +572,8 @@ public class StockPriceService {
      * @return 歷史價格 DTO 列表
      */
     public List<StockPriceDTO> getRealStockPricesFromYahoo(String symbol, String period) {
-        log.info("從 Yahoo Finance 取得股票 {} 在時間範圍 {} 的真實歷史價格數據", symbol, period);
-
         try {
-            // Yahoo Finance API URL
-            String url = String.format(
-                    "https://query1.finance.yahoo.com/v8/finance/chart/%s?interval=1d&range=%s",
-                    symbol, period);
-
-            // 使用 RestTemplate 呼叫 Yahoo Finance API
-            RestTemplate restTemplate = new RestTemplate();
-            ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
-
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                return parseYahooFinanceResponse(response.getBody(), symbol);
-            } else {
-                log.error("Yahoo Finance API 回應異常: {}", response.getStatusCode());
-                return new ArrayList<>();
-            }
+            return loadStockPricesFromYahoo(symbol, period);
         } catch (Exception e) {
             log.error("從 Yahoo Finance 取得歷史價格數據時發生錯誤", e);
             return new ArrayList<>();
@@ -213,188 +581,164 @@ public class StockPriceService {
     }
 
     /**
-     * 解析 Yahoo Finance API 回應
+     * 非同步從 Yahoo Finance 取得真實歷史股價數據（在市場數據執行緒池執行）
      * 
-     * @param jsonResponse Yahoo Finance JSON 回應
-     * @param symbol       股票代碼
+     * @param symbol 股票代碼
+     * @param period 時間範圍
      * @return 歷史價格 DTO 列表
      */
-    private List<StockPriceDTO> parseYahooFinanceResponse(String jsonResponse, String symbol) {
-        List<StockPriceDTO> stockPrices = new ArrayList<>();
-
-        try {
-            // 使用 Jackson 解析 JSON
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode root = mapper.readTree(jsonResponse);
-
-            JsonNode chart = root.path("chart");
-            if (chart.isMissingNode()) {
-                log.error("Yahoo Finance 回應格式異常: 找不到 chart 節點");
-                return stockPrices;
-            }
+    public CompletableFuture<List<StockPriceDTO>> getRealStockPricesFromYahooAsync(String symbol, String period) {
+        return marketDataClient.supplyAsync(() -> getRealStockPricesFromYahoo(symbol, period));
+    }
 
-            JsonNode result = chart.path("result").get(0);
-            if (result == null || result.isMissingNode()) {
-                log.error("Yahoo Finance 回應格式異常: 找不到 result 節點");
-                return stockPrices;
+    /**
+     * 同時從 Yahoo Finance 取得多檔股票的真實歷史股價數據
+     * 
+     * 每檔股票在市場數據執行緒池中平行取得（受每個主機的連線數上限約束），
+     * 整批耗時接近最慢的一檔而非所有股票的總和。單檔失敗只記錄在 errors。
+     * 
+     * @param symbols 股票代碼列表（重複的代碼只取一次）
+     * @param period  時間範圍
+     * @return 批次查詢結果
+     */
+    public CompletableFuture<BatchStockPricesDTO> getRealStockPricesFromYahooBatch(List<String> symbols, String period) {
+        long started = System.nanoTime();
+        Map<String, CompletableFuture<List<StockPriceDTO>>> pending = new LinkedHashMap<>();
+        for (String symbol : symbols) {
+            String normalized = symbol.trim().toUpperCase(Locale.ROOT);
+            if (!normalized.isEmpty()) {
+                pending.computeIfAbsent(normalized,
+                        s -> marketDataClient.supplyAsync(() -> loadStockPricesFromYahoo(s, period)));
             }
+        }
+        log.info("批次從 Yahoo Finance 取得 {} 檔股票在時間範圍 {} 的歷史價格數據", pending.size(), period);
+
+        return CompletableFuture.allOf(pending.values().toArray(new CompletableFuture<?>[0]))
+                .handle((ignored, failure) -> {
+                    Map<String, List<StockPriceDTO>> prices = new LinkedHashMap<>();
+                    Map<String, String> errors = new LinkedHashMap<>();
+                    pending.forEach((symbol, future) -> {
+                        try {
+                            List<StockPriceDTO> stockPrices = future.join();
+                            if (stockPrices.isEmpty()) {
+                                errors.put(symbol, "查無歷史價格數據");
+                            } else {
+                                prices.put(symbol, stockPrices);
+                            }
+                        } catch (CompletionException e) {
+                            Throwable cause = e.getCause() != null ? e.getCause() : e;
+                            log.warn("批次取得股票 {} 的歷史價格數據失敗: {}", symbol, cause.getMessage());
+                            errors.put(symbol, cause.getMessage());
+                        }
+                    });
+                    long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+                    return new BatchStockPricesDTO(period, prices, errors, elapsedMs);
+                });
+    }
 
-            JsonNode timestamp = result.path("timestamp");
-            JsonNode indicators = result.path("indicators");
-            JsonNode quote = indicators.path("quote").get(0);
-
-            if (timestamp.isMissingNode() || quote.isMissingNode()) {
-                log.error("Yahoo Finance 回應格式異常: 找不到 timestamp 或 quote 節點");
-                return stockPrices;
-            }
+    /**
+     * 經由快取取得 Yahoo Finance 歷史價格（錯誤以例外拋出）
+     */
+    private List<StockPriceDTO> loadStockPricesFromYahoo(String symbol, String period) {
+        // 相同 (代碼, 範圍) 在 TTL 內共用同一份回應，並行的請求只會打一次外部 API
+        return marketDataCache.get(MarketDataKey.of("yahoo", symbol, period),
+                () -> fetchStockPricesFromYahoo(symbol, period));
+    }
 
-            JsonNode open = quote.path("open");
-            JsonNode high = quote.path("high");
-            JsonNode low = quote.path("low");
-            JsonNode close = quote.path("close");
-            JsonNode volume = quote.path("volume");
-
-            for (int i = 0; i < timestamp.size(); i++) {
-                try {
-                    // 檢查是否有有效數據
-                    if (i < open.size() && i < high.size() && i < low.size() &&
-                            i < close.size() && i < volume.size() &&
-                            !open.get(i).isNull() && !high.get(i).isNull() &&
-                            !low.get(i).isNull() && !close.get(i).isNull() &&
-                            !volume.get(i).isNull()) {
-
-                        // 轉換時間戳為 LocalDate
-                        long timestampValue = timestamp.get(i).asLong();
-                        LocalDate date = LocalDate.ofEpochDay(timestampValue / 86400);
-
-                        StockPriceDTO stockPrice = new StockPriceDTO();
-                        stockPrice.setId((long) i);
-                        stockPrice.setStockId(0L); // 暫時設為 0，因為是外部數據
-                        stockPrice.setSymbol(symbol);
-                        stockPrice.setDate(date);
-                        stockPrice.setOpenPrice(open.get(i).asDouble());
-                        stockPrice.setHighPrice(high.get(i).asDouble());
-                        stockPrice.setLowPrice(low.get(i).asDouble());
-                        stockPrice.setClosePrice(close.get(i).asDouble());
-                        stockPrice.setVolume(volume.get(i).asLong());
-
-                        stockPrices.add(stockPrice);
-                    }
-                } catch (Exception e) {
-                    log.warn("解析第 {} 筆數據時發生錯誤: {}", i, e.getMessage());
-                }
-            }
+    private List<StockPriceDTO> fetchStockPricesFromYahoo(String symbol, String period) {
+        log.info("從 Yahoo Finance 取得股票 {} 在時間範圍 {} 的真實歷史價格數據", symbol, period);
+        return fetchYahooSeries(0L, symbol, Map.of("range", period)).toDTOs();
+    }
 
-            log.info("成功從 Yahoo Finance 解析 {} 筆歷史價格數據", stockPrices.size());
+    /**
+     * 從 Yahoo Finance 取得日線價格序列（不經過快取，錯誤以例外拋出）
+     * 
+     * @param stockId    寫入序列的股票識別碼
+     * @param symbol     股票代碼
+     * @param range   時間範圍查詢參數，如 range=5y 或 period1、period2
+     * @return 依日期遞增的價格序列
+     */
+    public PriceSeries fetchYahooSeries(Long stockId, String symbol, Map<String, ?> range) {
+        // Yahoo Finance API URL：代碼與參數值都以 URI 變數展開並逐一編碼
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(yahooBaseUrl)
+                .path("/v8/finance/chart/{symbol}")
+                .queryParam("interval", "1d");
+        Map<String, Object> variables = new LinkedHashMap<>(range);
+        range.keySet().forEach(name -> builder.queryParam(name, "{" + name + "}"));
+        variables.put("symbol", symbol);
+        URI uri = builder.encode().buildAndExpand(variables).toUri();
+
+        // 以串流方式解析回應，直接寫入欄式緩衝區
+        PriceSeries series = marketDataClient.get(uri,
+                body -> YahooChartParser.parse(objectMapper.getFactory().createParser(body), stockId, symbol));
+        log.info("成功從 Yahoo Finance 解析 {} 筆歷史價格數據", series.size());
+        return series;
+    }
 
-        } catch (Exception e) {
-            log.error("解析 Yahoo Finance 回應時發生錯誤", e);
+    /**
+     * 向 Alpha Vantage 配額排程器提交歷史價格請求
+     * 
+     * 快取命中時直接回傳已完成的結果；否則依優先順序排隊，在不超過每分鐘與每日配額下送出。
+     * 相同 (代碼, outputsize) 的請求合併為一次呼叫。
+     * 
+     * @param symbol   股票代碼
+     * @param apiKey   Alpha Vantage API Key
+     * @param full     是否取得完整歷史
+     * @param priority 優先順序
+     * @return 請求狀態（結果、佇列位置與預計等待時間）
+     */
+    public QuotaScheduler.Ticket<List<StockPriceDTO>> requestAlphaVantage(
+            String symbol, String apiKey, boolean full, RequestPriority priority) {
+        String outputSize = full ? "full" : "compact";
+        // 快取鍵不含 API 金鑰：數據與金鑰無關，且可避免金鑰留在記憶體的鍵中
+        MarketDataKey key = MarketDataKey.of("alphavantage", symbol, outputSize);
+        List<StockPriceDTO> cached = marketDataCache.getIfPresent(key);
+        if (cached != null) {
+            return new QuotaScheduler.Ticket<>(CompletableFuture.completedFuture(cached), 0, Duration.ZERO);
         }
-
-        return stockPrices;
+        return alphaVantageScheduler.submit(key, priority,
+                () -> marketDataCache.get(key, () -> fetchStockPricesFromAlphaVantage(symbol, apiKey, outputSize)));
     }
 
     /**
-     * 從 Alpha Vantage 取得真實歷史股價數據
+     * 查詢 Alpha Vantage 請求目前的排隊狀態
      * 
      * @param symbol 股票代碼
-     * @param apiKey Alpha Vantage API Key
-     * @return 歷史價格 DTO 列表
+     * @param full   是否為完整歷史請求
+     * @return 請求狀態，沒有排隊或執行中時為 null
      */
-    public List<StockPriceDTO> getRealStockPricesFromAlphaVantage(String symbol, String apiKey) {
-        log.info("從 Alpha Vantage 取得股票 {} 的真實歷史價格數據", symbol);
-
-        try {
-            // Alpha Vantage API URL (每日時間序列)
-            String url = String.format(
-                    "https://www.alphavantage.co/query?function=TIME_SERIES_DAILY&symbol=%s&apikey=%s",
-                    symbol, apiKey);
-
-            // 使用 RestTemplate 呼叫 Alpha Vantage API
-            RestTemplate restTemplate = new RestTemplate();
-            ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
-
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                return parseAlphaVantageResponse(response.getBody(), symbol);
-            } else {
-                log.error("Alpha Vantage API 回應異常: {}", response.getStatusCode());
-                return new ArrayList<>();
-            }
-        } catch (Exception e) {
-            log.error("從 Alpha Vantage 取得歷史價格數據時發生錯誤", e);
-            return new ArrayList<>();
-        }
+    public QuotaScheduler.Ticket<List<StockPriceDTO>> getAlphaVantageStatus(String symbol, boolean full) {
+        return alphaVantageScheduler.status(MarketDataKey.of("alphavantage", symbol, full ? "full" : "compact"));
     }
 
     /**
-     * 解析 Alpha Vantage API 回應
+     * 取得 Alpha Vantage 配額與佇列統計
      * 
-     * @param jsonResponse Alpha Vantage JSON 回應
-     * @param symbol       股票代碼
-     * @return 歷史價格 DTO 列表
+     * @return 統計值
      */
-    private List<StockPriceDTO> parseAlphaVantageResponse(String jsonResponse, String symbol) {
-        List<StockPriceDTO> stockPrices = new ArrayList<>();
-
-        try {
-            // 使用 Jackson 解析 JSON
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode root = mapper.readTree(jsonResponse);
-
-            // 檢查是否有錯誤訊息
-            if (root.has("Error Message")) {
-                log.error("Alpha Vantage API 錯誤: {}", root.get("Error Message").asText());
-                return stockPrices;
-            }
-
-            // 檢查 API 呼叫限制
-            if (root.has("Note")) {
-                log.warn("Alpha Vantage API 限制: {}", root.get("Note").asText());
-                return stockPrices;
-            }
-
-            JsonNode timeSeriesDaily = root.path("Time Series (Daily)");
-            if (timeSeriesDaily.isMissingNode()) {
-                log.error("Alpha Vantage 回應格式異常: 找不到 Time Series (Daily) 節點");
-                return stockPrices;
-            }
-
-            int count = 0;
-            Iterator<String> fieldNames = timeSeriesDaily.fieldNames();
-            while (fieldNames.hasNext() && count < 100) {
-                try {
-                    // 取得日期和價格數據
-                    String dateStr = fieldNames.next();
-                    JsonNode priceData = timeSeriesDaily.get(dateStr);
-
-                    // 解析日期
-                    LocalDate date = LocalDate.parse(dateStr);
-
-                    StockPriceDTO stockPrice = new StockPriceDTO();
-                    stockPrice.setId((long) count);
-                    stockPrice.setStockId(0L);
-                    stockPrice.setSymbol(symbol);
-                    stockPrice.setDate(date);
-                    stockPrice.setOpenPrice(Double.parseDouble(priceData.get("1. open").asText()));
-                    stockPrice.setHighPrice(Double.parseDouble(priceData.get("2. high").asText()));
-                    stockPrice.setLowPrice(Double.parseDouble(priceData.get("3. low").asText()));
-                    stockPrice.setClosePrice(Double.parseDouble(priceData.get("4. close").asText()));
-                    stockPrice.setVolume(Long.parseLong(priceData.get("5. volume").asText()));
-
-                    stockPrices.add(stockPrice);
-                    count++;
-
-                } catch (Exception e) {
-                    log.warn("解析第 {} 筆數據時發生錯誤: {}", count, e.getMessage());
-                }
-            }
-
-            log.info("成功從 Alpha Vantage 解析 {} 筆歷史價格數據", stockPrices.size());
-
-        } catch (Exception e) {
-            log.error("解析 Alpha Vantage 回應時發生錯誤", e);
-        }
+    public Map<String, Object> getAlphaVantageQuota() {
+        return alphaVantageScheduler.snapshot();
+    }
 
-        return stockPrices;
+    private List<StockPriceDTO> fetchStockPricesFromAlphaVantage(String symbol, String apiKey, String outputSize) {
+        log.info("從 Alpha Vantage 取得股票 {} 的真實歷史價格數據 (outputsize={})", symbol, outputSize);
+
+        // Alpha Vantage API URL (每日時間序列)，代碼與金鑰以 URI 變數展開並編碼
+        URI uri = UriComponentsBuilder.fromHttpUrl(alphaVantageBaseUrl)
+                .path("/query")
+                .queryParam("function", "TIME_SERIES_DAILY")
+                .queryParam("symbol", "{symbol}")
+                .queryParam("outputsize", "{outputSize}")
+                .queryParam("apikey", "{apiKey}")
+                .encode()
+                .buildAndExpand(symbol, outputSize, apiKey)
+                .toUri();
+
+        // 以串流方式解析回應，完整歷史也不需要先建立整棵 JSON 樹；
+        // 達到呼叫限制時拋出例外，由排程器重新排隊，不會快取空結果
+        PriceSeries series = marketDataClient.get(uri,
+                body -> AlphaVantageParser.parse(objectMapper.getFactory().createParser(body), 0L, symbol));
+        log.info("成功從 Alpha Vantage 解析 {} 筆歷史價格數據", series.size());
+        return series.toDTOs();
     }
 }
\ No newline at end of file
@@ -0,0 +1,370 @@
+package com.example.stockproject.service;
+
+import com.example.stockproject.event.StockQuotesUpdatedEvent;
+import com.example.stockproject.model.dto.StockDTO;
+import com.example.stockproject.model.entity.Stock;
+import com.example.stockproject.repository.StockRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 股票代碼 / 名稱記憶體搜尋索引
+ * 
+ * 以 stock 資料表建立不可變的索引快照，搜尋時不存取資料庫：
+ * <ul>
+ * <li>代碼：依代碼排序的陣列，前綴查詢以二分搜尋找出連續範圍（等同攤平的前綴樹）</li>
+ * <li>名稱：每個單字排序後的 (單字, 股票) 陣列支援單字前綴查詢，
+ * 代碼與名稱的三字元 n-gram 倒排索引支援任意位置的子字串查詢</li>
+ * </ul>
+ * 結果依「代碼完全相符、代碼前綴、名稱單字前綴、其他子字串」排序，達到筆數上限即停止。
+ * 一到兩個字元的關鍵字沒有 n-gram 可用，只比對代碼與名稱單字前綴，不逐檔掃描；
+ * 空白關鍵字依代碼順序回傳前幾檔股票。
+ * 股票新增、修改或刪除後（交易提交時）標記失效，下一次搜尋重建；
+ * 報價更新只改動快照中的價格。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增記憶體搜尋索引
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockSearchIndex {
+
+    private final StockRepository stockRepository;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * 應用程式就緒後預先建立索引，避免第一次搜尋等待
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        current();
+    }
+
+    /**
+     * 搜尋股票
+     * 
+     * @param query 搜尋關鍵字（不區分大小寫），null 或空白時依代碼順序回傳
+     * @param limit 最多回傳筆數
+     * @return 依相關性排序的股票 DTO 列表
+     */
+    public List<StockDTO> search(String query, int limit) {
+        return current().search(query == null ? "" : query.trim(), limit);
+    }
+
+    /**
+     * 標記索引失效（在交易中呼叫時於交易結束後才生效）
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    snapshot = null;
+                }
+            });
+        } else {
+            snapshot = null;
+        }
+    }
+
+    /**
+     * 報價更新後同步快照中的價格
+     * 
+     * @param event 報價更新事件
+     */
+    @EventListener
+    public void onQuotesUpdated(StockQuotesUpdatedEvent event) {
+        Snapshot current = snapshot;
+        if (current != null) {
+            event.getChangedPrices().forEach(current::updatePrice);
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    long started = System.nanoTime();
+                    current = new Snapshot(stockRepository.findAll());
+                    snapshot = current;
+                    log.info("建立股票搜尋索引: {} 檔股票，{} 個 n-gram，耗時 {} ms",
+                            current.size(), current.trigrams.size(), (System.nanoTime() - started) / 1_000_000);
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 不可變的索引快照（價格除外）
+     * 
+     * 股票依大寫代碼排序後以陣列索引作為文件編號，
+     * 因此代碼前綴範圍與 n-gram 倒排列表中的文件編號都依代碼排序。
+     */
+    static final class Snapshot {
+
+        private final long[] ids;
+        private final String[] symbols;
+        private final String[] names;
+        private final double[] prices;
+        private final String[] symbolKeys;
+        private final String[] symbolLower;
+        private final String[] nameLower;
+        private final Map<Long, Integer> docById;
+
+        private final String[] words;
+        private final int[] wordDocs;
+        private final Map<Long, int[]> trigrams;
+
+        Snapshot(List<Stock> stocks) {
+            List<Stock> sorted = new ArrayList<>(stocks);
+            sorted.sort(Comparator.comparing(stock -> stock.getSymbol().toUpperCase(Locale.ROOT)));
+
+            int n = sorted.size();
+            ids = new long[n];
+            symbols = new String[n];
+            names = new String[n];
+            prices = new double[n];
+            symbolKeys = new String[n];
+            symbolLower = new String[n];
+            nameLower = new String[n];
+            docById = new HashMap<>(n * 2);
+
+            List<String> wordList = new ArrayList<>();
+            List<Integer> wordDocList = new ArrayList<>();
+            Map<Long, IntList> postings = new HashMap<>();
+            for (int doc = 0; doc < n; doc++) {
+                Stock stock = sorted.get(doc);
+                ids[doc] = stock.getId();
+                symbols[doc] = stock.getSymbol();
+                names[doc] = stock.getName();
+                prices[doc] = stock.getPrice() != null ? stock.getPrice() : 0.0;
+                symbolKeys[doc] = stock.getSymbol().toUpperCase(Locale.ROOT);
+                symbolLower[doc] = stock.getSymbol().toLowerCase(Locale.ROOT);
+                nameLower[doc] = stock.getName().toLowerCase(Locale.ROOT);
+                docById.put(stock.getId(), doc);
+
+                for (String word : nameLower[doc].split("[^\\p{L}\\p{N}]+")) {
+                    if (!word.isEmpty()) {
+                        wordList.add(word);
+                        wordDocList.add(doc);
+                    }
+                }
+                addTrigrams(postings, symbolLower[doc], doc);
+                addTrigrams(postings, nameLower[doc], doc);
+            }
+
+            Integer[] order = new Integer[wordList.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparing(wordList::get));
+            words = new String[order.length];
+            wordDocs = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                words[i] = wordList.get(order[i]);
+                wordDocs[i] = wordDocList.get(order[i]);
+            }
+
+            trigrams = new HashMap<>(postings.size() * 2);
+            postings.forEach((gram, list) -> trigrams.put(gram, list.toArray()));
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        void updatePrice(Long id, Double price) {
+            Integer doc = docById.get(id);
+            if (doc != null && price != null) {
+                prices[doc] = price;
+            }
+        }
+
+        List<StockDTO> search(String query, int limit) {
+            Collector out = new Collector(limit, ids.length);
+            if (query.isEmpty()) {
+                for (int doc = 0; !out.full(); doc++) {
+                    out.add(doc);
+                }
+                return out.toDTOs(this);
+            }
+            if (out.full()) {
+                return out.toDTOs(this);
+            }
+            String upper = query.toUpperCase(Locale.ROOT);
+            String lower = query.toLowerCase(Locale.ROOT);
+
+            // 1. 代碼完全相符、2. 代碼前綴（前綴本身排序在最前面）
+            for (int doc = lowerBound(symbolKeys, upper);
+                    doc < symbolKeys.length && symbolKeys[doc].startsWith(upper) && !out.full(); doc++) {
+                out.add(doc);
+            }
+
+            // 3. 名稱單字前綴：關鍵字的每個單字在名稱中都位於單字開頭，
+            //    以範圍最小的單字在單字陣列中定位候選，再確認整個關鍵字位於單字開頭
+            int from = 0;
+            int to = -1;
+            for (String token : lower.split("[^\\p{L}\\p{N}]+")) {
+                if (token.isEmpty()) {
+                    continue;
+                }
+                int lo = lowerBound(words, token);
+                int hi = lowerBound(words, token + Character.MAX_VALUE);
+                if (to < 0 || hi - lo < to - from) {
+                    from = lo;
+                    to = hi;
+                }
+            }
+            for (int i = from; i < to && !out.full(); i++) {
+                int doc = wordDocs[i];
+                if (!out.contains(doc) && containsAtWordStart(nameLower[doc], lower)) {
+                    out.add(doc);
+                }
+            }
+
+            // 4. 代碼或名稱任意位置的子字串（需要至少一個 n-gram 縮小候選）
+            if (!out.full() && lower.length() >= 3) {
+                int[] candidates = candidates(lower);
+                for (int k = 0; k < candidates.length && !out.full(); k++) {
+                    int doc = candidates[k];
+                    if (!out.contains(doc) && (symbolLower[doc].contains(lower) || nameLower[doc].contains(lower))) {
+                        out.add(doc);
+                    }
+                }
+            }
+            return out.toDTOs(this);
+        }
+
+        /**
+         * 以最短的 n-gram 倒排列表作為候選（其餘 n-gram 由子字串比對確認）
+         */
+        private int[] candidates(String lower) {
+            int[] best = null;
+            for (int i = 0; i + 3 <= lower.length(); i++) {
+                int[] list = trigrams.get(trigram(lower, i));
+                if (list == null) {
+                    return new int[0];
+                }
+                if (best == null || list.length < best.length) {
+                    best = list;
+                }
+            }
+            return best;
+        }
+
+        private static void addTrigrams(Map<Long, IntList> postings, String text, int doc) {
+            for (int i = 0; i + 3 <= text.length(); i++) {
+                postings.computeIfAbsent(trigram(text, i), gram -> new IntList()).addIfLast(doc);
+            }
+        }
+
+        private static long trigram(String text, int i) {
+            return ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+
+        private static boolean containsAtWordStart(String text, String query) {
+            for (int at = text.indexOf(query); at >= 0; at = text.indexOf(query, at + 1)) {
+                if (at == 0 || !Character.isLetterOrDigit(text.charAt(at - 1))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static int lowerBound(String[] sorted, String key) {
+            int lo = 0;
+            int hi = sorted.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (sorted[mid].compareTo(key) < 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+
+    /**
+     * 收集不重複的搜尋結果，達到上限後停止
+     */
+    private static final class Collector {
+
+        private final int[] docs;
+        private final BitSet seen;
+        private int count;
+
+        Collector(int limit, int universe) {
+            this.docs = new int[Math.max(0, Math.min(limit, universe))];
+            this.seen = new BitSet(universe);
+        }
+
+        boolean full() {
+            return count == docs.length;
+        }
+
+        boolean contains(int doc) {
+            return seen.get(doc);
+        }
+
+        void add(int doc) {
+            if (!seen.get(doc)) {
+                seen.set(doc);
+                docs[count++] = doc;
+            }
+        }
+
+        List<StockDTO> toDTOs(Snapshot snapshot) {
+            List<StockDTO> result = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int doc = docs[i];
+                result.add(new StockDTO(snapshot.ids[doc], snapshot.symbols[doc], snapshot.names[doc],
+                        snapshot.prices[doc]));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 可增長的 int 列表（建立倒排列表用，避免裝箱）
+     */
+    private static final class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void addIfLast(int value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size + (size >> 1));
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -1,20 +1,18 @@
 package com.example.stockproject.service;
 
 import com.example.stockproject.model.dto.StockDTO;
-import com.example.stockproject.model.entity.Stock;
-import com.example.stockproject.repository.StockRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * 股票服務類別
  * 
  * 提供股票相關的業務邏輯，包括查詢、搜尋等功能。
  * 負責在控制器和儲存庫之間進行資料轉換和業務處理。
+ * 清單與單一股票查詢由記憶體中的股票清單快照提供，搜尋由記憶體搜尋索引提供。
  * 
  * @author Stock Project Team
  * @version 1.0
@@ -24,7 +22,8 @@ import java.util.stream.Collectors;
 @Slf4j
 public class StockService {
 
-    private final StockRepository stockRepository;
+    private final StockCatalog stockCatalog;
+    private final StockSearchIndex stockSearchIndex;
 
     /**
      * 取得所有股票
@@ -33,28 +32,31 @@ public class StockService {
      */
     public List<StockDTO> getAllStocks() {
         log.info("取得所有股票");
-        List<Stock> stocks = stockRepository.findAll();
-        return stocks.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return stockCatalog.current().getStocks();
+    }
+
+    /**
+     * 取得目前的股票清單快照（含版本、ETag 與預先序列化的 JSON）
+     * 
+     * @return 股票清單快照
+     */
+    public StockCatalog.Snapshot getCatalog() {
+        return stockCatalog.current();
     }
 
     /**
      * 根據關鍵字搜尋股票
      * 
+     * 由記憶體搜尋索引回答，結果依代碼完全相符、代碼前綴、名稱單字前綴、其他子字串排序；
+     * 空白關鍵字同樣受筆數上限限制。
+     * 
      * @param query 搜尋關鍵字
+     * @param limit 最多回傳筆數
      * @return 符合條件的股票 DTO 列表
      */
-    public List<StockDTO> searchStocks(String query) {
-        log.info("搜尋股票，關鍵字: {}", query);
-        if (query == null || query.trim().isEmpty()) {
-            return getAllStocks();
-        }
-
-        List<Stock> stocks = stockRepository.findBySymbolOrNameContainingIgnoreCase(query.trim());
-        return stocks.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public List<StockDTO> searchStocks(String query, int limit) {
+        log.debug("搜尋股票，關鍵字: {}，上限: {}", query, limit);
+        return stockSearchIndex.search(query, limit);
     }
 
     /**
@@ -65,9 +67,7 @@ public class StockService {
      */
     public StockDTO getStockById(Long id) {
         log.info("根據 ID 取得股票: {}", id);
-        return stockRepository.findById(id)
-                .map(this::convertToDTO)
-                .orElse(null);
+        return stockCatalog.current().getById(id);
     }
 
     /**
@@ -78,8 +78,7 @@ public class StockService {
      */
     public StockDTO getStockBySymbol(String symbol) {
         log.info("根據代碼取得股票: {}", symbol);
-        Stock stock = stockRepository.findBySymbol(symbol);
-        return stock != null ? convertToDTO(stock) : null;
+        return stockCatalog.current().getBySymbol(symbol);
     }
 
     /**
@@ -89,20 +88,6 @@ public class StockService {
      * @return 如果存在返回 true，否則返回 false
      */
     public boolean stockExists(Long id) {
-        return stockRepository.existsById(id);
-    }
-
-    /**
-     * 將股票實體轉換為 DTO
-     * 
-     * @param stock 股票實體
-     * @return 股票 DTO
-     */
-    private StockDTO convertToDTO(Stock stock) {
-        return new StockDTO(
-                stock.getId(),
-                stock.getSymbol(),
-                stock.getName(),
-                stock.getPrice());
+        return stockCatalog.current().getById(id) != null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,189 @@
+package com.example.stockproject.service;
+
+import com.example.stockproject.tick.MinuteBarAggregator;
+import com.example.stockproject.tick.MinuteBarBatch;
+import com.example.stockproject.tick.MinuteBarSink;
+import com.example.stockproject.tick.TickRingBuffer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 逐筆成交匯入服務
+ * 
+ * 成交寫入預先配置的 {@link TickRingBuffer}，由一條聚合執行緒讀出並彙總成一分鐘K線，
+ * 完成的K線以批次交給所有 {@link MinuteBarSink} bean。
+ * 寫入端為單一寫入者：同一時間只能有一條執行緒呼叫 {@link #offer}。
+ * 緩衝區已滿時不阻塞寫入端，該筆成交捨棄並計數（stock.ticks.dropped）。
+ * 沒有成交時聚合執行緒以指數退避休眠，最長到下一次結束K線的時間（約每秒喚醒一次），
+ * 寫入端發現執行緒在休眠時會喚醒它。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增逐筆成交匯入
+ */
+@Service
+@Slf4j
+public class TickIngestionService {
+
+    private final TickRingBuffer ring;
+    private final TickRingBuffer.Reader reader;
+    private final MinuteBarAggregator aggregator;
+    private final List<MinuteBarSink> sinks;
+    private final MeterRegistry registry;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong barsDelivered = new AtomicLong();
+
+    @Value("${stock.ticks.poll-batch:4096}")
+    private int pollBatch;
+
+    /**
+     * 分鐘結束後再等待多久才送出K線（容許稍晚到達的成交）
+     */
+    @Value("${stock.ticks.close-grace:2s}")
+    private Duration closeGrace;
+
+    /**
+     * 閒置時的最短休眠時間與結束K線的間隔（亦為最長休眠時間）
+     */
+    private static final long MIN_IDLE_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long CLOSE_INTERVAL_MILLIS = 1000;
+
+    private volatile boolean running;
+    private volatile boolean idle;
+    private volatile Thread consumer;
+
+    /**
+     * 建構函數
+     * 
+     * @param capacity       緩衝區容量（2 的次方）
+     * @param expectedStocks 預期股票數
+     * @param barBatchSize   每批送出的K線數
+     * @param sinkProvider   K線接收端
+     * @param registry       指標註冊器
+     */
+    public TickIngestionService(
+            @Value("${stock.ticks.ring-capacity:65536}") int capacity,
+            @Value("${stock.ticks.expected-stocks:1024}") int expectedStocks,
+            @Value("${stock.ticks.bar-batch-size:512}") int barBatchSize,
+            ObjectProvider<MinuteBarSink> sinkProvider,
+            MeterRegistry registry) {
+        this.ring = new TickRingBuffer(capacity);
+        this.reader = ring.newReader();
+        this.sinks = sinkProvider.orderedStream().toList();
+        this.aggregator = new MinuteBarAggregator(expectedStocks, barBatchSize, this::deliver);
+        this.registry = registry;
+    }
+
+    /**
+     * 註冊指標並啟動聚合執行緒
+     */
+    @PostConstruct
+    public void start() {
+        FunctionCounter.builder("stock.ticks.received", ring, r -> r.cursor() + 1).register(registry);
+        FunctionCounter.builder("stock.ticks.dropped", dropped, AtomicLong::get).register(registry);
+        FunctionCounter.builder("stock.ticks.late", aggregator, MinuteBarAggregator::getLateTicks).register(registry);
+        FunctionCounter.builder("stock.ticks.bars", barsDelivered, AtomicLong::get).register(registry);
+        Gauge.builder("stock.ticks.lag", reader, TickRingBuffer.Reader::lag).register(registry);
+
+        running = true;
+        consumer = new Thread(this::consume, "tick-aggregator");
+        consumer.setDaemon(true);
+        consumer.start();
+        log.info("逐筆成交匯入已啟動，緩衝區容量: {}，K線接收端: {}", ring.capacity(), sinks.size());
+    }
+
+    /**
+     * 停止聚合執行緒，處理完緩衝區內剩餘成交並送出進行中的K線
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+            consumer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    /**
+     * 寫入一筆成交（單一寫入者）
+     * 
+     * @param stockId         股票識別碼
+     * @param timestampMillis 成交時間 (epoch 毫秒)
+     * @param price           成交價
+     * @param size            成交量
+     * @return 緩衝區已滿而捨棄時為 false
+     */
+    public boolean offer(long stockId, long timestampMillis, double price, long size) {
+        if (ring.tryPublish(stockId, timestampMillis, price, size)) {
+            if (idle) {
+                // 盡力喚醒；錯過時聚合執行緒最晚在休眠上限後醒來
+                idle = false;
+                LockSupport.unpark(consumer);
+            }
+            return true;
+        }
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    private void consume() {
+        long graceMillis = closeGrace.toMillis();
+        long nextClose = System.currentTimeMillis() + CLOSE_INTERVAL_MILLIS;
+        long idleNanos = MIN_IDLE_NANOS;
+        while (running) {
+            try {
+                int polled = reader.poll(aggregator, pollBatch);
+                long now = System.currentTimeMillis();
+                if (now >= nextClose) {
+                    aggregator.closeBefore(now - graceMillis);
+                    nextClose = now + CLOSE_INTERVAL_MILLIS;
+                }
+                if (polled > 0) {
+                    idleNanos = MIN_IDLE_NANOS;
+                } else {
+                    long untilClose = TimeUnit.MILLISECONDS.toNanos(Math.max(1, nextClose - now));
+                    idle = true;
+                    if (reader.lag() == 0) {
+                        LockSupport.parkNanos(this, Math.min(idleNanos, untilClose));
+                    }
+                    idle = false;
+                    idleNanos = Math.min(idleNanos * 2, TimeUnit.MILLISECONDS.toNanos(CLOSE_INTERVAL_MILLIS));
+                }
+            } catch (RuntimeException e) {
+                log.error("聚合逐筆成交失敗", e);
+            }
+        }
+        while (reader.poll(aggregator, pollBatch) > 0) {
+            // 處理剩餘成交
+        }
+        aggregator.closeBefore(Long.MAX_VALUE);
+    }
+
+    private void deliver(MinuteBarBatch bars) {
+        barsDelivered.addAndGet(bars.size());
+        if (sinks.isEmpty()) {
+            log.debug("完成 {} 根一分鐘K線（沒有接收端）", bars.size());
+            return;
+        }
+        for (MinuteBarSink sink : sinks) {
+            try {
+                sink.accept(bars);
+            } catch (RuntimeException e) {
+                log.warn("K線接收端處理失敗，捨棄 {} 根K線: {}", bars.size(), e.getMessage());
+            }
+        }
+    }
+}
@@ -2,15 +2,26 @@ package com.example.stockproject.service;
 
 import com.example.stockproject.model.dto.StockDTO;
 import com.example.stockproject.model.dto.WatchlistDTO;
-import com.example.stockproject.model.entity.Stock;
+import com.example.stockproject.model.dto.WatchlistTrendDTO;
+import com.example.stockproject.model.dto.WatchlistBulkResultDTO;
 import com.example.stockproject.model.entity.Watchlist;
-import com.example.stockproject.repository.StockRepository;
+import com.example.stockproject.model.series.PriceSeries;
+import com.example.stockproject.repository.WatchlistBatchRepository;
 import com.example.stockproject.repository.WatchlistRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -18,6 +29,8 @@ import java.util.stream.Collectors;
  * 
  * 提供觀察清單相關的業務邏輯，包括新增、移除、查詢等功能。
  * 負責在控制器和儲存庫之間進行資料轉換和業務處理。
+ * 新增與移除都只有一次資料庫往返，成員檢查由記憶體中的每用戶集合回答。
+ * 同一用戶的資料庫寫入與集合更新在該用戶的鎖內依序完成，集合不會與資料庫的寫入順序不一致。
  * 
  * @author Stock Project Team
  * @version 1.0
@@ -28,7 +41,19 @@ import java.util.stream.Collectors;
 public class WatchlistService {
 
     private final WatchlistRepository watchlistRepository;
-    private final StockRepository stockRepository;
+    private final WatchlistBatchRepository watchlistBatchRepository;
+    private final StockCatalog stockCatalog;
+    private final PriceSeriesStore priceSeriesStore;
+
+    /**
+     * 每個用戶觀察清單中的股票識別碼
+     */
+    private final Map<String, Set<Long>> memberships = new ConcurrentHashMap<>();
+
+    /**
+     * 同一用戶的新增 / 移除依序執行
+     */
+    private final Map<String, ReentrantLock> locks = new ConcurrentHashMap<>();
 
     /**
      * 取得用戶的觀察清單
@@ -44,9 +69,34 @@ public class WatchlistService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * 取得用戶的觀察清單並附上每檔股票的走勢摘要
+     * 
+     * 所有股票的日線序列由 {@link PriceSeriesStore} 一次取得（未快取的以單一查詢載入），
+     * 不會每個項目各查詢一次。
+     * 
+     * @param userId          用戶識別碼
+     * @param sparklinePoints 走勢線的收盤價筆數
+     * @return 附走勢摘要的觀察清單 DTO 列表
+     */
+    public List<WatchlistDTO> getWatchlistWithTrends(String userId, int sparklinePoints) {
+        List<WatchlistDTO> watchlist = getWatchlist(userId);
+        List<Long> stockIds = watchlist.stream().map(WatchlistDTO::getStockId).collect(Collectors.toList());
+        Map<Long, PriceSeries> series = priceSeriesStore.getAll(stockIds);
+        for (WatchlistDTO item : watchlist) {
+            PriceSeries bars = series.get(item.getStockId());
+            if (bars != null && !bars.isEmpty()) {
+                item.setTrend(toTrend(bars, sparklinePoints));
+            }
+        }
+        return watchlist;
+    }
+
     /**
      * 新增股票到觀察清單
      * 
+     * 股票是否存在由記憶體中的股票清單快照判斷，新增本身只有一次資料庫往返。
+     * 
      * @param userId  用戶識別碼
      * @param stockId 股票識別碼
      * @return 新增的觀察清單項目 DTO，如果失敗則返回 null
@@ -54,28 +104,70 @@ public class WatchlistService {
     public WatchlistDTO addToWatchlist(String userId, Long stockId) {
         log.info("新增股票到觀察清單 - 用戶: {}, 股票: {}", userId, stockId);
 
-        // 檢查股票是否存在
-        if (!stockRepository.existsById(stockId)) {
+        StockDTO stock = stockCatalog.current().getById(stockId);
+        if (stock == null) {
             log.warn("股票不存在: {}", stockId);
             return null;
         }
 
-        // 檢查是否已在觀察清單中
-        if (watchlistRepository.existsByUserIdAndStockId(userId, stockId)) {
+        Long id = withUserLock(userId, () -> {
+            Long inserted;
+            try {
+                inserted = watchlistBatchRepository.insert(userId, stockId);
+            } catch (DataIntegrityViolationException e) {
+                // 其他實例並發重複新增（唯一約束）或股票剛被刪除（外鍵）
+                log.warn("新增觀察清單項目違反資料完整性 - 用戶: {}, 股票: {}", userId, stockId);
+                inserted = null;
+            }
+            if (inserted != null) {
+                members(userId).add(stockId);
+            }
+            return inserted;
+        });
+        if (id == null) {
             log.warn("股票已在觀察清單中 - 用戶: {}, 股票: {}", userId, stockId);
             return null;
         }
 
-        // 取得股票並新增到觀察清單
-        Stock stock = stockRepository.findById(stockId).orElse(null);
-        if (stock != null) {
-            Watchlist watchlistItem = new Watchlist(userId, stock);
-            Watchlist saved = watchlistRepository.save(watchlistItem);
-            log.info("成功新增股票到觀察清單: {}", stockId);
-            return convertToDTO(saved);
-        }
+        log.info("成功新增股票到觀察清單: {}", stockId);
+        return new WatchlistDTO(id, stockId, stock);
+    }
 
-        return null;
+    /**
+     * 批次新增股票到觀察清單（一次資料庫往返）
+     * 
+     * @param userId   用戶識別碼
+     * @param stockIds 股票識別碼
+     * @return 新增與略過的股票識別碼
+     */
+    public WatchlistBulkResultDTO addAllToWatchlist(String userId, List<Long> stockIds) {
+        log.info("批次新增股票到觀察清單 - 用戶: {}, 數量: {}", userId, stockIds.size());
+
+        StockCatalog.Snapshot catalog = stockCatalog.current();
+        List<Long> applied = new ArrayList<>();
+        List<Long> skipped = new ArrayList<>();
+        withUserLock(userId, () -> {
+            Set<Long> members = members(userId);
+            List<Long> candidates = new ArrayList<>();
+            for (Long stockId : new LinkedHashSet<>(stockIds)) {
+                if (catalog.getById(stockId) != null && !members.contains(stockId)) {
+                    candidates.add(stockId);
+                } else {
+                    skipped.add(stockId);
+                }
+            }
+            if (!candidates.isEmpty()) {
+                // 違反約束的項目（股票剛被刪除等）回報為 false，不會讓整批失敗
+                boolean[] inserted = watchlistBatchRepository.insertAll(userId, candidates);
+                for (int i = 0; i < candidates.size(); i++) {
+                    (inserted[i] ? applied : skipped).add(candidates.get(i));
+                }
+                members.addAll(applied);
+            }
+            return null;
+        });
+        log.info("批次新增完成 - 新增: {}, 略過: {}", applied.size(), skipped.size());
+        return new WatchlistBulkResultDTO(applied, skipped);
     }
 
     /**
@@ -88,25 +180,128 @@ public class WatchlistService {
     public boolean removeFromWatchlist(String userId, Long stockId) {
         log.info("從觀察清單移除股票 - 用戶: {}, 股票: {}", userId, stockId);
 
-        if (!watchlistRepository.existsByUserIdAndStockId(userId, stockId)) {
+        boolean removed = withUserLock(userId, () -> {
+            if (!watchlistBatchRepository.delete(userId, stockId)) {
+                return false;
+            }
+            members(userId).remove(stockId);
+            return true;
+        });
+        if (!removed) {
             log.warn("觀察清單項目不存在 - 用戶: {}, 股票: {}", userId, stockId);
             return false;
         }
 
-        watchlistRepository.deleteByUserIdAndStockId(userId, stockId);
         log.info("成功從觀察清單移除股票: {}", stockId);
         return true;
     }
 
     /**
-     * 檢查股票是否在觀察清單中
+     * 批次從觀察清單移除股票（一次資料庫往返）
+     * 
+     * @param userId   用戶識別碼
+     * @param stockIds 股票識別碼
+     * @return 移除與略過的股票識別碼
+     */
+    public WatchlistBulkResultDTO removeAllFromWatchlist(String userId, List<Long> stockIds) {
+        log.info("批次從觀察清單移除股票 - 用戶: {}, 數量: {}", userId, stockIds.size());
+
+        List<Long> candidates = new ArrayList<>(new LinkedHashSet<>(stockIds));
+        List<Long> applied = new ArrayList<>(candidates.size());
+        List<Long> skipped = new ArrayList<>();
+        if (!candidates.isEmpty()) {
+            withUserLock(userId, () -> {
+                boolean[] deleted = watchlistBatchRepository.deleteAll(userId, candidates);
+                for (int i = 0; i < candidates.size(); i++) {
+                    (deleted[i] ? applied : skipped).add(candidates.get(i));
+                }
+                members(userId).removeAll(applied);
+                return null;
+            });
+        }
+        log.info("批次移除完成 - 移除: {}, 略過: {}", applied.size(), skipped.size());
+        return new WatchlistBulkResultDTO(applied, skipped);
+    }
+
+    /**
+     * 檢查股票是否在觀察清單中（由記憶體中的成員集合回答）
      * 
      * @param userId  用戶識別碼
      * @param stockId 股票識別碼
      * @return 如果在觀察清單中返回 true，否則返回 false
      */
     public boolean isInWatchlist(String userId, Long stockId) {
-        return watchlistRepository.existsByUserIdAndStockId(userId, stockId);
+        return members(userId).contains(stockId);
+    }
+
+    /**
+     * 取得用戶觀察清單中的股票識別碼（由記憶體中的成員集合回答）
+     * 
+     * @param userId 用戶識別碼
+     * @return 股票識別碼
+     */
+    public Set<Long> getWatchedStockIds(String userId) {
+        return Set.copyOf(members(userId));
+    }
+
+    /**
+     * 在用戶的鎖內執行資料庫寫入與成員集合更新
+     * 
+     * @param userId 用戶識別碼
+     * @param action 寫入動作
+     * @param <T>    結果型別
+     * @return 動作結果
+     */
+    private <T> T withUserLock(String userId, Supplier<T> action) {
+        ReentrantLock lock = locks.computeIfAbsent(userId, id -> new ReentrantLock());
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 取得用戶的觀察清單成員集合，第一次使用時從資料庫載入
+     * 
+     * 載入在 computeIfAbsent 中進行，同一用戶的新增 / 移除會等待載入完成後才更新集合。
+     * 
+     * @param userId 用戶識別碼
+     * @return 股票識別碼集合
+     */
+    private Set<Long> members(String userId) {
+        return memberships.computeIfAbsent(userId, id -> {
+            Set<Long> members = ConcurrentHashMap.newKeySet();
+            members.addAll(watchlistBatchRepository.findStockIds(id));
+            return members;
+        });
+    }
+
+    /**
+     * 由日線序列計算走勢摘要
+     * 
+     * @param bars   日線序列（不可為空）
+     * @param points 走勢線的收盤價筆數
+     * @return 走勢摘要
+     */
+    private static WatchlistTrendDTO toTrend(PriceSeries bars, int points) {
+        int last = bars.size() - 1;
+        double close = bars.closeAt(last);
+        Double change = null;
+        Double changePercent = null;
+        if (last > 0) {
+            double previous = bars.closeAt(last - 1);
+            change = close - previous;
+            changePercent = previous != 0 ? change / previous * 100 : null;
+        }
+        int from = Math.max(0, bars.size() - points);
+        double[] sparkline = new double[bars.size() - from];
+        for (int i = from; i < bars.size(); i++) {
+            sparkline[i - from] = bars.closeAt(i);
+        }
+        return new WatchlistTrendDTO(LocalDate.ofEpochDay(bars.epochDayAt(last)), close, change, changePercent,
+                sparkline);
     }
 
     /**
@@ -0,0 +1,33 @@
+package com.example.stockproject.stream;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * 價格推播的接收端（例如一個 SSE 連線）
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增即時價格推播
+ */
+public interface PriceSink {
+
+    /**
+     * 送出一批合併後的價格更新
+     * 
+     * @param prices 股票識別碼對最新價格
+     * @throws IOException 連線已中斷，訂閱會被移除
+     */
+    void send(Map<Long, Double> prices) throws IOException;
+
+    /**
+     * 送出心跳（讓閒置連線保持開啟並偵測已中斷的連線）
+     * 
+     * @throws IOException 連線已中斷，訂閱會被移除
+     */
+    void heartbeat() throws IOException;
+
+    /**
+     * 關閉連線（伺服器關閉時呼叫）
+     */
+    void close();
+}
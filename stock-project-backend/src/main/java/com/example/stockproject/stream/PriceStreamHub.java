@@ -0,0 +1,318 @@
+package com.example.stockproject.stream;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 即時價格推播中心
+ * 
+ * 價格更新以股票識別碼找到訂閱者，寫入每個訂閱者的待送緩衝區，
+ * 再由定期的 {@link #flush()}（推播中心自己的排程執行緒）交給傳送執行緒池批次送出：
+ * <ul>
+ * <li>緩衝區以股票識別碼為鍵，同一股票只保留最新價格（latest-value-wins），
+ * 因此大小不超過訂閱的股票數</li>
+ * <li>每個訂閱者同時只有一個傳送在進行，傳送較慢時新的更新只會在緩衝區中合併，
+ * 不會阻塞發布端或其他訂閱者</li>
+ * <li>傳送失敗（連線中斷）的訂閱者會被移除</li>
+ * <li>心跳同樣交給傳送執行緒池，與價格批次共用每個訂閱者的傳送旗標，
+ * 呼叫 {@link #flush()} / {@link #heartbeat()} 的排程執行緒不會寫入連線</li>
+ * </ul>
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增即時價格推播
+ */
+@Slf4j
+public class PriceStreamHub {
+
+    private final Executor sender;
+    private final int maxSubscribers;
+
+    /**
+     * flush 與心跳的專用排程執行緒（{@link #start} 之前為 null）
+     */
+    private volatile ScheduledExecutorService ticker;
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Subscription>> subscriptionsByStock = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Subscription> dirty = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder conflated = new LongAdder();
+    private final LongAdder batchesSent = new LongAdder();
+
+    /**
+     * 建構函數
+     * 
+     * @param sender         傳送執行緒池
+     * @param maxSubscribers 最多同時訂閱數
+     */
+    public PriceStreamHub(Executor sender, int maxSubscribers) {
+        this.sender = sender;
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    /**
+     * 以專用的排程執行緒開始定期 flush 與派送心跳
+     * 
+     * 兩者都只把工作交給傳送執行緒池，不會因寫入慢速連線而延遲彼此。
+     * 
+     * @param flushInterval     合併視窗（每隔多久送出一次待送更新）
+     * @param heartbeatInterval 心跳間隔
+     */
+    public synchronized void start(Duration flushInterval, Duration heartbeatInterval) {
+        if (ticker != null) {
+            throw new IllegalStateException("推播中心已啟動");
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "price-stream-tick");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> tick(this::flush), flushInterval.toNanos(), flushInterval.toNanos(),
+                TimeUnit.NANOSECONDS);
+        ticker.scheduleAtFixedRate(() -> tick(this::heartbeat), heartbeatInterval.toNanos(),
+                heartbeatInterval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 新增訂閱
+     * 
+     * @param stockIds 訂閱的股票識別碼
+     * @param initial  訂閱時立即送出的目前價格
+     * @param sink     接收端
+     * @return 訂閱
+     * @throws IllegalStateException 訂閱數已達上限
+     */
+    public Subscription subscribe(Collection<Long> stockIds, Map<Long, Double> initial, PriceSink sink) {
+        if (subscriptions.size() >= maxSubscribers) {
+            throw new IllegalStateException("訂閱數已達上限: " + maxSubscribers);
+        }
+        Subscription subscription = new Subscription(Set.copyOf(stockIds), sink);
+        subscriptions.add(subscription);
+        for (Long stockId : subscription.stockIds) {
+            subscriptionsByStock.computeIfAbsent(stockId, id -> ConcurrentHashMap.newKeySet()).add(subscription);
+        }
+        initial.forEach((stockId, price) -> {
+            if (subscription.stockIds.contains(stockId)) {
+                subscription.offer(stockId, price);
+            }
+        });
+        return subscription;
+    }
+
+    /**
+     * 移除訂閱
+     * 
+     * @param subscription 訂閱
+     */
+    public void unsubscribe(Subscription subscription) {
+        if (!subscriptions.remove(subscription)) {
+            return;
+        }
+        for (Long stockId : subscription.stockIds) {
+            subscriptionsByStock.computeIfPresent(stockId, (id, set) -> {
+                set.remove(subscription);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
+    /**
+     * 發布價格更新（不會阻塞）
+     * 
+     * @param stockId 股票識別碼
+     * @param price   最新價格
+     */
+    public void publish(long stockId, double price) {
+        published.increment();
+        Set<Subscription> subscribers = subscriptionsByStock.get(stockId);
+        if (subscribers == null) {
+            return;
+        }
+        for (Subscription subscription : subscribers) {
+            subscription.offer(stockId, price);
+        }
+    }
+
+    /**
+     * 將有待送更新的訂閱者交給傳送執行緒池
+     * 
+     * 只處理呼叫當下已排入的訂閱者，flush 期間的新更新留到下一次（合併視窗）；
+     * 仍在傳送上一批的訂閱者也留到下一次 flush，期間的更新繼續在緩衝區中合併。
+     */
+    public void flush() {
+        List<Subscription> busy = null;
+        Subscription subscription;
+        for (int remaining = dirty.size(); remaining > 0 && (subscription = dirty.poll()) != null; remaining--) {
+            if (!subscription.sending.compareAndSet(false, true)) {
+                if (busy == null) {
+                    busy = new ArrayList<>();
+                }
+                busy.add(subscription);
+                continue;
+            }
+            // 在取出緩衝區之前清除旗標，之後的更新會重新排入下一次 flush
+            subscription.queued.set(false);
+            Subscription target = subscription;
+            try {
+                sender.execute(() -> drain(target));
+            } catch (RejectedExecutionException e) {
+                target.queued.set(true);
+                target.sending.set(false);
+                if (busy == null) {
+                    busy = new ArrayList<>();
+                }
+                busy.add(target);
+            }
+        }
+        if (busy != null) {
+            dirty.addAll(busy);
+        }
+    }
+
+    /**
+     * 將心跳交給傳送執行緒池，移除已中斷的連線
+     * 
+     * 正在傳送上一批的訂閱者略過這次心跳（連線上已有資料在寫入）；
+     * 執行緒池已滿時也略過，下一次心跳再送。
+     */
+    public void heartbeat() {
+        for (Subscription subscription : subscriptions) {
+            if (!subscription.sending.compareAndSet(false, true)) {
+                continue;
+            }
+            try {
+                sender.execute(() -> beat(subscription));
+            } catch (RejectedExecutionException e) {
+                subscription.sending.set(false);
+            }
+        }
+    }
+
+    /**
+     * 關閉所有連線
+     */
+    public void shutdown() {
+        ScheduledExecutorService current = ticker;
+        if (current != null) {
+            current.shutdownNow();
+        }
+        for (Subscription subscription : subscriptions) {
+            unsubscribe(subscription);
+            subscription.sink.close();
+        }
+    }
+
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    public long getPublished() {
+        return published.sum();
+    }
+
+    /**
+     * 因同一股票在送出前又有新價格而被覆蓋的更新數
+     * 
+     * @return 合併次數
+     */
+    public long getConflated() {
+        return conflated.sum();
+    }
+
+    public long getBatchesSent() {
+        return batchesSent.sum();
+    }
+
+    private void drain(Subscription subscription) {
+        try {
+            Map<Long, Double> batch = new HashMap<>();
+            for (Long stockId : subscription.pending.keySet()) {
+                Double price = subscription.pending.remove(stockId);
+                if (price != null) {
+                    batch.put(stockId, price);
+                }
+            }
+            if (!batch.isEmpty() && subscriptions.contains(subscription)) {
+                subscription.sink.send(batch);
+                batchesSent.increment();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("價格推播連線中斷，移除訂閱: {}", e.getMessage());
+            unsubscribe(subscription);
+        } finally {
+            subscription.sending.set(false);
+        }
+    }
+
+    /**
+     * 排程工作拋出例外時 scheduleAtFixedRate 會停止後續執行，因此只記錄錯誤
+     */
+    private static void tick(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.error("價格推播排程工作失敗", e);
+        }
+    }
+
+    private void beat(Subscription subscription) {
+        try {
+            if (subscriptions.contains(subscription)) {
+                subscription.sink.heartbeat();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("價格推播心跳失敗，移除訂閱: {}", e.getMessage());
+            unsubscribe(subscription);
+        } finally {
+            subscription.sending.set(false);
+        }
+    }
+
+    /**
+     * 一個訂閱者：訂閱的股票、接收端與待送緩衝區
+     */
+    public final class Subscription {
+
+        private final Set<Long> stockIds;
+        private final PriceSink sink;
+        private final Map<Long, Double> pending = new ConcurrentHashMap<>();
+        private final AtomicBoolean queued = new AtomicBoolean();
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        private Subscription(Set<Long> stockIds, PriceSink sink) {
+            this.stockIds = stockIds;
+            this.sink = sink;
+        }
+
+        public Set<Long> getStockIds() {
+            return stockIds;
+        }
+
+        private void offer(long stockId, double price) {
+            if (pending.put(stockId, price) != null) {
+                conflated.increment();
+            }
+            if (queued.compareAndSet(false, true)) {
+                dirty.add(this);
+            }
+        }
+    }
+}
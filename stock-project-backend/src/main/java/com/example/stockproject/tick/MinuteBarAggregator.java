@@ -0,0 +1,232 @@
+package com.example.stockproject.tick;
+
+import java.util.Arrays;
+
+/**
+ * 一分鐘K線聚合器
+ * 
+ * 每檔股票佔一個槽位（以開放定址的 long→int 雜湊表查找），槽位以原始型別陣列保存
+ * 進行中K線的分鐘、開高低收量；成交跨入新的一分鐘時把舊K線寫入可重用的
+ * {@link MinuteBarBatch}，批次滿了才交給 {@link MinuteBarSink}。
+ * 穩定狀態（沒有新股票出現）下處理成交不配置任何物件。
+ * 早於進行中K線、或不晚於該股票最後送出K線的成交（遲到成交）不回補已送出的K線，只計數；
+ * 即使 {@link #closeBefore(long)} 已結束進行中K線，槽位仍記得最後送出的分鐘，
+ * 遲到成交不會重新開啟同一分鐘的K線而覆寫已寫入的結果。
+ * 非執行緒安全，由單一讀取者使用。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增逐筆成交匯入
+ */
+public final class MinuteBarAggregator implements TickHandler {
+
+    private static final long MINUTE_MILLIS = 60_000L;
+    private static final long NO_BAR = Long.MIN_VALUE;
+    private static final long EMPTY_KEY = Long.MIN_VALUE;
+
+    private final MinuteBarSink sink;
+    private final MinuteBarBatch batch;
+
+    /**
+     * 股票識別碼 → 槽位（開放定址，線性探測）
+     */
+    private long[] keys;
+    private int[] values;
+    private int keyMask;
+
+    /**
+     * 槽位欄位
+     */
+    private long[] slotStockIds;
+    private long[] slotMinutes;
+    private long[] slotClosedMinutes;
+    private double[] slotOpen;
+    private double[] slotHigh;
+    private double[] slotLow;
+    private double[] slotClose;
+    private long[] slotVolume;
+    private int slots;
+
+    private long ticks;
+    private long lateTicks;
+    private long completedBars;
+
+    /**
+     * 建構函數
+     * 
+     * @param expectedStocks 預期股票數（預先配置槽位）
+     * @param batchSize      每批送出的K線數
+     * @param sink           K線接收端
+     */
+    public MinuteBarAggregator(int expectedStocks, int batchSize, MinuteBarSink sink) {
+        this.sink = sink;
+        this.batch = new MinuteBarBatch(batchSize);
+        int capacity = Math.max(16, expectedStocks);
+        int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        keys = new long[tableSize];
+        Arrays.fill(keys, EMPTY_KEY);
+        values = new int[tableSize];
+        keyMask = tableSize - 1;
+        slotStockIds = new long[capacity];
+        slotMinutes = new long[capacity];
+        slotClosedMinutes = new long[capacity];
+        slotOpen = new double[capacity];
+        slotHigh = new double[capacity];
+        slotLow = new double[capacity];
+        slotClose = new double[capacity];
+        slotVolume = new long[capacity];
+    }
+
+    @Override
+    public void onTick(long stockId, long timestampMillis, double price, long size) {
+        ticks++;
+        int slot = slotFor(stockId);
+        long minute = Math.floorDiv(timestampMillis, MINUTE_MILLIS);
+        long current = slotMinutes[slot];
+        if (minute == current) {
+            if (price > slotHigh[slot]) {
+                slotHigh[slot] = price;
+            }
+            if (price < slotLow[slot]) {
+                slotLow[slot] = price;
+            }
+            slotClose[slot] = price;
+            slotVolume[slot] += size;
+        } else if (current == NO_BAR ? minute > slotClosedMinutes[slot] : minute > current) {
+            if (current != NO_BAR) {
+                complete(slot);
+            }
+            slotMinutes[slot] = minute;
+            slotOpen[slot] = price;
+            slotHigh[slot] = price;
+            slotLow[slot] = price;
+            slotClose[slot] = price;
+            slotVolume[slot] = size;
+        } else {
+            lateTicks++;
+        }
+    }
+
+    /**
+     * 結束起始時間早於指定分鐘的進行中K線，並把目前批次交給接收端
+     * 
+     * 由讀取者在沒有新成交時定期呼叫，讓不再成交的股票也能送出K線。
+     * 
+     * @param cutoffMillis 時間 (epoch 毫秒)，所屬分鐘之前的K線視為已完成
+     */
+    public void closeBefore(long cutoffMillis) {
+        long cutoffMinute = Math.floorDiv(cutoffMillis, MINUTE_MILLIS);
+        for (int slot = 0; slot < slots; slot++) {
+            long minute = slotMinutes[slot];
+            if (minute != NO_BAR && minute < cutoffMinute) {
+                complete(slot);
+                slotMinutes[slot] = NO_BAR;
+            }
+        }
+        flush();
+    }
+
+    /**
+     * 把目前批次（即使未滿）交給接收端
+     */
+    public void flush() {
+        if (batch.size() > 0) {
+            sink.accept(batch);
+            batch.clear();
+        }
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public long getLateTicks() {
+        return lateTicks;
+    }
+
+    public long getCompletedBars() {
+        return completedBars;
+    }
+
+    public int getStockCount() {
+        return slots;
+    }
+
+    private void complete(int slot) {
+        batch.add(slotStockIds[slot], slotMinutes[slot], slotOpen[slot], slotHigh[slot],
+                slotLow[slot], slotClose[slot], slotVolume[slot]);
+        slotClosedMinutes[slot] = slotMinutes[slot];
+        completedBars++;
+        if (batch.isFull()) {
+            flush();
+        }
+    }
+
+    private int slotFor(long stockId) {
+        int index = mix(stockId) & keyMask;
+        while (true) {
+            long key = keys[index];
+            if (key == stockId) {
+                return values[index];
+            }
+            if (key == EMPTY_KEY) {
+                return addSlot(stockId, index);
+            }
+            index = (index + 1) & keyMask;
+        }
+    }
+
+    private int addSlot(long stockId, int index) {
+        if (slots == slotStockIds.length) {
+            growSlots();
+        }
+        int slot = slots++;
+        slotStockIds[slot] = stockId;
+        slotMinutes[slot] = NO_BAR;
+        slotClosedMinutes[slot] = NO_BAR;
+        keys[index] = stockId;
+        values[index] = slot;
+        if (slots * 2 > keys.length) {
+            rehash();
+        }
+        return slot;
+    }
+
+    private void growSlots() {
+        int capacity = slots + (slots >> 1);
+        slotStockIds = Arrays.copyOf(slotStockIds, capacity);
+        slotMinutes = Arrays.copyOf(slotMinutes, capacity);
+        slotClosedMinutes = Arrays.copyOf(slotClosedMinutes, capacity);
+        slotOpen = Arrays.copyOf(slotOpen, capacity);
+        slotHigh = Arrays.copyOf(slotHigh, capacity);
+        slotLow = Arrays.copyOf(slotLow, capacity);
+        slotClose = Arrays.copyOf(slotClose, capacity);
+        slotVolume = Arrays.copyOf(slotVolume, capacity);
+    }
+
+    private void rehash() {
+        long[] newKeys = new long[keys.length * 2];
+        Arrays.fill(newKeys, EMPTY_KEY);
+        int[] newValues = new int[newKeys.length];
+        int newMask = newKeys.length - 1;
+        for (int i = 0; i < keys.length; i++) {
+            long key = keys[i];
+            if (key == EMPTY_KEY) {
+                continue;
+            }
+            int index = mix(key) & newMask;
+            while (newKeys[index] != EMPTY_KEY) {
+                index = (index + 1) & newMask;
+            }
+            newKeys[index] = key;
+            newValues[index] = values[i];
+        }
+        keys = newKeys;
+        values = newValues;
+        keyMask = newMask;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.stockproject.tick;
+
+/**
+ * 一分鐘K線批次（欄位式、預先配置、可重用）
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增逐筆成交匯入
+ */
+public final class MinuteBarBatch {
+
+    private static final long MINUTE_MILLIS = 60_000L;
+
+    private final long[] stockIds;
+    private final long[] epochMinutes;
+    private final double[] open;
+    private final double[] high;
+    private final double[] low;
+    private final double[] close;
+    private final long[] volume;
+    private int size;
+
+    /**
+     * 建構函數
+     * 
+     * @param capacity 批次容量
+     */
+    public MinuteBarBatch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("批次容量必須大於 0: " + capacity);
+        }
+        stockIds = new long[capacity];
+        epochMinutes = new long[capacity];
+        open = new double[capacity];
+        high = new double[capacity];
+        low = new double[capacity];
+        close = new double[capacity];
+        volume = new long[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return stockIds.length;
+    }
+
+    public boolean isFull() {
+        return size == stockIds.length;
+    }
+
+    void add(long stockId, long epochMinute, double o, double h, double l, double c, long v) {
+        stockIds[size] = stockId;
+        epochMinutes[size] = epochMinute;
+        open[size] = o;
+        high[size] = h;
+        low[size] = l;
+        close[size] = c;
+        volume[size] = v;
+        size++;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    public long stockId(int i) {
+        return stockIds[i];
+    }
+
+    /**
+     * K線起始時間 (epoch 分鐘)
+     */
+    public long epochMinute(int i) {
+        return epochMinutes[i];
+    }
+
+    /**
+     * K線起始時間 (epoch 毫秒)
+     */
+    public long startMillis(int i) {
+        return epochMinutes[i] * MINUTE_MILLIS;
+    }
+
+    public double open(int i) {
+        return open[i];
+    }
+
+    public double high(int i) {
+        return high[i];
+    }
+
+    public double low(int i) {
+        return low[i];
+    }
+
+    public double close(int i) {
+        return close[i];
+    }
+
+    public long volume(int i) {
+        return volume[i];
+    }
+}
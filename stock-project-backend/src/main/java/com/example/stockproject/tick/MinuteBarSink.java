@@ -0,0 +1,20 @@
+package com.example.stockproject.tick;
+
+/**
+ * 已完成一分鐘K線的接收端（持久化）
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增逐筆成交匯入
+ */
+@FunctionalInterface
+public interface MinuteBarSink {
+
+    /**
+     * 接收一批已完成的K線
+     * 
+     * 批次物件會在呼叫返回後被清空重用，實作需在呼叫內複製或寫出資料。
+     * 
+     * @param bars K線批次
+     */
+    void accept(MinuteBarBatch bars);
+}
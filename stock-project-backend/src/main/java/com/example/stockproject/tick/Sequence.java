@@ -0,0 +1,55 @@
+package com.example.stockproject.tick;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * 環形緩衝區的序號（前後填充以避免與其他欄位共用快取行）
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增逐筆成交匯入
+ */
+final class Sequence extends SequenceValue {
+
+    @SuppressWarnings("unused")
+    private long p9, p10, p11, p12, p13, p14, p15;
+
+    Sequence(long initial) {
+        value = initial;
+    }
+}
+
+abstract class SequencePadding {
+
+    @SuppressWarnings("unused")
+    private long p1, p2, p3, p4, p5, p6, p7;
+}
+
+abstract class SequenceValue extends SequencePadding {
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(SequenceValue.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    protected volatile long value;
+
+    /**
+     * 讀取序號，之後的讀取不會被重排到此之前
+     */
+    final long getAcquire() {
+        return (long) VALUE.getAcquire(this);
+    }
+
+    /**
+     * 發布序號，之前的寫入對以 {@link #getAcquire()} 讀到此值的執行緒可見
+     */
+    final void setRelease(long newValue) {
+        VALUE.setRelease(this, newValue);
+    }
+}
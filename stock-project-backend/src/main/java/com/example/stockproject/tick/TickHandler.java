@@ -0,0 +1,21 @@
+package com.example.stockproject.tick;
+
+/**
+ * 逐筆成交處理函式（以原始型別傳遞，不建立物件）
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增逐筆成交匯入
+ */
+@FunctionalInterface
+public interface TickHandler {
+
+    /**
+     * 處理一筆成交
+     * 
+     * @param stockId         股票識別碼
+     * @param timestampMillis 成交時間 (epoch 毫秒)
+     * @param price           成交價
+     * @param size            成交量
+     */
+    void onTick(long stockId, long timestampMillis, double price, long size);
+}
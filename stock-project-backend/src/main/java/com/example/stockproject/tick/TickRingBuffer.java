@@ -0,0 +1,177 @@
+package com.example.stockproject.tick;
+
+import java.util.Arrays;
+
+/**
+ * 逐筆成交環形緩衝區（單一寫入者、多讀取者、無鎖）
+ * 
+ * 預先配置容量為 2 的次方的原始型別陣列（股票識別碼、時間、價格、數量），
+ * 寫入不建立任何物件。寫入者寫完欄位後以 release 語意發布序號，
+ * 讀取者以 acquire 語意讀取後即可看到完整的欄位；
+ * 每個讀取者有自己的序號，寫入者不會覆蓋最慢的讀取者尚未讀取的位置。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增逐筆成交匯入
+ */
+public final class TickRingBuffer {
+
+    private final int capacity;
+    private final int mask;
+    private final long[] stockIds;
+    private final long[] timestamps;
+    private final double[] prices;
+    private final long[] sizes;
+
+    /**
+     * 最後發布的序號
+     */
+    private final Sequence cursor = new Sequence(-1);
+
+    /**
+     * 讀取者序號（讀取者需在開始寫入前建立）
+     */
+    private volatile Sequence[] readers = new Sequence[0];
+
+    /**
+     * 寫入者專用：下一個序號與快取的最慢讀取者序號
+     */
+    private long next;
+    private long cachedMinReader = -1;
+
+    /**
+     * 建構函數
+     * 
+     * @param capacity 容量（2 的次方）
+     */
+    public TickRingBuffer(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("容量必須是 2 的次方: " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.stockIds = new long[capacity];
+        this.timestamps = new long[capacity];
+        this.prices = new double[capacity];
+        this.sizes = new long[capacity];
+    }
+
+    /**
+     * 建立讀取者，從下一筆寫入開始讀取
+     * 
+     * @return 讀取者
+     */
+    public synchronized Reader newReader() {
+        Sequence sequence = new Sequence(cursor.getAcquire());
+        Sequence[] current = readers;
+        Sequence[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = sequence;
+        readers = updated;
+        return new Reader(sequence);
+    }
+
+    /**
+     * 寫入一筆成交（只能由單一執行緒呼叫）
+     * 
+     * @param stockId         股票識別碼
+     * @param timestampMillis 成交時間 (epoch 毫秒)
+     * @param price           成交價
+     * @param size            成交量
+     * @return 緩衝區已滿（最慢的讀取者落後一整圈）時為 false，該筆不寫入
+     */
+    public boolean tryPublish(long stockId, long timestampMillis, double price, long size) {
+        long sequence = next;
+        long wrapPoint = sequence - capacity;
+        if (wrapPoint > cachedMinReader) {
+            cachedMinReader = minReaderSequence(sequence - 1);
+            if (wrapPoint > cachedMinReader) {
+                return false;
+            }
+        }
+        int index = (int) sequence & mask;
+        stockIds[index] = stockId;
+        timestamps[index] = timestampMillis;
+        prices[index] = price;
+        sizes[index] = size;
+        next = sequence + 1;
+        cursor.setRelease(sequence);
+        return true;
+    }
+
+    /**
+     * 寫入一筆成交，緩衝區已滿時等待讀取者（只能由單一執行緒呼叫）
+     * 
+     * @param stockId         股票識別碼
+     * @param timestampMillis 成交時間 (epoch 毫秒)
+     * @param price           成交價
+     * @param size            成交量
+     */
+    public void publish(long stockId, long timestampMillis, double price, long size) {
+        while (!tryPublish(stockId, timestampMillis, price, size)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * 最後發布的序號（尚未寫入時為 -1）
+     * 
+     * @return 序號
+     */
+    public long cursor() {
+        return cursor.getAcquire();
+    }
+
+    private long minReaderSequence(long defaultValue) {
+        long min = defaultValue;
+        for (Sequence reader : readers) {
+            min = Math.min(min, reader.getAcquire());
+        }
+        return min;
+    }
+
+    /**
+     * 讀取者（每個讀取者只能由單一執行緒使用）
+     */
+    public final class Reader {
+
+        private final Sequence sequence;
+
+        private Reader(Sequence sequence) {
+            this.sequence = sequence;
+        }
+
+        /**
+         * 處理已發布但尚未讀取的成交
+         * 
+         * @param handler  處理函式
+         * @param maxBatch 本次最多處理筆數
+         * @return 處理的筆數
+         */
+        public int poll(TickHandler handler, int maxBatch) {
+            long current = sequence.value;
+            long available = cursor.getAcquire();
+            if (available <= current) {
+                return 0;
+            }
+            long end = Math.min(available, current + maxBatch);
+            for (long s = current + 1; s <= end; s++) {
+                int index = (int) s & mask;
+                handler.onTick(stockIds[index], timestamps[index], prices[index], sizes[index]);
+            }
+            sequence.setRelease(end);
+            return (int) (end - current);
+        }
+
+        /**
+         * 尚未讀取的筆數
+         * 
+         * @return 落後筆數
+         */
+        public long lag() {
+            return cursor.getAcquire() - sequence.getAcquire();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.stockproject.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * TTL 快取測試類別
+ * 
+ * 測試並行未命中只載入一次，以及不可快取的結果不會被保存。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增外部數據快取
+ */
+class TtlCacheTests {
+
+    /**
+     * 同一鍵的並行請求只觸發一次載入，之後的請求全部命中
+     */
+    @Test
+    void concurrentMissesLoadOnce() throws Exception {
+        TtlCache<String, String> cache = new TtlCache<>(60_000, 10, v -> true);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(pool.submit(() -> cache.get("AAPL", () -> {
+                    calls.incrementAndGet();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "prices";
+                })));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("prices", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        for (int i = 0; i < 100; i++) {
+            cache.get("AAPL", () -> "reloaded");
+        }
+        assertEquals(1, calls.get());
+        assertEquals(1, cache.getLoads());
+        assertTrue(cache.getHits() >= 100);
+    }
+
+    /**
+     * 不可快取的結果（如空回應）每次都重新載入
+     */
+    @Test
+    void uncacheableResultsAreNotStored() {
+        TtlCache<String, List<String>> cache = new TtlCache<>(60_000, 10, v -> !v.isEmpty());
+        AtomicInteger calls = new AtomicInteger();
+
+        cache.get("MSFT", () -> {
+            calls.incrementAndGet();
+            return List.of();
+        });
+        cache.get("MSFT", () -> {
+            calls.incrementAndGet();
+            return List.of("bar");
+        });
+        cache.get("MSFT", () -> {
+            calls.incrementAndGet();
+            return List.of();
+        });
+
+        assertEquals(2, calls.get());
+        assertEquals(1, cache.size());
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.stockproject.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 外部市場數據 HTTP 客戶端測試類別
+ * 
+ * 以本機服務模擬回應標頭送出後停止傳送本文的主機，驗證整個回應的總時限會中止讀取，
+ * 以及一般回應與非 2xx 回應的處理。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增共用市場數據 HTTP 客戶端
+ */
+class MarketDataClientTests {
+
+    private static final HttpServer STUB = startStub();
+
+    private final MarketDataClient client = new MarketDataClient(
+            Duration.ofSeconds(1), Duration.ofSeconds(2), Duration.ofMillis(300), 2, 2, 4);
+
+    @AfterAll
+    static void stopStub() {
+        STUB.stop(0);
+    }
+
+    @Test
+    void stalledBodyFailsAtResponseDeadline() {
+        long started = System.nanoTime();
+        MarketDataException e = assertThrows(MarketDataException.class,
+                () -> client.get(uri("/stall"), body -> body.readAllBytes().length));
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+        assertInstanceOf(HttpTimeoutException.class, e.getCause());
+        // 讀取逾時 (2s) 不會限制本文，總時限 (300ms) 到期時就中止
+        assertTrue(elapsedMs < 1500, "讀取在 " + elapsedMs + " ms 後才中止");
+    }
+
+    @Test
+    void readsBodyAndRejectsErrorStatus() {
+        assertEquals("ok", client.get(uri("/ok"), body -> new String(body.readAllBytes(), StandardCharsets.UTF_8)));
+        MarketDataException e = assertThrows(MarketDataException.class,
+                () -> client.get(uri("/missing"), body -> body.readAllBytes().length));
+        assertTrue(e.getMessage().startsWith("HTTP 404"));
+    }
+
+    private static URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + STUB.getAddress().getPort() + path);
+    }
+
+    private static HttpServer startStub() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.setExecutor(Executors.newCachedThreadPool(r -> {
+                Thread thread = new Thread(r, "market-data-stub");
+                thread.setDaemon(true);
+                return thread;
+            }));
+            server.createContext("/stall", exchange -> {
+                // 宣告 1000 位元組，只送出前 10 個後停住
+                exchange.sendResponseHeaders(200, 1000);
+                OutputStream out = exchange.getResponseBody();
+                out.write(new byte[10]);
+                out.flush();
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                exchange.close();
+            });
+            server.createContext("/ok", exchange -> {
+                byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.createContext("/missing", exchange -> {
+                exchange.sendResponseHeaders(404, -1);
+                exchange.close();
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
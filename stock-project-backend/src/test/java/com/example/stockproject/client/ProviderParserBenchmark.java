@@ -0,0 +1,127 @@
+package com.example.stockproject.client;
+
+import com.example.stockproject.model.series.PriceSeries;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * 外部數據來源解析器吞吐量基準測試
+ * 
+ * 以 src/test/resources/fixtures 中的完整歷史樣本回應（Yahoo Finance range=max 約 1.3 MB、
+ * Alpha Vantage outputsize=full 約 1.3 MB），比較串流解析器與先建立 JSON 樹再走訪的做法；
+ * 報告每次解析耗時、MB/s 與每筆K線配置的位元組。不在 mvn test 中執行，需手動執行：
+ * 
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ * java -cp target/classes:target/test-classes:$(cat target/classpath.txt) com.example.stockproject.client.ProviderParserBenchmark [iterations]
+ * </pre>
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增串流解析外部數據
+ */
+public final class ProviderParserBenchmark {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private ProviderParserBenchmark() {
+    }
+
+    @FunctionalInterface
+    private interface Parse {
+        int rows(byte[] body) throws IOException;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        byte[] yahoo = load("yahoo-chart-AAPL-max.json.gz");
+        byte[] alphaVantage = load("alphavantage-daily-IBM-full.json.gz");
+
+        for (int round = 1; round <= 5; round++) {
+            run(round, "Yahoo         stream", yahoo, iterations, ProviderParserBenchmark::yahooStream);
+            run(round, "Yahoo         tree  ", yahoo, iterations, ProviderParserBenchmark::yahooTree);
+            run(round, "Alpha Vantage stream", alphaVantage, iterations, ProviderParserBenchmark::alphaVantageStream);
+            run(round, "Alpha Vantage tree  ", alphaVantage, iterations, ProviderParserBenchmark::alphaVantageTree);
+        }
+    }
+
+    private static void run(int round, String name, byte[] body, int iterations, Parse parse) throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long rows = 0;
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long begin = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            rows += parse.rows(body);
+        }
+        long elapsed = System.nanoTime() - begin;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        System.out.printf("round %d: %s %,d rows, %6.2f ms/parse, %7.1f MB/s, %,7.0f bytes/row allocated%n",
+                round, name, rows / iterations, elapsed / 1e6 / iterations,
+                (double) body.length * iterations / (1 << 20) / (elapsed / 1e9), (double) allocated / rows);
+    }
+
+    private static int yahooStream(byte[] body) throws IOException {
+        PriceSeries series = YahooChartParser.parse(FACTORY.createParser(body), 1L, "AAPL");
+        return series.size();
+    }
+
+    private static int alphaVantageStream(byte[] body) throws IOException {
+        PriceSeries series = AlphaVantageParser.parse(FACTORY.createParser(body), 1L, "IBM");
+        return series.size();
+    }
+
+    /**
+     * 對照組：先讀成 JSON 樹，再把日期、收盤價與成交量複製到陣列（只會低估樹狀解析的成本）
+     */
+    private static int yahooTree(byte[] body) throws IOException {
+        JsonNode result = MAPPER.readTree(body).path("chart").path("result").get(0);
+        JsonNode timestamps = result.get("timestamp");
+        JsonNode quote = result.path("indicators").path("quote").get(0);
+        int n = timestamps.size();
+        int[] days = new int[n];
+        double[] close = new double[n];
+        long[] volume = new long[n];
+        int rows = 0;
+        for (int i = 0; i < n; i++) {
+            if (quote.get("close").get(i).isNull()) {
+                continue;
+            }
+            days[rows] = (int) Math.floorDiv(timestamps.get(i).asLong(), 86400);
+            close[rows] = quote.get("close").get(i).asDouble();
+            volume[rows] = quote.get("volume").get(i).asLong();
+            rows++;
+        }
+        return rows;
+    }
+
+    private static int alphaVantageTree(byte[] body) throws IOException {
+        JsonNode timeSeries = MAPPER.readTree(body).get("Time Series (Daily)");
+        int n = timeSeries.size();
+        int[] days = new int[n];
+        double[] close = new double[n];
+        long[] volume = new long[n];
+        int rows = 0;
+        for (Iterator<Map.Entry<String, JsonNode>> it = timeSeries.fields(); it.hasNext(); rows++) {
+            Map.Entry<String, JsonNode> day = it.next();
+            days[rows] = ProviderJson.epochDay(day.getKey());
+            close[rows] = Double.parseDouble(day.getValue().get("4. close").asText());
+            volume[rows] = Long.parseLong(day.getValue().get("5. volume").asText());
+        }
+        return rows;
+    }
+
+    private static byte[] load(String name) throws IOException {
+        try (InputStream in = ProviderParserTests.fixture(name)) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.stockproject.client;
+
+import com.example.stockproject.model.series.PriceSeries;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 外部數據來源串流解析器測試類別
+ * 
+ * 測試 Yahoo Finance 與 Alpha Vantage 回應的欄位對應、null 略過、排序，
+ * 以及數字字串快速解析與 {@link Double#parseDouble} 結果一致。
+ * 完整歷史的樣本回應（src/test/resources/fixtures）逐筆與 JSON 樹走訪的結果比對。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增串流解析外部數據
+ */
+class ProviderParserTests {
+
+    private final JsonFactory factory = new JsonFactory();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * 開啟測試樣本回應（.gz 結尾時解壓縮）
+     */
+    static InputStream fixture(String name) throws IOException {
+        InputStream in = ProviderParserTests.class.getResourceAsStream("/fixtures/" + name);
+        if (in == null) {
+            throw new IOException("找不到測試樣本: " + name);
+        }
+        return name.endsWith(".gz") ? new GZIPInputStream(in) : in;
+    }
+
+    @Test
+    void parsesYahooChartAndSkipsNullBars() throws IOException {
+        String json = """
+                {"chart":{"result":[{"meta":{"symbol":"AAPL","validRanges":["1d","5d"]},
+                "timestamp":[1704205800,1704292200,1704378600],
+                "indicators":{"quote":[{"volume":[82488700,null,71983600],
+                "open":[187.15,184.22,182.15],"close":[185.64,184.25,181.91],
+                "low":[183.89,183.43,180.88],"high":[188.44,185.88,183.09]}],
+                "adjclose":[{"adjclose":[185.4,184.0,181.6]}]}}],"error":null}}
+                """;
+
+        PriceSeries series = YahooChartParser.parse(factory.createParser(json), 0L, "AAPL");
+
+        assertEquals(2, series.size());
+        assertEquals(LocalDate.of(2024, 1, 2).toEpochDay(), series.epochDayAt(0));
+        assertEquals(LocalDate.of(2024, 1, 4).toEpochDay(), series.epochDayAt(1));
+        assertEquals(187.15, series.openAt(0));
+        assertEquals(188.44, series.highAt(0));
+        assertEquals(183.89, series.lowAt(0));
+        assertEquals(185.64, series.closeAt(0));
+        assertEquals(71983600L, series.volumeAt(1));
+    }
+
+    @Test
+    void parsesAlphaVantageInAscendingOrder() throws IOException {
+        String json = """
+                {"Meta Data":{"1. Information":"Daily Prices","2. Symbol":"IBM"},
+                "Time Series (Daily)":{
+                "2024-03-01":{"1. open":"185.4900","2. high":"188.3800","3. low":"185.1800","4. close":"188.2000","5. volume":"4018354"},
+                "2024-02-29":{"1. open":"182.8600","2. high":"186.2300","3. low":"182.5000","4. close":"185.0300","5. volume":"6458487"}}}
+                """;
+
+        PriceSeries series = AlphaVantageParser.parse(factory.createParser(json), 0L, "IBM");
+
+        assertEquals(2, series.size());
+        assertEquals(LocalDate.of(2024, 2, 29).toEpochDay(), series.epochDayAt(0));
+        assertEquals(182.86, series.openAt(0));
+        assertEquals(188.2, series.closeAt(1));
+        assertEquals(4018354L, series.volumeAt(1));
+
+        String limited = "{\"Note\":\"Thank you for using Alpha Vantage!\"}";
+        assertThrows(MarketDataRateLimitException.class,
+                () -> AlphaVantageParser.parse(factory.createParser(limited), 0L, "IBM"));
+    }
+
+    @Test
+    void classifiesAlphaVantageNotices() {
+        MarketDataException minute = AlphaVantageParser.notice("Information", "Please consider spreading out "
+                + "your free API requests more sparingly (1 request per second).");
+        assertInstanceOf(MarketDataRateLimitException.class, minute);
+        assertFalse(((MarketDataRateLimitException) minute).isDaily());
+
+        MarketDataException daily = AlphaVantageParser.notice("Information",
+                "Our standard API rate limit is 25 requests per day.");
+        assertTrue(((MarketDataRateLimitException) daily).isDaily());
+
+        // 需付費方案與示範金鑰的提示重試也不會成功，不視為呼叫次數限制
+        assertFalse(AlphaVantageParser.notice("Information", "Thank you for using Alpha Vantage! "
+                + "This is a premium endpoint.") instanceof MarketDataRateLimitException);
+        assertFalse(AlphaVantageParser.notice("Information", "The **demo** API key is for demo purposes only.")
+                instanceof MarketDataRateLimitException);
+    }
+
+    @Test
+    void fastDecimalMatchesDoubleParse() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            String text = switch (i % 3) {
+                case 0 -> String.format("%.4f", random.nextDouble() * 5000);
+                case 1 -> Double.toString(random.nextDouble() * 1000);
+                default -> Long.toString(random.nextInt(1_000_000)) + ".5";
+            };
+            char[] chars = text.toCharArray();
+            assertEquals(Double.parseDouble(text), ProviderJson.parseDecimal(chars, 0, chars.length), text);
+        }
+        for (int day = -1000; day < 30000; day += 17) {
+            String text = LocalDate.ofEpochDay(day).toString();
+            assertEquals(day, ProviderJson.epochDay(text), text);
+        }
+    }
+
+    @Test
+    void yahooMaxRangeFixtureMatchesTreeWalk() throws IOException {
+        PriceSeries series;
+        try (InputStream in = fixture("yahoo-chart-AAPL-max.json.gz")) {
+            series = YahooChartParser.parse(factory.createParser(in), 1L, "AAPL");
+        }
+        JsonNode result;
+        try (InputStream in = fixture("yahoo-chart-AAPL-max.json.gz")) {
+            result = objectMapper.readTree(in).path("chart").path("result").get(0);
+        }
+        JsonNode timestamps = result.get("timestamp");
+        JsonNode quote = result.path("indicators").path("quote").get(0);
+
+        int row = 0;
+        for (int i = 0; i < timestamps.size(); i++) {
+            if (quote.get("close").get(i).isNull()) {
+                continue;
+            }
+            assertEquals(Math.floorDiv(timestamps.get(i).asLong(), 86400), series.epochDayAt(row));
+            assertEquals(quote.get("open").get(i).asDouble(), series.openAt(row));
+            assertEquals(quote.get("high").get(i).asDouble(), series.highAt(row));
+            assertEquals(quote.get("low").get(i).asDouble(), series.lowAt(row));
+            assertEquals(quote.get("close").get(i).asDouble(), series.closeAt(row));
+            assertEquals(quote.get("volume").get(i).asLong(), series.volumeAt(row));
+            row++;
+        }
+        // 11,184 個交易日，其中 2 筆為 null
+        assertEquals(11_182, series.size());
+        assertEquals(row, series.size());
+        assertEquals(LocalDate.of(1980, 12, 12).toEpochDay(), series.epochDayAt(0));
+        assertEquals(LocalDate.of(2024, 3, 1).toEpochDay(), series.epochDayAt(series.size() - 1));
+    }
+
+    @Test
+    void alphaVantageFullFixtureMatchesTreeWalk() throws IOException {
+        PriceSeries series;
+        try (InputStream in = fixture("alphavantage-daily-IBM-full.json.gz")) {
+            series = AlphaVantageParser.parse(factory.createParser(in), 1L, "IBM");
+        }
+        JsonNode timeSeries;
+        try (InputStream in = fixture("alphavantage-daily-IBM-full.json.gz")) {
+            timeSeries = objectMapper.readTree(in).get("Time Series (Daily)");
+        }
+
+        // 來源由新到舊，序列由舊到新
+        int row = series.size() - 1;
+        for (Iterator<Map.Entry<String, JsonNode>> it = timeSeries.fields(); it.hasNext(); row--) {
+            Map.Entry<String, JsonNode> day = it.next();
+            JsonNode bar = day.getValue();
+            assertEquals(LocalDate.parse(day.getKey()).toEpochDay(), series.epochDayAt(row));
+            assertEquals(Double.parseDouble(bar.get("1. open").asText()), series.openAt(row));
+            assertEquals(Double.parseDouble(bar.get("2. high").asText()), series.highAt(row));
+            assertEquals(Double.parseDouble(bar.get("3. low").asText()), series.lowAt(row));
+            assertEquals(Double.parseDouble(bar.get("4. close").asText()), series.closeAt(row));
+            assertEquals(Long.parseLong(bar.get("5. volume").asText()), series.volumeAt(row));
+        }
+        assertEquals(-1, row);
+        assertEquals(6_298, series.size());
+        assertEquals(LocalDate.of(1999, 11, 1).toEpochDay(), series.epochDayAt(0));
+        for (int i = 1; i < series.size(); i++) {
+            assertTrue(series.epochDayAt(i) > series.epochDayAt(i - 1));
+        }
+    }
+
+    @Test
+    void errorFixturesYieldEmptySeriesOrRateLimit() throws IOException {
+        try (InputStream in = fixture("yahoo-chart-not-found.json")) {
+            assertEquals(0, YahooChartParser.parse(factory.createParser(in), 1L, "XXXX").size());
+        }
+        try (InputStream in = fixture("alphavantage-rate-limit.json")) {
+            MarketDataRateLimitException e = assertThrows(MarketDataRateLimitException.class,
+                    () -> AlphaVantageParser.parse(factory.createParser(in), 1L, "IBM"));
+            assertTrue(e.isDaily());
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.stockproject.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 外部 API 配額排程器測試類別
+ * 
+ * 以可控制的時鐘測試配額限制、優先順序、重複請求合併與預計等待時間，
+ * 以及來源回報每分鐘限制後的重試與回報每日限制時不重試。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增外部 API 配額排程
+ */
+class QuotaSchedulerTests {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @Test
+    void dispatchesWithinQuotaByPriorityAndMergesDuplicates() throws Exception {
+        QuotaScheduler<String, String> scheduler =
+                new QuotaScheduler<>("test", 2, 100, 0, executor, clock::get);
+        List<String> calls = new CopyOnWriteArrayList<>();
+        try {
+            scheduler.submit("A", RequestPriority.BACKGROUND, () -> record(calls, "A")).result().get(5, TimeUnit.SECONDS);
+            scheduler.submit("B", RequestPriority.BACKGROUND, () -> record(calls, "B")).result().get(5, TimeUnit.SECONDS);
+
+            // 每分鐘 2 次的配額已用完，之後的請求排隊
+            QuotaScheduler.Ticket<String> c = scheduler.submit("C", RequestPriority.BACKGROUND, () -> record(calls, "C"));
+            QuotaScheduler.Ticket<String> d = scheduler.submit("D", RequestPriority.BACKGROUND, () -> record(calls, "D"));
+            QuotaScheduler.Ticket<String> e = scheduler.submit("E", RequestPriority.INTERACTIVE, () -> record(calls, "E"));
+            QuotaScheduler.Ticket<String> duplicate = scheduler.submit("C", RequestPriority.INTERACTIVE, () -> record(calls, "C2"));
+
+            assertSame(c.result(), duplicate.result());
+            assertEquals(0, scheduler.status("C").position());
+            assertEquals(1, scheduler.status("E").position());
+            assertEquals(2, scheduler.status("D").position());
+            assertEquals(Duration.ofSeconds(30), scheduler.status("C").eta());
+            assertEquals(Duration.ofSeconds(90), scheduler.status("D").eta());
+
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+            c.result().get(5, TimeUnit.SECONDS);
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+            e.result().get(5, TimeUnit.SECONDS);
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+            d.result().get(5, TimeUnit.SECONDS);
+
+            assertEquals(List.of("A", "B", "C", "E", "D"), calls);
+        } finally {
+            scheduler.shutdown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void retriesAfterProviderRateLimit() throws Exception {
+        QuotaScheduler<String, String> scheduler =
+                new QuotaScheduler<>("test", 5, 100, 1, executor, clock::get);
+        AtomicInteger attempts = new AtomicInteger();
+        try {
+            QuotaScheduler.Ticket<String> ticket = scheduler.submit("IBM", RequestPriority.INTERACTIVE, () -> {
+                if (attempts.incrementAndGet() == 1) {
+                    throw new MarketDataRateLimitException("limit");
+                }
+                return "ok";
+            });
+            // 回報限制後每分鐘配額被清空，需等待補充一個權杖 (12 秒)
+            while (attempts.get() == 0) {
+                Thread.sleep(10);
+            }
+            Thread.sleep(100);
+            assertEquals(1, attempts.get());
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(12));
+
+            assertEquals("ok", ticket.result().get(5, TimeUnit.SECONDS));
+            assertEquals(2, attempts.get());
+        } finally {
+            scheduler.shutdown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void doesNotRetryAfterDailyLimit() throws Exception {
+        QuotaScheduler<String, String> scheduler =
+                new QuotaScheduler<>("test", 5, 100, 2, executor, clock::get);
+        AtomicInteger attempts = new AtomicInteger();
+        try {
+            QuotaScheduler.Ticket<String> ticket = scheduler.submit("IBM", RequestPriority.INTERACTIVE, () -> {
+                attempts.incrementAndGet();
+                throw new MarketDataRateLimitException("limit", true);
+            });
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> ticket.result().get(5, TimeUnit.SECONDS));
+            assertInstanceOf(MarketDataRateLimitException.class, e.getCause());
+            assertEquals(1, attempts.get());
+            // 每日配額被清空，每分鐘配額仍在
+            assertEquals(0.0, scheduler.snapshot().get("dayTokens"));
+            assertEquals(4.0, scheduler.snapshot().get("minuteTokens"));
+        } finally {
+            scheduler.shutdown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static String record(List<String> calls, String name) {
+        calls.add(name);
+        return name;
+    }
+}
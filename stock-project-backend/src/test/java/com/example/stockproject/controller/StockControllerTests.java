@@ -0,0 +1,67 @@
+package com.example.stockproject.controller;
+
+import com.example.stockproject.event.StockQuotesUpdatedEvent;
+import com.example.stockproject.repository.StockRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 股票控制器測試類別
+ * 
+ * 驗證股票清單快照的 ETag / 304 條件式請求，以及報價更新後產生新版本。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增股票清單快照
+ */
+@SpringBootTest(properties = "stock.quotes.refresh.enabled=false")
+@AutoConfigureMockMvc
+class StockControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    void servesCatalogWithEtagAndNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/api/stocks"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].symbol").exists())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/stocks").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+
+        // 價格變動後產生新版本，舊 ETag 不再相符
+        Long aaplId = stockRepository.findBySymbol("AAPL").getId();
+        eventPublisher.publishEvent(new StockQuotesUpdatedEvent(Map.of(aaplId, 999.5), Instant.now()));
+
+        String newEtag = mockMvc.perform(get("/api/stocks").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, newEtag);
+
+        mockMvc.perform(get("/api/stocks/symbol/AAPL"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price").value(999.5));
+    }
+}
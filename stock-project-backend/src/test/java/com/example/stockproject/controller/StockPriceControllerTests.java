@@ -0,0 +1,133 @@
+package com.example.stockproject.controller;
+
+import com.example.stockproject.model.series.PriceSeries;
+import com.example.stockproject.model.series.PriceSeriesCodec;
+import com.example.stockproject.repository.StockPriceBatchRepository;
+import com.example.stockproject.repository.StockRepository;
+import com.example.stockproject.service.PriceSeriesStore;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * 股票歷史價格控制器測試類別
+ * 
+ * 驗證鍵集分頁在同一天有多筆記錄時不會漏掉或重複回傳記錄，
+ * 以及價格序列依 Accept 標頭協商 JSON、欄式 JSON 與二進位格式。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增鍵集分頁
+ */
+@SpringBootTest(properties = "stock.quotes.refresh.enabled=false")
+@AutoConfigureMockMvc
+class StockPriceControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private StockPriceBatchRepository stockPriceBatchRepository;
+
+    @Autowired
+    private PriceSeriesStore priceSeriesStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void pagesThroughRowsSharingTheSameDate() throws Exception {
+        long stockId = stockRepository.findBySymbol("TSLA").getId();
+        int day = (int) LocalDate.of(2022, 1, 3).toEpochDay();
+        // 第二天有三筆記錄，分頁大小 2 會讓頁面邊界落在同一天之內
+        int[] epochDays = { day, day + 1, day + 1, day + 1, day + 2 };
+        double[] prices = { 100, 101, 102, 103, 104 };
+        long[] volume = { 1, 2, 3, 4, 5 };
+        stockPriceBatchRepository.insertColumns(stockId, new long[5], epochDays, prices, prices, prices, prices,
+                volume, 5);
+
+        Set<Long> ids = new HashSet<>();
+        String after = null;
+        String afterId = null;
+        int pages = 0;
+        do {
+            MockHttpServletRequestBuilder request = get("/api/stock-prices/" + stockId).param("limit", "2");
+            if (after != null) {
+                request.param("after", after).param("afterId", afterId);
+            }
+            MockHttpServletResponse response = mockMvc.perform(request).andReturn().getResponse();
+            assertEquals(200, response.getStatus());
+            JsonNode page = objectMapper.readTree(response.getContentAsByteArray());
+            for (JsonNode row : page) {
+                assertTrue(ids.add(row.get("id").asLong()), "記錄重複出現: " + row);
+            }
+            after = response.getHeader("X-Next-After");
+            afterId = response.getHeader("X-Next-After-Id");
+            pages++;
+        } while (after != null && pages < 10);
+
+        assertEquals(5, ids.size());
+        assertNull(afterId);
+
+        // 只給日期時略過該日全部記錄
+        MockHttpServletResponse legacy = mockMvc.perform(get("/api/stock-prices/" + stockId)
+                .param("after", LocalDate.ofEpochDay(day + 1).toString())).andReturn().getResponse();
+        JsonNode rest = objectMapper.readTree(legacy.getContentAsByteArray());
+        assertEquals(1, rest.size());
+        assertEquals(LocalDate.ofEpochDay(day + 2).toString(), rest.get(0).get("date").asText());
+    }
+
+    @Test
+    void negotiatesPriceSeriesFormatFromAccept() throws Exception {
+        long stockId = stockRepository.findBySymbol("AMZN").getId();
+        int day = (int) LocalDate.of(2022, 2, 1).toEpochDay();
+        double[] close = { 150.25, 151.5, 149.0001 };
+        stockPriceBatchRepository.insertColumns(stockId, new long[3], new int[] { day, day + 1, day + 2 },
+                close, close, close, close, new long[] { 10, 20, 30 }, 3);
+        priceSeriesStore.invalidate(stockId);
+        String url = "/api/stock-prices/" + stockId;
+
+        MockHttpServletResponse json = mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse();
+        assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(json.getContentType())));
+        JsonNode rows = objectMapper.readTree(json.getContentAsByteArray());
+        assertEquals(3, rows.size());
+        assertEquals(149.0001, rows.get(2).get("closePrice").asDouble());
+
+        MockHttpServletResponse columnar = mockMvc.perform(get(url).accept(PriceSeriesCodec.COLUMNAR_JSON))
+                .andReturn().getResponse();
+        assertTrue(MediaType.parseMediaType(PriceSeriesCodec.COLUMNAR_JSON)
+                .isCompatibleWith(MediaType.parseMediaType(columnar.getContentType())));
+        JsonNode node = objectMapper.readTree(columnar.getContentAsByteArray());
+        assertEquals(3, node.get("count").asInt());
+        assertEquals(1502500, node.get("open").get(0).asLong());
+
+        MockHttpServletResponse binary = mockMvc.perform(get(url).accept(MediaType.APPLICATION_OCTET_STREAM))
+                .andReturn().getResponse();
+        assertEquals(MediaType.APPLICATION_OCTET_STREAM_VALUE, binary.getContentType());
+        PriceSeries decoded = PriceSeriesCodec.readBinary(ByteBuffer.wrap(binary.getContentAsByteArray()));
+        assertEquals(3, decoded.size());
+        assertEquals(day + 2, decoded.epochDayAt(2));
+        assertEquals(149.0001, decoded.closeAt(2), 1e-9);
+        assertEquals(30, decoded.volumeAt(2));
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.stockproject.controller;
+
+import com.example.stockproject.model.entity.Stock;
+import com.example.stockproject.repository.StockRepository;
+import com.example.stockproject.service.StockCatalog;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 觀察清單控制器測試類別
+ * 
+ * 驗證單筆與批次的新增 / 移除（重複與不存在的項目被略過）以及成員檢查，
+ * 批次中有項目違反外鍵約束時其餘項目照常新增。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增觀察清單批次操作
+ */
+@SpringBootTest(properties = "stock.quotes.refresh.enabled=false")
+@AutoConfigureMockMvc
+class WatchlistControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private StockCatalog stockCatalog;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void addsAndRemovesSingleAndBulk() throws Exception {
+        long aapl = stockRepository.findBySymbol("AAPL").getId();
+        long msft = stockRepository.findBySymbol("MSFT").getId();
+        long googl = stockRepository.findBySymbol("GOOGL").getId();
+
+        mockMvc.perform(post("/api/watchlist").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"stockId\":" + aapl + "}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stock.symbol").value("AAPL"));
+        mockMvc.perform(post("/api/watchlist").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"stockId\":" + aapl + "}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/watchlist/check/" + aapl))
+                .andExpect(jsonPath("$.inWatchlist").value(true));
+
+        // AAPL 已存在、999999 不存在，只新增 MSFT 與 GOOGL
+        mockMvc.perform(post("/api/watchlist/bulk").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"stockIds\":[" + aapl + "," + msft + "," + googl + ",999999," + msft + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied.length()").value(2))
+                .andExpect(jsonPath("$.skipped.length()").value(2));
+        mockMvc.perform(get("/api/watchlist"))
+                .andExpect(jsonPath("$.length()").value(3));
+
+        mockMvc.perform(delete("/api/watchlist/bulk").param("stockIds", msft + "," + googl + ",999999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied.length()").value(2))
+                .andExpect(jsonPath("$.skipped[0]").value(999999));
+        mockMvc.perform(delete("/api/watchlist/" + aapl))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/watchlist/" + aapl))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/watchlist/check/" + aapl))
+                .andExpect(jsonPath("$.inWatchlist").value(false));
+        mockMvc.perform(get("/api/watchlist"))
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void returnsTrendsForWatchedStocks() throws Exception {
+        long aapl = stockRepository.findBySymbol("AAPL").getId();
+        long msft = stockRepository.findBySymbol("MSFT").getId();
+        mockMvc.perform(post("/api/stock-prices/" + aapl + "/generate-mock-data"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/stock-prices/" + msft));
+        mockMvc.perform(post("/api/watchlist/bulk").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"stockIds\":[" + aapl + "," + msft + "]}"))
+                .andExpect(status().isOk());
+
+        // 沒有歷史價格的 MSFT 不附走勢摘要
+        mockMvc.perform(get("/api/watchlist").param("trend", "true").param("sparkline", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.stockId == " + aapl + ")].trend.sparkline.length()").value(5))
+                .andExpect(jsonPath("$[?(@.stockId == " + aapl + ")].trend.changePercent").isNotEmpty())
+                .andExpect(jsonPath("$[?(@.stockId == " + msft + ")].trend").isEmpty());
+        mockMvc.perform(get("/api/watchlist"))
+                .andExpect(jsonPath("$[0].trend").doesNotExist());
+
+        mockMvc.perform(delete("/api/watchlist/bulk").param("stockIds", aapl + "," + msft))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void bulkAddSkipsStockDeletedBehindCatalog() throws Exception {
+        long aapl = stockRepository.findBySymbol("AAPL").getId();
+        long msft = stockRepository.findBySymbol("MSFT").getId();
+        // 繞過 JPA 直接刪除：股票清單快照仍有這檔股票，寫入時違反外鍵約束
+        long ghost = stockRepository.save(new Stock("GHOST", "Deleted Stock", 1.0)).getId();
+        assertNotNull(stockCatalog.current().getById(ghost));
+        jdbcTemplate.update("DELETE FROM stock WHERE id = ?", ghost);
+
+        mockMvc.perform(post("/api/watchlist/bulk").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"stockIds\":[" + aapl + "," + ghost + "," + msft + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied.length()").value(2))
+                .andExpect(jsonPath("$.skipped[0]").value(ghost));
+        mockMvc.perform(get("/api/watchlist/check/" + ghost))
+                .andExpect(jsonPath("$.inWatchlist").value(false));
+        mockMvc.perform(get("/api/watchlist/check/" + msft))
+                .andExpect(jsonPath("$.inWatchlist").value(true));
+        mockMvc.perform(get("/api/watchlist"))
+                .andExpect(jsonPath("$.length()").value(2));
+
+        mockMvc.perform(delete("/api/watchlist/bulk").param("stockIds", aapl + "," + msft))
+                .andExpect(status().isOk());
+    }
+}
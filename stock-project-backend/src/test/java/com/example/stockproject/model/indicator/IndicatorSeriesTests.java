@@ -0,0 +1,100 @@
+package com.example.stockproject.model.indicator;
+
+import com.example.stockproject.model.series.PriceSeries;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 技術指標測試類別
+ * 
+ * 測試指標數值、參數驗證與增量延續計算的結果是否與完整重算一致。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增技術指標
+ */
+class IndicatorSeriesTests {
+
+    private PriceSeries series(double[] closes, int from, int to) {
+        int n = to - from;
+        long[] ids = new long[n];
+        int[] days = new int[n];
+        double[] high = new double[n];
+        double[] low = new double[n];
+        double[] close = new double[n];
+        long[] volume = new long[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = from + i;
+            days[i] = 19000 + from + i;
+            close[i] = closes[from + i];
+            high[i] = close[i] + 1;
+            low[i] = close[i] - 1;
+        }
+        return new PriceSeries(1L, "AAPL", ids, days, close, high, low, close, volume, n);
+    }
+
+    /**
+     * 測試不合法的布林通道標準差倍數被拒絕
+     */
+    @Test
+    void rejectsInvalidBollingerWidth() {
+        for (String width : new String[] { "NaN", "Infinity", "-1", "0" }) {
+            assertThrows(IllegalArgumentException.class, () -> IndicatorSpec.parse("bbands", "20," + width));
+        }
+        assertEquals(2.5, IndicatorSpec.parse("bbands", "20,2.5").getParams()[1]);
+    }
+
+    /**
+     * 測試 SMA 與 RSI 的已知數值
+     */
+    @Test
+    void computesKnownValues() {
+        double[] closes = { 1, 2, 3, 4, 5, 4, 3 };
+        PriceSeries prices = series(closes, 0, closes.length);
+
+        IndicatorSeries sma = IndicatorSeries.compute(IndicatorSpec.parse("sma", "3"), prices);
+        assertEquals(2, sma.warmup());
+        assertTrue(Double.isNaN(sma.values(0, 1, 2)[0]));
+        assertArrayEquals(new double[] { 2, 3, 4, 13.0 / 3, 4 }, sma.values(0, 2, 7), 1e-12);
+
+        // 前 4 次變動皆為上漲，RSI(4) = 100；之後下跌 1：avgGain = 0.75，avgLoss = 0.25
+        IndicatorSeries rsi = IndicatorSeries.compute(IndicatorSpec.parse("rsi", "4"), prices);
+        assertEquals(100, rsi.values(0, 4, 5)[0], 1e-12);
+        assertEquals(75, rsi.values(0, 5, 6)[0], 1e-12);
+    }
+
+    /**
+     * 測試分段延續計算與一次完整計算的結果相同
+     */
+    @Test
+    void extendMatchesFullRecompute() {
+        Random random = new Random(42);
+        double[] closes = new double[300];
+        closes[0] = 100;
+        for (int i = 1; i < closes.length; i++) {
+            closes[i] = closes[i - 1] * (1 + (random.nextDouble() - 0.5) * 0.04);
+        }
+        PriceSeries full = series(closes, 0, closes.length);
+
+        for (IndicatorType type : IndicatorType.values()) {
+            IndicatorSpec spec = IndicatorSpec.parse(type.name(), null);
+            IndicatorSeries expected = IndicatorSeries.compute(spec, full);
+
+            PriceSeries head = series(closes, 0, 120);
+            IndicatorSeries actual = IndicatorSeries.compute(spec, head);
+            PriceSeries grown = head.append(series(closes, 120, 250));
+            actual = actual.extend(grown);
+            actual = actual.extend(grown.append(series(closes, 250, 300)));
+
+            assertEquals(full.size(), actual.size());
+            for (int k = 0; k < type.getOutputs().length; k++) {
+                assertArrayEquals(expected.values(k, 0, 300), actual.values(k, 0, 300), 1e-9, type.name());
+            }
+        }
+    }
+}
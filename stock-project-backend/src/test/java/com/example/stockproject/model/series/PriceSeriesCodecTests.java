@@ -0,0 +1,179 @@
+package com.example.stockproject.model.series;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 價格序列編碼器測試類別
+ * 
+ * 驗證 JSON、欄式 JSON 與二進位三種格式可還原原始序列（含空序列），
+ * 連續的二進位區塊可依序讀回，以及價格大幅跳動時改用 int64 差分。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增欄式價格序列
+ */
+class PriceSeriesCodecTests {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 2);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static PriceSeries series(double... closes) {
+        int n = closes.length;
+        long[] ids = new long[n];
+        int[] days = new int[n];
+        double[] open = new double[n];
+        double[] high = new double[n];
+        double[] low = new double[n];
+        long[] volume = new long[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = 10 + i;
+            days[i] = (int) START.plusDays(i == 0 ? 0 : i + 2L).toEpochDay();
+            open[i] = closes[i] - 0.5;
+            high[i] = closes[i] + 1.25;
+            low[i] = closes[i] - 1.0001;
+            volume[i] = 1000L + i;
+        }
+        return new PriceSeries(7L, "AAPL", ids, days, open, high, low, closes.clone(), volume, n);
+    }
+
+    private static void assertSameBars(PriceSeries expected, PriceSeries actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.epochDayAt(i), actual.epochDayAt(i));
+            assertEquals(expected.openAt(i), actual.openAt(i), 1e-9);
+            assertEquals(expected.highAt(i), actual.highAt(i), 1e-9);
+            assertEquals(expected.lowAt(i), actual.lowAt(i), 1e-9);
+            assertEquals(expected.closeAt(i), actual.closeAt(i), 1e-9);
+            assertEquals(expected.volumeAt(i), actual.volumeAt(i));
+        }
+    }
+
+    private byte[] json(PriceSeries series, boolean columnar) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            if (columnar) {
+                PriceSeriesCodec.writeColumnarJson(series, gen);
+            } else {
+                PriceSeriesCodec.writeJson(series, gen);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] binary(PriceSeries... frames) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (PriceSeries frame : frames) {
+            PriceSeriesCodec.writeBinary(frame, out);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 欄式 JSON 的差分解碼（與前端 decodeColumnarPrices 相同的算法）
+     */
+    private static PriceSeries decodeColumnar(JsonNode node) {
+        int n = node.get("count").asInt();
+        double scale = node.get("priceScale").asDouble();
+        int[] days = new int[n];
+        double[][] prices = new double[4][n];
+        long[] volume = new long[n];
+        int day = n > 0 ? (int) LocalDate.parse(node.get("startDate").asText()).toEpochDay() : 0;
+        String[] fields = { "open", "high", "low", "close" };
+        long[] ticks = new long[4];
+        for (int i = 0; i < n; i++) {
+            day += node.get("dates").get(i).asInt();
+            days[i] = day;
+            for (int c = 0; c < fields.length; c++) {
+                ticks[c] += node.get(fields[c]).get(i).asLong();
+                prices[c][i] = ticks[c] / scale;
+            }
+            volume[i] = node.get("volume").get(i).asLong();
+        }
+        return new PriceSeries(node.get("stockId").asLong(), node.get("symbol").asText(), new long[n], days,
+                prices[0], prices[1], prices[2], prices[3], volume, n);
+    }
+
+    @Test
+    void jsonListsEveryBarWithItsId() throws Exception {
+        PriceSeries series = series(101.37, 99.5, 100.0001);
+        JsonNode rows = objectMapper.readTree(json(series, false));
+
+        assertEquals(3, rows.size());
+        assertEquals(11, rows.get(1).get("id").asLong());
+        assertEquals("AAPL", rows.get(1).get("symbol").asText());
+        assertEquals(START.plusDays(3).toString(), rows.get(1).get("date").asText());
+        assertEquals(99.5, rows.get(1).get("closePrice").asDouble());
+        assertEquals(98.4999, rows.get(1).get("lowPrice").asDouble());
+        assertEquals(1001, rows.get(1).get("volume").asLong());
+        assertEquals(0, objectMapper.readTree(json(PriceSeries.empty(7L, "AAPL"), false)).size());
+    }
+
+    @Test
+    void columnarAndBinaryRoundTrip() throws Exception {
+        PriceSeries series = series(101.37, 99.5, 100.0001, 250.25);
+
+        PriceSeries columnar = decodeColumnar(objectMapper.readTree(json(series, true)));
+        assertSameBars(series, columnar);
+
+        ByteBuffer buffer = ByteBuffer.wrap(binary(series));
+        PriceSeries decoded = PriceSeriesCodec.readBinary(buffer);
+        assertSameBars(series, decoded);
+        assertEquals(7L, decoded.getStockId());
+        assertEquals("AAPL", decoded.getSymbol());
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void emptySeriesRoundTrips() throws Exception {
+        PriceSeries empty = PriceSeries.empty(7L, "AAPL");
+
+        JsonNode node = objectMapper.readTree(json(empty, true));
+        assertTrue(node.get("startDate").isNull());
+        assertEquals(0, decodeColumnar(node).size());
+
+        PriceSeries decoded = PriceSeriesCodec.readBinary(ByteBuffer.wrap(binary(empty)));
+        assertEquals(0, decoded.size());
+        assertEquals("AAPL", decoded.getSymbol());
+    }
+
+    @Test
+    void consecutiveBinaryFramesAreReadInOrder() throws Exception {
+        PriceSeries first = series(10, 11, 12);
+        PriceSeries second = series(500.5);
+        ByteBuffer buffer = ByteBuffer.wrap(binary(first, PriceSeries.empty(8L, "MSFT"), second));
+
+        assertSameBars(first, PriceSeriesCodec.readBinary(buffer));
+        assertEquals(0, PriceSeriesCodec.readBinary(buffer).size());
+        assertSameBars(second, PriceSeriesCodec.readBinary(buffer));
+        assertFalse(buffer.hasRemaining());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> PriceSeriesCodec.readBinary(ByteBuffer.wrap(new byte[64])));
+    }
+
+    @Test
+    void largePriceJumpUsesWideDeltas() throws Exception {
+        // 1.01 -> 500000 的差分約為 5e9 tick，超出 int32
+        PriceSeries series = series(1.01, 500_000, 1.01);
+        byte[] bytes = binary(series);
+
+        assertEquals(PriceSeriesCodec.BINARY_MAGIC_WIDE,
+                ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).getInt(0));
+        assertSameBars(series, PriceSeriesCodec.readBinary(ByteBuffer.wrap(bytes)));
+        assertEquals(PriceSeriesCodec.BINARY_MAGIC,
+                ByteBuffer.wrap(binary(series(1.01, 2.02))).order(ByteOrder.LITTLE_ENDIAN).getInt(0));
+    }
+}
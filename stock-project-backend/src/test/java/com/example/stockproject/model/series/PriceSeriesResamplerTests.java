@@ -0,0 +1,106 @@
+package com.example.stockproject.model.series;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 價格序列重取樣測試類別
+ * 
+ * 測試週線/月線的 OHLCV 彙總與 LTTB 縮減。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增K線重取樣
+ */
+class PriceSeriesResamplerTests {
+
+    /**
+     * 建立從指定日期開始、每日一筆的序列，收盤價依 closes 指定
+     */
+    private PriceSeries daily(LocalDate start, double... closes) {
+        int n = closes.length;
+        long[] ids = new long[n];
+        int[] days = new int[n];
+        double[] open = new double[n];
+        double[] high = new double[n];
+        double[] low = new double[n];
+        long[] volume = new long[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = i + 1;
+            days[i] = (int) start.plusDays(i).toEpochDay();
+            open[i] = closes[i] - 1;
+            high[i] = closes[i] + 2;
+            low[i] = closes[i] - 2;
+            volume[i] = 10;
+        }
+        return new PriceSeries(1L, "AAPL", ids, days, open, high, low, closes.clone(), volume, n);
+    }
+
+    /**
+     * 測試週線從週一開始，並正確彙總開高低收量
+     */
+    @Test
+    void aggregateWeeklyRollsUpOhlcv() {
+        // 2024-01-04 為週四：前 4 天屬於同一週，後 3 天屬於下一週
+        PriceSeries series = daily(LocalDate.of(2024, 1, 4), 10, 14, 9, 11, 20, 18, 19);
+
+        PriceSeries weekly = PriceSeriesResampler.aggregate(series, Resolution.WEEKLY);
+
+        assertEquals(2, weekly.size());
+        assertEquals(LocalDate.of(2024, 1, 4).toEpochDay(), weekly.epochDayAt(0));
+        assertEquals(9, weekly.openAt(0));
+        assertEquals(16, weekly.highAt(0));
+        assertEquals(7, weekly.lowAt(0));
+        assertEquals(11, weekly.closeAt(0));
+        assertEquals(40, weekly.volumeAt(0));
+        assertEquals(LocalDate.of(2024, 1, 8).toEpochDay(), weekly.epochDayAt(1));
+        assertEquals(19, weekly.closeAt(1));
+        assertEquals(30, weekly.volumeAt(1));
+    }
+
+    /**
+     * 測試月線依日曆月份切分
+     */
+    @Test
+    void aggregateMonthlySplitsOnCalendarMonth() {
+        PriceSeries series = daily(LocalDate.of(2024, 1, 30), 1, 2, 3, 4);
+
+        PriceSeries monthly = PriceSeriesResampler.aggregate(series, Resolution.MONTHLY);
+
+        assertEquals(2, monthly.size());
+        assertEquals(2, monthly.closeAt(0));
+        assertEquals(4, monthly.closeAt(1));
+    }
+
+    /**
+     * 測試 LTTB 保留首尾與明顯的極值
+     */
+    @Test
+    void downsampleKeepsEndpointsAndSpikes() {
+        double[] closes = new double[100];
+        for (int i = 0; i < closes.length; i++) {
+            closes[i] = 100;
+        }
+        closes[37] = 500;
+        closes[71] = 1;
+        PriceSeries series = daily(LocalDate.of(2024, 1, 1), closes);
+
+        PriceSeries sampled = PriceSeriesResampler.downsample(series, 10);
+
+        assertEquals(10, sampled.size());
+        assertEquals(series.epochDayAt(0), sampled.epochDayAt(0));
+        assertEquals(series.epochDayAt(99), sampled.epochDayAt(9));
+        boolean hasHigh = false;
+        boolean hasLow = false;
+        for (int i = 0; i < sampled.size(); i++) {
+            hasHigh |= sampled.closeAt(i) == 500;
+            hasLow |= sampled.closeAt(i) == 1;
+        }
+        assertTrue(hasHigh && hasLow);
+        assertSame(series, PriceSeriesResampler.downsample(series, 0));
+    }
+}
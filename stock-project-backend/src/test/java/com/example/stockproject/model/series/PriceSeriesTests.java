@@ -0,0 +1,74 @@
+package com.example.stockproject.model.series;
+
+import com.example.stockproject.model.dto.StockPriceDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 欄式價格序列測試類別
+ * 
+ * 測試日期範圍的二分搜尋與零複製切片是否正確。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增欄式價格序列
+ */
+class PriceSeriesTests {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    /**
+     * 建立每隔一天一筆、共 n 筆的序列
+     */
+    private PriceSeries series(int n) {
+        long[] ids = new long[n];
+        int[] days = new int[n];
+        double[] prices = new double[n];
+        long[] volume = new long[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = i + 1;
+            days[i] = (int) START.plusDays(2L * i).toEpochDay();
+            prices[i] = 100 + i;
+            volume[i] = 1000L * i;
+        }
+        return new PriceSeries(1L, "AAPL", ids, days, prices, prices, prices, prices, volume, n);
+    }
+
+    /**
+     * 測試日期範圍查詢包含首尾，且落在缺口的邊界正確
+     */
+    @Test
+    void sliceByDateRangeIsInclusive() {
+        PriceSeries series = series(10);
+
+        PriceSeries exact = series.slice(START.plusDays(2), START.plusDays(6));
+        assertEquals(3, exact.size());
+        assertEquals(101, exact.closeAt(0));
+        assertEquals(103, exact.closeAt(2));
+
+        PriceSeries gaps = series.slice(START.plusDays(1), START.plusDays(7));
+        assertEquals(3, gaps.size());
+        assertEquals(START.plusDays(2).toEpochDay(), gaps.epochDayAt(0));
+
+        assertTrue(series.slice(START.plusDays(100), null).isEmpty());
+        assertEquals(10, series.slice(null, null).size());
+    }
+
+    /**
+     * 測試切片後再轉換 DTO 的欄位與順序
+     */
+    @Test
+    void toDTOsUsesSliceOffset() {
+        List<StockPriceDTO> dtos = series(5).slice(3, 5).toDTOs();
+
+        assertEquals(2, dtos.size());
+        assertEquals(4L, dtos.get(0).getId());
+        assertEquals("AAPL", dtos.get(0).getSymbol());
+        assertEquals(START.plusDays(6), dtos.get(0).getDate());
+        assertEquals(4000L, dtos.get(1).getVolume());
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.stockproject.repository;
+
+import com.example.stockproject.archive.PriceArchiveFile;
+import com.example.stockproject.model.series.PriceSeries;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 歷史價格歸檔儲存庫測試類別
+ * 
+ * 驗證檔案依股票識別碼命名（代碼相近的股票不共用檔案）、檔頭識別碼檢查、
+ * 刪除後仍在使用的對映可繼續讀取且之後的追加寫到新檔案，以及舊版檔名的轉換。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增歷史價格歸檔
+ */
+class PriceArchiveRepositoryTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void keepsSimilarSymbolsApart() {
+        PriceArchiveRepository repository = new PriceArchiveRepository(directory.toString());
+        repository.append(1L, "BRK/B", bars(1L, 100, 10));
+        repository.append(2L, "BRK_B", bars(2L, 100, 20));
+
+        assertEquals(10, repository.find(1L, "BRK/B").closeAt(0));
+        assertEquals(20, repository.find(2L, "BRK_B").closeAt(0));
+        assertEquals(1L, repository.find(1L, "BRK/B").getStockId());
+    }
+
+    @Test
+    void deleteLeavesMappedReadersIntactAndAppendsToANewFile() throws Exception {
+        PriceArchiveRepository repository = new PriceArchiveRepository(directory.toString());
+        repository.append(1L, "AAPL", bars(1L, 100, 10));
+        PriceArchiveFile inFlight = repository.find(1L, "AAPL");
+
+        repository.delete(1L, "AAPL");
+        assertNull(repository.find(1L, "AAPL"));
+        assertEquals(10, inFlight.closeAt(0));
+
+        repository.append(1L, "AAPL", bars(1L, 50, 30));
+        PriceArchiveFile replaced = repository.find(1L, "AAPL");
+        assertEquals(50, replaced.epochDayAt(0));
+        assertEquals(30, replaced.closeAt(0));
+        assertFalse(replaced.getPath().equals(inFlight.getPath()));
+
+        // 重新啟動後只看得到最新的檔案
+        PriceArchiveRepository restarted = new PriceArchiveRepository(directory.toString());
+        assertEquals(30, restarted.find(1L, "AAPL").closeAt(0));
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void ignoresFilesMarkedDeletedAfterRestart() throws Exception {
+        PriceArchiveRepository repository = new PriceArchiveRepository(directory.toString());
+        repository.append(1L, "AAPL", bars(1L, 100, 10));
+        Path path = repository.find(1L, "AAPL").getPath();
+        // 模擬刪除時檔案仍被對映（Windows）而只完成標記
+        PriceArchiveFile.markDeleted(path);
+
+        PriceArchiveRepository restarted = new PriceArchiveRepository(directory.toString());
+        assertNull(restarted.find(1L, "AAPL"));
+        assertFalse(Files.exists(path));
+    }
+
+    @Test
+    void renamesLegacyFilesAndChecksTheHeader() throws Exception {
+        PriceArchiveFile.append(directory.resolve("MSFT.spa"), 7L, "MSFT", bars(7L, 100, 40));
+        PriceArchiveRepository repository = new PriceArchiveRepository(directory.toString());
+        assertEquals(40, repository.find(7L, "MSFT").closeAt(0));
+        assertTrue(Files.exists(directory.resolve("7.0.spa")));
+
+        PriceArchiveFile.append(directory.resolve("8.0.spa"), 9L, "XXX", bars(9L, 100, 1));
+        PriceArchiveRepository mismatched = new PriceArchiveRepository(directory.toString());
+        assertThrows(UncheckedIOException.class, () -> mismatched.find(8L, "XXX"));
+        assertNotNull(mismatched.find(7L, "MSFT"));
+    }
+
+    private static PriceSeries bars(long stockId, int epochDay, double close) {
+        return new PriceSeries(stockId, null, new long[1], new int[] { epochDay }, new double[] { close },
+                new double[] { close }, new double[] { close }, new double[] { close }, new long[] { 1 }, 1);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.stockproject.service;
+
+import com.example.stockproject.model.dto.IndicatorDTO;
+import com.example.stockproject.model.indicator.IndicatorSpec;
+import com.example.stockproject.repository.StockPriceBatchRepository;
+import com.example.stockproject.repository.StockRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 技術指標服務測試類別
+ * 
+ * 驗證沒有資料或歷史短於暖機期的股票回傳空結果，而不是拋出例外；
+ * 每支股票的衍生值快取有上限，不合法的參數回傳 400。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增技術指標
+ */
+@SpringBootTest(properties = "stock.quotes.refresh.enabled=false")
+@AutoConfigureMockMvc
+class IndicatorServiceTests {
+
+    /**
+     * stock.series.max-derived 的預設值
+     */
+    private static final int MAX_DERIVED = 32;
+
+    @Autowired
+    private IndicatorService indicatorService;
+
+    @Autowired
+    private PriceSeriesStore priceSeriesStore;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private StockPriceBatchRepository stockPriceBatchRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void returnsEmptyResultForEmptySeries() throws Exception {
+        Long stockId = stockRepository.findBySymbol("NVDA").getId();
+        priceSeriesStore.invalidate(stockId);
+
+        IndicatorDTO sma = indicatorService.getIndicator(stockId, IndicatorSpec.parse("sma", "20"), null);
+        assertTrue(sma.getDates().isEmpty());
+        assertEquals(0, sma.getValues().get(sma.getValues().keySet().iterator().next()).length);
+
+        mockMvc.perform(get("/api/stock-prices/" + stockId + "/indicators").param("type", "macd"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dates").isEmpty());
+    }
+
+    @Test
+    void returnsEmptyResultForSeriesShorterThanWarmup() throws Exception {
+        Long stockId = stockRepository.findBySymbol("GOOGL").getId();
+        int day = (int) LocalDate.of(2023, 5, 1).toEpochDay();
+        double[] close = { 100, 101, 102 };
+        stockPriceBatchRepository.insertColumns(stockId, new long[3], new int[] { day, day + 1, day + 2 },
+                close, close, close, close, new long[3], 3);
+        priceSeriesStore.invalidate(stockId);
+
+        IndicatorDTO ema = indicatorService.getIndicator(stockId, IndicatorSpec.parse("ema", "50"),
+                LocalDate.of(2023, 5, 2));
+        assertTrue(ema.getDates().isEmpty());
+
+        mockMvc.perform(get("/api/stock-prices/" + stockId + "/indicators").param("type", "sma").param("params", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dates").isEmpty());
+
+        IndicatorDTO sma = indicatorService.getIndicator(stockId, IndicatorSpec.parse("sma", "2"), null);
+        assertEquals(2, sma.getDates().size());
+    }
+
+    @Test
+    void keepsOnlyRecentlyUsedDerivedValuesPerStock() throws Exception {
+        Long stockId = stockRepository.findBySymbol("NVDA").getId();
+        AtomicInteger computed = new AtomicInteger();
+        for (int i = 0; i <= MAX_DERIVED; i++) {
+            priceSeriesStore.getDerived(stockId, "lru-" + i, series -> computed.incrementAndGet());
+        }
+        assertEquals(MAX_DERIVED + 1, computed.get());
+
+        // 最近使用的仍在快取中，最久未使用的已被丟棄而重新計算
+        priceSeriesStore.getDerived(stockId, "lru-" + MAX_DERIVED, series -> computed.incrementAndGet());
+        assertEquals(MAX_DERIVED + 1, computed.get());
+        priceSeriesStore.getDerived(stockId, "lru-0", series -> computed.incrementAndGet());
+        assertEquals(MAX_DERIVED + 2, computed.get());
+
+        mockMvc.perform(get("/api/stock-prices/" + stockId + "/indicators").param("type", "bbands")
+                .param("params", "20,NaN"))
+                .andExpect(status().isBadRequest());
+        priceSeriesStore.invalidate(stockId);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.stockproject.service;
+
+import com.example.stockproject.model.series.BarInterval;
+import com.example.stockproject.model.series.IntradaySeries;
+import com.example.stockproject.repository.StockRepository;
+import com.example.stockproject.tick.MinuteBarAggregator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 分K線儲存測試類別
+ * 
+ * 驗證一分鐘K線寫入後追加到已載入的序列、較長週期的彙總、
+ * 重新從資料庫載入的結果一致，以及歷史價格 API 的 interval 參數。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增分K線
+ */
+@SpringBootTest(properties = "stock.quotes.refresh.enabled=false")
+@AutoConfigureMockMvc
+class IntradayBarStoreTests {
+
+    @Autowired
+    private IntradayBarStore intradayBarStore;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void appendsMinuteBarsAndBuildsCoarserIntervals() throws Exception {
+        Long stockId = stockRepository.findBySymbol("AAPL").getId();
+        Instant now = Instant.now();
+        Instant from = now.minus(Duration.ofHours(1));
+
+        // 先載入（空序列），之後寫入的K線追加到快取
+        assertEquals(0, intradayBarStore.get(stockId, BarInterval.ONE_MINUTE, from, now).size());
+
+        MinuteBarAggregator aggregator = new MinuteBarAggregator(4, 8, intradayBarStore);
+        long start = (now.getEpochSecond() / 60 - 40) * 60_000;
+        for (int m = 0; m < 30; m++) {
+            long minute = start + m * 60_000L;
+            aggregator.onTick(stockId, minute + 1_000, 100 + m, 10);
+            aggregator.onTick(stockId, minute + 30_000, 100 + m + 0.5, 10);
+        }
+        aggregator.closeBefore(now.toEpochMilli());
+
+        IntradaySeries minutes = intradayBarStore.get(stockId, BarInterval.ONE_MINUTE, from, now);
+        assertEquals(30, minutes.size());
+        assertEquals(start / 1000, minutes.timestampAt(0));
+        assertEquals(100.5, minutes.closeAt(0));
+
+        IntradaySeries fives = intradayBarStore.get(stockId, BarInterval.FIVE_MINUTES, from, now);
+        IntradaySeries hour = intradayBarStore.get(stockId, BarInterval.ONE_HOUR, from, now);
+        assertTotals(fives);
+        assertTotals(hour);
+        for (int i = 0; i < fives.size(); i++) {
+            assertEquals(0, fives.timestampAt(i) % 300);
+        }
+
+        // 重新從資料庫載入的結果一致
+        intradayBarStore.invalidate(stockId);
+        Map<Long, IntradaySeries> reloaded = intradayBarStore.getAll(List.of(stockId), BarInterval.FIVE_MINUTES, from);
+        assertEquals(fives.size(), reloaded.get(stockId).size());
+        assertTotals(reloaded.get(stockId));
+
+        mockMvc.perform(get("/api/stock-prices/{id}/period/1D", stockId).param("interval", "15m"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.symbol").value("AAPL"))
+                .andExpect(jsonPath("$.interval").value("15m"))
+                .andExpect(jsonPath("$.open[0]").value(100.0));
+        mockMvc.perform(get("/api/stock-prices/{id}/period/1D", stockId).param("interval", "2m"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static void assertTotals(IntradaySeries bars) {
+        long volume = 0;
+        double high = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < bars.size(); i++) {
+            volume += bars.volumeAt(i);
+            high = Math.max(high, bars.highAt(i));
+        }
+        assertEquals(600, volume);
+        assertEquals(129.5, high);
+        assertEquals(100.0, bars.openAt(0));
+        assertEquals(129.5, bars.closeAt(bars.size() - 1));
+    }
+}
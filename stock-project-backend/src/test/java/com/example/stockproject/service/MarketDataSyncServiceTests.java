@@ -0,0 +1,219 @@
+package com.example.stockproject.service;
+
+import com.example.stockproject.model.dto.SyncResultDTO;
+import com.example.stockproject.model.entity.Stock;
+import com.example.stockproject.model.series.DailyBars;
+import com.example.stockproject.repository.StockPriceBatchRepository;
+import com.example.stockproject.repository.StockRepository;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 外部市場數據增量同步服務測試類別
+ * 
+ * 以本機服務取代 Yahoo Finance，驗證首次同步取得初始範圍並插入全部K線、
+ * 再次同步只請求水位線當天之後並以 upsert 修正水位線當天（不產生重複K線）、
+ * 寫入水位線不覆蓋同步期間更新的價格，
+ * 以及同步 API 對不存在的股票回傳 404、外部來源失敗回傳 502。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增外部數據增量同步
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class MarketDataSyncServiceTests {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 4);
+
+    /**
+     * 各代碼的回應K線：{epoch-day, 收盤價}
+     */
+    private static final Map<String, double[][]> BARS = new ConcurrentHashMap<>();
+
+    /**
+     * 各代碼收到的查詢字串
+     */
+    private static final Map<String, List<String>> QUERIES = new ConcurrentHashMap<>();
+
+    /**
+     * 本機服務回應前執行的動作（模擬同步期間的背景報價更新）
+     */
+    private static volatile Runnable onRequest = () -> { };
+
+    private static final HttpServer STUB = startStub();
+
+    @Autowired
+    private MarketDataSyncService marketDataSyncService;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private StockPriceBatchRepository stockPriceBatchRepository;
+
+    @Autowired
+    private PriceSeriesStore priceSeriesStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final List<Stock> added = new ArrayList<>();
+
+    @DynamicPropertySource
+    static void stubProperties(DynamicPropertyRegistry registry) {
+        registry.add("stock.market-data.yahoo.base-url",
+                () -> "http://127.0.0.1:" + STUB.getAddress().getPort());
+        registry.add("stock.market-data.sync.initial-range", () -> "2y");
+        registry.add("stock.quotes.refresh.enabled", () -> "false");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.stop(0);
+    }
+
+    @AfterEach
+    void removeStocks() {
+        onRequest = () -> { };
+        for (Stock stock : added) {
+            stockPriceBatchRepository.deleteByStockId(stock.getId());
+            priceSeriesStore.invalidate(stock.getId());
+            stockRepository.deleteById(stock.getId());
+        }
+    }
+
+    @Test
+    void firstSyncInsertsAndResyncCorrectsWatermarkDay() {
+        Stock stock = addStock("IBM");
+        long d0 = DAY.toEpochDay();
+        BARS.put("IBM", new double[][] { { d0, 100 }, { d0 + 1, 101 }, { d0 + 2, 102 } });
+
+        SyncResultDTO first = marketDataSyncService.syncFromYahoo(stock.getId());
+        assertEquals("interval=1d&range=2y", QUERIES.get("IBM").get(0));
+        assertNull(first.getRequestedFrom());
+        assertEquals(DAY.plusDays(2), first.getLastSyncedDate());
+        assertEquals(3, first.getInserted());
+        assertEquals(0, first.getUpserted());
+        assertEquals(DAY.plusDays(2), stockRepository.findById(stock.getId()).orElseThrow().getLastSyncedDate());
+        long watermarkId = idOf(stock, DAY.plusDays(2));
+
+        // 水位線當天收盤價修正，另有一個新交易日；來源多回傳的前一天不可覆寫本地數據
+        BARS.put("IBM", new double[][] { { d0 + 1, 999 }, { d0 + 2, 102.5 }, { d0 + 3, 103 } });
+        onRequest = () -> jdbcTemplate.update("UPDATE stock SET price = 150 WHERE id = ?", stock.getId());
+        SyncResultDTO second = marketDataSyncService.syncFromYahoo(stock.getId());
+
+        String query = QUERIES.get("IBM").get(1);
+        long period1 = DAY.plusDays(2).atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+        assertEquals("interval=1d&period1=" + period1, query.substring(0, query.indexOf("&period2=")));
+        assertEquals(DAY.plusDays(2), second.getRequestedFrom());
+        assertEquals(DAY.plusDays(3), second.getLastSyncedDate());
+        assertEquals(1, second.getInserted());
+        assertEquals(1, second.getUpserted());
+        // 寫入水位線不會以同步開始時讀取的舊價格覆蓋背景報價更新
+        Stock synced = stockRepository.findById(stock.getId()).orElseThrow();
+        assertEquals(DAY.plusDays(3), synced.getLastSyncedDate());
+        assertEquals(150.0, synced.getPrice());
+
+        // 資料庫與記憶體序列一致：每天一筆，水位線當天保留原識別碼並更新收盤價
+        assertEquals(4, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM stock_price WHERE stock_id = ?", Integer.class, stock.getId()));
+        assertEquals(watermarkId, idOf(stock, DAY.plusDays(2)));
+        DailyBars series = priceSeriesStore.get(stock.getId());
+        assertEquals(4, series.size());
+        assertEquals(101, series.closeAt(1));
+        assertEquals(102.5, series.closeAt(2));
+        assertEquals(103, series.closeAt(3));
+    }
+
+    @Test
+    void syncEndpointMapsMissingStockAndProviderFailure() throws Exception {
+        mockMvc.perform(post("/api/stock-prices/999999/sync"))
+                .andExpect(status().isNotFound());
+
+        // 本機服務對沒有設定K線的代碼回傳 HTTP 500
+        Stock stock = addStock("DELIST");
+        mockMvc.perform(post("/api/stock-prices/" + stock.getId() + "/sync"))
+                .andExpect(status().isBadGateway());
+        assertNull(stockRepository.findById(stock.getId()).orElseThrow().getLastSyncedDate());
+    }
+
+    private Stock addStock(String symbol) {
+        Stock stock = stockRepository.save(new Stock(symbol, symbol + " Sync Test", 100.0));
+        added.add(stock);
+        return stock;
+    }
+
+    private long idOf(Stock stock, LocalDate date) {
+        return jdbcTemplate.queryForObject("SELECT id FROM stock_price WHERE stock_id = ? AND date = ?",
+                Long.class, stock.getId(), date);
+    }
+
+    private static HttpServer startStub() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/v8/finance/chart/", exchange -> {
+                String symbol = exchange.getRequestURI().getPath().substring("/v8/finance/chart/".length());
+                QUERIES.computeIfAbsent(symbol, s -> new ArrayList<>()).add(exchange.getRequestURI().getRawQuery());
+                onRequest.run();
+                double[][] bars = BARS.get(symbol);
+                if (bars == null) {
+                    exchange.sendResponseHeaders(500, -1);
+                    exchange.close();
+                    return;
+                }
+                StringBuilder timestamps = new StringBuilder();
+                StringBuilder close = new StringBuilder();
+                StringBuilder volume = new StringBuilder();
+                for (double[] bar : bars) {
+                    String separator = timestamps.length() > 0 ? "," : "";
+                    // 美東 09:30 開盤 = 14:30 UTC
+                    timestamps.append(separator).append((long) bar[0] * 86400 + 52200);
+                    close.append(separator).append(bar[1]);
+                    volume.append(separator).append(1000);
+                }
+                String json = "{\"chart\":{\"result\":[{\"meta\":{\"symbol\":\"" + symbol + "\"},"
+                        + "\"timestamp\":[" + timestamps + "],"
+                        + "\"indicators\":{\"quote\":[{\"open\":[" + close + "],\"high\":[" + close + "],"
+                        + "\"low\":[" + close + "],\"close\":[" + close + "],\"volume\":[" + volume + "]}]}}],"
+                        + "\"error\":null}}";
+                byte[] body = json.getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.stockproject.service;
+
+import com.example.stockproject.archive.ArchivedPriceView;
+import com.example.stockproject.exporter.ExportFormat;
+import com.example.stockproject.model.dto.ArchiveResultDTO;
+import com.example.stockproject.model.dto.IndicatorDTO;
+import com.example.stockproject.model.dto.StockDTO;
+import com.example.stockproject.model.dto.StockPriceDTO;
+import com.example.stockproject.model.entity.Stock;
+import com.example.stockproject.model.indicator.IndicatorSpec;
+import com.example.stockproject.model.series.DailyBars;
+import com.example.stockproject.model.series.PriceSeries;
+import com.example.stockproject.model.series.Resolution;
+import com.example.stockproject.repository.PriceArchiveRepository;
+import com.example.stockproject.repository.StockPriceBatchRepository;
+import com.example.stockproject.repository.StockRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 歷史價格歸檔測試類別
+ * 
+ * 驗證歸檔後資料庫只保留期限內的K線，而完整序列、時間範圍查詢、
+ * 串流輸出與分頁仍然連續且完整，重複歸檔不會重複寫入；
+ * 資料庫與歸檔的日期重疊時各讀取端都以歸檔為準，技術指標在包含歸檔的完整歷史上計算；
+ * 歸檔從資料庫讀取要移動的K線，快取過期時也不會遺失資料，同一天有多筆記錄時保留最後寫入的一筆。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增歷史價格歸檔
+ */
+@SpringBootTest(properties = {
+        "stock.quotes.refresh.enabled=false",
+        "stock.archive.enabled=false",
+        "stock.archive.cutoff=1y"
+})
+class PriceArchiveServiceTests {
+
+    @TempDir
+    static Path archiveDir;
+
+    @DynamicPropertySource
+    static void archiveProperties(DynamicPropertyRegistry registry) {
+        registry.add("stock.archive.dir", () -> archiveDir.toString());
+    }
+
+    @Autowired
+    private PriceArchiveService priceArchiveService;
+
+    @Autowired
+    private StockPriceService stockPriceService;
+
+    @Autowired
+    private PriceSeriesStore priceSeriesStore;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private StockPriceBatchRepository stockPriceBatchRepository;
+
+    @Autowired
+    private PriceArchiveRepository priceArchiveRepository;
+
+    @Autowired
+    private PriceExportService priceExportService;
+
+    @Autowired
+    private IndicatorService indicatorService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void movesOldBarsToArchiveAndKeepsHistoryContinuous() throws Exception {
+        Long stockId = stockRepository.findBySymbol("MSFT").getId();
+        stockPriceService.generateMockDataBulk(List.of(stockId), 1000);
+        DailyBars before = priceSeriesStore.get(stockId);
+        PriceSeries weeklyBefore = priceSeriesStore.getAggregated(stockId, Resolution.WEEKLY);
+        long rowsBefore = countRows(stockId);
+
+        ArchiveResultDTO result = priceArchiveService.archive();
+        assertTrue(result.getArchived() > 0);
+        assertEquals(result.getArchived(), result.getDeleted());
+        assertEquals(rowsBefore - result.getArchived(), countRows(stockId));
+        assertTrue(stockPriceService.hasHistoricalData(stockId));
+
+        // 合併後的完整序列與歸檔前相同，舊K線直接讀取對映的檔案
+        DailyBars after = priceSeriesStore.get(stockId);
+        assertInstanceOf(ArchivedPriceView.class, after);
+        assertEquals(before.size(), after.size());
+        for (int i = 0; i < before.size(); i++) {
+            assertEquals(before.epochDayAt(i), after.epochDayAt(i));
+            assertEquals(before.closeAt(i), after.closeAt(i));
+            assertEquals(before.volumeAt(i), after.volumeAt(i));
+        }
+        PriceSeries weeklyAfter = priceSeriesStore.getAggregated(stockId, Resolution.WEEKLY);
+        assertEquals(weeklyBefore.size(), weeklyAfter.size());
+        assertEquals(weeklyBefore.volumeAt(0), weeklyAfter.volumeAt(0));
+        List<StockPriceDTO> threeYears = stockPriceService.getStockPricesByPeriod(stockId, "3Y");
+        assertEquals(before.size() - before.lowerBound(LocalDate.now().minusYears(3).toEpochDay()), threeYears.size());
+
+        // 串流輸出與分頁跨越歸檔邊界
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(before.size(), stockPriceService.streamStockPrices(stockId, null, out));
+        JsonNode streamed = objectMapper.readTree(out.toByteArray());
+        assertEquals(before.size(), streamed.size());
+        assertEquals("MSFT", streamed.get(0).get("symbol").asText());
+
+        List<StockPriceDTO> paged = new ArrayList<>();
+        LocalDate cursor = null;
+        Long cursorId = null;
+        List<StockPriceDTO> page;
+        do {
+            page = stockPriceService.getStockPricesPage(stockId, cursor, cursorId, 300);
+            paged.addAll(page);
+            if (!page.isEmpty()) {
+                cursor = page.get(page.size() - 1).getDate();
+                cursorId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == 300);
+        assertEquals(before.size(), paged.size());
+        for (int i = 1; i < paged.size(); i++) {
+            assertTrue(paged.get(i).getDate().isAfter(paged.get(i - 1).getDate()));
+        }
+
+        // 重複歸檔不會重複寫入
+        assertEquals(0, priceArchiveService.archive().getArchived());
+        assertEquals(before.size(), priceSeriesStore.get(stockId).size());
+    }
+
+    @Test
+    void overlappingDatabaseRowsDeferToArchive() throws Exception {
+        Long stockId = stockRepository.findBySymbol("META").getId();
+        stockPriceService.generateMockDataBulk(List.of(stockId), 800);
+        priceArchiveService.archive();
+        DailyBars before = priceSeriesStore.get(stockId);
+        PriceSeries recent = priceSeriesStore.getRecent(stockId);
+        assertTrue(recent.size() < before.size());
+
+        // 在已歸檔的日期重新寫入一筆不同收盤價的記錄
+        int day = before.epochDayAt(10);
+        double close = before.closeAt(10);
+        stockPriceBatchRepository.insertColumns(stockId, new long[1], new int[] { day },
+                new double[] { 9999 }, new double[] { 9999 }, new double[] { 9999 }, new double[] { 9999 },
+                new long[] { 1 }, 1);
+        priceSeriesStore.invalidate(stockId);
+
+        DailyBars merged = priceSeriesStore.get(stockId);
+        assertEquals(before.size(), merged.size());
+        assertEquals(close, merged.closeAt(10));
+        PriceSeries range = priceSeriesStore.getRange(stockId, LocalDate.ofEpochDay(day), LocalDate.ofEpochDay(day));
+        assertEquals(1, range.size());
+        assertEquals(close, range.closeAt(0));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(before.size(), stockPriceService.streamStockPrices(stockId, null, out));
+        JsonNode streamed = objectMapper.readTree(out.toByteArray());
+        assertEquals(close, streamed.get(10).get("closePrice").asDouble());
+
+        List<StockPriceDTO> paged = new ArrayList<>();
+        LocalDate cursor = null;
+        Long cursorId = null;
+        List<StockPriceDTO> page;
+        do {
+            page = stockPriceService.getStockPricesPage(stockId, cursor, cursorId, 200);
+            paged.addAll(page);
+            if (!page.isEmpty()) {
+                cursor = page.get(page.size() - 1).getDate();
+                cursorId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == 200);
+        assertEquals(before.size(), paged.size());
+        assertEquals(close, paged.get(10).getClosePrice());
+
+        List<StockDTO> stocks = priceExportService.resolveStocks(List.of("META"));
+        assertEquals(before.size(), priceExportService.export(stocks, null, null, ExportFormat.CSV, false,
+                new ByteArrayOutputStream()));
+
+        // 技術指標涵蓋歸檔的舊K線，而不是只有資料庫中的近期K線
+        IndicatorDTO sma = indicatorService.getIndicator(stockId, IndicatorSpec.parse("sma", "5"), null);
+        assertEquals(before.size() - 4, sma.getDates().size());
+        assertEquals(LocalDate.ofEpochDay(before.epochDayAt(4)), sma.getDates().get(0));
+
+        // 下一次歸檔只刪除重疊的記錄，不追加
+        assertEquals(0, priceArchiveService.archive().getArchived());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock_price WHERE stock_id = ? AND date = ?",
+                Long.class, stockId, LocalDate.ofEpochDay(day)));
+    }
+
+    @Test
+    void archivesRowsWrittenAfterTheCacheWasLoaded() {
+        Long stockId = stockRepository.findBySymbol("TSLA").getId();
+        stockPriceService.generateMockDataBulk(List.of(stockId), 800);
+        PriceSeries cached = priceSeriesStore.getRecent(stockId);
+
+        // 快取載入後才寫入的舊日期（週末，模擬資料中沒有這一天），且不使快取失效
+        int day = cached.epochDayAt(0);
+        while (LocalDate.ofEpochDay(day).getDayOfWeek().getValue() <= 5) {
+            day++;
+        }
+        stockPriceBatchRepository.insertColumns(stockId, new long[1], new int[] { day },
+                new double[] { 123 }, new double[] { 123 }, new double[] { 123 }, new double[] { 123 },
+                new long[] { 1 }, 1);
+
+        priceArchiveService.archive();
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock_price WHERE stock_id = ? AND date = ?",
+                Long.class, stockId, LocalDate.ofEpochDay(day)));
+        PriceSeries range = priceSeriesStore.getRange(stockId, LocalDate.ofEpochDay(day), LocalDate.ofEpochDay(day));
+        assertEquals(1, range.size());
+        assertEquals(123, range.closeAt(0));
+        assertEquals(cached.size() + 1, priceSeriesStore.get(stockId).size());
+    }
+
+    @Test
+    void keepsTheLastRowWhenADateIsDuplicated() {
+        Stock stock = stockRepository.save(new Stock("DUPE", "Duplicate Dates Inc.", 10.0));
+        try {
+            // (stock_id, date) 沒有唯一限制：同一天寫入兩次，後寫入的一筆為準
+            int day = (int) LocalDate.now().minusYears(3).toEpochDay();
+            double[] first = { 10, 11 };
+            double[] second = { 12, 13 };
+            stockPriceBatchRepository.insertColumns(stock.getId(), new long[2], new int[] { day, day + 1 },
+                    first, first, first, first, new long[] { 1, 1 }, 2);
+            stockPriceBatchRepository.insertColumns(stock.getId(), new long[2], new int[] { day + 1, day + 2 },
+                    second, second, second, second, new long[] { 1, 1 }, 2);
+
+            priceArchiveService.archive();
+            assertEquals(0, countRows(stock.getId()));
+            DailyBars archived = priceSeriesStore.get(stock.getId());
+            assertEquals(3, archived.size());
+            assertEquals(12, archived.closeAt(1));
+            assertEquals(13, archived.closeAt(2));
+        } finally {
+            stockPriceBatchRepository.deleteByStockId(stock.getId());
+            priceArchiveRepository.delete(stock.getId(), stock.getSymbol());
+            priceSeriesStore.invalidate(stock.getId());
+            stockRepository.deleteById(stock.getId());
+        }
+    }
+
+    private long countRows(Long stockId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock_price WHERE stock_id = ?", Long.class, stockId);
+    }
+}
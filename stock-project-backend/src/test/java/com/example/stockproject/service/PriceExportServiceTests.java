@@ -0,0 +1,139 @@
+package com.example.stockproject.service;
+
+import com.example.stockproject.exporter.ExportFormat;
+import com.example.stockproject.model.dto.ImportResultDTO;
+import com.example.stockproject.model.dto.StockDTO;
+import com.example.stockproject.model.series.PriceSeriesCodec;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 歷史價格批次匯出測試類別
+ * 
+ * 驗證 CSV 輸出格式與再匯入、股票與日期篩選、gzip 壓縮、二進位區塊、匯出等待歸檔完成，以及匯出 API。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增批次匯出
+ */
+@SpringBootTest(properties = "stock.quotes.refresh.enabled=false")
+@AutoConfigureMockMvc
+class PriceExportServiceTests {
+
+    private static final String HEADER = "symbol,date,open,high,low,close,volume\n";
+
+    private static final String CSV = HEADER
+            + "META,2021-03-01,257.5,260,255.25,259.125,1000\n"
+            + "META,2021-03-02,259.125,262.75,258,261.37,1100\n"
+            + "V,2021-03-01,210,212.5,209.123456789,211.0000001,500\n"
+            + "V,2021-03-02,211,213,210,212,600\n"
+            + "V,2021-03-03,212,215,211.5,214.25,700\n";
+
+    @Autowired
+    private PriceExportService priceExportService;
+
+    @Autowired
+    private PriceImportService priceImportService;
+
+    @Autowired
+    private PriceHistoryLock priceHistoryLock;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void exportsCsvBinaryAndGzip() throws Exception {
+        priceImportService.importCsv(new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8)));
+        List<StockDTO> stocks = priceExportService.resolveStocks(List.of("v", "META"));
+
+        // 依股票識別碼排序，輸出與匯入格式相同，再匯入只會 upsert
+        String csv = export(stocks, null, null, ExportFormat.CSV, false);
+        assertEquals(CSV, csv);
+        ImportResultDTO reimported = priceImportService.importCsv(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(0, reimported.getInserted());
+        assertEquals(5, reimported.getUpserted());
+        assertEquals(0, reimported.getRejected());
+
+        String filtered = gunzip(exportBytes(priceExportService.resolveStocks(List.of("V")),
+                LocalDate.of(2021, 3, 2), LocalDate.of(2021, 3, 2), ExportFormat.CSV, true));
+        assertEquals(HEADER + "V,2021-03-02,211,213,210,212,600\n", filtered);
+
+        ByteBuffer binary = ByteBuffer.wrap(exportBytes(stocks, null, null, ExportFormat.BINARY, false))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(PriceSeriesCodec.BINARY_MAGIC, binary.getInt(0));
+        assertEquals(2, binary.getInt(4));
+
+        assertThrows(IllegalArgumentException.class, () -> priceExportService.resolveStocks(List.of("XXXX")));
+
+        mockMvc.perform(get("/api/stock-prices/export").param("symbols", "V").param("to", "2021-03-01"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"prices.csv\""))
+                .andExpect(content().string(HEADER + "V,2021-03-01,210,212.5,209.123456789,211.0000001,500\n"));
+        mockMvc.perform(get("/api/stock-prices/export").param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+    }
+
+    @Test
+    void waitsForArchiveOrImportToFinish() throws Exception {
+        List<StockDTO> stocks = priceExportService.resolveStocks(List.of("V"));
+        CompletableFuture<String> exported;
+        // 歸檔或匯入持有寫入鎖時，匯出不會在兩者之間讀取歸檔檔案與資料庫
+        priceHistoryLock.lock();
+        try {
+            exported = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return export(stocks, null, null, ExportFormat.CSV, false);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            assertThrows(TimeoutException.class, () -> exported.get(200, TimeUnit.MILLISECONDS));
+        } finally {
+            priceHistoryLock.unlock();
+        }
+        assertTrue(exported.get(5, TimeUnit.SECONDS).startsWith(HEADER));
+    }
+
+    private String export(List<StockDTO> stocks, LocalDate from, LocalDate to, ExportFormat format, boolean gzip)
+            throws Exception {
+        return new String(exportBytes(stocks, from, to, format, gzip), StandardCharsets.UTF_8);
+    }
+
+    private byte[] exportBytes(List<StockDTO> stocks, LocalDate from, LocalDate to, ExportFormat format,
+            boolean gzip) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        priceExportService.export(stocks, from, to, format, gzip, out);
+        return out.toByteArray();
+    }
+
+    private static String gunzip(byte[] bytes) throws Exception {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.stockproject.service;
+
+import com.example.stockproject.model.dto.ImportResultDTO;
+import com.example.stockproject.model.series.DailyBars;
+import com.example.stockproject.model.series.PriceSeries;
+import com.example.stockproject.repository.PriceArchiveRepository;
+import com.example.stockproject.repository.StockPriceBatchRepository;
+import com.example.stockproject.repository.StockRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 歷史價格 CSV 匯入測試類別
+ * 
+ * 驗證 gzip 輸入、標題行、不合格行的拒絕與範例、數值解析的精確度、
+ * 重複匯入以 upsert 寫入不產生重複K線、同一檔案中重複的日期只寫入一筆且以最後一行為準、
+ * 已歸檔的日期被拒絕，以及匯入 API。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增 CSV 批次匯入
+ */
+@SpringBootTest(properties = {
+        "stock.quotes.refresh.enabled=false",
+        "stock.import.block-size=64B",
+        "stock.import.threads=3"
+})
+@AutoConfigureMockMvc
+class PriceImportServiceTests {
+
+    @TempDir
+    static Path archiveDir;
+
+    @DynamicPropertySource
+    static void archiveProperties(DynamicPropertyRegistry registry) {
+        registry.add("stock.archive.dir", () -> archiveDir.toString());
+    }
+
+    private static final String CSV = String.join("\n",
+            "symbol,date,open,high,low,close,volume",
+            "NFLX,2020-01-02,100.5,101.25,99.75,101.37,1200",
+            "NFLX,2020-01-03,101.37,102,100.1,0.1,1300.0\r",
+            "nflx,2020-01-06,102.123456789,103,101,102.5,1400",
+            "",
+            "JPM,2020-02-28,150,151,149,150.5,900",
+            "JPM,2020-02-29,150.5,152,150,151.75,950",
+            "JPM,2021-02-29,1,1,1,1,1",
+            "XXXX,2020-01-02,1,1,1,1,1",
+            "NFLX,2020-01-07,abc,1,1,1,1",
+            "NFLX,2020-01-08,10,9,11,10,1",
+            "NFLX,2020-01-09,10,11,9,10",
+            "NFLX,2020-01-10,10,11,9,10,-5",
+            "JPM,2020-03-02,1.5e2,152,149,151,1000");
+
+    @Autowired
+    private PriceImportService priceImportService;
+
+    @Autowired
+    private PriceSeriesStore priceSeriesStore;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private StockPriceBatchRepository stockPriceBatchRepository;
+
+    @Autowired
+    private PriceArchiveRepository priceArchiveRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void importsGzipCsvAndRejectsBadLines() throws Exception {
+        Long nflxId = stockRepository.findBySymbol("NFLX").getId();
+        Long jpmId = stockRepository.findBySymbol("JPM").getId();
+
+        ImportResultDTO result = priceImportService.importCsv(new ByteArrayInputStream(gzip(CSV)));
+        assertEquals(6, result.getRows());
+        assertEquals(6, result.getInserted());
+        assertEquals(6, result.getRejected());
+        assertEquals(6, result.getRejectSamples().size());
+        assertEquals(2, result.getStocks());
+        assertTrue(result.getRejectSamples().stream().anyMatch(sample -> sample.contains("XXXX")));
+
+        DailyBars nflx = priceSeriesStore.get(nflxId);
+        assertEquals(3, nflx.size());
+        assertEquals(LocalDate.of(2020, 1, 2).toEpochDay(), nflx.epochDayAt(0));
+        assertEquals(101.37, nflx.closeAt(0));
+        assertEquals(0.1, nflx.closeAt(1));
+        assertEquals(102.123456789, nflx.openAt(2));
+        assertEquals(1300, nflx.volumeAt(1));
+        DailyBars jpm = priceSeriesStore.get(jpmId);
+        assertEquals(3, jpm.size());
+        assertEquals(150.0, jpm.openAt(2));
+
+        // 再次匯入：日期都已存在，以 upsert 寫入，不產生重複K線
+        ImportResultDTO again = priceImportService.importCsv(
+                new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(0, again.getInserted());
+        assertEquals(6, again.getUpserted());
+        assertEquals(3, priceSeriesStore.get(nflxId).size());
+
+        mockMvc.perform(post("/api/stock-prices/import")
+                        .contentType("text/csv")
+                        .content("symbol,date,open,high,low,close,volume\nNFLX,2020-01-13,103,104,102,103.5,1500\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(1))
+                .andExpect(jsonPath("$.rejected").value(0));
+        assertEquals(4, priceSeriesStore.get(nflxId).size());
+    }
+
+    @Test
+    void duplicateDatesWithinOneImportAreWrittenOnce() throws Exception {
+        Long stockId = stockRepository.findBySymbol("V").getId();
+        // 64 位元組的區塊約兩行，重複的日期分散在同一區塊與平行寫入的不同區塊中
+        String csv = String.join("\n",
+                "V,2021-03-01,10,11,9,10.5,100",
+                "V,2021-03-02,10,11,9,10.5,100",
+                "V,2021-03-01,20,21,19,20.5,200",
+                "V,2021-03-03,10,11,9,10.5,100",
+                "V,2021-03-03,15,16,14,15.5,150",
+                "V,2021-03-01,30,31,29,30.5,300",
+                "V,2021-03-04,10,11,9,10.5,100",
+                "V,2021-03-02,40,41,39,40.5,400");
+        for (int round = 0; round < 10; round++) {
+            stockPriceBatchRepository.deleteByStockId(stockId);
+            priceSeriesStore.invalidate(stockId);
+
+            ImportResultDTO result = priceImportService.importCsv(
+                    new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+            assertEquals(4, result.getInserted());
+            assertEquals(4, jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM stock_price WHERE stock_id = ?", Integer.class, stockId));
+            DailyBars series = priceSeriesStore.get(stockId);
+            assertEquals(4, series.size());
+            assertEquals(30.5, series.closeAt(0));
+            assertEquals(40.5, series.closeAt(1));
+            assertEquals(15.5, series.closeAt(2));
+            assertEquals(400, series.volumeAt(1));
+        }
+        stockPriceBatchRepository.deleteByStockId(stockId);
+        priceSeriesStore.invalidate(stockId);
+    }
+
+    @Test
+    void archivedDatesAreRejected() throws Exception {
+        Long stockId = stockRepository.findBySymbol("AMZN").getId();
+        int archived = (int) LocalDate.of(2019, 6, 3).toEpochDay();
+        priceArchiveRepository.append(stockId, "AMZN", new PriceSeries(stockId, "AMZN", new long[1],
+                new int[] { archived }, new double[] { 1 }, new double[] { 1 }, new double[] { 1 },
+                new double[] { 1 }, new long[] { 1 }, 1));
+        try {
+            String csv = String.join("\n",
+                    "AMZN,2019-05-31,10,11,9,10.5,100",
+                    "AMZN,2019-06-03,10,11,9,10.5,100",
+                    "AMZN,2019-06-04,10,11,9,10.5,100");
+            ImportResultDTO result = priceImportService.importCsv(
+                    new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+            assertEquals(1, result.getRows());
+            assertEquals(1, result.getInserted());
+            assertEquals(2, result.getRejected());
+            assertTrue(result.getRejectSamples().stream().allMatch(sample -> sample.contains("日期已歸檔")));
+            assertEquals(1, jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM stock_price WHERE stock_id = ?", Integer.class, stockId));
+            assertEquals(2, priceSeriesStore.get(stockId).size());
+        } finally {
+            stockPriceBatchRepository.deleteByStockId(stockId);
+            priceArchiveRepository.delete(stockId, "AMZN");
+            priceSeriesStore.invalidate(stockId);
+        }
+    }
+
+    private static byte[] gzip(String text) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.stockproject.service;
+
+import com.example.stockproject.event.StockQuotesUpdatedEvent;
+import com.example.stockproject.model.dto.QuoteRefreshResultDTO;
+import com.example.stockproject.model.entity.Stock;
+import com.example.stockproject.repository.StockRepository;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 背景報價更新服務測試類別
+ * 
+ * 以本機報價服務取代 Yahoo Finance，驗證只寫入價格變動的股票、
+ * 事件只包含變動集合，以及開盤與休市的更新間隔。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增背景報價更新
+ */
+@SpringBootTest
+@RecordApplicationEvents
+class QuoteRefreshServiceTests {
+
+    private static final HttpServer STUB = startStub();
+
+    @Autowired
+    private QuoteRefreshService quoteRefreshService;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @DynamicPropertySource
+    static void stubProperties(DynamicPropertyRegistry registry) {
+        registry.add("stock.market-data.yahoo.base-url",
+                () -> "http://127.0.0.1:" + STUB.getAddress().getPort());
+        registry.add("stock.quotes.refresh.enabled", () -> "false");
+        registry.add("stock.quotes.refresh.batch-size", () -> "3");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.stop(0);
+    }
+
+    @Test
+    void writesOnlyChangedPricesAndPublishesChangedSet() {
+        Stock aapl = stockRepository.findBySymbol("AAPL");
+        Stock msft = stockRepository.findBySymbol("MSFT");
+        Stock googl = stockRepository.findBySymbol("GOOGL");
+
+        QuoteRefreshResultDTO result = quoteRefreshService.refreshQuotes();
+
+        // AAPL 價格未變、GOOGL 沒有報價，只有 MSFT 需要寫入
+        assertEquals(Map.of(msft.getId(), 320.5), result.getChanged());
+        assertEquals(320.5, stockRepository.findById(msft.getId()).orElseThrow().getPrice());
+        assertEquals(aapl.getPrice(), stockRepository.findById(aapl.getId()).orElseThrow().getPrice());
+        assertEquals(googl.getPrice(), stockRepository.findById(googl.getId()).orElseThrow().getPrice());
+
+        List<StockQuotesUpdatedEvent> published = events.stream(StockQuotesUpdatedEvent.class).toList();
+        assertEquals(1, published.size());
+        assertEquals(Map.of(msft.getId(), 320.5), published.get(0).getChangedPrices());
+
+        // 再次更新時價格都已一致，不寫入也不發布事件
+        events.clear();
+        assertTrue(quoteRefreshService.refreshQuotes().getChanged().isEmpty());
+        assertEquals(0, events.stream(StockQuotesUpdatedEvent.class).count());
+    }
+
+    @Test
+    void refreshesFasterDuringMarketHours() {
+        // 2024-03-05 (週二) 10:00 美東
+        Instant open = Instant.parse("2024-03-05T15:00:00Z");
+        assertTrue(quoteRefreshService.isMarketOpen(open));
+        assertEquals(open.plusSeconds(15), quoteRefreshService.nextRefreshAfter(open));
+
+        // 2024-03-08 (週五) 收盤後，最長休市間隔為 10 分鐘
+        Instant closed = Instant.parse("2024-03-08T22:00:00Z");
+        assertFalse(quoteRefreshService.isMarketOpen(closed));
+        assertEquals(closed.plusSeconds(600), quoteRefreshService.nextRefreshAfter(closed));
+
+        // 週一開盤前 5 分鐘，下一次更新在開盤時
+        Instant beforeOpen = Instant.parse("2024-03-11T13:25:00Z");
+        assertEquals(Instant.parse("2024-03-11T13:30:00Z"), quoteRefreshService.nextRefreshAfter(beforeOpen));
+    }
+
+    private static HttpServer startStub() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/v7/finance/quote", exchange -> {
+                String query = exchange.getRequestURI().getQuery();
+                StringBuilder result = new StringBuilder();
+                for (String symbol : query.substring("symbols=".length()).split(",")) {
+                    double price = switch (symbol) {
+                        case "AAPL" -> 150.25;
+                        case "MSFT" -> 320.5;
+                        default -> -1;
+                    };
+                    if (price > 0) {
+                        if (result.length() > 0) {
+                            result.append(',');
+                        }
+                        result.append("{\"symbol\":\"").append(symbol)
+                                .append("\",\"currency\":\"USD\",\"regularMarketPrice\":").append(price).append('}');
+                    }
+                }
+                byte[] body = ("{\"quoteResponse\":{\"result\":[" + result + "],\"error\":null}}")
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.stockproject.service;
+
+import com.example.stockproject.model.dto.SnapshotResultDTO;
+import com.example.stockproject.model.entity.Stock;
+import com.example.stockproject.repository.StockRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 快照服務測試類別
+ * 
+ * 驗證寫出的快照還原後股票、日線與觀察清單和寫出時相同，
+ * 快取反映還原後的資料，且之後新增的股票識別碼不會與還原的衝突。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增快照與啟動還原
+ */
+@SpringBootTest(properties = {
+        "stock.quotes.refresh.enabled=false",
+        "stock.archive.enabled=false",
+        "stock.snapshot.enabled=true",
+        "stock.snapshot.interval=1h"
+})
+@DirtiesContext
+class SnapshotServiceTests {
+
+    @TempDir
+    static Path snapshotDir;
+
+    @DynamicPropertySource
+    static void snapshotProperties(DynamicPropertyRegistry registry) {
+        registry.add("stock.snapshot.file", () -> snapshotDir.resolve("snapshot.sps").toString());
+    }
+
+    @Autowired
+    private SnapshotService snapshotService;
+
+    @Autowired
+    private StockPriceService stockPriceService;
+
+    @Autowired
+    private WatchlistService watchlistService;
+
+    @Autowired
+    private PriceSeriesStore priceSeriesStore;
+
+    @Autowired
+    private StockCatalog stockCatalog;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void restoresSavedState() {
+        Long aaplId = stockRepository.findBySymbol("AAPL").getId();
+        Long msftId = stockRepository.findBySymbol("MSFT").getId();
+        stockPriceService.generateMockDataBulk(List.of(aaplId, msftId), 400);
+        watchlistService.addToWatchlist("guest", msftId);
+        int aaplBars = priceSeriesStore.get(aaplId).size();
+        double aaplClose = priceSeriesStore.get(aaplId).closeAt(aaplBars - 1);
+        long prices = count("stock_price");
+
+        double aaplPrice = stockRepository.findById(aaplId).orElseThrow().getPrice();
+        SnapshotResultDTO saved = snapshotService.save();
+        assertEquals(count("stock"), saved.getStocks());
+        assertEquals(prices, saved.getPrices());
+        assertEquals(count("watchlist"), saved.getWatchlist());
+        assertTrue(saved.getBytes() > prices * 44);
+
+        // 快照之後的變更在還原後消失
+        jdbcTemplate.update("DELETE FROM stock_price WHERE stock_id = ?", aaplId);
+        jdbcTemplate.update("DELETE FROM watchlist");
+        jdbcTemplate.update("UPDATE stock SET price = 1 WHERE id = ?", aaplId);
+        priceSeriesStore.invalidateAll();
+        assertEquals(0, priceSeriesStore.get(aaplId).size());
+
+        SnapshotResultDTO restored = snapshotService.restore();
+        assertEquals(saved.getPrices(), restored.getPrices());
+        assertEquals(prices, count("stock_price"));
+        assertEquals(aaplBars, priceSeriesStore.get(aaplId).size());
+        assertEquals(aaplClose, priceSeriesStore.get(aaplId).closeAt(aaplBars - 1));
+        assertEquals(saved.getWatchlist(), count("watchlist"));
+        assertEquals(aaplPrice, stockCatalog.current().getById(aaplId).getPrice());
+
+        Stock added = stockRepository.save(new Stock("SNAP", "Snapshot Test", 10.0));
+        assertTrue(added.getId() > saved.getStocks());
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.stockproject.service;
+
+import com.example.stockproject.model.dto.BatchStockPricesDTO;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 股票歷史價格服務測試類別
+ * 
+ * 以本機服務取代 Yahoo Finance，驗證批次查詢會合併重複代碼（不受預設語系影響）、
+ * 單檔失敗與查無數據只記錄在 errors，以及批次 API 的回應與參數檢查。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增批次查詢外部歷史價格
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class StockPriceServiceTests {
+
+    private static final Map<String, AtomicInteger> HITS = new ConcurrentHashMap<>();
+
+    private static final HttpServer STUB = startStub();
+
+    @Autowired
+    private StockPriceService stockPriceService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void stubProperties(DynamicPropertyRegistry registry) {
+        registry.add("stock.market-data.yahoo.base-url",
+                () -> "http://127.0.0.1:" + STUB.getAddress().getPort());
+        registry.add("stock.quotes.refresh.enabled", () -> "false");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.stop(0);
+    }
+
+    @Test
+    void batchDeduplicatesSymbolsAndSplitsFailures() {
+        Locale defaultLocale = Locale.getDefault();
+        BatchStockPricesDTO result;
+        try {
+            // 土耳其語系下 "intc".toUpperCase() 為 "İNTC"
+            Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+            result = stockPriceService.getRealStockPricesFromYahooBatch(
+                    List.of("intc", " INTC ", "Intc", "msft", "googl", " "), "1mo").join();
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+
+        assertEquals(Set.of("INTC"), result.getPrices().keySet());
+        assertEquals(2, result.getPrices().get("INTC").size());
+        assertEquals(List.of("MSFT", "GOOGL"), List.copyOf(result.getErrors().keySet()));
+        assertEquals("HTTP 500 from 127.0.0.1", result.getErrors().get("MSFT"));
+        assertEquals("查無歷史價格數據", result.getErrors().get("GOOGL"));
+        assertEquals(1, HITS.get("INTC").get());
+    }
+
+    @Test
+    void batchEndpointReturnsPricesAndErrors() throws Exception {
+        MvcResult pending = mockMvc.perform(get("/api/stock-prices/yahoo/batch")
+                        .param("symbols", "csco,MSFT,csco").param("period", "6mo"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.period").value("6mo"))
+                .andExpect(jsonPath("$.prices.CSCO.length()").value(2))
+                .andExpect(jsonPath("$.prices.CSCO[1].closePrice").value(51.25))
+                .andExpect(jsonPath("$.errors.MSFT").value("HTTP 500 from 127.0.0.1"));
+
+        String tooMany = String.join(",", Collections.nCopies(51, "CSCO"));
+        MvcResult rejected = mockMvc.perform(get("/api/stock-prices/yahoo/batch").param("symbols", tooMany))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(rejected)).andExpect(status().isBadRequest());
+    }
+
+    private static HttpServer startStub() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/v8/finance/chart/", exchange -> {
+                String symbol = exchange.getRequestURI().getPath().substring("/v8/finance/chart/".length());
+                HITS.computeIfAbsent(symbol, s -> new AtomicInteger()).incrementAndGet();
+                String json = switch (symbol) {
+                    case "INTC", "CSCO" -> "{\"chart\":{\"result\":[{\"meta\":{\"symbol\":\"" + symbol + "\"},"
+                            + "\"timestamp\":[1704205800,1704292200],"
+                            + "\"indicators\":{\"quote\":[{\"open\":[50.5,50.75],\"high\":[51.0,51.5],"
+                            + "\"low\":[50.0,50.25],\"close\":[50.75,51.25],\"volume\":[1000,2000]}]}}],"
+                            + "\"error\":null}}";
+                    case "GOOGL" -> "{\"chart\":{\"result\":null,\"error\":{\"code\":\"Not Found\","
+                            + "\"description\":\"No data found, symbol may be delisted\"}}}";
+                    default -> null;
+                };
+                if (json == null) {
+                    exchange.sendResponseHeaders(500, -1);
+                    exchange.close();
+                    return;
+                }
+                byte[] body = json.getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.stockproject.service;
+
+import com.example.stockproject.model.dto.StockDTO;
+import com.example.stockproject.model.entity.Stock;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 股票搜尋索引測試類別
+ * 
+ * 驗證結果排序（代碼完全相符、代碼前綴、名稱單字前綴、子字串）、短關鍵字只比對前綴、
+ * 筆數上限（含空白關鍵字）與價格更新。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增記憶體搜尋索引
+ */
+class StockSearchIndexTests {
+
+    private final StockSearchIndex.Snapshot index = new StockSearchIndex.Snapshot(List.of(
+            stock(1, "AAPL", "Apple Inc."),
+            stock(2, "MSFT", "Microsoft Corporation"),
+            stock(3, "MS", "Morgan Stanley"),
+            stock(4, "MSCI", "MSCI Inc."),
+            stock(5, "PINE", "Pineapple Holdings"),
+            stock(6, "AMS", "American Software"),
+            stock(7, "CSCO", "Cisco Systems")));
+
+    @Test
+    void ranksExactThenPrefixThenNameThenSubstring() {
+        // Microsoft 的 "soft" 在單字中間，排在名稱單字前綴 (Software) 之後
+        assertEquals(List.of("AMS", "MSFT"), symbols(index.search("soft", 10)));
+
+        // 名稱單字前綴 (Apple) 優先於單字中間的子字串 (Pineapple)
+        assertEquals(List.of("AAPL", "PINE"), symbols(index.search("apple", 10)));
+        assertEquals(List.of("MS"), symbols(index.search("morgan stan", 10)));
+        assertEquals(List.of("CSCO"), symbols(index.search("sys", 10)));
+        assertTrue(index.search("zzz", 10).isEmpty());
+    }
+
+    @Test
+    void stopsAtLimitAndReflectsPriceUpdates() {
+        assertEquals(List.of("MS", "MSCI"), symbols(index.search("MS", 2)));
+        assertEquals(List.of("AAPL", "AMS", "CSCO"), symbols(index.search("", 3)));
+
+        index.updatePrice(2L, 321.5);
+        assertEquals(321.5, index.search("MSFT", 1).get(0).getPrice());
+    }
+
+    @Test
+    void shortQueriesMatchOnlyPrefixes() {
+        // 一到兩個字元只比對代碼與名稱單字前綴，AMS 與 Cisco Systems 中間的 "ms" 不列入
+        assertEquals(List.of("MS", "MSCI", "MSFT"), symbols(index.search("ms", 10)));
+        assertEquals(List.of("AAPL", "AMS"), symbols(index.search("a", 10)));
+    }
+
+    @Test
+    void answersLargeUniverseQuickly() {
+        List<Stock> stocks = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            stocks.add(stock(i, "S" + Integer.toString(i, 36).toUpperCase(), "Company " + i + " Holdings"));
+        }
+        StockSearchIndex.Snapshot large = new StockSearchIndex.Snapshot(stocks);
+        assertEquals("S10", large.search("s10", 5).get(0).getSymbol());
+        assertEquals(5, large.search("hold", 5).size());
+        assertEquals(List.of("S9IX"), symbols(large.search("company 12345", 5)));
+    }
+
+    private static List<String> symbols(List<StockDTO> stocks) {
+        return stocks.stream().map(StockDTO::getSymbol).toList();
+    }
+
+    private static Stock stock(long id, String symbol, String name) {
+        Stock stock = new Stock(symbol, name, 100.0);
+        stock.setId(id);
+        return stock;
+    }
+}
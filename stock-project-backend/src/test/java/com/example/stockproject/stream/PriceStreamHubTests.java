@@ -0,0 +1,223 @@
+package com.example.stockproject.stream;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 即時價格推播中心測試類別
+ * 
+ * 驗證最新值合併、慢速訂閱者不阻塞其他訂閱者、中斷的連線被移除與訂閱上限，
+ * 以及心跳經由傳送執行緒池送出、與價格批次共用每個訂閱者的傳送旗標。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增即時價格推播
+ */
+class PriceStreamHubTests {
+
+    @Test
+    void conflatesToLatestValuePerStock() {
+        PriceStreamHub hub = new PriceStreamHub(Runnable::run, 10);
+        RecordingSink sink = new RecordingSink();
+        hub.subscribe(List.of(1L, 2L), Map.of(1L, 100.0, 3L, 50.0), sink);
+
+        hub.publish(1, 101.0);
+        hub.publish(1, 102.0);
+        hub.publish(2, 200.0);
+        hub.publish(3, 300.0);
+        hub.flush();
+
+        assertEquals(List.of(Map.of(1L, 102.0, 2L, 200.0)), sink.batches);
+        assertEquals(2, hub.getConflated());
+
+        hub.flush();
+        assertEquals(1, sink.batches.size());
+    }
+
+    @Test
+    void slowSubscriberDoesNotBlockOthersAndDeadOnesAreRemoved() throws Exception {
+        ExecutorService sender = Executors.newFixedThreadPool(2);
+        try {
+            PriceStreamHub hub = new PriceStreamHub(sender, 10);
+            CountDownLatch release = new CountDownLatch(1);
+            RecordingSink slow = new RecordingSink() {
+                @Override
+                public void send(Map<Long, Double> prices) throws IOException {
+                    super.send(prices);
+                    await(release);
+                }
+            };
+            RecordingSink fast = new RecordingSink();
+            RecordingSink dead = new RecordingSink() {
+                @Override
+                public void send(Map<Long, Double> prices) throws IOException {
+                    throw new IOException("broken pipe");
+                }
+            };
+            hub.subscribe(Set.of(1L), Map.of(), slow);
+            hub.subscribe(Set.of(1L), Map.of(), fast);
+            hub.subscribe(Set.of(1L), Map.of(), dead);
+
+            for (int i = 1; i <= 100; i++) {
+                hub.publish(1, i);
+                hub.flush();
+                Thread.sleep(1);
+            }
+            awaitUntil(() -> fast.last() == 100.0);
+            assertEquals(2, hub.subscriberCount());
+            // 慢速訂閱者卡在第一批，期間的更新只在緩衝區中合併
+            assertEquals(1, slow.batches.size());
+
+            release.countDown();
+            awaitUntil(() -> {
+                hub.flush();
+                return slow.last() == 100.0;
+            });
+            assertTrue(slow.batches.size() <= 3);
+        } finally {
+            sender.shutdownNow();
+        }
+    }
+
+    @Test
+    void heartbeatsRunOnSenderAndShareTheSendingGuard() {
+        List<Runnable> queued = new ArrayList<>();
+        PriceStreamHub hub = new PriceStreamHub(queued::add, 10);
+        RecordingSink sink = new RecordingSink();
+        PriceSink dead = new PriceSink() {
+            @Override
+            public void send(Map<Long, Double> prices) {
+            }
+
+            @Override
+            public void heartbeat() throws IOException {
+                throw new IOException("broken pipe");
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        hub.subscribe(Set.of(1L), Map.of(), sink);
+        hub.subscribe(Set.of(1L), Map.of(), dead);
+
+        // 呼叫端只派送，不寫入連線
+        hub.heartbeat();
+        assertEquals(2, queued.size());
+        assertEquals(0, sink.heartbeats.get());
+
+        // 心跳尚未送出時，下一次心跳與價格批次都等待
+        hub.heartbeat();
+        hub.publish(1, 10.0);
+        hub.flush();
+        assertEquals(2, queued.size());
+
+        runAll(queued);
+        assertEquals(1, sink.heartbeats.get());
+        assertEquals(1, hub.subscriberCount());
+
+        hub.flush();
+        runAll(queued);
+        assertEquals(List.of(Map.of(1L, 10.0)), sink.batches);
+    }
+
+    @Test
+    void startFlushesOnItsOwnScheduler() throws Exception {
+        PriceStreamHub hub = new PriceStreamHub(Runnable::run, 10);
+        List<String> threads = new CopyOnWriteArrayList<>();
+        RecordingSink sink = new RecordingSink() {
+            @Override
+            public void send(Map<Long, Double> prices) throws IOException {
+                threads.add(Thread.currentThread().getName());
+                super.send(prices);
+            }
+
+            @Override
+            public void heartbeat() {
+                threads.add(Thread.currentThread().getName());
+                super.heartbeat();
+            }
+        };
+        hub.subscribe(Set.of(1L), Map.of(), sink);
+        hub.start(Duration.ofMillis(10), Duration.ofMillis(20));
+        try {
+            hub.publish(1, 42.0);
+            awaitUntil(() -> sink.last() == 42.0 && sink.heartbeats.get() > 0);
+            assertTrue(threads.stream().allMatch("price-stream-tick"::equals), threads.toString());
+            assertThrows(IllegalStateException.class, () -> hub.start(Duration.ofMillis(10), Duration.ofMillis(20)));
+        } finally {
+            hub.shutdown();
+        }
+    }
+
+    @Test
+    void rejectsSubscribersBeyondLimit() {
+        PriceStreamHub hub = new PriceStreamHub(Runnable::run, 1);
+        PriceStreamHub.Subscription first = hub.subscribe(Set.of(1L), Map.of(), new RecordingSink());
+        assertThrows(IllegalStateException.class, () -> hub.subscribe(Set.of(1L), Map.of(), new RecordingSink()));
+        hub.unsubscribe(first);
+        hub.subscribe(Set.of(1L), Map.of(), new RecordingSink());
+    }
+
+    private static void runAll(List<Runnable> queued) {
+        List<Runnable> tasks = new ArrayList<>(queued);
+        queued.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "等待逾時");
+            Thread.sleep(5);
+        }
+    }
+
+    private static class RecordingSink implements PriceSink {
+
+        final List<Map<Long, Double>> batches = new CopyOnWriteArrayList<>();
+        final AtomicInteger heartbeats = new AtomicInteger();
+
+        @Override
+        public void send(Map<Long, Double> prices) throws IOException {
+            batches.add(prices);
+        }
+
+        @Override
+        public void heartbeat() {
+            heartbeats.incrementAndGet();
+        }
+
+        @Override
+        public void close() {
+        }
+
+        double last() {
+            return batches.isEmpty() ? Double.NaN : batches.get(batches.size() - 1).get(1L);
+        }
+    }
+}
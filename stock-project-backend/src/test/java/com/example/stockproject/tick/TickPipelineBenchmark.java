@@ -0,0 +1,75 @@
+package com.example.stockproject.tick;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * 逐筆成交匯入吞吐量基準測試
+ * 
+ * 一條寫入執行緒把成交寫入 {@link TickRingBuffer}，一條讀取執行緒以
+ * {@link MinuteBarAggregator} 彙總成一分鐘K線；報告每秒成交數與聚合執行緒
+ * 每筆成交配置的位元組（穩定狀態應為 0）。不在 mvn test 中執行，需手動執行：
+ * 
+ * <pre>
+ * mvn -q test-compile
+ * java -cp target/classes:target/test-classes com.example.stockproject.tick.TickPipelineBenchmark [ticks] [stocks]
+ * </pre>
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增逐筆成交匯入
+ */
+public final class TickPipelineBenchmark {
+
+    private TickPipelineBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        long ticks = args.length > 0 ? Long.parseLong(args[0]) : 50_000_000L;
+        int stocks = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+        for (int round = 1; round <= 5; round++) {
+            run(round, ticks, stocks);
+        }
+    }
+
+    private static void run(int round, long ticks, int stocks) throws InterruptedException {
+        TickRingBuffer ring = new TickRingBuffer(1 << 16);
+        TickRingBuffer.Reader reader = ring.newReader();
+        long[] bars = new long[1];
+        MinuteBarAggregator aggregator = new MinuteBarAggregator(stocks, 1024, batch -> bars[0] += batch.size());
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long[] allocated = new long[1];
+
+        Thread consumer = new Thread(() -> {
+            // 先讓每檔股票都建立槽位，之後量測穩定狀態的配置
+            while (aggregator.getTicks() < stocks) {
+                if (reader.poll(aggregator, 1) == 0) {
+                    Thread.onSpinWait();
+                }
+            }
+            long start = threads.getCurrentThreadAllocatedBytes();
+            while (aggregator.getTicks() < ticks) {
+                if (reader.poll(aggregator, 4096) == 0) {
+                    Thread.onSpinWait();
+                }
+            }
+            aggregator.flush();
+            allocated[0] = threads.getCurrentThreadAllocatedBytes() - start;
+        }, "tick-benchmark-consumer");
+
+        long begin = System.nanoTime();
+        consumer.start();
+        // 模擬時間每 1,000 筆前進 1 秒，約每 60,000 筆完成一輪K線
+        long seed = 42;
+        for (long i = 0; i < ticks; i++) {
+            seed = seed * 6364136223846793005L + 1442695040888963407L;
+            long stockId = (i < stocks) ? i : (seed >>> 33) % stocks;
+            double price = 100.0 + (seed & 0xFFFF) / 1000.0;
+            ring.publish(stockId, i, price, (seed >>> 48) & 0xFF);
+        }
+        consumer.join();
+        long elapsed = System.nanoTime() - begin;
+
+        System.out.printf("round %d: %,d ticks in %,d ms = %,.0f ticks/s, %,d bars, %.3f bytes/tick allocated%n",
+                round, ticks, elapsed / 1_000_000, ticks * 1e9 / elapsed, bars[0],
+                (double) allocated[0] / ticks);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.stockproject.tick;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 逐筆成交環形緩衝區與一分鐘K線聚合測試類別
+ * 
+ * 驗證K線開高低收量、遲到成交、批次送出、緩衝區背壓與跨執行緒順序。
+ * 吞吐量測試見 {@link TickPipelineBenchmark}。
+ * 
+ * @author Stock Project Team
+ * @version 1.2 - 新增逐筆成交匯入
+ */
+class TickPipelineTests {
+
+    private static final long MINUTE = 60_000L;
+
+    @Test
+    void aggregatesTicksIntoMinuteBars() {
+        List<double[]> bars = new ArrayList<>();
+        MinuteBarAggregator aggregator = new MinuteBarAggregator(4, 2, batch -> {
+            for (int i = 0; i < batch.size(); i++) {
+                bars.add(new double[] { batch.stockId(i), batch.epochMinute(i), batch.open(i), batch.high(i),
+                        batch.low(i), batch.close(i), batch.volume(i) });
+            }
+        });
+        long t0 = 100 * MINUTE;
+
+        aggregator.onTick(1, t0 + 1_000, 10.0, 5);
+        aggregator.onTick(2, t0 + 2_000, 50.0, 1);
+        aggregator.onTick(1, t0 + 10_000, 12.0, 5);
+        aggregator.onTick(1, t0 + 20_000, 9.0, 5);
+        aggregator.onTick(1, t0 + 59_999, 11.0, 5);
+        aggregator.onTick(1, t0 + MINUTE, 11.5, 7);
+        // 遲到成交不影響已完成的K線
+        aggregator.onTick(1, t0 + 30_000, 100.0, 1);
+
+        assertTrue(bars.isEmpty(), "批次未滿前不送出");
+        assertEquals(1, aggregator.getLateTicks());
+
+        aggregator.closeBefore(t0 + 2 * MINUTE);
+
+        assertEquals(3, bars.size());
+        assertArrayEquals(new double[] { 1, 100, 10.0, 12.0, 9.0, 11.0, 20 }, bars.get(0));
+        assertArrayEquals(new double[] { 1, 101, 11.5, 11.5, 11.5, 11.5, 7 }, bars.get(1));
+        assertArrayEquals(new double[] { 2, 100, 50.0, 50.0, 50.0, 50.0, 1 }, bars.get(2));
+        assertEquals(3, aggregator.getCompletedBars());
+
+        aggregator.closeBefore(t0 + 10 * MINUTE);
+        assertEquals(3, bars.size(), "已結束的K線不重複送出");
+
+        // 進行中K線已被定期結束後，同一分鐘或更早的遲到成交不會重新開啟K線
+        aggregator.onTick(1, t0 + MINUTE + 5_000, 200.0, 1);
+        aggregator.onTick(2, t0 + 30_000, 200.0, 1);
+        aggregator.closeBefore(t0 + 10 * MINUTE);
+        assertEquals(3, bars.size(), "已寫入的K線不被遲到成交覆寫");
+        assertEquals(3, aggregator.getLateTicks());
+
+        aggregator.onTick(1, t0 + 2 * MINUTE, 13.0, 2);
+        aggregator.closeBefore(t0 + 10 * MINUTE);
+        assertArrayEquals(new double[] { 1, 102, 13.0, 13.0, 13.0, 13.0, 2 }, bars.get(3));
+    }
+
+    @Test
+    void growsBeyondExpectedStocks() {
+        long[] volume = new long[1];
+        MinuteBarAggregator aggregator = new MinuteBarAggregator(1, 64, batch -> {
+            for (int i = 0; i < batch.size(); i++) {
+                volume[0] += batch.volume(i);
+            }
+        });
+        for (long id = 1; id <= 1_000; id++) {
+            aggregator.onTick(id * 7919, 0, 1.0, id);
+        }
+        aggregator.closeBefore(MINUTE);
+
+        assertEquals(1_000, aggregator.getStockCount());
+        assertEquals(1_000L * 1_001 / 2, volume[0]);
+    }
+
+    @Test
+    void writerStopsWhenSlowestReaderIsOneLapBehind() {
+        TickRingBuffer ring = new TickRingBuffer(4);
+        TickRingBuffer.Reader fast = ring.newReader();
+        TickRingBuffer.Reader slow = ring.newReader();
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.tryPublish(i, i, i, i));
+        }
+        assertFalse(ring.tryPublish(4, 4, 4, 4));
+
+        assertEquals(4, fast.poll((id, ts, price, size) -> { }, 10));
+        assertFalse(ring.tryPublish(4, 4, 4, 4), "較慢的讀取者尚未讀取");
+
+        List<Long> seen = new ArrayList<>();
+        assertEquals(2, slow.poll((id, ts, price, size) -> seen.add(id), 2));
+        assertTrue(ring.tryPublish(4, 4, 4, 4));
+        assertTrue(ring.tryPublish(5, 5, 5, 5));
+        assertFalse(ring.tryPublish(6, 6, 6, 6));
+
+        assertEquals(4, slow.poll((id, ts, price, size) -> seen.add(id), 10));
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L), seen);
+        assertThrows(IllegalArgumentException.class, () -> new TickRingBuffer(3));
+    }
+
+    @Test
+    void readerOnAnotherThreadSeesEveryTickInOrder() throws Exception {
+        int count = 2_000_000;
+        TickRingBuffer ring = new TickRingBuffer(1024);
+        TickRingBuffer.Reader reader = ring.newReader();
+        long[] state = new long[3];
+        Thread consumer = new Thread(() -> {
+            TickHandler check = (id, ts, price, size) -> {
+                if (id != state[0] || ts != id * 3 || price != id * 0.5 || size != id + 1) {
+                    state[2]++;
+                }
+                state[0]++;
+            };
+            while (state[0] < count) {
+                if (reader.poll(check, 256) == 0) {
+                    Thread.onSpinWait();
+                }
+            }
+        });
+        consumer.start();
+        for (long i = 0; i < count; i++) {
+            ring.publish(i, i * 3, i * 0.5, i + 1);
+        }
+        consumer.join(30_000);
+
+        assertFalse(consumer.isAlive());
+        assertEquals(count, state[0]);
+        assertEquals(0, state[2], "讀到未寫完的欄位");
+    }
+}
@@ -1,14 +1,44 @@
 import React, { useState, useEffect } from 'react';
 import { useNavigate } from 'react-router-dom';
 import { toast } from 'react-toastify';
-import { WatchlistItem } from '../types';
-import { watchlistApi } from '../services/api';
+import { WatchlistItem, WatchlistTrend } from '../types';
+import { watchlistApi, priceStreamApi } from '../services/api';
+
+/**
+ * 走勢線（最近 N 筆收盤價）
+ */
+const Sparkline: React.FC<{ trend: WatchlistTrend }> = ({ trend }) => {
+  const points = trend.sparkline;
+  if (points.length < 2) {
+    return null;
+  }
+  const width = 100;
+  const height = 30;
+  const min = Math.min(...points);
+  const max = Math.max(...points);
+  const range = max - min || 1;
+  const path = points
+    .map((value, i) => `${(i / (points.length - 1)) * width},${height - ((value - min) / range) * height}`)
+    .join(' ');
+  const rising = points[points.length - 1] >= points[0];
+  return (
+    <svg width={width} height={height} viewBox={`0 0 ${width} ${height}`} className="overflow-visible">
+      <polyline
+        points={path}
+        fill="none"
+        stroke={rising ? '#16a34a' : '#dc2626'}
+        strokeWidth={1.5}
+      />
+    </svg>
+  );
+};
 
 /**
  * 觀察清單元件
  * 
  * 顯示用戶的觀察清單，支援移除股票和跳轉到詳情頁面功能。
  * 版本: 1.1 - 新增點擊跳轉到詳情頁面功能
+ * 版本: 1.2 - 同一個請求取得每檔股票的漲跌與走勢線，價格以 SSE 即時更新
  */
 const Watchlist: React.FC = () => {
   const navigate = useNavigate();
@@ -19,7 +49,7 @@ const Watchlist: React.FC = () => {
   const loadWatchlist = async () => {
     try {
       setLoading(true);
-      const data = await watchlistApi.getWatchlist();
+      const data = await watchlistApi.getWatchlist(true);
       setWatchlist(data);
     } catch (error) {
       console.error('載入觀察清單失敗:', error);
@@ -52,6 +82,20 @@ const Watchlist: React.FC = () => {
     loadWatchlist();
   }, []);
 
+  // 訂閱觀察清單股票的即時價格（清單內容改變時重新訂閱）
+  const watchedIds = watchlist.map(item => item.stockId).join(',');
+  useEffect(() => {
+    if (!watchedIds) {
+      return;
+    }
+    return priceStreamApi.subscribe((prices) => {
+      setWatchlist(prev => prev.map(item =>
+        prices[item.stockId] !== undefined
+          ? { ...item, stock: { ...item.stock, price: prices[item.stockId] } }
+          : item));
+    }, watchedIds.split(',').map(Number));
+  }, [watchedIds]);
+
   if (loading) {
     return (
       <div className="flex justify-center items-center py-8">
@@ -111,6 +155,18 @@ const Watchlist: React.FC = () => {
               </button>
             </div>
             
+            {item.trend && (
+              <div className="flex justify-between items-center mb-3">
+                <Sparkline trend={item.trend} />
+                {item.trend.change !== null && item.trend.changePercent !== null && (
+                  <span className={`text-sm font-medium ${item.trend.change >= 0 ? 'text-success-600' : 'text-danger-600'}`}>
+                    {item.trend.change >= 0 ? '+' : ''}{item.trend.change.toFixed(2)}
+                    {' '}({item.trend.changePercent >= 0 ? '+' : ''}{item.trend.changePercent.toFixed(2)}%)
+                  </span>
+                )}
+              </div>
+            )}
+
             <div className="flex justify-between items-center">
               <span className="text-2xl font-bold text-gray-900">
                 ${item.stock.price.toFixed(2)}
@@ -1,5 +1,5 @@
 import axios from 'axios';
-import { Stock, StockPrice, WatchlistItem, AddToWatchlistRequest, CheckWatchlistResponse, TimePeriod } from '../types';
+import { Stock, StockPrice, ColumnarStockPrices, BatchStockPrices, QueueStatus, WatchlistItem, AddToWatchlistRequest, CheckWatchlistResponse, WatchlistBulkResult, TimePeriod, IntradayPeriod, BarInterval, IntradayBars } from '../types';
 
 // 建立 Axios 實例
 const api = axios.create({
@@ -42,9 +42,9 @@ export const stockApi = {
     return response.data;
   },
 
-  // 搜尋股票
-  searchStocks: async (query: string): Promise<Stock[]> => {
-    const response = await api.get<Stock[]>(`/stocks/search?query=${encodeURIComponent(query)}`);
+  // 搜尋股票（依相關性排序，最多 limit 筆）
+  searchStocks: async (query: string, limit: number = 50): Promise<Stock[]> => {
+    const response = await api.get<Stock[]>(`/stocks/search?query=${encodeURIComponent(query)}&limit=${limit}`);
     return response.data;
   },
 
@@ -61,6 +61,39 @@ export const stockApi = {
   },
 };
 
+// 欄式歷史價格媒體類型
+const COLUMNAR_JSON = 'application/vnd.stock.columnar+json';
+
+const DAY_MS = 24 * 60 * 60 * 1000;
+
+// 將欄式歷史價格還原為 StockPrice 列表（欄式格式不含 id）
+export const decodeColumnarPrices = (data: ColumnarStockPrices): StockPrice[] => {
+  const prices: StockPrice[] = new Array(data.count);
+  let day = data.startDate ? Date.parse(data.startDate) / DAY_MS : 0;
+  let open = 0;
+  let high = 0;
+  let low = 0;
+  let close = 0;
+  for (let i = 0; i < data.count; i++) {
+    day += data.dates[i];
+    open += data.open[i];
+    high += data.high[i];
+    low += data.low[i];
+    close += data.close[i];
+    prices[i] = {
+      stockId: data.stockId,
+      symbol: data.symbol,
+      date: new Date(day * DAY_MS).toISOString().slice(0, 10),
+      openPrice: open / data.priceScale,
+      closePrice: close / data.priceScale,
+      highPrice: high / data.priceScale,
+      lowPrice: low / data.priceScale,
+      volume: data.volume[i],
+    };
+  }
+  return prices;
+};
+
 // 股票歷史價格相關 API
 export const stockPriceApi = {
   // 取得股票歷史價格數據
@@ -70,8 +103,19 @@ export const stockPriceApi = {
   },
 
   // 根據時間範圍取得股票歷史價格數據
+  // 使用欄式格式傳輸，重複欄位只出現一次
   getStockPricesByPeriod: async (stockId: number, period: TimePeriod): Promise<StockPrice[]> => {
-    const response = await api.get<StockPrice[]>(`/stock-prices/${stockId}/period/${period}`);
+    const response = await api.get<ColumnarStockPrices>(`/stock-prices/${stockId}/period/${period}`, {
+      headers: { Accept: COLUMNAR_JSON },
+    });
+    return decodeColumnarPrices(response.data);
+  },
+
+  // 取得分K線（未指定週期時 1D 為 1 分鐘、5D 為 5 分鐘）
+  getIntradayBars: async (stockId: number, period: IntradayPeriod, interval?: BarInterval): Promise<IntradayBars> => {
+    const response = await api.get<IntradayBars>(`/stock-prices/${stockId}/period/${period}`, {
+      params: interval ? { interval } : undefined,
+    });
     return response.data;
   },
 
@@ -105,18 +149,39 @@ export const stockPriceApi = {
     return response.data;
   },
 
-  // 從 Alpha Vantage 取得真實歷史價格數據（僅支援日線）
-  getRealStockPricesFromAlphaVantage: async (symbol: string, apiKey: string): Promise<StockPrice[]> => {
-    const response = await api.get<StockPrice[]>(`/stock-prices/alphavantage/${symbol}?apiKey=${apiKey}`);
+  // 同時從 Yahoo Finance 取得多檔股票的真實歷史價格數據（單一請求，後端平行取得）
+  getRealStockPricesFromYahooBatch: async (symbols: string[], period: string): Promise<BatchStockPrices> => {
+    const response = await api.get<BatchStockPrices>('/stock-prices/yahoo/batch', {
+      params: { symbols: symbols.join(','), period },
+    });
     return response.data;
   },
+
+  // 從 Alpha Vantage 取得真實歷史價格數據（僅支援日線）
+  // 後端依配額排隊，回傳 202 時依 Retry-After 等待後重試（請求仍在後端佇列中）
+  getRealStockPricesFromAlphaVantage: async (symbol: string, apiKey: string, maxAttempts = 5): Promise<StockPrice[]> => {
+    for (let attempt = 1; ; attempt++) {
+      const response = await api.get<StockPrice[] | QueueStatus>(`/stock-prices/alphavantage/${symbol}`, {
+        params: { apiKey },
+      });
+      if (response.status !== 202) {
+        return response.data as StockPrice[];
+      }
+      const status = response.data as QueueStatus;
+      if (attempt >= maxAttempts) {
+        throw new Error(`Alpha Vantage 請求排隊中（位置 ${status.position}，約 ${status.etaSeconds} 秒）`);
+      }
+      const retryAfter = Number(response.headers['retry-after'] ?? status.etaSeconds) || 1;
+      await new Promise((resolve) => setTimeout(resolve, retryAfter * 1000));
+    }
+  },
 };
 
 // 觀察清單相關 API
 export const watchlistApi = {
-  // 取得觀察清單
-  getWatchlist: async (): Promise<WatchlistItem[]> => {
-    const response = await api.get<WatchlistItem[]>('/watchlist');
+  // 取得觀察清單（trend 為 true 時附上最新收盤價、漲跌與走勢線）
+  getWatchlist: async (trend: boolean = false, sparkline: number = 30): Promise<WatchlistItem[]> => {
+    const response = await api.get<WatchlistItem[]>('/watchlist', { params: trend ? { trend, sparkline } : undefined });
     return response.data;
   },
 
@@ -132,6 +197,18 @@ export const watchlistApi = {
     await api.delete(`/watchlist/${stockId}`);
   },
 
+  // 批次新增股票到觀察清單
+  addAllToWatchlist: async (stockIds: number[]): Promise<WatchlistBulkResult> => {
+    const response = await api.post<WatchlistBulkResult>('/watchlist/bulk', { stockIds });
+    return response.data;
+  },
+
+  // 批次從觀察清單移除股票
+  removeAllFromWatchlist: async (stockIds: number[]): Promise<WatchlistBulkResult> => {
+    const response = await api.delete<WatchlistBulkResult>(`/watchlist/bulk?stockIds=${stockIds.join(',')}`);
+    return response.data;
+  },
+
   // 檢查股票是否在觀察清單中
   checkInWatchlist: async (stockId: number): Promise<boolean> => {
     const response = await api.get<CheckWatchlistResponse>(`/watchlist/check/${stockId}`);
@@ -139,4 +216,15 @@ export const watchlistApi = {
   },
 };
 
+// 即時價格推播 API (Server-Sent Events)
+export const priceStreamApi = {
+  // 訂閱價格更新（未指定股票時使用觀察清單），回傳取消訂閱函式
+  subscribe: (onPrices: (prices: Record<number, number>) => void, stockIds?: number[]): (() => void) => {
+    const query = stockIds && stockIds.length > 0 ? `?stockIds=${stockIds.join(',')}` : '';
+    const source = new EventSource(`${api.defaults.baseURL}/stream/prices${query}`);
+    source.addEventListener('prices', (event) => onPrices(JSON.parse((event as MessageEvent).data)));
+    return () => source.close();
+  },
+};
+
 export default api; 
\ No newline at end of file
@@ -8,7 +8,8 @@ export interface Stock {
 
 // 股票歷史價格資料類型
 export interface StockPrice {
-  id: number;
+  // 欄式格式不傳送資料庫主鍵，解碼後為 undefined
+  id?: number;
   stockId: number;
   symbol: string;
   date: string;
@@ -19,11 +20,52 @@ export interface StockPrice {
   volume: number;
 }
 
+// 欄式歷史價格資料類型 (Accept: application/vnd.stock.columnar+json)
+// dates 為相對前一筆的天數差，價格為 tick 差分（第一筆為絕對值）
+export interface ColumnarStockPrices {
+  stockId: number;
+  symbol: string;
+  count: number;
+  priceScale: number;
+  startDate: string | null;
+  dates: number[];
+  open: number[];
+  high: number[];
+  low: number[];
+  close: number[];
+  volume: number[];
+}
+
+// 多檔股票批次查詢結果
+export interface BatchStockPrices {
+  period: string;
+  prices: Record<string, StockPrice[]>;
+  errors: Record<string, string>;
+  elapsedMs: number;
+}
+
+// 外部 API 請求排隊狀態（配額不足時回傳）
+export interface QueueStatus {
+  symbol: string;
+  position: number;
+  etaSeconds: number;
+}
+
 // 觀察清單項目類型
 export interface WatchlistItem {
   id: number;
   stockId: number;
   stock: Stock;
+  trend?: WatchlistTrend;
+}
+
+// 觀察清單走勢摘要類型
+export interface WatchlistTrend {
+  date: string;
+  close: number;
+  change: number | null;
+  changePercent: number | null;
+  sparkline: number[];
 }
 
 // API 回應類型
@@ -47,9 +89,32 @@ export interface CheckWatchlistResponse {
   inWatchlist: boolean;
 }
 
+// 觀察清單批次新增 / 移除結果類型
+export interface WatchlistBulkResult {
+  applied: number[];
+  skipped: number[];
+}
+
 // 時間範圍類型
 export type TimePeriod = '3M' | '1Y' | '2Y' | '3Y' | '5Y';
 
+// 分K線時間範圍與週期
+export type IntradayPeriod = '1D' | '5D';
+export type BarInterval = '1m' | '5m' | '15m' | '30m' | '1h';
+
+// 分K線數據（平行陣列，timestamps 為 epoch 秒）
+export interface IntradayBars {
+  stockId: number;
+  symbol: string;
+  interval: BarInterval;
+  timestamps: number[];
+  open: number[];
+  high: number[];
+  low: number[];
+  close: number[];
+  volume: number[];
+}
+
 // 圖表數據類型
 export interface ChartData {
   labels: string[];